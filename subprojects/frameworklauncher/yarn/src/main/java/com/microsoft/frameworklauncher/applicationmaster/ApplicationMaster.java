@@ -33,6 +33,8 @@
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
 import com.microsoft.frameworklauncher.common.service.StopStatus;
+import com.microsoft.frameworklauncher.common.service.SystemTask;
+import com.microsoft.frameworklauncher.common.service.SystemTaskPriority;
 import com.microsoft.frameworklauncher.common.service.SystemTaskQueue;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
@@ -51,12 +53,15 @@
 import org.apache.hadoop.yarn.client.api.async.NMClientAsync;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 import org.apache.hadoop.yarn.util.Records;
+import org.apache.hadoop.yarn.webapp.WebApp;
+import org.apache.hadoop.yarn.webapp.WebApps;
 import org.apache.log4j.Level;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Maintains the life cycle for one Framework owned by this AM.
 // It is the engine to transition Status to satisfy Request eventually.
@@ -86,12 +91,16 @@ public class ApplicationMaster extends AbstractService {
   protected FrameworkInfoPublisher frameworkInfoPublisher;
   protected SelectionManager selectionManager;
   private RMResyncHandler rmResyncHandler;
+  private WebApp webApp;
 
   /**
    * REGION StateVariable
    */
   // ContainerId -> ContainerConnectionExceedCount
   private final Map<String, Integer> containerConnectionExceedCount = new HashMap<>();
+  // NodeId -> The latest NodeReport which is not yet updated into SelectionManager,
+  // so that the queued onNodesUpdated SystemTasks can be coalesced.
+  private final Map<NodeId, NodeReport> pendingNodeReports = new ConcurrentHashMap<>();
 
   /**
    * REGION AbstractService
@@ -126,11 +135,16 @@ protected Boolean handleException(Exception e) {
   @Override
   protected void initialize() throws Exception {
     super.initialize();
-    transitionTaskStateQueue = new SystemTaskQueue(this::handleException);
+    transitionTaskStateQueue = new SystemTaskQueue("TransitionTaskStateQueue", this::handleException);
 
     // Initialize AM NoDependenceConfig
     conf.initializeNoDependenceConfig();
 
+    // Start WebApp before Register AM, so that its address can be registered as the AM TrackingUrl
+    if (conf.getAmWebServerEnable()) {
+      startWebApp();
+    }
+
     // Start RMClient to Register AM ASAP in case AM expired by RM
     rmClient = AMRMClientAsync.createAMRMClientAsync(
         conf.getAmRmHeartbeatIntervalSec() * 1000,
@@ -154,6 +168,11 @@ protected void initialize() throws Exception {
     // Initialize Launcher Store
     zkStore = new ZookeeperStore(conf.getZkConnectString(), conf.getZkRootDir());
     conf.initializeDependOnZKStoreConfig(zkStore);
+    zkStore.setPayloadCodec(conf.getLauncherConfig().getZkPayloadCodec());
+    zkStore.setCompression(conf.getLauncherConfig().getZkCompressionCodec(),
+        conf.getLauncherConfig().getZkCompressionLevel(), conf.getLauncherConfig().getZkMinCompressionBytes());
+    zkStore.setBucketedLayout(conf.getLauncherConfig().getZkBucketedLayoutEnable());
+    zkStore.startGarbageCollector(conf.getLauncherConfig(), false);
     FrameworkExitSpec.initialize(conf.getUserContainerExitSpec());
     AMDiagnostics.limitSerializationMaxBytes(conf.getLauncherConfig().getAmDiagnosticsMaxBytes());
     hdfsStore = new HdfsStore(conf.getLauncherConfig().getHdfsRootDir());
@@ -210,6 +229,12 @@ public synchronized void stop(StopStatus stopStatus) {
       ae.addException(e);
     }
 
+    try {
+      HadoopUtils.closeYarnClientPool();
+    } catch (Exception e) {
+      ae.addException(e);
+    }
+
     try {
       if (statusManager != null) {
         statusManager.stop(stopStatus);
@@ -234,6 +259,14 @@ public synchronized void stop(StopStatus stopStatus) {
       ae.addException(e);
     }
 
+    try {
+      if (webApp != null) {
+        webApp.stop();
+      }
+    } catch (Exception e) {
+      ae.addException(e);
+    }
+
     // Stop rmClient at last, since there is no work left in current AM, and only then RM is
     // allowed to process the application, such as generate application's diagnostics.
     try {
@@ -263,10 +296,24 @@ public synchronized void stop(StopStatus stopStatus) {
   /**
    * REGION InternalUtils
    */
+  private void startWebApp() {
+    webApp = WebApps.$for("frameworklauncher", null, null, "ws")
+        .at(conf.getAmHostName() + ":0")
+        .start(new ApplicationMasterWebApp(this));
+
+    LOGGER.logInfo("WebApp Started at %s", getWebAppAddress());
+  }
+
+  private String getWebAppAddress() {
+    return conf.getAmHostName() + ":" + webApp.port();
+  }
+
   private RegisterApplicationMasterResponse registerToRM() throws Exception {
-    LOGGER.logInfo("Registering %s to RM", serviceName);
+    String trackingUrl = (webApp != null ? getWebAppAddress() : conf.getAmTrackingUrl());
+
+    LOGGER.logInfo("Registering %s to RM with TrackingUrl [%s]", serviceName, trackingUrl);
     RegisterApplicationMasterResponse rmResp =
-        rmClient.registerApplicationMaster(conf.getAmHostName(), conf.getAmRpcPort(), conf.getAmTrackingUrl());
+        rmClient.registerApplicationMaster(conf.getAmHostName(), conf.getAmRpcPort(), trackingUrl);
 
     // Dump out Response from RM
     LOGGER.logInfo("Running Framework [%s] in Queue [%s]", conf.getFrameworkName(), rmResp.getQueue());
@@ -566,6 +613,17 @@ private ContainerLaunchContext setupContainerLaunchContext(TaskStatus taskStatus
     return launchContext;
   }
 
+  private void updatePendingNodeReports() throws Exception {
+    List<NodeReport> nodeReports = new ArrayList<>();
+    for (NodeId nodeId : pendingNodeReports.keySet()) {
+      NodeReport nodeReport = pendingNodeReports.remove(nodeId);
+      if (nodeReport != null) {
+        nodeReports.add(nodeReport);
+      }
+    }
+    updateNodeReports(nodeReports);
+  }
+
   private void updateNodeReports(List<NodeReport> nodeReports) throws Exception {
     for (NodeReport nodeReport : nodeReports) {
       NodeState state = nodeReport.getNodeState();
@@ -623,21 +681,21 @@ private void recoverTransitionTaskStateQueue() {
         CommonExts.toString(TaskStateDefinition.QUEUE_CORRUPTED_AFTER_RESTART_STATES));
 
     // There may be a lot of corrupted SystemTasks, so we queue them as one SystemTask per State
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("recoverTaskWaiting", () -> {
       addContainerRequest();
-    });
+    }));
     LOGGER.logInfo("All the previous TASK_WAITING Tasks have been driven");
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("recoverContainerCompleted", () -> {
       attemptToRetry();
-    });
+    }));
     LOGGER.logInfo("All the previous CONTAINER_COMPLETED Tasks have been driven");
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("recoverTaskCompleted", () -> {
       // Also drive TASK_COMPLETED Tasks in case no attemptToStop has been triggered
       // by previous attemptToRetry.
       attemptToStop();
-    });
+    }));
     LOGGER.logInfo("All the previous TASK_COMPLETED Tasks have been driven");
   }
 
@@ -663,13 +721,13 @@ private void addContainerRequest(TaskStatus taskStatus) throws Exception {
           setupContainerRequestRetryIntervalSec);
 
       TaskStatus taskStatusSnapshot = YamlUtils.deepCopy(taskStatus, TaskStatus.class);
-      transitionTaskStateQueue.queueSystemTaskDelayed(() -> {
+      transitionTaskStateQueue.queueSystemTaskDelayed(new SystemTask("addContainerRequestRetry", () -> {
         if (statusManager.containsTask(taskStatusSnapshot)) {
           addContainerRequest(taskStatusSnapshot);
         } else {
           LOGGER.logWarning(logPrefix + "Task not found in Status. Ignore it.");
         }
-      }, setupContainerRequestRetryIntervalSec * 1000);
+      }), setupContainerRequestRetryIntervalSec * 1000);
       return;
     }
 
@@ -687,7 +745,7 @@ private void addContainerRequest(TaskStatus taskStatus) throws Exception {
     statusManager.transitionTaskState(taskLocator, TaskState.CONTAINER_REQUESTED,
         new TaskEvent().setContainerRequest(request));
 
-    transitionTaskStateQueue.queueSystemTaskDelayed(() -> {
+    transitionTaskStateQueue.queueSystemTaskDelayed(new SystemTask("cancelTimeoutContainerRequest", () -> {
       if (statusManager.containsTask(request.getPriority())) {
         LOGGER.logWarning(logPrefix +
                 "ContainerRequest cannot be satisfied within timeout %ss. " +
@@ -698,7 +756,7 @@ private void addContainerRequest(TaskStatus taskStatus) throws Exception {
         statusManager.transitionTaskState(taskLocator, TaskState.TASK_WAITING);
         addContainerRequest(taskStatus);
       }
-    }, containerRequestTimeoutSec * 1000);
+    }), containerRequestTimeoutSec * 1000);
   }
 
   private void addContainerRequest() throws Exception {
@@ -1140,6 +1198,10 @@ private void onContainerStartFailed(String containerId, Throwable e) throws Exce
   // For AM:
   //  1. For Status: Status is not queued.
   //  2. For Request: Since AM does not support change TaskRole on the fly, it does not need to double check the Request.
+  // For SystemTaskPriority:
+  //  The Container callbacks from RMClient and NMClient are queued as HIGH, so they will not be stuck behind the
+  //  bulk rescans. It is safe since they are external events, which can already arrive in any order against the
+  //  pending NORMAL SystemTasks, and the events which cause them have already been executed.
 
   // Callbacks from SubServices
   public void onExceptionOccurred(Exception e) {
@@ -1156,8 +1218,12 @@ public void onServiceVersionsUpdated(Map<String, Integer> serviceVersions) {
     LOGGER.logInfo("onServiceVersionsUpdated: ServiceVersions: %s", CommonExts.toString(serviceVersions));
 
     // TODO: Implement Service Rolling Upgrade
-    // Just invalidate old Service cache
-    HadoopUtils.invalidateLocalResourcesCache();
+    // Just invalidate old Service cache, the SourceLocations which are no longer used will be evicted by the cache.
+    for (String taskRoleName : serviceVersions.keySet()) {
+      for (String location : requestManager.getTaskService(taskRoleName).getSourceLocations()) {
+        HadoopUtils.invalidateLocalResourceCache(location);
+      }
+    }
   }
 
   // TaskRoleName -> TaskNumber
@@ -1165,12 +1231,12 @@ public void onServiceVersionsUpdated(Map<String, Integer> serviceVersions) {
   public void onTaskNumbersUpdated(Map<String, Integer> taskNumbers) {
     LOGGER.logInfo("onTaskNumbersUpdated: TaskNumbers: %s", CommonExts.toString(taskNumbers));
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("onTaskNumbersUpdated", () -> {
       statusManager.updateTaskNumbers(taskNumbers);
 
       // In case TaskNumbers Increased
       addContainerRequest();
-    });
+    }).setCoalescingKey("onTaskNumbersUpdated"));
   }
 
   public void onTaskToReleaseContainer(TaskStatus taskStatus) {
@@ -1196,7 +1262,7 @@ public void onOutstandingTaskDisappeared() {
       String logPrefix = "onOutstandingTaskDisappeared: GangAllocation Satisfied: ";
       LOGGER.logInfo(logPrefix + "Schedule to Launch allocated Tasks if any.");
 
-      transitionTaskStateQueue.queueSystemTask(() -> {
+      transitionTaskStateQueue.queueSystemTask(new SystemTask("launchAllocatedTasks", () -> {
         int outstandingTaskCount = statusManager.getOutstandingStateTaskCount();
         if (outstandingTaskCount == 0) {
           List<TaskStatus> taskStatuses = statusManager.getTaskStatus(
@@ -1207,7 +1273,7 @@ public void onOutstandingTaskDisappeared() {
             launchContainer(taskStatus);
           }
         }
-      });
+      }));
     }
   }
 
@@ -1224,7 +1290,7 @@ public void onOutstandingTaskAppeared(int outstandingTaskAppearedRound, int outs
               "Waiting for %s outstanding Tasks with timeout %ss.",
           outstandingTaskCount, gangAllocationTimeoutSec);
 
-      transitionTaskStateQueue.queueSystemTaskDelayed(() -> {
+      transitionTaskStateQueue.queueSystemTaskDelayed(new SystemTask("checkGangAllocationTimeout", () -> {
         if (outstandingTaskAppearedRound == statusManager.getOutstandingTaskAppearedRound()) {
           int currentOutstandingTaskCount = statusManager.getOutstandingStateTaskCount();
           if (currentOutstandingTaskCount > 0) {
@@ -1234,7 +1300,7 @@ public void onOutstandingTaskAppeared(int outstandingTaskAppearedRound, int outs
                     currentOutstandingTaskCount, gangAllocationTimeoutSec));
           }
         }
-      }, gangAllocationTimeoutSec * 1000);
+      }), gangAllocationTimeoutSec * 1000);
     }
   }
 
@@ -1255,21 +1321,21 @@ public void onMigrateTaskRequested(String containerId, MigrateTaskRequest migrat
         "onMigrateTask: ContainerId: %s MigrateTaskRequest:\n%s",
         containerId, WebCommon.toJson(migrateTaskRequest));
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("onMigrateTask", () -> {
       completeContainer(
           containerId,
           FrameworkExitCode.CONTAINER_MIGRATE_TASK_REQUESTED.toInt(),
           null,
           true);
-    });
+    }));
   }
 
 
   // Callbacks from RMResyncHandler
   public void queueResyncWithRM(int delaySec) {
-    transitionTaskStateQueue.queueSystemTaskDelayed(() -> {
+    transitionTaskStateQueue.queueSystemTaskDelayed(new SystemTask("resyncWithRM", () -> {
       rmResyncHandler.resyncWithRM();
-    }, delaySec * 1000);
+    }).setCoalescingKey("resyncWithRM"), delaySec * 1000);
   }
 
   public void onLiveContainersUpdated(Set<String> liveContainerIds) throws Exception {
@@ -1325,9 +1391,12 @@ public void onNodesUpdated(List<NodeReport> nodeReports) {
     }
     LOGGER.logDebug("onNodesUpdated: nodeReports: %s", nodeReports.size());
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
-      updateNodeReports(nodeReports);
-    });
+    for (NodeReport nodeReport : nodeReports) {
+      pendingNodeReports.put(nodeReport.getNodeId(), nodeReport);
+    }
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("onNodesUpdated", () -> {
+      updatePendingNodeReports();
+    }).setCoalescingKey("onNodesUpdated"));
   }
 
   public void onContainersAllocated(List<Container> containers) {
@@ -1339,9 +1408,9 @@ public void onContainersAllocated(List<Container> containers) {
         "onContainersAllocated: Allocated Containers: %s.",
         containers.size());
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("onContainersAllocated", () -> {
       allocateContainer(containers);
-    });
+    }).setPriority(SystemTaskPriority.HIGH));
   }
 
   public void onContainersCompleted(List<ContainerStatus> containerStatuses) {
@@ -1353,22 +1422,22 @@ public void onContainersCompleted(List<ContainerStatus> containerStatuses) {
         "onContainersCompleted: Completed Containers: %s.",
         containerStatuses.size());
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("onContainersCompleted", () -> {
       completeContainer(containerStatuses);
-    });
+    }).setPriority(SystemTaskPriority.HIGH));
   }
 
   // Callbacks from NMClient
   public void onContainerStarted(ContainerId containerId, Map<String, ByteBuffer> allServiceResponse) {
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("onContainerStarted", () -> {
       onContainerStartSucceeded(containerId.toString());
-    });
+    }).setPriority(SystemTaskPriority.HIGH));
   }
 
   public void onStartContainerError(ContainerId containerId, Throwable e) {
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask(new SystemTask("onStartContainerError", () -> {
       onContainerStartFailed(containerId.toString(), e);
-    });
+    }).setPriority(SystemTaskPriority.HIGH));
   }
 
   // Since we should only use nmClient to start container, below Callbacks will never occur
@@ -1401,4 +1470,25 @@ public Integer getServiceVersion(String taskRoleName) {
   public Boolean existsLocalVersionFrameworkRequest() {
     return requestManager.existsLocalVersionFrameworkRequest();
   }
+
+  public List<SystemTaskQueueMetrics> getSystemTaskQueueMetrics() {
+    return Collections.singletonList(transitionTaskStateQueue.getMetrics());
+  }
+
+  public List<LoadingCacheMetrics> getLoadingCacheMetrics() {
+    return Collections.singletonList(HadoopUtils.getLocalResourcesCacheMetrics());
+  }
+
+  public List<YarnClientPoolMetrics> getYarnClientPoolMetrics() {
+    return Collections.singletonList(HadoopUtils.getYarnClientPoolMetrics());
+  }
+
+  public List<ZookeeperGarbageCollectorMetrics> getZookeeperGarbageCollectorMetrics() {
+    ZookeeperGarbageCollectorMetrics metrics = zkStore.getGarbageCollectorMetrics();
+    return (metrics == null ? Collections.emptyList() : Collections.singletonList(metrics));
+  }
+
+  public List<ZookeeperCompressionMetrics> getZookeeperCompressionMetrics() {
+    return zkStore.getCompressionMetrics();
+  }
 }
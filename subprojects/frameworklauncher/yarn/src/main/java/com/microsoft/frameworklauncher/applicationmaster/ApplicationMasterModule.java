@@ -0,0 +1,85 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+package com.microsoft.frameworklauncher.applicationmaster;
+
+import com.google.inject.Inject;
+import com.microsoft.frameworklauncher.common.model.LoadingCacheMetrics;
+import com.microsoft.frameworklauncher.common.model.SystemTaskQueueMetrics;
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
+import com.microsoft.frameworklauncher.common.model.ZookeeperCompressionMetrics;
+import com.microsoft.frameworklauncher.common.model.ZookeeperGarbageCollectorMetrics;
+import com.microsoft.frameworklauncher.common.utils.DnsUtils;
+import com.microsoft.frameworklauncher.common.web.WebStructure;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+// Expose the internal metrics of AM, it is readonly.
+@Path(WebStructure.ROOT_PATH)
+public class ApplicationMasterModule {
+  private final ApplicationMaster am;
+
+  @Inject
+  public ApplicationMasterModule(ApplicationMaster am) {
+    this.am = am;
+  }
+
+  @GET
+  // Default to WebStructure.ROOT_PATH
+  @Produces({MediaType.APPLICATION_JSON})
+  public String getRootActiveMessage() {
+    return "Active at " + DnsUtils.getLocalHost() + ": " + DnsUtils.getLocalIp();
+  }
+
+  @GET
+  @Path(WebStructure.SYSTEM_TASK_QUEUE_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<SystemTaskQueueMetrics> getSystemTaskQueueMetrics() {
+    return am.getSystemTaskQueueMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.LOADING_CACHE_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<LoadingCacheMetrics> getLoadingCacheMetrics() {
+    return am.getLoadingCacheMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.YARN_CLIENT_POOL_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<YarnClientPoolMetrics> getYarnClientPoolMetrics() {
+    return am.getYarnClientPoolMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.ZOOKEEPER_GARBAGE_COLLECTOR_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<ZookeeperGarbageCollectorMetrics> getZookeeperGarbageCollectorMetrics() {
+    return am.getZookeeperGarbageCollectorMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.ZOOKEEPER_COMPRESSION_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<ZookeeperCompressionMetrics> getZookeeperCompressionMetrics() {
+    return am.getZookeeperCompressionMetrics();
+  }
+}
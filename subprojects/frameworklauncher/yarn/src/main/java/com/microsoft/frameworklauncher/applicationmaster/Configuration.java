@@ -37,6 +37,7 @@ public class Configuration {
   private String zkRootDir;
   private Integer amVersion;
   private Integer amRmHeartbeatIntervalSec;
+  private Boolean amWebServerEnable;
   private String amHostName;
   private Integer amRpcPort;
   private String amTrackingUrl;
@@ -68,6 +69,8 @@ public void initializeNoDependenceConfig() throws Exception {
     zkRootDir = CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_ROOT_DIR);
     amVersion = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_AM_VERSION));
     amRmHeartbeatIntervalSec = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_AM_RM_HEARTBEAT_INTERVAL_SEC));
+    // Default to false for the AM launched by previous LauncherService
+    amWebServerEnable = Boolean.parseBoolean(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_AM_WEB_SERVER_ENABLE, "false"));
     amHostName = DnsUtils.getLocalHost();
     amRpcPort = -1;
     // Set a NotEmpty amTrackingUrl will override default (Proxied)TrackingUrl and OriginalTrackingUrl
@@ -127,6 +130,10 @@ protected Integer getAmRmHeartbeatIntervalSec() {
     return amRmHeartbeatIntervalSec;
   }
 
+  protected Boolean getAmWebServerEnable() {
+    return amWebServerEnable;
+  }
+
   protected String getAmHostName() {
     return amHostName;
   }
@@ -62,6 +62,9 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
    * REGION StateVariable
    */
   private volatile Boolean existsLocalVersionFrameworkRequest;
+  // The FrameworkRequest pulled by cached read last time, and its flattened copy
+  private FrameworkRequest pulledFrameworkRequest = null;
+  private FrameworkRequest flattenedFrameworkRequest = null;
 
 
   /**
@@ -146,7 +149,7 @@ private void checkAmVersion() throws Exception {
   private void pullRequest() throws Exception {
     // Pull LauncherRequest
     LOGGER.logDebug("Pulling LauncherRequest");
-    LauncherRequest newLauncherRequest = zkStore.getLauncherRequest();
+    LauncherRequest newLauncherRequest = zkStore.getCachedLauncherRequest();
     LOGGER.logDebug("Pulled LauncherRequest");
 
     // newLauncherRequest is always not null
@@ -156,7 +159,7 @@ private void pullRequest() throws Exception {
     AggregatedFrameworkRequest newAggFrameworkRequest;
     try {
       LOGGER.logDebug("Pulling AggregatedFrameworkRequest");
-      newAggFrameworkRequest = zkStore.getAggregatedFrameworkRequest(conf.getFrameworkName());
+      newAggFrameworkRequest = zkStore.getAggregatedFrameworkRequest(conf.getFrameworkName(), true);
       LOGGER.logDebug("Pulled AggregatedFrameworkRequest");
     } catch (NoNodeException e) {
       existsLocalVersionFrameworkRequest = false;
@@ -164,16 +167,28 @@ private void pullRequest() throws Exception {
           "Failed to getAggregatedFrameworkRequest, FrameworkRequest is already deleted on ZK", e);
     }
 
-    // newFrameworkDescriptor is always not null
-    FrameworkDescriptor newFrameworkDescriptor = newAggFrameworkRequest.getFrameworkRequest().getFrameworkDescriptor();
-    updateFrameworkDescriptor(newFrameworkDescriptor);
+    // The pulled FrameworkRequest is shared with later pulls, so only flatten its copy if it is changed.
+    FrameworkRequest newPulledFrameworkRequest = newAggFrameworkRequest.getFrameworkRequest();
+    if (newPulledFrameworkRequest != pulledFrameworkRequest) {
+      FrameworkRequest newFlattenedFrameworkRequest =
+          YamlUtils.deepCopy(newPulledFrameworkRequest, FrameworkRequest.class);
+
+      // newFrameworkDescriptor is always not null
+      FrameworkDescriptor newFrameworkDescriptor = newFlattenedFrameworkRequest.getFrameworkDescriptor();
+      updateFrameworkDescriptor(newFrameworkDescriptor);
+      pulledFrameworkRequest = newPulledFrameworkRequest;
+      flattenedFrameworkRequest = newFlattenedFrameworkRequest;
+    }
+    newAggFrameworkRequest.setFrameworkRequest(flattenedFrameworkRequest);
     updateOverrideApplicationProgressRequest(newAggFrameworkRequest.getOverrideApplicationProgressRequest());
     updateMigrateTaskRequests(newAggFrameworkRequest.getMigrateTaskRequests());
     aggFrameworkRequest = newAggFrameworkRequest;
   }
 
   private void updateLauncherRequest(LauncherRequest newLauncherRequest) {
-    if (YamlUtils.deepEquals(launcherRequest, newLauncherRequest)) {
+    // The pulled LauncherRequest is the same object if it is not changed since last pull
+    if (launcherRequest == newLauncherRequest ||
+        YamlUtils.deepEquals(launcherRequest, newLauncherRequest)) {
       return;
     }
 
@@ -76,6 +76,12 @@ public class StatusManager extends AbstractService {  // THREAD SAFE
   private final Map<String, Boolean> taskRoleStatusesChanged = new HashMap<>();
   // TaskRoleName -> TaskStatusesChanged
   private final Map<String, Boolean> taskStatusesesChanged = new HashMap<>();
+  // Used to only push the TaskStatusesPages which contain the changed TaskStatus
+  // TaskRoleName -> Changed TaskIndexes
+  private final Map<String, Set<Integer>> taskStatusesesChangedTaskIndexes = new HashMap<>();
+  // TaskRoleName -> Latest Persisted TaskStatusesPageIndex
+  // Not recovered, so all TaskStatusesPages will be pushed for the first time in current application attempt.
+  private final Map<String, TaskStatusesPageIndex> persistedTaskStatusesPageIndexes = new HashMap<>();
 
   // Latest Persisted Status
   // TaskRoleName -> AggregatedTaskRoleStatus
@@ -196,6 +202,7 @@ protected void recover() throws Exception {
 
         taskRoleStatusesChanged.put(taskRoleName, false);
         taskStatusesesChanged.put(taskRoleName, false);
+        taskStatusesesChangedTaskIndexes.put(taskRoleName, new HashSet<>());
 
         List<TaskStatus> taskStatusArray = taskStatuses.getTaskStatusArray();
         for (int taskIndex = 0; taskIndex < taskStatusArray.size(); taskIndex++) {
@@ -302,8 +309,18 @@ private synchronized void pushStatus() throws Exception {
       if (taskStatusesesChanged.get(taskRoleName)) {
         LOGGER.logInfo("[%s]: Pushing TaskStatuses", taskRoleName);
 
-        zkStore.setTaskStatuses(conf.getFrameworkName(), taskRoleName, taskStatuses);
+        Integer pageSize = conf.getLauncherConfig().getAmTaskStatusesPageSize();
+        if (pageSize > 0) {
+          persistedTaskStatusesPageIndexes.put(taskRoleName, zkStore.setTaskStatuses(
+              conf.getFrameworkName(), taskRoleName, taskStatuses, pageSize,
+              persistedTaskStatusesPageIndexes.get(taskRoleName),
+              taskStatusesesChangedTaskIndexes.get(taskRoleName)));
+        } else {
+          zkStore.setTaskStatuses(conf.getFrameworkName(), taskRoleName, taskStatuses);
+          persistedTaskStatusesPageIndexes.remove(taskRoleName);
+        }
         taskStatusesesChanged.put(taskRoleName, false);
+        taskStatusesesChangedTaskIndexes.get(taskRoleName).clear();
         logTaskStateCounters(taskRoleName);
 
         LOGGER.logInfo("[%s]: Pushed TaskStatuses", taskRoleName);
@@ -371,7 +388,7 @@ private void associateTaskWithContainer(
         ResourceDescriptor.fromResource(container.getResource()).getPortRanges(),
         portDefinitions));
 
-    taskStatusesesChanged.put(locator.getTaskRoleName(), true);
+    markTaskStatusChanged(locator);
   }
 
   private void disassociateTaskWithContainer(TaskStatusLocator locator) {
@@ -392,7 +409,7 @@ private void disassociateTaskWithContainer(TaskStatusLocator locator) {
     taskStatus.setContainerGpus(null);
     taskStatus.setContainerPorts(null);
 
-    taskStatusesesChanged.put(locator.getTaskRoleName(), true);
+    markTaskStatusChanged(locator);
   }
 
   private void updateExtensionTaskStatusWithContainerLiveness(TaskStatusLocator locator, Boolean isLive) {
@@ -496,6 +513,7 @@ private void increaseTaskNumber(String taskRoleName, int newTaskNumber) {
 
       // Update ExtensionStatus
       addExtensionTaskStatus(new TaskStatusLocator(taskRoleName, taskIndex));
+      markTaskStatusChanged(new TaskStatusLocator(taskRoleName, taskIndex));
     }
 
     taskStatusesesChanged.put(taskRoleName, true);
@@ -525,10 +543,15 @@ private void setContainerConnectionLostCount(String containerId, int count) {
     TaskStatus taskStatus = getTaskStatusWithLiveAssociatedContainerId(containerId);
     if (taskStatus.getContainerConnectionLostCount() != count) {
       taskStatus.setContainerConnectionLostCount(count);
-      taskStatusesesChanged.put(taskStatus.getTaskRoleName(), true);
+      markTaskStatusChanged(new TaskStatusLocator(taskStatus.getTaskRoleName(), taskStatus.getTaskIndex()));
     }
   }
 
+  private void markTaskStatusChanged(TaskStatusLocator locator) {
+    taskStatusesesChanged.put(locator.getTaskRoleName(), true);
+    taskStatusesesChangedTaskIndexes.get(locator.getTaskRoleName()).add(locator.getTaskIndex());
+  }
+
   private void logTaskStateCounters(String taskRoleName) {
     Map<String, Integer> taskStateCounters = getTaskStateCounters(taskRoleName);
     for (Map.Entry<String, Integer> taskStateCounter : taskStateCounters.entrySet()) {
@@ -907,7 +930,7 @@ public synchronized void transitionTaskState(
     taskStatus.setTaskState(dstState);
 
     // Mark as changed
-    taskStatusesesChanged.put(locator.getTaskRoleName(), true);
+    markTaskStatusChanged(locator);
     LOGGER.logInfo("Transitioned Task %s from [%s] to [%s]", locator, srcState, dstState);
 
     // Start Transition Callbacks
@@ -952,6 +975,7 @@ public synchronized void updateTaskNumbers(Map<String, Integer> newTaskNumbers)
         taskStatuses.setFrameworkVersion(conf.getFrameworkVersion());
         taskStatuseses.put(newTaskRoleName, taskStatuses);
         taskStatusesesChanged.put(newTaskRoleName, true);
+        taskStatusesesChangedTaskIndexes.put(newTaskRoleName, new HashSet<>());
       }
 
       // Update TaskStatus
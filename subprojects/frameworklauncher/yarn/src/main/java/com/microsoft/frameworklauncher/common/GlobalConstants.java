@@ -44,6 +44,7 @@ public class GlobalConstants {
   public static final String ENV_VAR_HDFS_FRAMEWORK_INFO_FILE = "HDFS_FRAMEWORK_INFO_FILE";
   public static final String ENV_VAR_AM_VERSION = "AM_VERSION";
   public static final String ENV_VAR_AM_RM_HEARTBEAT_INTERVAL_SEC = "AM_RM_HEARTBEAT_INTERVAL_SEC";
+  public static final String ENV_VAR_AM_WEB_SERVER_ENABLE = "AM_WEB_SERVER_ENABLE";
   public static final String ENV_VAR_TASK_ROLE_NAME = "TASK_ROLE_NAME";
   public static final String ENV_VAR_TASK_INDEX = "TASK_INDEX";
   public static final String ENV_VAR_SERVICE_VERSION = "SERVICE_VERSION";
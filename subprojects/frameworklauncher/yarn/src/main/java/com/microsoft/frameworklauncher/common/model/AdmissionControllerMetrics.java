@@ -0,0 +1,165 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class AdmissionControllerMetrics implements Serializable {
+  private String controllerName;
+  // The configured global rate, and the current one which is adapted to the feedback of the operations
+  private Float maxRatePerSec;
+  private Float minRatePerSec;
+  private Float currentRatePerSec;
+  private Float userMaxRatePerSec;
+  private Float queueMaxRatePerSec;
+  // Current operations which are denied and still waiting to be admitted
+  private Integer waitingCount;
+  private Long admittedCount;
+  private Long deniedCount;
+  // The admitted operations which are not executed at last
+  private Long canceledCount;
+  // The feedback of the admitted operations
+  private Long succeededCount;
+  private Long failedCount;
+  // The succeeded operations which are slower than the target latency
+  private Long slowCount;
+  // From first denied to admitted
+  private LatencyHistogram waitTimeHistogram;
+  // The latency of the admitted operations
+  private LatencyHistogram operationTimeHistogram;
+
+  public String getControllerName() {
+    return controllerName;
+  }
+
+  public void setControllerName(String controllerName) {
+    this.controllerName = controllerName;
+  }
+
+  public Float getMaxRatePerSec() {
+    return maxRatePerSec;
+  }
+
+  public void setMaxRatePerSec(Float maxRatePerSec) {
+    this.maxRatePerSec = maxRatePerSec;
+  }
+
+  public Float getMinRatePerSec() {
+    return minRatePerSec;
+  }
+
+  public void setMinRatePerSec(Float minRatePerSec) {
+    this.minRatePerSec = minRatePerSec;
+  }
+
+  public Float getCurrentRatePerSec() {
+    return currentRatePerSec;
+  }
+
+  public void setCurrentRatePerSec(Float currentRatePerSec) {
+    this.currentRatePerSec = currentRatePerSec;
+  }
+
+  public Float getUserMaxRatePerSec() {
+    return userMaxRatePerSec;
+  }
+
+  public void setUserMaxRatePerSec(Float userMaxRatePerSec) {
+    this.userMaxRatePerSec = userMaxRatePerSec;
+  }
+
+  public Float getQueueMaxRatePerSec() {
+    return queueMaxRatePerSec;
+  }
+
+  public void setQueueMaxRatePerSec(Float queueMaxRatePerSec) {
+    this.queueMaxRatePerSec = queueMaxRatePerSec;
+  }
+
+  public Integer getWaitingCount() {
+    return waitingCount;
+  }
+
+  public void setWaitingCount(Integer waitingCount) {
+    this.waitingCount = waitingCount;
+  }
+
+  public Long getAdmittedCount() {
+    return admittedCount;
+  }
+
+  public void setAdmittedCount(Long admittedCount) {
+    this.admittedCount = admittedCount;
+  }
+
+  public Long getDeniedCount() {
+    return deniedCount;
+  }
+
+  public void setDeniedCount(Long deniedCount) {
+    this.deniedCount = deniedCount;
+  }
+
+  public Long getCanceledCount() {
+    return canceledCount;
+  }
+
+  public void setCanceledCount(Long canceledCount) {
+    this.canceledCount = canceledCount;
+  }
+
+  public Long getSucceededCount() {
+    return succeededCount;
+  }
+
+  public void setSucceededCount(Long succeededCount) {
+    this.succeededCount = succeededCount;
+  }
+
+  public Long getFailedCount() {
+    return failedCount;
+  }
+
+  public void setFailedCount(Long failedCount) {
+    this.failedCount = failedCount;
+  }
+
+  public Long getSlowCount() {
+    return slowCount;
+  }
+
+  public void setSlowCount(Long slowCount) {
+    this.slowCount = slowCount;
+  }
+
+  public LatencyHistogram getWaitTimeHistogram() {
+    return waitTimeHistogram;
+  }
+
+  public void setWaitTimeHistogram(LatencyHistogram waitTimeHistogram) {
+    this.waitTimeHistogram = waitTimeHistogram;
+  }
+
+  public LatencyHistogram getOperationTimeHistogram() {
+    return operationTimeHistogram;
+  }
+
+  public void setOperationTimeHistogram(LatencyHistogram operationTimeHistogram) {
+    this.operationTimeHistogram = operationTimeHistogram;
+  }
+}
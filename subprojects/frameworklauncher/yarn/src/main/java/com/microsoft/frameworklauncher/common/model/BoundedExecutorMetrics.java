@@ -0,0 +1,126 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class BoundedExecutorMetrics implements Serializable {
+  private String executorName;
+  private Integer parallelism;
+  private Integer maxPendingCount;
+  // Current running and queued Tasks
+  private Integer runningCount;
+  private Integer queuedCount;
+  private Long submittedCount;
+  private Long completedCount;
+  private Long failedCount;
+  // The Tasks which are not submitted, since it is saturated at that time
+  private Long deferredCount;
+  // From submitted to started
+  private LatencyHistogram waitTimeHistogram;
+  // From started to completed
+  private LatencyHistogram executionTimeHistogram;
+
+  public String getExecutorName() {
+    return executorName;
+  }
+
+  public void setExecutorName(String executorName) {
+    this.executorName = executorName;
+  }
+
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(Integer parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public Integer getMaxPendingCount() {
+    return maxPendingCount;
+  }
+
+  public void setMaxPendingCount(Integer maxPendingCount) {
+    this.maxPendingCount = maxPendingCount;
+  }
+
+  public Integer getRunningCount() {
+    return runningCount;
+  }
+
+  public void setRunningCount(Integer runningCount) {
+    this.runningCount = runningCount;
+  }
+
+  public Integer getQueuedCount() {
+    return queuedCount;
+  }
+
+  public void setQueuedCount(Integer queuedCount) {
+    this.queuedCount = queuedCount;
+  }
+
+  public Long getSubmittedCount() {
+    return submittedCount;
+  }
+
+  public void setSubmittedCount(Long submittedCount) {
+    this.submittedCount = submittedCount;
+  }
+
+  public Long getCompletedCount() {
+    return completedCount;
+  }
+
+  public void setCompletedCount(Long completedCount) {
+    this.completedCount = completedCount;
+  }
+
+  public Long getFailedCount() {
+    return failedCount;
+  }
+
+  public void setFailedCount(Long failedCount) {
+    this.failedCount = failedCount;
+  }
+
+  public Long getDeferredCount() {
+    return deferredCount;
+  }
+
+  public void setDeferredCount(Long deferredCount) {
+    this.deferredCount = deferredCount;
+  }
+
+  public LatencyHistogram getWaitTimeHistogram() {
+    return waitTimeHistogram;
+  }
+
+  public void setWaitTimeHistogram(LatencyHistogram waitTimeHistogram) {
+    this.waitTimeHistogram = waitTimeHistogram;
+  }
+
+  public LatencyHistogram getExecutionTimeHistogram() {
+    return executionTimeHistogram;
+  }
+
+  public void setExecutionTimeHistogram(LatencyHistogram executionTimeHistogram) {
+    this.executionTimeHistogram = executionTimeHistogram;
+  }
+}
@@ -0,0 +1,54 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+// The codec to compress the large objects stored in ZK.
+// All codecs can always be decompressed no matter which codec is configured to compress,
+// so the codec can be switched without migrating the existing ZK data.
+public enum CompressionCodecType implements Serializable {
+  // The legacy codec, its payload can be read by old Launcher versions.
+  GZIP((byte) 0),
+
+  // The raw zlib DEFLATE, which is a little cheaper than GZIP.
+  DEFLATE((byte) 1),
+
+  // The zlib DEFLATE with a preset dictionary of the frequent Launcher Status fragments, which
+  // achieves better ratio than DEFLATE, especially for small payloads, at almost the same cost.
+  DEFLATE_DICTIONARY((byte) 2);
+
+  private final byte id;
+
+  CompressionCodecType(byte id) {
+    this.id = id;
+  }
+
+  public byte getId() {
+    return id;
+  }
+
+  public static CompressionCodecType fromId(byte id) {
+    for (CompressionCodecType codec : CompressionCodecType.values()) {
+      if (codec.getId() == id) {
+        return codec;
+      }
+    }
+    return null;
+  }
+}
@@ -30,6 +30,9 @@ public class FrameworkStatus implements Serializable {
   private RetryPolicyState frameworkRetryPolicyState;
   private Long frameworkCreatedTimestamp;
   private Long frameworkCompletedTimestamp;
+  // It is increased whenever the FrameworkStatus is changed by the Service, and it never repeats
+  // within the Service process, even across different Frameworks.
+  private Long frameworkStatusGeneration;
 
   // Framework's current associated Application status
   // Note other status can be retrieved from RM
@@ -37,6 +40,8 @@ public class FrameworkStatus implements Serializable {
   private Float applicationProgress;
   private String applicationTrackingUrl;
   private Long applicationLaunchedTimestamp;
+  // The version of the shared AM package which is used to launch the Application
+  private String applicationAMPackageVersion;
   private Long applicationCompletedTimestamp;
   private Integer applicationExitCode;
   // Static App ExitInfo
@@ -59,6 +64,32 @@ public static FrameworkStatus newInstance(FrameworkRequest frameworkRequest) {
     return frameworkStatus;
   }
 
+  // Shallow copy, since all fields are immutable or replaced instead of modified in place by the Service
+  public static FrameworkStatus newSnapshot(FrameworkStatus frameworkStatus) {
+    FrameworkStatus snapshot = new FrameworkStatus();
+    snapshot.setFrameworkName(frameworkStatus.getFrameworkName());
+    snapshot.setFrameworkVersion(frameworkStatus.getFrameworkVersion());
+    snapshot.setFrameworkState(frameworkStatus.getFrameworkState());
+    snapshot.setFrameworkRetryPolicyState(frameworkStatus.getFrameworkRetryPolicyState());
+    snapshot.setFrameworkCreatedTimestamp(frameworkStatus.getFrameworkCreatedTimestamp());
+    snapshot.setFrameworkCompletedTimestamp(frameworkStatus.getFrameworkCompletedTimestamp());
+    snapshot.setFrameworkStatusGeneration(frameworkStatus.getFrameworkStatusGeneration());
+    snapshot.setApplicationId(frameworkStatus.getApplicationId());
+    snapshot.setApplicationProgress(frameworkStatus.getApplicationProgress());
+    snapshot.setApplicationTrackingUrl(frameworkStatus.getApplicationTrackingUrl());
+    snapshot.setApplicationLaunchedTimestamp(frameworkStatus.getApplicationLaunchedTimestamp());
+    snapshot.setApplicationAMPackageVersion(frameworkStatus.getApplicationAMPackageVersion());
+    snapshot.setApplicationCompletedTimestamp(frameworkStatus.getApplicationCompletedTimestamp());
+    snapshot.setApplicationExitCode(frameworkStatus.getApplicationExitCode());
+    snapshot.setApplicationExitDescription(frameworkStatus.getApplicationExitDescription());
+    snapshot.setApplicationExitDiagnostics(frameworkStatus.getApplicationExitDiagnostics());
+    snapshot.setApplicationExitType(frameworkStatus.getApplicationExitType());
+    snapshot.setApplicationExitTriggerMessage(frameworkStatus.getApplicationExitTriggerMessage());
+    snapshot.setApplicationExitTriggerTaskRoleName(frameworkStatus.getApplicationExitTriggerTaskRoleName());
+    snapshot.setApplicationExitTriggerTaskIndex(frameworkStatus.getApplicationExitTriggerTaskIndex());
+    return snapshot;
+  }
+
   public String getFrameworkName() {
     return frameworkName;
   }
@@ -107,6 +138,14 @@ public void setFrameworkCompletedTimestamp(Long frameworkCompletedTimestamp) {
     this.frameworkCompletedTimestamp = frameworkCompletedTimestamp;
   }
 
+  public Long getFrameworkStatusGeneration() {
+    return frameworkStatusGeneration;
+  }
+
+  public void setFrameworkStatusGeneration(Long frameworkStatusGeneration) {
+    this.frameworkStatusGeneration = frameworkStatusGeneration;
+  }
+
   public String getApplicationId() {
     return applicationId;
   }
@@ -139,6 +178,14 @@ public void setApplicationLaunchedTimestamp(Long applicationLaunchedTimestamp) {
     this.applicationLaunchedTimestamp = applicationLaunchedTimestamp;
   }
 
+  public String getApplicationAMPackageVersion() {
+    return applicationAMPackageVersion;
+  }
+
+  public void setApplicationAMPackageVersion(String applicationAMPackageVersion) {
+    this.applicationAMPackageVersion = applicationAMPackageVersion;
+  }
+
   public Long getApplicationCompletedTimestamp() {
     return applicationCompletedTimestamp;
   }
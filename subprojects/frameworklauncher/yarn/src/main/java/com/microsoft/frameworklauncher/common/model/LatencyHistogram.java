@@ -0,0 +1,72 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// A latency histogram in milliseconds.
+// The i-th bucket counts the latencies in (bucketUpperBoundsMs[i - 1], bucketUpperBoundsMs[i]].
+public class LatencyHistogram implements Serializable {
+  private List<Long> bucketUpperBoundsMs = new ArrayList<>();
+  private List<Long> bucketCounts = new ArrayList<>();
+  private Long count = 0L;
+  private Long totalMs = 0L;
+  private Long maxMs = 0L;
+
+  public List<Long> getBucketUpperBoundsMs() {
+    return bucketUpperBoundsMs;
+  }
+
+  public void setBucketUpperBoundsMs(List<Long> bucketUpperBoundsMs) {
+    this.bucketUpperBoundsMs = bucketUpperBoundsMs;
+  }
+
+  public List<Long> getBucketCounts() {
+    return bucketCounts;
+  }
+
+  public void setBucketCounts(List<Long> bucketCounts) {
+    this.bucketCounts = bucketCounts;
+  }
+
+  public Long getCount() {
+    return count;
+  }
+
+  public void setCount(Long count) {
+    this.count = count;
+  }
+
+  public Long getTotalMs() {
+    return totalMs;
+  }
+
+  public void setTotalMs(Long totalMs) {
+    this.totalMs = totalMs;
+  }
+
+  public Long getMaxMs() {
+    return maxMs;
+  }
+
+  public void setMaxMs(Long maxMs) {
+    this.maxMs = maxMs;
+  }
+}
@@ -17,6 +17,8 @@
 
 package com.microsoft.frameworklauncher.common.model;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.Pattern;
 import java.io.Serializable;
 import java.util.HashSet;
@@ -26,12 +28,61 @@ public class LauncherConfiguration implements Serializable {
   // Common Setup
   private String zkConnectString = "127.0.0.1:2181";
   private String zkRootDir = "/Launcher";
+  // The codec to serialize the objects written to ZK by Launcher, see PayloadCodecType.
+  private PayloadCodecType zkPayloadCodec = PayloadCodecType.YAML;
+  // The codec and level to compress the objects written to ZK by Launcher, see CompressionCodecType.
+  // The level is the zlib compression level in [0, 9], or -1 for the default level.
+  // Only the serialized objects not smaller than zkMinCompressionBytes are compressed.
+  // Note the ratio decides how many ZK nodes a large object needs, and the level trades the ratio
+  // with the CPU time, check the ZookeeperCompressionMetrics to tune them.
+  private CompressionCodecType zkCompressionCodec = CompressionCodecType.GZIP;
+  @Min(-1)
+  @Max(9)
+  private Integer zkCompressionLevel = -1;
+  private Integer zkMinCompressionBytes = 10240;
+  // The max count of in-flight ZK reads when read all Frameworks, such as during Service and
+  // WebServer recovery, so that the recovery time is not bounded by Framework count * ZK RTT.
+  // If it is not greater than 1, all Frameworks are read one by one.
+  private Integer zkReadParallelism = 16;
+  // Place the Frameworks in ZK by the bucketed layout, so that listing all Frameworks does not need
+  // a single huge getChildren, see ZookeeperStoreStructure.
+  // The existing Frameworks in the legacy flat layout are still readable and writable, and they can be
+  // migrated online by ZookeeperLayoutMigrator.
+  // Note it MUST NOT be disabled once enabled.
+  private Boolean zkBucketedLayoutEnable = false;
+  // The stale LargeObject versions in ZK are GC in background every zkGCIntervalSec, instead of in the
+  // write path, and all LargeObjects in ZK are scanned every zkGCFullScanIntervalSec by Service, so that
+  // the garbage left by crashed writers can also be GC.
+  // The incomplete versions are only GC after zkGCIncompleteVersionGraceSec, since they may be being written.
+  // The ZK delete rate of GC is limited by zkGCMaxDeletesPerSec.
+  // If zkGCIntervalSec is not positive, the stale versions are GC in the write path.
+  private Integer zkGCIntervalSec = 30;
+  private Integer zkGCFullScanIntervalSec = 3600;
+  private Integer zkGCIncompleteVersionGraceSec = 600;
+  private Integer zkGCMaxDeletesPerSec = 1000;
   private String hdfsRootDir = "/Launcher";
   private Set<UserDescriptor> rootAdminUsers = new HashSet<>();
 
   // Service Setup
   private Integer serviceRMResyncIntervalSec = 30;
+  // Each round of RM resync only gets the unfinished Applications from RM, and every
+  // serviceRMResyncFullFrequency rounds, it gets all Applications from RM to detect the lost Applications.
+  // If it is not greater than 1, each round gets all Applications.
+  private Integer serviceRMResyncFullFrequency = 10;
+  // The live associated Applications which are not got from RM are supplemented by getApplicationReport
+  // with up to serviceRMResyncSupplementParallelism threads in parallel.
+  private Integer serviceRMResyncSupplementParallelism = 8;
   private Integer serviceRequestPullIntervalSec = 30;
+  // If this feature is enabled, Service watches the FrameworkRequest nodes in ZK and only reloads and
+  // reconciles the changed Frameworks, so that a FrameworkRequest is handled shortly after it is written.
+  // The full pull and reconcile is still done every serviceRequestFullPullIntervalSec, as a safety net.
+  // If it is disabled, Service does the full pull every serviceRequestPullIntervalSec.
+  private Boolean serviceRequestWatchEnable = true;
+  private Integer serviceRequestFullPullIntervalSec = 600;
+  // The SystemTasks of different Frameworks are executed by up to serviceTransitionFrameworkStateParallelism
+  // threads in parallel, and the SystemTasks of the same Framework are still executed serially.
+  // If it is not greater than 1, all SystemTasks are executed one by one.
+  private Integer serviceTransitionFrameworkStateParallelism = 16;
 
   // Application Setup
   private Integer applicationRetrieveDiagnosticsRetryIntervalSec = 30;
@@ -40,6 +91,28 @@ public class LauncherConfiguration implements Serializable {
   private Integer applicationTransientConflictMaxDelaySec = 3600;
   private Integer applicationSetupContextMaxRetryCount = 3;
   private Integer applicationSetupContextRetryIntervalSec = 1;
+  // ApplicationContexts are setup by up to applicationSetupContextParallelism threads, since it needs to
+  // access HDFS. And at most applicationSetupContextMaxPendingCount ApplicationContexts can be setting up
+  // or waiting to setup, beyond that, FRAMEWORK_WAITING Frameworks will keep waiting to create Application
+  // until some ApplicationContexts are setup.
+  private Integer applicationSetupContextParallelism = 32;
+  private Integer applicationSetupContextMaxPendingCount = 512;
+  // FRAMEWORK_WAITING Frameworks are admitted to create and submit Application in the order of their
+  // FirstRequestTimestamp, and the admission is limited by token buckets: a global one with
+  // applicationSubmitMaxRatePerSec, one for each user with applicationSubmitUserMaxRatePerSec and one for each
+  // queue with applicationSubmitQueueMaxRatePerSec. The BurstCount is the max tokens of the corresponding bucket.
+  // The global rate is halved if a submission fails due to RPC errors, such as RM failover or RM overload, and it
+  // is decreased if a submission is slower than applicationSubmitTargetLatencyMs, otherwise it is increased again
+  // until applicationSubmitMaxRatePerSec. It is never lower than applicationSubmitMinRatePerSec.
+  // If a rate is not positive, the corresponding limit is disabled.
+  private Float applicationSubmitMaxRatePerSec = 20.0F;
+  private Integer applicationSubmitMaxBurstCount = 100;
+  private Float applicationSubmitMinRatePerSec = 1.0F;
+  private Integer applicationSubmitTargetLatencyMs = 2000;
+  private Float applicationSubmitUserMaxRatePerSec = 5.0F;
+  private Integer applicationSubmitUserMaxBurstCount = 50;
+  private Float applicationSubmitQueueMaxRatePerSec = 10.0F;
+  private Integer applicationSubmitQueueMaxBurstCount = 100;
 
   // Framework Setup
   // Completed Frameworks will ONLY be retained in recent FrameworkCompletedRetainSec,
@@ -49,10 +122,14 @@ public class LauncherConfiguration implements Serializable {
   // To avoid missing the CompletedFrameworkStatus, the polling interval seconds of Client
   // should be less than FrameworkCompletedRetainSec.
   private Long frameworkCompletedRetainSec = 43200L;
-  // Leftover Frameworks has some external resource, such as HDFS, need to be GC when Service start.
-  // FrameworkLeftoverGCMaxCount limit the max Framework count to be GC at each time, so that the
-  // Service start time is also limited.
+  // Leftover Frameworks has some external resource, such as HDFS, need to be GC in background.
+  // Each round of GC streams the Frameworks in HDFS from the cursor of last round, every
+  // frameworkLeftoverGCIntervalSec, and it stops after frameworkLeftoverGCMaxCount Frameworks are GC.
+  // The HDFS delete rate of GC is limited by frameworkLeftoverGCMaxDeletesPerSec.
+  // If frameworkLeftoverGCIntervalSec is not positive, the Leftover Frameworks are not GC.
+  private Integer frameworkLeftoverGCIntervalSec = 60;
   private Integer frameworkLeftoverGCMaxCount = 1000;
+  private Integer frameworkLeftoverGCMaxDeletesPerSec = 10;
   // Zookeeper is seriously degraded if its data size is larger than 1GB.
   // Here, we limit the Total TaskNumber to 500K, such that the Zookeeper data size used by Launcher
   // is also limited to 100MB = 500K * 200 bytes/task.
@@ -67,6 +144,9 @@ public class LauncherConfiguration implements Serializable {
   // such as AM process interrupted by external system, AM exit by FailFast, etc.
   private Integer amAttemptMaxCount = 3;
   private Integer amAttemptFailuresValidityIntervalSec = 10;
+  // Start a WebServer in AM to expose its internal metrics, such as SystemTaskQueueMetrics.
+  // Its address is registered as the AM TrackingUrl, so it can be accessed through the RM WebProxy.
+  private Boolean amWebServerEnable = false;
 
   // ApplicationMaster Internal Setup which should not be exposed to User
   private Integer amRmHeartbeatIntervalSec = 1;
@@ -79,6 +159,11 @@ public class LauncherConfiguration implements Serializable {
   private Integer amRequestPullIntervalSec = 30;
   private Integer amStatusPushIntervalSec = 30;
   private Integer amFrameworkInfoPublishIntervalSec = 30;
+  // The TaskStatuses of a TaskRole are pushed to ZK by pages with amTaskStatusesPageSize Tasks each,
+  // and only the pages which contain changed Tasks are pushed.
+  // It should be small enough, so that the serialized page is less than the ZK node size limit.
+  // If it is not positive, the whole TaskStatuses is always pushed as one LargeObject.
+  private Integer amTaskStatusesPageSize = 1000;
 
   // If a Task's ContainerRequest cannot be satisfied within
   // Random(amContainerRequestMinTimeoutSec, amContainerRequestMaxTimeoutSec), another
@@ -117,6 +202,12 @@ public class LauncherConfiguration implements Serializable {
   @Pattern(regexp = "^https?://[^:^/]+:\\d+$")
   private String webServerAddress = "http://localhost:9086";
   private Integer webServerStatusPullIntervalSec = 30;
+  // If this feature is enabled, WebServer watches the Status nodes in ZK and only reloads the
+  // changed Frameworks, so that the Status is visible to the API shortly after it is written.
+  // The full pull is still done every webServerStatusFullPullIntervalSec, as a safety net.
+  // If it is disabled, WebServer does the full pull every webServerStatusPullIntervalSec.
+  private Boolean webServerStatusWatchEnable = true;
+  private Integer webServerStatusFullPullIntervalSec = 600;
   private Boolean webServerAclEnable = false;
   // If this feature is enabled, ACL check will be ignored for Framework which does
   // not belong to any Namespace.
@@ -140,6 +231,86 @@ public void setZkRootDir(String zkRootDir) {
     this.zkRootDir = zkRootDir;
   }
 
+  public PayloadCodecType getZkPayloadCodec() {
+    return zkPayloadCodec;
+  }
+
+  public void setZkPayloadCodec(PayloadCodecType zkPayloadCodec) {
+    this.zkPayloadCodec = zkPayloadCodec;
+  }
+
+  public CompressionCodecType getZkCompressionCodec() {
+    return zkCompressionCodec;
+  }
+
+  public void setZkCompressionCodec(CompressionCodecType zkCompressionCodec) {
+    this.zkCompressionCodec = zkCompressionCodec;
+  }
+
+  public Integer getZkCompressionLevel() {
+    return zkCompressionLevel;
+  }
+
+  public void setZkCompressionLevel(Integer zkCompressionLevel) {
+    this.zkCompressionLevel = zkCompressionLevel;
+  }
+
+  public Integer getZkMinCompressionBytes() {
+    return zkMinCompressionBytes;
+  }
+
+  public void setZkMinCompressionBytes(Integer zkMinCompressionBytes) {
+    this.zkMinCompressionBytes = zkMinCompressionBytes;
+  }
+
+  public Integer getZkReadParallelism() {
+    return zkReadParallelism;
+  }
+
+  public void setZkReadParallelism(Integer zkReadParallelism) {
+    this.zkReadParallelism = zkReadParallelism;
+  }
+
+  public Boolean getZkBucketedLayoutEnable() {
+    return zkBucketedLayoutEnable;
+  }
+
+  public void setZkBucketedLayoutEnable(Boolean zkBucketedLayoutEnable) {
+    this.zkBucketedLayoutEnable = zkBucketedLayoutEnable;
+  }
+
+  public Integer getZkGCIntervalSec() {
+    return zkGCIntervalSec;
+  }
+
+  public void setZkGCIntervalSec(Integer zkGCIntervalSec) {
+    this.zkGCIntervalSec = zkGCIntervalSec;
+  }
+
+  public Integer getZkGCFullScanIntervalSec() {
+    return zkGCFullScanIntervalSec;
+  }
+
+  public void setZkGCFullScanIntervalSec(Integer zkGCFullScanIntervalSec) {
+    this.zkGCFullScanIntervalSec = zkGCFullScanIntervalSec;
+  }
+
+  public Integer getZkGCIncompleteVersionGraceSec() {
+    return zkGCIncompleteVersionGraceSec;
+  }
+
+  public void setZkGCIncompleteVersionGraceSec(Integer zkGCIncompleteVersionGraceSec) {
+    this.zkGCIncompleteVersionGraceSec = zkGCIncompleteVersionGraceSec;
+  }
+
+  public Integer getZkGCMaxDeletesPerSec() {
+    return zkGCMaxDeletesPerSec;
+  }
+
+  public void setZkGCMaxDeletesPerSec(Integer zkGCMaxDeletesPerSec) {
+    this.zkGCMaxDeletesPerSec = zkGCMaxDeletesPerSec;
+  }
+
   public String getHdfsRootDir() {
     return hdfsRootDir;
   }
@@ -164,6 +335,22 @@ public void setServiceRMResyncIntervalSec(Integer serviceRMResyncIntervalSec) {
     this.serviceRMResyncIntervalSec = serviceRMResyncIntervalSec;
   }
 
+  public Integer getServiceRMResyncFullFrequency() {
+    return serviceRMResyncFullFrequency;
+  }
+
+  public void setServiceRMResyncFullFrequency(Integer serviceRMResyncFullFrequency) {
+    this.serviceRMResyncFullFrequency = serviceRMResyncFullFrequency;
+  }
+
+  public Integer getServiceRMResyncSupplementParallelism() {
+    return serviceRMResyncSupplementParallelism;
+  }
+
+  public void setServiceRMResyncSupplementParallelism(Integer serviceRMResyncSupplementParallelism) {
+    this.serviceRMResyncSupplementParallelism = serviceRMResyncSupplementParallelism;
+  }
+
   public Integer getServiceRequestPullIntervalSec() {
     return serviceRequestPullIntervalSec;
   }
@@ -172,6 +359,30 @@ public void setServiceRequestPullIntervalSec(Integer serviceRequestPullIntervalS
     this.serviceRequestPullIntervalSec = serviceRequestPullIntervalSec;
   }
 
+  public Boolean getServiceRequestWatchEnable() {
+    return serviceRequestWatchEnable;
+  }
+
+  public void setServiceRequestWatchEnable(Boolean serviceRequestWatchEnable) {
+    this.serviceRequestWatchEnable = serviceRequestWatchEnable;
+  }
+
+  public Integer getServiceRequestFullPullIntervalSec() {
+    return serviceRequestFullPullIntervalSec;
+  }
+
+  public void setServiceRequestFullPullIntervalSec(Integer serviceRequestFullPullIntervalSec) {
+    this.serviceRequestFullPullIntervalSec = serviceRequestFullPullIntervalSec;
+  }
+
+  public Integer getServiceTransitionFrameworkStateParallelism() {
+    return serviceTransitionFrameworkStateParallelism;
+  }
+
+  public void setServiceTransitionFrameworkStateParallelism(Integer serviceTransitionFrameworkStateParallelism) {
+    this.serviceTransitionFrameworkStateParallelism = serviceTransitionFrameworkStateParallelism;
+  }
+
   public Integer getApplicationRetrieveDiagnosticsRetryIntervalSec() {
     return applicationRetrieveDiagnosticsRetryIntervalSec;
   }
@@ -220,6 +431,86 @@ public void setApplicationSetupContextRetryIntervalSec(Integer applicationSetupC
     this.applicationSetupContextRetryIntervalSec = applicationSetupContextRetryIntervalSec;
   }
 
+  public Integer getApplicationSetupContextParallelism() {
+    return applicationSetupContextParallelism;
+  }
+
+  public void setApplicationSetupContextParallelism(Integer applicationSetupContextParallelism) {
+    this.applicationSetupContextParallelism = applicationSetupContextParallelism;
+  }
+
+  public Integer getApplicationSetupContextMaxPendingCount() {
+    return applicationSetupContextMaxPendingCount;
+  }
+
+  public void setApplicationSetupContextMaxPendingCount(Integer applicationSetupContextMaxPendingCount) {
+    this.applicationSetupContextMaxPendingCount = applicationSetupContextMaxPendingCount;
+  }
+
+  public Float getApplicationSubmitMaxRatePerSec() {
+    return applicationSubmitMaxRatePerSec;
+  }
+
+  public void setApplicationSubmitMaxRatePerSec(Float applicationSubmitMaxRatePerSec) {
+    this.applicationSubmitMaxRatePerSec = applicationSubmitMaxRatePerSec;
+  }
+
+  public Integer getApplicationSubmitMaxBurstCount() {
+    return applicationSubmitMaxBurstCount;
+  }
+
+  public void setApplicationSubmitMaxBurstCount(Integer applicationSubmitMaxBurstCount) {
+    this.applicationSubmitMaxBurstCount = applicationSubmitMaxBurstCount;
+  }
+
+  public Float getApplicationSubmitMinRatePerSec() {
+    return applicationSubmitMinRatePerSec;
+  }
+
+  public void setApplicationSubmitMinRatePerSec(Float applicationSubmitMinRatePerSec) {
+    this.applicationSubmitMinRatePerSec = applicationSubmitMinRatePerSec;
+  }
+
+  public Integer getApplicationSubmitTargetLatencyMs() {
+    return applicationSubmitTargetLatencyMs;
+  }
+
+  public void setApplicationSubmitTargetLatencyMs(Integer applicationSubmitTargetLatencyMs) {
+    this.applicationSubmitTargetLatencyMs = applicationSubmitTargetLatencyMs;
+  }
+
+  public Float getApplicationSubmitUserMaxRatePerSec() {
+    return applicationSubmitUserMaxRatePerSec;
+  }
+
+  public void setApplicationSubmitUserMaxRatePerSec(Float applicationSubmitUserMaxRatePerSec) {
+    this.applicationSubmitUserMaxRatePerSec = applicationSubmitUserMaxRatePerSec;
+  }
+
+  public Integer getApplicationSubmitUserMaxBurstCount() {
+    return applicationSubmitUserMaxBurstCount;
+  }
+
+  public void setApplicationSubmitUserMaxBurstCount(Integer applicationSubmitUserMaxBurstCount) {
+    this.applicationSubmitUserMaxBurstCount = applicationSubmitUserMaxBurstCount;
+  }
+
+  public Float getApplicationSubmitQueueMaxRatePerSec() {
+    return applicationSubmitQueueMaxRatePerSec;
+  }
+
+  public void setApplicationSubmitQueueMaxRatePerSec(Float applicationSubmitQueueMaxRatePerSec) {
+    this.applicationSubmitQueueMaxRatePerSec = applicationSubmitQueueMaxRatePerSec;
+  }
+
+  public Integer getApplicationSubmitQueueMaxBurstCount() {
+    return applicationSubmitQueueMaxBurstCount;
+  }
+
+  public void setApplicationSubmitQueueMaxBurstCount(Integer applicationSubmitQueueMaxBurstCount) {
+    this.applicationSubmitQueueMaxBurstCount = applicationSubmitQueueMaxBurstCount;
+  }
+
   public Long getFrameworkCompletedRetainSec() {
     return frameworkCompletedRetainSec;
   }
@@ -228,6 +519,14 @@ public void setFrameworkCompletedRetainSec(Long frameworkCompletedRetainSec) {
     this.frameworkCompletedRetainSec = frameworkCompletedRetainSec;
   }
 
+  public Integer getFrameworkLeftoverGCIntervalSec() {
+    return frameworkLeftoverGCIntervalSec;
+  }
+
+  public void setFrameworkLeftoverGCIntervalSec(Integer frameworkLeftoverGCIntervalSec) {
+    this.frameworkLeftoverGCIntervalSec = frameworkLeftoverGCIntervalSec;
+  }
+
   public Integer getFrameworkLeftoverGCMaxCount() {
     return frameworkLeftoverGCMaxCount;
   }
@@ -236,6 +535,14 @@ public void setFrameworkLeftoverGCMaxCount(Integer frameworkLeftoverGCMaxCount)
     this.frameworkLeftoverGCMaxCount = frameworkLeftoverGCMaxCount;
   }
 
+  public Integer getFrameworkLeftoverGCMaxDeletesPerSec() {
+    return frameworkLeftoverGCMaxDeletesPerSec;
+  }
+
+  public void setFrameworkLeftoverGCMaxDeletesPerSec(Integer frameworkLeftoverGCMaxDeletesPerSec) {
+    this.frameworkLeftoverGCMaxDeletesPerSec = frameworkLeftoverGCMaxDeletesPerSec;
+  }
+
   public Integer getMaxTotalTaskNumber() {
     return maxTotalTaskNumber;
   }
@@ -284,6 +591,14 @@ public void setAmAttemptFailuresValidityIntervalSec(Integer amAttemptFailuresVal
     this.amAttemptFailuresValidityIntervalSec = amAttemptFailuresValidityIntervalSec;
   }
 
+  public Boolean getAmWebServerEnable() {
+    return amWebServerEnable;
+  }
+
+  public void setAmWebServerEnable(Boolean amWebServerEnable) {
+    this.amWebServerEnable = amWebServerEnable;
+  }
+
   public Integer getAmRmHeartbeatIntervalSec() {
     return amRmHeartbeatIntervalSec;
   }
@@ -332,6 +647,14 @@ public void setAmFrameworkInfoPublishIntervalSec(Integer amFrameworkInfoPublishI
     this.amFrameworkInfoPublishIntervalSec = amFrameworkInfoPublishIntervalSec;
   }
 
+  public Integer getAmTaskStatusesPageSize() {
+    return amTaskStatusesPageSize;
+  }
+
+  public void setAmTaskStatusesPageSize(Integer amTaskStatusesPageSize) {
+    this.amTaskStatusesPageSize = amTaskStatusesPageSize;
+  }
+
   public Integer getAmContainerRequestMinTimeoutSec() {
     return amContainerRequestMinTimeoutSec;
   }
@@ -420,6 +743,22 @@ public void setWebServerStatusPullIntervalSec(Integer webServerStatusPullInterva
     this.webServerStatusPullIntervalSec = webServerStatusPullIntervalSec;
   }
 
+  public Boolean getWebServerStatusWatchEnable() {
+    return webServerStatusWatchEnable;
+  }
+
+  public void setWebServerStatusWatchEnable(Boolean webServerStatusWatchEnable) {
+    this.webServerStatusWatchEnable = webServerStatusWatchEnable;
+  }
+
+  public Integer getWebServerStatusFullPullIntervalSec() {
+    return webServerStatusFullPullIntervalSec;
+  }
+
+  public void setWebServerStatusFullPullIntervalSec(Integer webServerStatusFullPullIntervalSec) {
+    this.webServerStatusFullPullIntervalSec = webServerStatusFullPullIntervalSec;
+  }
+
   public Boolean getWebServerAclEnable() {
     return webServerAclEnable;
   }
@@ -0,0 +1,71 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class LeftoverFrameworkGarbageCollectorMetrics implements Serializable {
+  private Long scannedFrameworkCount;
+  private Long removedFrameworkCount;
+  // The LeftoverFrameworks which failed to remove, and they are retried next pass
+  private Long failedFrameworkCount;
+  // The times that all Frameworks in HDFS are scanned
+  private Long completedPassCount;
+  // The last scanned FrameworkName, and null means the next round starts from the beginning
+  private String cursor;
+
+  public Long getScannedFrameworkCount() {
+    return scannedFrameworkCount;
+  }
+
+  public void setScannedFrameworkCount(Long scannedFrameworkCount) {
+    this.scannedFrameworkCount = scannedFrameworkCount;
+  }
+
+  public Long getRemovedFrameworkCount() {
+    return removedFrameworkCount;
+  }
+
+  public void setRemovedFrameworkCount(Long removedFrameworkCount) {
+    this.removedFrameworkCount = removedFrameworkCount;
+  }
+
+  public Long getFailedFrameworkCount() {
+    return failedFrameworkCount;
+  }
+
+  public void setFailedFrameworkCount(Long failedFrameworkCount) {
+    this.failedFrameworkCount = failedFrameworkCount;
+  }
+
+  public Long getCompletedPassCount() {
+    return completedPassCount;
+  }
+
+  public void setCompletedPassCount(Long completedPassCount) {
+    this.completedPassCount = completedPassCount;
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+
+  public void setCursor(String cursor) {
+    this.cursor = cursor;
+  }
+}
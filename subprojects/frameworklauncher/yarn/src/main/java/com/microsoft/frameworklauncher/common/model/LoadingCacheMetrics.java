@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class LoadingCacheMetrics implements Serializable {
+  private String cacheName;
+  private Integer maxSize;
+  private Long ttlMs;
+  // Current loaded and loading keys
+  private Integer size;
+  private Integer loadingCount;
+  private Long hitCount;
+  private Long missCount;
+  // The misses which wait for the concurrent loading of the same key, instead of loading by itself
+  private Long loadWaitCount;
+  private Long loadCount;
+  private Long loadFailedCount;
+  // The entries which are removed due to maxSize, TTL and invalidation respectively
+  private Long evictionCount;
+  private Long expirationCount;
+  private Long invalidationCount;
+
+  public String getCacheName() {
+    return cacheName;
+  }
+
+  public void setCacheName(String cacheName) {
+    this.cacheName = cacheName;
+  }
+
+  public Integer getMaxSize() {
+    return maxSize;
+  }
+
+  public void setMaxSize(Integer maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public Long getTtlMs() {
+    return ttlMs;
+  }
+
+  public void setTtlMs(Long ttlMs) {
+    this.ttlMs = ttlMs;
+  }
+
+  public Integer getSize() {
+    return size;
+  }
+
+  public void setSize(Integer size) {
+    this.size = size;
+  }
+
+  public Integer getLoadingCount() {
+    return loadingCount;
+  }
+
+  public void setLoadingCount(Integer loadingCount) {
+    this.loadingCount = loadingCount;
+  }
+
+  public Long getHitCount() {
+    return hitCount;
+  }
+
+  public void setHitCount(Long hitCount) {
+    this.hitCount = hitCount;
+  }
+
+  public Long getMissCount() {
+    return missCount;
+  }
+
+  public void setMissCount(Long missCount) {
+    this.missCount = missCount;
+  }
+
+  public Long getLoadWaitCount() {
+    return loadWaitCount;
+  }
+
+  public void setLoadWaitCount(Long loadWaitCount) {
+    this.loadWaitCount = loadWaitCount;
+  }
+
+  public Long getLoadCount() {
+    return loadCount;
+  }
+
+  public void setLoadCount(Long loadCount) {
+    this.loadCount = loadCount;
+  }
+
+  public Long getLoadFailedCount() {
+    return loadFailedCount;
+  }
+
+  public void setLoadFailedCount(Long loadFailedCount) {
+    this.loadFailedCount = loadFailedCount;
+  }
+
+  public Long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public void setEvictionCount(Long evictionCount) {
+    this.evictionCount = evictionCount;
+  }
+
+  public Long getExpirationCount() {
+    return expirationCount;
+  }
+
+  public void setExpirationCount(Long expirationCount) {
+    this.expirationCount = expirationCount;
+  }
+
+  public Long getInvalidationCount() {
+    return invalidationCount;
+  }
+
+  public void setInvalidationCount(Long invalidationCount) {
+    this.invalidationCount = invalidationCount;
+  }
+}
@@ -0,0 +1,50 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+// The codec to serialize the objects stored in ZK.
+// All codecs can always be deserialized no matter which codec is configured to serialize,
+// so the codec can be switched without migrating the existing ZK data.
+public enum PayloadCodecType implements Serializable {
+  // The legacy codec, its payload has no header, so it can be read by old Launcher versions.
+  YAML((byte) 0),
+
+  // Much faster than YAML to serialize and deserialize, but its payload cannot be read by
+  // Launcher versions which do not support it, so only switch to it after all of them upgraded.
+  JSON((byte) 1);
+
+  private final byte id;
+
+  PayloadCodecType(byte id) {
+    this.id = id;
+  }
+
+  public byte getId() {
+    return id;
+  }
+
+  public static PayloadCodecType fromId(byte id) {
+    for (PayloadCodecType codec : PayloadCodecType.values()) {
+      if (codec.getId() == id) {
+        return codec;
+      }
+    }
+    return null;
+  }
+}
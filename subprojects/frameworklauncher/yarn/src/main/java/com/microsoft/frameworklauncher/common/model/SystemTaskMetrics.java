@@ -0,0 +1,91 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+// The metrics of all the SystemTasks with the same name in a SystemTaskQueue
+public class SystemTaskMetrics implements Serializable {
+  private Long queuedCount = 0L;
+  private Long completedCount = 0L;
+  private Long failedCount = 0L;
+  // Replaced by a later queued one with the same coalescing key before started
+  private Long coalescedCount = 0L;
+  // From queued, or from due if it is delayed, to started
+  private LatencyHistogram waitTimeHistogram;
+  // From started to completed
+  private LatencyHistogram executionTimeHistogram;
+  // From due to started, only for the delayed SystemTasks
+  private LatencyHistogram delayDriftHistogram;
+
+  public Long getQueuedCount() {
+    return queuedCount;
+  }
+
+  public void setQueuedCount(Long queuedCount) {
+    this.queuedCount = queuedCount;
+  }
+
+  public Long getCompletedCount() {
+    return completedCount;
+  }
+
+  public void setCompletedCount(Long completedCount) {
+    this.completedCount = completedCount;
+  }
+
+  public Long getFailedCount() {
+    return failedCount;
+  }
+
+  public void setFailedCount(Long failedCount) {
+    this.failedCount = failedCount;
+  }
+
+  public Long getCoalescedCount() {
+    return coalescedCount;
+  }
+
+  public void setCoalescedCount(Long coalescedCount) {
+    this.coalescedCount = coalescedCount;
+  }
+
+  public LatencyHistogram getWaitTimeHistogram() {
+    return waitTimeHistogram;
+  }
+
+  public void setWaitTimeHistogram(LatencyHistogram waitTimeHistogram) {
+    this.waitTimeHistogram = waitTimeHistogram;
+  }
+
+  public LatencyHistogram getExecutionTimeHistogram() {
+    return executionTimeHistogram;
+  }
+
+  public void setExecutionTimeHistogram(LatencyHistogram executionTimeHistogram) {
+    this.executionTimeHistogram = executionTimeHistogram;
+  }
+
+  public LatencyHistogram getDelayDriftHistogram() {
+    return delayDriftHistogram;
+  }
+
+  public void setDelayDriftHistogram(LatencyHistogram delayDriftHistogram) {
+    this.delayDriftHistogram = delayDriftHistogram;
+  }
+}
@@ -0,0 +1,110 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SystemTaskQueueMetrics implements Serializable {
+  private String queueName;
+  private Integer parallelism;
+  // Current Queue Length, i.e. the pending, running and delayed SystemTasks
+  private Integer length;
+  private Integer maxLength;
+  // Average of the Queue Lengths sampled when each SystemTask is queued
+  private Float averageLength;
+  private Long queuedCount;
+  private Long completedCount;
+  // The queued SystemTasks which are replaced by a later queued one before started
+  private Long coalescedCount;
+  // SystemTask Name -> SystemTaskMetrics
+  private Map<String, SystemTaskMetrics> systemTaskMetricses = new HashMap<>();
+
+  public String getQueueName() {
+    return queueName;
+  }
+
+  public void setQueueName(String queueName) {
+    this.queueName = queueName;
+  }
+
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(Integer parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public Integer getLength() {
+    return length;
+  }
+
+  public void setLength(Integer length) {
+    this.length = length;
+  }
+
+  public Integer getMaxLength() {
+    return maxLength;
+  }
+
+  public void setMaxLength(Integer maxLength) {
+    this.maxLength = maxLength;
+  }
+
+  public Float getAverageLength() {
+    return averageLength;
+  }
+
+  public void setAverageLength(Float averageLength) {
+    this.averageLength = averageLength;
+  }
+
+  public Long getQueuedCount() {
+    return queuedCount;
+  }
+
+  public void setQueuedCount(Long queuedCount) {
+    this.queuedCount = queuedCount;
+  }
+
+  public Long getCompletedCount() {
+    return completedCount;
+  }
+
+  public void setCompletedCount(Long completedCount) {
+    this.completedCount = completedCount;
+  }
+
+  public Long getCoalescedCount() {
+    return coalescedCount;
+  }
+
+  public void setCoalescedCount(Long coalescedCount) {
+    this.coalescedCount = coalescedCount;
+  }
+
+  public Map<String, SystemTaskMetrics> getSystemTaskMetricses() {
+    return systemTaskMetricses;
+  }
+
+  public void setSystemTaskMetricses(Map<String, SystemTaskMetrics> systemTaskMetricses) {
+    this.systemTaskMetricses = systemTaskMetricses;
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+// The index of the paged TaskStatuses, which is published after all its pages are set.
+// The TaskStatusArray is split into pages with PageSize TaskStatuses each, and the page
+// with PageIndex p is stored as an immutable TaskStatuses in the node named {p}-{PageGenerations[p]}.
+public class TaskStatusesPageIndex implements Serializable {
+  private String taskRoleName;
+  private Integer frameworkVersion;
+  private Long generation;
+  private Integer taskNumber;
+  private Integer pageSize;
+  private List<Long> pageGenerations;
+
+  public String getTaskRoleName() {
+    return taskRoleName;
+  }
+
+  public void setTaskRoleName(String taskRoleName) {
+    this.taskRoleName = taskRoleName;
+  }
+
+  public Integer getFrameworkVersion() {
+    return frameworkVersion;
+  }
+
+  public void setFrameworkVersion(Integer frameworkVersion) {
+    this.frameworkVersion = frameworkVersion;
+  }
+
+  public Long getGeneration() {
+    return generation;
+  }
+
+  public void setGeneration(Long generation) {
+    this.generation = generation;
+  }
+
+  public Integer getTaskNumber() {
+    return taskNumber;
+  }
+
+  public void setTaskNumber(Integer taskNumber) {
+    this.taskNumber = taskNumber;
+  }
+
+  public Integer getPageSize() {
+    return pageSize;
+  }
+
+  public void setPageSize(Integer pageSize) {
+    this.pageSize = pageSize;
+  }
+
+  public List<Long> getPageGenerations() {
+    return pageGenerations;
+  }
+
+  public void setPageGenerations(List<Long> pageGenerations) {
+    this.pageGenerations = pageGenerations;
+  }
+}
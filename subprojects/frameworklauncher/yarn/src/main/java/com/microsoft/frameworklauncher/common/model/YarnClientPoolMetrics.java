@@ -0,0 +1,108 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class YarnClientPoolMetrics implements Serializable {
+  private String poolName;
+  private Integer maxSize;
+  private Long idleTimeoutMs;
+  // Current pooled YarnClients, and the calls which are using them
+  private Integer size;
+  private Integer inUseCount;
+  private Long borrowedCount;
+  // The borrows which start a new YarnClient, instead of reusing a pooled one
+  private Long createdCount;
+  // The YarnClients which are stopped due to idleTimeoutMs or maxSize
+  private Long evictedCount;
+  // The YarnClients which are stopped since they are unhealthy
+  private Long discardedCount;
+
+  public String getPoolName() {
+    return poolName;
+  }
+
+  public void setPoolName(String poolName) {
+    this.poolName = poolName;
+  }
+
+  public Integer getMaxSize() {
+    return maxSize;
+  }
+
+  public void setMaxSize(Integer maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public Long getIdleTimeoutMs() {
+    return idleTimeoutMs;
+  }
+
+  public void setIdleTimeoutMs(Long idleTimeoutMs) {
+    this.idleTimeoutMs = idleTimeoutMs;
+  }
+
+  public Integer getSize() {
+    return size;
+  }
+
+  public void setSize(Integer size) {
+    this.size = size;
+  }
+
+  public Integer getInUseCount() {
+    return inUseCount;
+  }
+
+  public void setInUseCount(Integer inUseCount) {
+    this.inUseCount = inUseCount;
+  }
+
+  public Long getBorrowedCount() {
+    return borrowedCount;
+  }
+
+  public void setBorrowedCount(Long borrowedCount) {
+    this.borrowedCount = borrowedCount;
+  }
+
+  public Long getCreatedCount() {
+    return createdCount;
+  }
+
+  public void setCreatedCount(Long createdCount) {
+    this.createdCount = createdCount;
+  }
+
+  public Long getEvictedCount() {
+    return evictedCount;
+  }
+
+  public void setEvictedCount(Long evictedCount) {
+    this.evictedCount = evictedCount;
+  }
+
+  public Long getDiscardedCount() {
+    return discardedCount;
+  }
+
+  public void setDiscardedCount(Long discardedCount) {
+    this.discardedCount = discardedCount;
+  }
+}
@@ -0,0 +1,99 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class ZookeeperCompressionMetrics implements Serializable {
+  // The ZK object path
+  private String path;
+  // The codec used by the last compression or decompression
+  private CompressionCodecType codec;
+  private Long compressCount;
+  // Compressed bytes / raw bytes of all compressions
+  private Double compressRatio;
+  private Long compressTotalMs;
+  private Long decompressCount;
+  // Compressed bytes / raw bytes of all decompressions
+  private Double decompressRatio;
+  private Long decompressTotalMs;
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public CompressionCodecType getCodec() {
+    return codec;
+  }
+
+  public void setCodec(CompressionCodecType codec) {
+    this.codec = codec;
+  }
+
+  public Long getCompressCount() {
+    return compressCount;
+  }
+
+  public void setCompressCount(Long compressCount) {
+    this.compressCount = compressCount;
+  }
+
+  public Double getCompressRatio() {
+    return compressRatio;
+  }
+
+  public void setCompressRatio(Double compressRatio) {
+    this.compressRatio = compressRatio;
+  }
+
+  public Long getCompressTotalMs() {
+    return compressTotalMs;
+  }
+
+  public void setCompressTotalMs(Long compressTotalMs) {
+    this.compressTotalMs = compressTotalMs;
+  }
+
+  public Long getDecompressCount() {
+    return decompressCount;
+  }
+
+  public void setDecompressCount(Long decompressCount) {
+    this.decompressCount = decompressCount;
+  }
+
+  public Double getDecompressRatio() {
+    return decompressRatio;
+  }
+
+  public void setDecompressRatio(Double decompressRatio) {
+    this.decompressRatio = decompressRatio;
+  }
+
+  public Long getDecompressTotalMs() {
+    return decompressTotalMs;
+  }
+
+  public void setDecompressTotalMs(Long decompressTotalMs) {
+    this.decompressTotalMs = decompressTotalMs;
+  }
+}
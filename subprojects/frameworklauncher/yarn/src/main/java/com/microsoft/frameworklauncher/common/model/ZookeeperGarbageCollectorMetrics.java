@@ -0,0 +1,82 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class ZookeeperGarbageCollectorMetrics implements Serializable {
+  // Whether all LargeObject Paths in ZK are scanned periodically
+  private Boolean fullScanEnabled;
+  private Long scannedPathCount;
+  // The Paths which failed to GC, and they are retried next round
+  private Long failedPathCount;
+  // The deleted ZK nodes, including ReadyPayloadVersions, PayloadVersions and PayloadParts
+  private Long reclaimedNodeCount;
+  // The bytes of the deleted PayloadParts, excluding the incomplete Payloads whose bytes are unknown
+  private Long reclaimedPayloadBytes;
+  // The LargeObject Paths which are waiting to GC
+  private Long backlogPathCount;
+
+  public Boolean getFullScanEnabled() {
+    return fullScanEnabled;
+  }
+
+  public void setFullScanEnabled(Boolean fullScanEnabled) {
+    this.fullScanEnabled = fullScanEnabled;
+  }
+
+  public Long getScannedPathCount() {
+    return scannedPathCount;
+  }
+
+  public void setScannedPathCount(Long scannedPathCount) {
+    this.scannedPathCount = scannedPathCount;
+  }
+
+  public Long getFailedPathCount() {
+    return failedPathCount;
+  }
+
+  public void setFailedPathCount(Long failedPathCount) {
+    this.failedPathCount = failedPathCount;
+  }
+
+  public Long getReclaimedNodeCount() {
+    return reclaimedNodeCount;
+  }
+
+  public void setReclaimedNodeCount(Long reclaimedNodeCount) {
+    this.reclaimedNodeCount = reclaimedNodeCount;
+  }
+
+  public Long getReclaimedPayloadBytes() {
+    return reclaimedPayloadBytes;
+  }
+
+  public void setReclaimedPayloadBytes(Long reclaimedPayloadBytes) {
+    this.reclaimedPayloadBytes = reclaimedPayloadBytes;
+  }
+
+  public Long getBacklogPathCount() {
+    return backlogPathCount;
+  }
+
+  public void setBacklogPathCount(Long backlogPathCount) {
+    this.backlogPathCount = backlogPathCount;
+  }
+}
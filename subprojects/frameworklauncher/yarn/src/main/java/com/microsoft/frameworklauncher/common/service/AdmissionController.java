@@ -0,0 +1,295 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.AdmissionControllerMetrics;
+
+import java.util.*;
+
+// AdmissionController paces the expensive operations, such as the Application submissions to RM, by token buckets:
+// a global one, one for each user and one for each queue. An operation is admitted only if all its buckets have
+// a token, and then one token is taken from each of them. The caller should defer the denied operations, and
+// retry them in its own fair order after getRetryDelayMs.
+// The global rate adapts to the feedback of the admitted operations, i.e. AIMD:
+//  1. It is halved if an operation failed, and it is decreased by a tenth if an operation is slower than
+//  targetLatencyMs, so that the operations are slowed down once the downstream is overloaded.
+//  2. Otherwise, it is increased by a tenth of maxRatePerSec, until maxRatePerSec.
+// The global rate is never lower than minRatePerSec.
+// A limit whose rate is not positive is disabled.
+public class AdmissionController { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(AdmissionController.class);
+
+  private static final double FAILED_RATE_DECREASE_FACTOR = 0.5;
+  private static final double SLOW_RATE_DECREASE_FACTOR = 0.9;
+  private static final double RATE_INCREASE_FRACTION = 0.1;
+  private static final long MIN_RETRY_DELAY_MS = 100;
+  private static final long MAX_RETRY_DELAY_MS = 5000;
+
+  private final String name;
+  private final Limit globalLimit;
+  private final Limit userLimit;
+  private final Limit queueLimit;
+  private final double minRatePerSec;
+  private final long targetLatencyMs;
+
+  private final TokenBucket globalBucket;
+  // UserName -> TokenBucket
+  private final Map<String, TokenBucket> userBuckets = new HashMap<>();
+  // QueueName -> TokenBucket
+  private final Map<String, TokenBucket> queueBuckets = new HashMap<>();
+  // Key -> The timestamp since when it is waiting to be admitted
+  private final Map<String, Long> waitingTimestamps = new HashMap<>();
+
+  private final LatencyHistogramRecorder waitTime = new LatencyHistogramRecorder();
+  private final LatencyHistogramRecorder operationTime = new LatencyHistogramRecorder();
+  private long admittedCount = 0;
+  private long deniedCount = 0;
+  private long canceledCount = 0;
+  private long succeededCount = 0;
+  private long failedCount = 0;
+  private long slowCount = 0;
+
+  public AdmissionController(
+      String name, Limit globalLimit, Limit userLimit, Limit queueLimit,
+      double minRatePerSec, long targetLatencyMs) {
+    this.name = name;
+    this.globalLimit = globalLimit;
+    this.userLimit = userLimit;
+    this.queueLimit = queueLimit;
+    this.minRatePerSec = Math.max(0, Math.min(minRatePerSec, globalLimit.getRatePerSec()));
+    this.targetLatencyMs = targetLatencyMs;
+    this.globalBucket = new TokenBucket(globalLimit, System.currentTimeMillis());
+    LOGGER.logInfo("Running AdmissionController %s with GlobalLimit %s, UserLimit %s, QueueLimit %s, " +
+            "MinRatePerSec %s and TargetLatencyMs %s",
+        name, globalLimit, userLimit, queueLimit, this.minRatePerSec, targetLatencyMs);
+  }
+
+  // The count of operations which can be admitted now if they are not limited by their users and queues.
+  public synchronized int getAvailableCount() {
+    if (!globalLimit.isEnabled()) {
+      return Integer.MAX_VALUE;
+    }
+
+    globalBucket.refill(System.currentTimeMillis());
+    return (int) globalBucket.tokens;
+  }
+
+  // The key identifies the operation, so that its wait time can be recorded.
+  // The userName and queueName can be null, if the operation is not limited by them.
+  public synchronized boolean tryAdmit(String key, String userName, String queueName) {
+    long currentTimestamp = System.currentTimeMillis();
+    TokenBucket userBucket = getBucket(userBuckets, userLimit, userName, currentTimestamp);
+    TokenBucket queueBucket = getBucket(queueBuckets, queueLimit, queueName, currentTimestamp);
+    if (!tryTakeAll(currentTimestamp, globalLimit.isEnabled() ? globalBucket : null, userBucket, queueBucket)) {
+      waitingTimestamps.putIfAbsent(key, currentTimestamp);
+      deniedCount++;
+      return false;
+    }
+
+    Long waitingTimestamp = waitingTimestamps.remove(key);
+    waitTime.record(waitingTimestamp == null ? 0 : currentTimestamp - waitingTimestamp);
+    admittedCount++;
+    return true;
+  }
+
+  // Return the tokens taken by an admitted operation which is not executed at last, such as the operation
+  // which is deferred by other backpressure, so that the tokens are not wasted.
+  // The userName and queueName should be the same as the ones when it is admitted.
+  public synchronized void cancelAdmitted(String userName, String queueName) {
+    long currentTimestamp = System.currentTimeMillis();
+    TokenBucket userBucket = getBucket(userBuckets, userLimit, userName, currentTimestamp);
+    TokenBucket queueBucket = getBucket(queueBuckets, queueLimit, queueName, currentTimestamp);
+    putAll(currentTimestamp, globalLimit.isEnabled() ? globalBucket : null, userBucket, queueBucket);
+    admittedCount--;
+    canceledCount++;
+  }
+
+  // Forget the waiting operations which are not in the given keys, such as the ones which are deleted
+  // before they are admitted, and also release the idle buckets.
+  public synchronized void retainWaiting(Set<String> keys) {
+    waitingTimestamps.keySet().retainAll(keys);
+
+    long currentTimestamp = System.currentTimeMillis();
+    releaseIdleBuckets(userBuckets, currentTimestamp);
+    releaseIdleBuckets(queueBuckets, currentTimestamp);
+  }
+
+  // The delay after which the denied operations are likely to be admitted.
+  public synchronized long getRetryDelayMs() {
+    double ratePerSec = Double.MAX_VALUE;
+    if (globalLimit.isEnabled()) {
+      ratePerSec = Math.min(ratePerSec, globalBucket.ratePerSec);
+    }
+    if (userLimit.isEnabled()) {
+      ratePerSec = Math.min(ratePerSec, userLimit.getRatePerSec());
+    }
+    if (queueLimit.isEnabled()) {
+      ratePerSec = Math.min(ratePerSec, queueLimit.getRatePerSec());
+    }
+
+    long delayMs = (long) Math.ceil(1000 / ratePerSec);
+    return Math.max(MIN_RETRY_DELAY_MS, Math.min(MAX_RETRY_DELAY_MS, delayMs));
+  }
+
+  // Feedback of an admitted operation, to adapt the global rate.
+  public synchronized void onOperationCompleted(long latencyMs, boolean failed) {
+    operationTime.record(latencyMs);
+    if (failed) {
+      failedCount++;
+    } else {
+      succeededCount++;
+    }
+
+    if (!globalLimit.isEnabled()) {
+      return;
+    }
+
+    double oldRatePerSec = globalBucket.ratePerSec;
+    double newRatePerSec;
+    if (failed) {
+      newRatePerSec = oldRatePerSec * FAILED_RATE_DECREASE_FACTOR;
+    } else if (latencyMs > targetLatencyMs) {
+      slowCount++;
+      newRatePerSec = oldRatePerSec * SLOW_RATE_DECREASE_FACTOR;
+    } else {
+      newRatePerSec = oldRatePerSec + globalLimit.getRatePerSec() * RATE_INCREASE_FRACTION;
+    }
+    newRatePerSec = Math.max(minRatePerSec, Math.min(globalLimit.getRatePerSec(), newRatePerSec));
+
+    if (newRatePerSec != oldRatePerSec) {
+      globalBucket.refill(System.currentTimeMillis());
+      globalBucket.ratePerSec = newRatePerSec;
+      if (newRatePerSec < oldRatePerSec) {
+        LOGGER.logInfo("AdmissionController %s decreased RatePerSec from %s to %s, " +
+                "since an operation is %s with latency %sms",
+            name, oldRatePerSec, newRatePerSec, (failed ? "failed" : "slow"), latencyMs);
+      }
+    }
+  }
+
+  public synchronized AdmissionControllerMetrics getMetrics() {
+    AdmissionControllerMetrics metrics = new AdmissionControllerMetrics();
+    metrics.setControllerName(name);
+    metrics.setMaxRatePerSec((float) globalLimit.getRatePerSec());
+    metrics.setMinRatePerSec((float) minRatePerSec);
+    metrics.setCurrentRatePerSec((float) globalBucket.ratePerSec);
+    metrics.setUserMaxRatePerSec((float) userLimit.getRatePerSec());
+    metrics.setQueueMaxRatePerSec((float) queueLimit.getRatePerSec());
+    metrics.setWaitingCount(waitingTimestamps.size());
+    metrics.setAdmittedCount(admittedCount);
+    metrics.setDeniedCount(deniedCount);
+    metrics.setCanceledCount(canceledCount);
+    metrics.setSucceededCount(succeededCount);
+    metrics.setFailedCount(failedCount);
+    metrics.setSlowCount(slowCount);
+    metrics.setWaitTimeHistogram(waitTime.toHistogram());
+    metrics.setOperationTimeHistogram(operationTime.toHistogram());
+    return metrics;
+  }
+
+  private static TokenBucket getBucket(
+      Map<String, TokenBucket> buckets, Limit limit, String bucketName, long currentTimestamp) {
+    if (!limit.isEnabled() || bucketName == null) {
+      return null;
+    }
+    return buckets.computeIfAbsent(bucketName, k -> new TokenBucket(limit, currentTimestamp));
+  }
+
+  private static boolean tryTakeAll(long currentTimestamp, TokenBucket... buckets) {
+    for (TokenBucket bucket : buckets) {
+      if (bucket != null) {
+        bucket.refill(currentTimestamp);
+        if (bucket.tokens < 1) {
+          return false;
+        }
+      }
+    }
+    for (TokenBucket bucket : buckets) {
+      if (bucket != null) {
+        bucket.tokens -= 1;
+      }
+    }
+    return true;
+  }
+
+  private static void putAll(long currentTimestamp, TokenBucket... buckets) {
+    for (TokenBucket bucket : buckets) {
+      if (bucket != null) {
+        bucket.refill(currentTimestamp);
+        bucket.tokens = Math.min(bucket.burstCount, bucket.tokens + 1);
+      }
+    }
+  }
+
+  // A full bucket is the same as a new bucket, so it can be released.
+  private static void releaseIdleBuckets(Map<String, TokenBucket> buckets, long currentTimestamp) {
+    buckets.values().removeIf(bucket -> {
+      bucket.refill(currentTimestamp);
+      return bucket.tokens >= bucket.burstCount;
+    });
+  }
+
+  public static class Limit {
+    private final double ratePerSec;
+    private final int burstCount;
+
+    public Limit(double ratePerSec, int burstCount) {
+      this.ratePerSec = ratePerSec;
+      this.burstCount = Math.max(1, burstCount);
+    }
+
+    public boolean isEnabled() {
+      return ratePerSec > 0;
+    }
+
+    public double getRatePerSec() {
+      return ratePerSec;
+    }
+
+    public int getBurstCount() {
+      return burstCount;
+    }
+
+    @Override
+    public String toString() {
+      return isEnabled() ? String.format("[%s/s, Burst %s]", ratePerSec, burstCount) : "[Disabled]";
+    }
+  }
+
+  private static class TokenBucket {
+    private final int burstCount;
+    private double ratePerSec;
+    private double tokens;
+    private long refilledTimestamp;
+
+    private TokenBucket(Limit limit, long currentTimestamp) {
+      this.burstCount = limit.getBurstCount();
+      this.ratePerSec = limit.getRatePerSec();
+      this.tokens = burstCount;
+      this.refilledTimestamp = currentTimestamp;
+    }
+
+    private void refill(long currentTimestamp) {
+      if (currentTimestamp > refilledTimestamp) {
+        tokens = Math.min(burstCount, tokens + (currentTimestamp - refilledTimestamp) * ratePerSec / 1000);
+        refilledTimestamp = currentTimestamp;
+      }
+    }
+  }
+}
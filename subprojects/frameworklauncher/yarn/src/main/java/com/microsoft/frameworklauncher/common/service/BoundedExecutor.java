@@ -0,0 +1,138 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.exts.CommonExts;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.BoundedExecutorMetrics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// BoundedExecutor executes the submitted Tasks by up to parallelism threads, instead of a thread per Task.
+// It also provides the backpressure for the caller: before doing the work which will lead to a Task submission,
+// the caller should tryAdmit, and if it is not admitted, i.e. there are already maxPendingCount running and
+// queued Tasks, the caller should defer the work until the completedCallback is called.
+// Note the maxPendingCount is a soft limit, since the tryAdmit and the submit are not atomic.
+public class BoundedExecutor { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(BoundedExecutor.class);
+
+  private final String name;
+  private final int parallelism;
+  private final int maxPendingCount;
+  private final Function<Exception, Boolean> exceptionHandler;
+  private final Runnable completedCallback;
+  private final ExecutorService executorService;
+
+  private final LatencyHistogramRecorder waitTime = new LatencyHistogramRecorder();
+  private final LatencyHistogramRecorder executionTime = new LatencyHistogramRecorder();
+  private int runningCount = 0;
+  private int queuedCount = 0;
+  private long submittedCount = 0;
+  private long completedCount = 0;
+  private long failedCount = 0;
+  private long deferredCount = 0;
+
+  public BoundedExecutor(
+      String name, int parallelism, int maxPendingCount,
+      Function<Exception, Boolean> handler, Runnable completedCallback) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(String.format(
+          "BoundedExecutor %s parallelism %s is less than 1", name, parallelism));
+    }
+
+    this.name = name;
+    this.parallelism = parallelism;
+    this.maxPendingCount = Math.max(maxPendingCount, parallelism);
+    this.exceptionHandler = handler;
+    this.completedCallback = completedCallback;
+    this.executorService = Executors.newFixedThreadPool(parallelism);
+    LOGGER.logInfo("Running BoundedExecutor %s with parallelism %s and maxPendingCount %s",
+        name, this.parallelism, this.maxPendingCount);
+  }
+
+  public synchronized int getAvailableCount() {
+    return Math.max(0, maxPendingCount - runningCount - queuedCount);
+  }
+
+  public synchronized boolean tryAdmit() {
+    if (getAvailableCount() > 0) {
+      return true;
+    }
+
+    deferredCount++;
+    return false;
+  }
+
+  public void submit(CommonExts.VoidCallable callable) {
+    long submittedTimestamp = System.currentTimeMillis();
+    synchronized (this) {
+      queuedCount++;
+      submittedCount++;
+    }
+
+    executorService.execute(() -> executeTask(callable, submittedTimestamp));
+  }
+
+  private void executeTask(CommonExts.VoidCallable callable, long submittedTimestamp) {
+    long startedTimestamp = System.currentTimeMillis();
+    waitTime.record(startedTimestamp - submittedTimestamp);
+    synchronized (this) {
+      queuedCount--;
+      runningCount++;
+    }
+
+    boolean failed = false;
+    try {
+      callable.call();
+    } catch (Exception e) {
+      failed = true;
+      exceptionHandler.apply(e);
+    } finally {
+      executionTime.record(System.currentTimeMillis() - startedTimestamp);
+      synchronized (this) {
+        runningCount--;
+        completedCount++;
+        if (failed) {
+          failedCount++;
+        }
+      }
+    }
+
+    if (completedCallback != null) {
+      completedCallback.run();
+    }
+  }
+
+  public synchronized BoundedExecutorMetrics getMetrics() {
+    BoundedExecutorMetrics metrics = new BoundedExecutorMetrics();
+    metrics.setExecutorName(name);
+    metrics.setParallelism(parallelism);
+    metrics.setMaxPendingCount(maxPendingCount);
+    metrics.setRunningCount(runningCount);
+    metrics.setQueuedCount(queuedCount);
+    metrics.setSubmittedCount(submittedCount);
+    metrics.setCompletedCount(completedCount);
+    metrics.setFailedCount(failedCount);
+    metrics.setDeferredCount(deferredCount);
+    metrics.setWaitTimeHistogram(waitTime.toHistogram());
+    metrics.setExecutionTimeHistogram(executionTime.toHistogram());
+    return metrics;
+  }
+}
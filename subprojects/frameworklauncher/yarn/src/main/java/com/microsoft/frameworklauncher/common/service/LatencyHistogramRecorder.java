@@ -0,0 +1,63 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Record the latencies into a LatencyHistogram with fixed buckets
+class LatencyHistogramRecorder { // THREAD SAFE
+  private static final List<Long> BUCKET_UPPER_BOUNDS_MS = Arrays.asList(
+      1L, 2L, 5L, 10L, 20L, 50L, 100L, 200L, 500L,
+      1000L, 2000L, 5000L, 10000L, 30000L, 60000L, 300000L, Long.MAX_VALUE);
+
+  private final long[] bucketCounts = new long[BUCKET_UPPER_BOUNDS_MS.size()];
+  private long count = 0;
+  private long totalMs = 0;
+  private long maxMs = 0;
+
+  synchronized void record(long ms) {
+    ms = Math.max(ms, 0);
+    int i = 0;
+    while (ms > BUCKET_UPPER_BOUNDS_MS.get(i)) {
+      i++;
+    }
+    bucketCounts[i]++;
+    count++;
+    totalMs += ms;
+    maxMs = Math.max(maxMs, ms);
+  }
+
+  synchronized LatencyHistogram toHistogram() {
+    List<Long> counts = new ArrayList<>();
+    for (long bucketCount : bucketCounts) {
+      counts.add(bucketCount);
+    }
+
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.setBucketUpperBoundsMs(new ArrayList<>(BUCKET_UPPER_BOUNDS_MS));
+    histogram.setBucketCounts(counts);
+    histogram.setCount(count);
+    histogram.setTotalMs(totalMs);
+    histogram.setMaxMs(maxMs);
+    return histogram;
+  }
+}
@@ -0,0 +1,76 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.exts.CommonExts;
+
+// A SystemTask to be queued in SystemTaskQueue
+public class SystemTask {
+  // The name identifies the kind of SystemTask in SystemTaskQueueMetrics,
+  // so it should be a constant, such as the method to call, instead of an instance specific string.
+  private final String name;
+  private final CommonExts.VoidCallable callable;
+  // SystemTasks with the same key are executed serially, and with different keys are executed in parallel.
+  // SystemTask without key is a barrier. See SystemTaskQueue.
+  private String key = null;
+  // A pending SystemTask is replaced by a later queued one with the same coalescing key,
+  // so the coalescing key should only be set for the idempotent SystemTasks, such as a full rescan.
+  // SystemTasks with the same coalescing key should also have the same key and priority.
+  private String coalescingKey = null;
+  private SystemTaskPriority priority = SystemTaskPriority.NORMAL;
+
+  public SystemTask(String name, CommonExts.VoidCallable callable) {
+    this.name = name;
+    this.callable = callable;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public CommonExts.VoidCallable getCallable() {
+    return callable;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public SystemTask setKey(String key) {
+    this.key = key;
+    return this;
+  }
+
+  public String getCoalescingKey() {
+    return coalescingKey;
+  }
+
+  public SystemTask setCoalescingKey(String coalescingKey) {
+    this.coalescingKey = coalescingKey;
+    return this;
+  }
+
+  public SystemTaskPriority getPriority() {
+    return priority;
+  }
+
+  public SystemTask setPriority(SystemTaskPriority priority) {
+    this.priority = priority;
+    return this;
+  }
+}
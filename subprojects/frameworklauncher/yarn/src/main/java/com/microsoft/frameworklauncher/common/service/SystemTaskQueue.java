@@ -17,81 +17,362 @@
 
 package com.microsoft.frameworklauncher.common.service;
 
-import com.microsoft.frameworklauncher.common.exts.CommonExts;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.SystemTaskQueueMetrics;
 
+import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
-public class SystemTaskQueue {
+// SystemTaskQueue executes the queued Tasks in a partitioned way:
+// 1. Keyed Tasks with the same key, such as the same FrameworkName, are executed serially in the queued order,
+//    and keyed Tasks with different keys are executed in parallel, up to the parallelism.
+// 2. Unkeyed Tasks are barriers, i.e. each of them is executed exclusively, after all Tasks queued before it
+//    are completed and before any Task queued after it is started.
+// So, with parallelism 1 or without keyed Tasks, it is the same as a single threaded Task queue.
+//
+// Besides, each SystemTaskPriority has its own lane, and above ordering is only ensured within a lane:
+// 1. A higher lane is always dispatched before the lower lanes, and if the head of a higher lane is blocked
+//    (such as a barrier waiting for the running Tasks to complete), the lower lanes are not dispatched, too.
+//    So, a higher priority Task is executed as if it was queued before all the pending lower priority Tasks.
+// 2. A barrier is still executed exclusively against the Tasks in all lanes, and keyed Tasks with the same key
+//    are still executed serially across lanes.
+// And a pending Task will be replaced by a later queued Task with the same coalescing key, so that a burst of
+// idempotent Tasks, such as rescans, is executed once, i.e. at the position of the first one but with the
+// callable of the last one.
+public class SystemTaskQueue {  // THREAD SAFE
   private static final DefaultLogger LOGGER = new DefaultLogger(SystemTaskQueue.class);
   private static final int QUEUE_LENGTH_WARNING_THRESHOLD = 5000;
+  private static final String BARRIER_TASK_KEY = "";
 
+  private final String name;
   private final Function<Exception, Boolean> exceptionHandler;
-  private final ScheduledExecutorService executorService;
+  private final int parallelism;
+  private final SystemTaskQueueMetricsRecorder metricsRecorder;
+  private final ExecutorService executorService;
+  private final ScheduledExecutorService delayedExecutorService;
   private final Lock lock = new ReentrantLock();
-  private final Condition condition = lock.newCondition();
 
-  public SystemTaskQueue(Function<Exception, Boolean> handler) {
-    executorService = Executors.newScheduledThreadPool(1);
-    exceptionHandler = handler;
-    executorService.submit(this::waitToStart);
+  // SystemTaskPriority.ordinal() -> Segments in the queued order, only Tasks in the head Segment can be executed.
+  private final List<Deque<Segment>> lanes = new ArrayList<>();
+  // Keys which have a running Task, in all lanes
+  private final Set<String> runningKeys = new HashSet<>();
+  // Coalescing Key -> The pending Task which can be coalesced
+  private final Map<String, QueuedTask> coalescableTasks = new HashMap<>();
+  private boolean started = false;
+  private boolean barrierRunning = false;
+  private int pendingTaskCount = 0;
+  private int runningTaskCount = 0;
+
+  private static class QueuedTask {
+    // The Task may be replaced by a later queued Task with the same coalescing key
+    private SystemTask task;
+    private final long queuedTimestamp;
+    // Null if the Task is not delayed
+    private final Long dueTimestamp;
+
+    private QueuedTask(SystemTask task, long queuedTimestamp, Long dueTimestamp) {
+      this.task = task;
+      this.queuedTimestamp = queuedTimestamp;
+      this.dueTimestamp = dueTimestamp;
+    }
+  }
+
+  // A Segment is either a single barrier Task or a batch of consecutive keyed Tasks
+  private static class Segment {
+    private final boolean barrier;
+    // Key -> Pending Tasks of the key in the queued order
+    private final Map<String, Queue<QueuedTask>> pendingTasks = new HashMap<>();
+    // Keys which have pending Tasks but no running Task
+    private final Queue<String> readyKeys = new ArrayDeque<>();
+    // Keys which have a running Task in this Segment
+    private final Set<String> runningKeys = new HashSet<>();
+    // Keys which have pending Tasks but have a running Task in another lane
+    private final Set<String> blockedKeys = new HashSet<>();
+
+    private Segment(boolean barrier) {
+      this.barrier = barrier;
+    }
+
+    private void add(String key, QueuedTask task) {
+      Queue<QueuedTask> tasks = pendingTasks.computeIfAbsent(key, k -> new ArrayDeque<>());
+      if (tasks.isEmpty() && !runningKeys.contains(key)) {
+        readyKeys.add(key);
+      }
+      tasks.add(task);
+    }
+
+    private boolean hasReadyTask() {
+      return !readyKeys.isEmpty();
+    }
+
+    private String pollReadyKey() {
+      return readyKeys.poll();
+    }
+
+    private QueuedTask startTask(String key) {
+      runningKeys.add(key);
+      Queue<QueuedTask> tasks = pendingTasks.get(key);
+      QueuedTask task = tasks.poll();
+      if (tasks.isEmpty()) {
+        pendingTasks.remove(key);
+      }
+      return task;
+    }
+
+    private void block(String key) {
+      blockedKeys.add(key);
+    }
+
+    private void unblock(String key) {
+      if (blockedKeys.remove(key)) {
+        readyKeys.add(key);
+      }
+    }
+
+    private void complete(String key) {
+      runningKeys.remove(key);
+      if (pendingTasks.containsKey(key)) {
+        readyKeys.add(key);
+      }
+    }
+
+    private boolean isDone() {
+      return pendingTasks.isEmpty() && runningKeys.isEmpty();
+    }
+  }
+
+  public SystemTaskQueue(String name, Function<Exception, Boolean> handler) {
+    this(name, handler, 1);
+  }
+
+  public SystemTaskQueue(String name, Function<Exception, Boolean> handler, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(String.format(
+          "SystemTaskQueue %s parallelism %s is less than 1", name, parallelism));
+    }
+
+    this.name = name;
+    this.exceptionHandler = handler;
+    this.parallelism = parallelism;
+    this.metricsRecorder = new SystemTaskQueueMetricsRecorder(name, parallelism);
+    this.executorService = Executors.newFixedThreadPool(parallelism);
+    this.delayedExecutorService = Executors.newScheduledThreadPool(1);
+    for (int i = 0; i < SystemTaskPriority.values().length; i++) {
+      lanes.add(new ArrayDeque<>());
+    }
+    LOGGER.logInfo("Waiting to start SystemTaskQueue %s with parallelism %s", name, parallelism);
   }
 
-  private void waitToStart() {
+  public void start() {
     lock.lock();
-    LOGGER.logInfo("Waiting to start SystemTaskQueue");
     try {
-      condition.awaitUninterruptibly();
+      started = true;
+      dispatchTasks();
     } finally {
       lock.unlock();
     }
+    LOGGER.logInfo("Running SystemTaskQueue %s. Current Queue Length %s.", name, length());
   }
 
-  public void start() {
+  // Stop executing Tasks and release the threads. The running Tasks are interrupted, and the pending
+  // and delayed Tasks are dropped, so it should only be called when the owner is stopping.
+  public void stop() {
+    delayedExecutorService.shutdownNow();
+    executorService.shutdownNow();
+    LOGGER.logInfo("Stopped SystemTaskQueue %s", name);
+  }
+
+  public int length() {
+    int delayedTaskCount = ((ScheduledThreadPoolExecutor) delayedExecutorService).getQueue().size();
     lock.lock();
     try {
-      condition.signal();
+      return pendingTaskCount + runningTaskCount + delayedTaskCount;
     } finally {
       lock.unlock();
     }
-    LOGGER.logInfo("Running SystemTaskQueue. Current Queue Length %s.", length());
   }
 
-  public int length() {
-    return ((ThreadPoolExecutor) executorService).getQueue().size() + 1;
+  public SystemTaskQueueMetrics getMetrics() {
+    return metricsRecorder.getMetrics(length());
   }
 
-  private void checkTaskQueueHealthy() {
+  private void checkTaskQueueHealthy(SystemTask task) {
     int len = length();
+    metricsRecorder.recordQueued(task.getName(), len);
     if (len > QUEUE_LENGTH_WARNING_THRESHOLD) {
-      LOGGER.logWarning("Too many Tasks in Queue. Current Queue Length %s.", len);
+      LOGGER.logWarning("Too many Tasks in Queue %s. Current Queue Length %s.", name, len);
     }
   }
 
-  private Runnable setupTaskExceptionHandler(CommonExts.VoidCallable task) {
-    return () -> {
+  private void executeTask(QueuedTask queuedTask) {
+    SystemTask task = queuedTask.task;
+    long startedTimestamp = System.currentTimeMillis();
+    metricsRecorder.recordStarted(
+        task.getName(), queuedTask.queuedTimestamp, queuedTask.dueTimestamp, startedTimestamp);
+
+    boolean failed = false;
+    try {
+      task.getCallable().call();
+    } catch (Exception e) {
+      failed = true;
+      exceptionHandler.apply(e);
+    } finally {
+      metricsRecorder.recordCompleted(
+          task.getName(), startedTimestamp, System.currentTimeMillis(), failed);
+    }
+  }
+
+  private void enqueueTask(QueuedTask queuedTask) {
+    SystemTask task = queuedTask.task;
+    SystemTask coalescedTask = null;
+    lock.lock();
+    try {
+      String coalescingKey = task.getCoalescingKey();
+      if (coalescingKey != null) {
+        QueuedTask coalescableTask = coalescableTasks.get(coalescingKey);
+        if (coalescableTask != null &&
+            Objects.equals(coalescableTask.task.getKey(), task.getKey()) &&
+            coalescableTask.task.getPriority() == task.getPriority()) {
+          coalescedTask = coalescableTask.task;
+          coalescableTask.task = task;
+        } else {
+          coalescableTasks.put(coalescingKey, queuedTask);
+        }
+      }
+
+      if (coalescedTask == null) {
+        addTask(queuedTask);
+        dispatchTasks();
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (coalescedTask != null) {
+      LOGGER.logDebug("Coalesced Task %s into a pending Task in Queue %s with coalescing key %s",
+          coalescedTask.getName(), name, task.getCoalescingKey());
+      metricsRecorder.recordCoalesced(coalescedTask.getName());
+    }
+  }
+
+  // Should be called with the lock held
+  private void addTask(QueuedTask queuedTask) {
+    String key = queuedTask.task.getKey();
+    Deque<Segment> lane = lanes.get(queuedTask.task.getPriority().ordinal());
+    Segment tail = lane.peekLast();
+    if (key == null) {
+      tail = new Segment(true);
+      lane.addLast(tail);
+      key = BARRIER_TASK_KEY;
+    } else if (tail == null || tail.barrier) {
+      tail = new Segment(false);
+      lane.addLast(tail);
+    }
+
+    tail.add(key, queuedTask);
+    pendingTaskCount++;
+  }
+
+  // Should be called with the lock held
+  private void dispatchTasks() {
+    if (!started || barrierRunning) {
+      return;
+    }
+
+    for (Deque<Segment> lane : lanes) {
+      while (!lane.isEmpty() && lane.peekFirst().isDone()) {
+        lane.pollFirst();
+      }
+
+      Segment head = lane.peekFirst();
+      if (head == null) {
+        continue;
+      }
+
+      if (head.barrier) {
+        // The barrier waits for the running Tasks in all lanes, and the lower lanes wait for the barrier
+        if (runningTaskCount == 0) {
+          barrierRunning = true;
+          runTask(head, head.pollReadyKey());
+        }
+        return;
+      }
+
+      while (runningTaskCount < parallelism && head.hasReadyTask()) {
+        String key = head.pollReadyKey();
+        if (runningKeys.contains(key)) {
+          head.block(key);
+        } else {
+          runningKeys.add(key);
+          runTask(head, key);
+        }
+      }
+
+      if (runningTaskCount >= parallelism) {
+        return;
+      }
+    }
+  }
+
+  // Should be called with the lock held
+  private void runTask(Segment segment, String key) {
+    QueuedTask task = segment.startTask(key);
+    String coalescingKey = task.task.getCoalescingKey();
+    if (coalescingKey != null) {
+      // The Task cannot be coalesced since it is started
+      coalescableTasks.remove(coalescingKey, task);
+    }
+
+    pendingTaskCount--;
+    runningTaskCount++;
+    executorService.execute(() -> {
       try {
-        task.call();
-      } catch (Exception e) {
-        exceptionHandler.apply(e);
+        executeTask(task);
+      } finally {
+        onTaskCompleted(segment, key);
+      }
+    });
+  }
+
+  private void onTaskCompleted(Segment segment, String key) {
+    lock.lock();
+    try {
+      segment.complete(key);
+      runningTaskCount--;
+      if (segment.barrier) {
+        barrierRunning = false;
+      } else {
+        runningKeys.remove(key);
+        for (Deque<Segment> lane : lanes) {
+          Segment head = lane.peekFirst();
+          if (head != null) {
+            head.unblock(key);
+          }
+        }
       }
-    };
+      dispatchTasks();
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public void queueSystemTask(CommonExts.VoidCallable task) {
-    executorService.submit(setupTaskExceptionHandler(task));
-    checkTaskQueueHealthy();
+  public void queueSystemTask(SystemTask task) {
+    enqueueTask(new QueuedTask(task, System.currentTimeMillis(), null));
+    checkTaskQueueHealthy(task);
   }
 
-  public void queueSystemTaskDelayed(CommonExts.VoidCallable task, long milliseconds) {
-    executorService.schedule(setupTaskExceptionHandler(task), milliseconds, TimeUnit.MILLISECONDS);
-    checkTaskQueueHealthy();
+  // Queue the Task after the delay
+  public void queueSystemTaskDelayed(SystemTask task, long milliseconds) {
+    long queuedTimestamp = System.currentTimeMillis();
+    QueuedTask queuedTask = new QueuedTask(task, queuedTimestamp, queuedTimestamp + milliseconds);
+    delayedExecutorService.schedule(() -> enqueueTask(queuedTask), milliseconds, TimeUnit.MILLISECONDS);
+    checkTaskQueueHealthy(task);
   }
 }
@@ -0,0 +1,117 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.SystemTaskMetrics;
+import com.microsoft.frameworklauncher.common.model.SystemTaskQueueMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Record the metrics of a SystemTaskQueue
+class SystemTaskQueueMetricsRecorder { // THREAD SAFE
+  private final String queueName;
+  private final int parallelism;
+  private long queuedCount = 0;
+  private long completedCount = 0;
+  private long coalescedCount = 0;
+  private int maxLength = 0;
+  private long lengthSampleSum = 0;
+  // SystemTask Name -> TaskRecorder
+  private final Map<String, TaskRecorder> taskRecorders = new HashMap<>();
+
+  private static class TaskRecorder {
+    private long queuedCount = 0;
+    private long completedCount = 0;
+    private long failedCount = 0;
+    private long coalescedCount = 0;
+    private final LatencyHistogramRecorder waitTime = new LatencyHistogramRecorder();
+    private final LatencyHistogramRecorder executionTime = new LatencyHistogramRecorder();
+    private final LatencyHistogramRecorder delayDrift = new LatencyHistogramRecorder();
+
+    private SystemTaskMetrics toMetrics() {
+      SystemTaskMetrics metrics = new SystemTaskMetrics();
+      metrics.setQueuedCount(queuedCount);
+      metrics.setCompletedCount(completedCount);
+      metrics.setFailedCount(failedCount);
+      metrics.setCoalescedCount(coalescedCount);
+      metrics.setWaitTimeHistogram(waitTime.toHistogram());
+      metrics.setExecutionTimeHistogram(executionTime.toHistogram());
+      metrics.setDelayDriftHistogram(delayDrift.toHistogram());
+      return metrics;
+    }
+  }
+
+  SystemTaskQueueMetricsRecorder(String queueName, int parallelism) {
+    this.queueName = queueName;
+    this.parallelism = parallelism;
+  }
+
+  private TaskRecorder getTaskRecorder(String taskName) {
+    return taskRecorders.computeIfAbsent(taskName, k -> new TaskRecorder());
+  }
+
+  synchronized void recordQueued(String taskName, int length) {
+    queuedCount++;
+    maxLength = Math.max(maxLength, length);
+    lengthSampleSum += length;
+    getTaskRecorder(taskName).queuedCount++;
+  }
+
+  // dueTimestamp is null if the SystemTask is not delayed
+  synchronized void recordStarted(String taskName, long queuedTimestamp, Long dueTimestamp, long startedTimestamp) {
+    TaskRecorder recorder = getTaskRecorder(taskName);
+    if (dueTimestamp == null) {
+      recorder.waitTime.record(startedTimestamp - queuedTimestamp);
+    } else {
+      recorder.waitTime.record(startedTimestamp - Math.max(queuedTimestamp, dueTimestamp));
+      recorder.delayDrift.record(startedTimestamp - dueTimestamp);
+    }
+  }
+
+  synchronized void recordCompleted(String taskName, long startedTimestamp, long completedTimestamp, boolean failed) {
+    TaskRecorder recorder = getTaskRecorder(taskName);
+    completedCount++;
+    recorder.completedCount++;
+    if (failed) {
+      recorder.failedCount++;
+    }
+    recorder.executionTime.record(completedTimestamp - startedTimestamp);
+  }
+
+  synchronized void recordCoalesced(String taskName) {
+    coalescedCount++;
+    getTaskRecorder(taskName).coalescedCount++;
+  }
+
+  synchronized SystemTaskQueueMetrics getMetrics(int length) {
+    SystemTaskQueueMetrics metrics = new SystemTaskQueueMetrics();
+    metrics.setQueueName(queueName);
+    metrics.setParallelism(parallelism);
+    metrics.setLength(length);
+    metrics.setMaxLength(maxLength);
+    metrics.setAverageLength(queuedCount == 0 ? 0 : (float) lengthSampleSum / queuedCount);
+    metrics.setQueuedCount(queuedCount);
+    metrics.setCompletedCount(completedCount);
+    metrics.setCoalescedCount(coalescedCount);
+    for (Map.Entry<String, TaskRecorder> recorder : taskRecorders.entrySet()) {
+      metrics.getSystemTaskMetricses().put(recorder.getKey(), recorder.getValue().toMetrics());
+    }
+    return metrics;
+  }
+}
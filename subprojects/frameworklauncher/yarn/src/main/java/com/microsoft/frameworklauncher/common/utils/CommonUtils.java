@@ -25,6 +25,9 @@
 import org.apache.hadoop.util.StringUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Random;
@@ -161,6 +164,24 @@ public static byte[] readBinaryFile(String filePath) throws Exception {
     return FileUtils.readFileToByteArray(new File(filePath));
   }
 
+  // Lower case hex string of the SHA-256 of the file content
+  public static String getFileSha256(String filePath) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    try (InputStream inputStream = new FileInputStream(filePath)) {
+      byte[] buffer = new byte[64 * 1024];
+      int length;
+      while ((length = inputStream.read(buffer)) > 0) {
+        digest.update(buffer, 0, length);
+      }
+    }
+
+    StringBuilder sha256 = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sha256.append(String.format("%02x", b));
+    }
+    return sha256.toString();
+  }
+
   public static Set<String> listFiles(String dirPath) {
     Set<String> fileNames = new HashSet<>();
     for (File file : FileUtils.listFiles(new File(dirPath), null, false)) {
@@ -17,36 +17,104 @@
 
 package com.microsoft.frameworklauncher.common.utils;
 
+import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.CompressionCodecType;
 import org.apache.commons.io.IOUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.*;
 
 public class CompressionUtils {
   private static final DefaultLogger LOGGER = new DefaultLogger(CompressionUtils.class);
 
+  // The payload compressed by a codec other than GZIP starts with the header:
+  //  COMPRESSION_MAGIC (2 bytes) + CompressionCodecType id (1 byte)
+  // The first byte 0xfa never occurs in an UTF-8 string, so the COMPRESSION_MAGIC(0x43fa) always
+  // does not equal to the YAML string header !!(0x2121), nor the GZIP_MAGIC(0x8b1f), nor the
+  // serialized payload header, see SerializationUtils.hasHeader.
+  private static final int COMPRESSION_MAGIC = 0x43fa;
+  private static final int COMPRESSION_HEADER_BYTES = 3;
+  private static final int BUFFER_BYTES = 64 * 1024;
+
+  // The preset dictionary for DEFLATE_DICTIONARY, it contains the frequent fragments of the
+  // serialized TaskStatuses and FrameworkStatus, in both YAML and JSON, and the more frequent
+  // fragments are put at the end.
+  // It MUST NOT be changed, otherwise the existing payload cannot be decompressed any more.
+  // Add a new CompressionCodecType for the new dictionary instead.
+  private static final byte[] DEFLATE_DICTIONARY_V1 = (
+      "{\"frameworkName\":\"\",\"frameworkVersion\":0,\"frameworkState\":\"APPLICATION_RUNNING\"," +
+          "\"frameworkRetryPolicyState\":{},\"frameworkCreatedTimestamp\":,\"frameworkCompletedTimestamp\":null," +
+          "\"applicationId\":\"application_\",\"applicationProgress\":,\"applicationTrackingUrl\":\"http://\"," +
+          "\"applicationLaunchedTimestamp\":,\"applicationCompletedTimestamp\":null,\"applicationExitCode\":null," +
+          "\"applicationExitDescription\":null,\"applicationExitDiagnostics\":null,\"applicationExitType\":null," +
+          "\"applicationExitTriggerMessage\":null,\"applicationExitTriggerTaskRoleName\":null," +
+          "\"applicationExitTriggerTaskIndex\":null}" +
+          "!!com.microsoft.frameworklauncher.common.model.FrameworkStatus\n" +
+          "applicationCompletedTimestamp: null\napplicationExitCode: null\napplicationExitDescription: null\n" +
+          "applicationExitDiagnostics: null\napplicationExitTriggerMessage: null\n" +
+          "applicationExitTriggerTaskIndex: null\napplicationExitTriggerTaskRoleName: null\n" +
+          "applicationExitType: null\napplicationId: application_\napplicationLaunchedTimestamp: \n" +
+          "frameworkCompletedTimestamp: null\nframeworkCreatedTimestamp: \nframeworkName: \n" +
+          "frameworkRetryPolicyState: {nonTransientRetriedCount: 0, retriedCount: 0, succeededRetriedCount: 0,\n" +
+          "    transientConflictRetriedCount: 0, transientNormalRetriedCount: 0, unKnownRetriedCount: 0}\n" +
+          "frameworkState: APPLICATION_RUNNING\nframeworkVersion: 0\n" +
+          "!!com.microsoft.frameworklauncher.common.model.TaskStatuses\nframeworkVersion: 0\n" +
+          "taskRoleName: \ntaskStatusArray:\n" +
+          "{\"taskRoleName\":\"\",\"frameworkVersion\":0,\"taskStatusArray\":[" +
+          "{\"taskIndex\":,\"taskRoleName\":\"\",\"taskState\":\"CONTAINER_RUNNING\"," +
+          "\"taskRetryPolicyState\":{\"retriedCount\":0,\"succeededRetriedCount\":0," +
+          "\"transientNormalRetriedCount\":0,\"transientConflictRetriedCount\":0," +
+          "\"nonTransientRetriedCount\":0,\"unKnownRetriedCount\":0}," +
+          "\"taskCreatedTimestamp\":,\"taskCompletedTimestamp\":null,\"taskServiceStatus\":{\"serviceVersion\":0}," +
+          "\"containerId\":\"container_e\",\"containerHost\":\"\",\"containerIp\":\"\",\"containerPorts\":\"\"," +
+          "\"containerGpus\":0,\"containerLogHttpAddress\":\"http://:8042/node/containerlogs/container_e\"," +
+          "\"containerConnectionLostCount\":0,\"containerIsDecommissioning\":false," +
+          "\"containerLaunchedTimestamp\":,\"containerCompletedTimestamp\":null,\"containerExitCode\":null," +
+          "\"containerExitDescription\":null,\"containerExitDiagnostics\":null,\"containerExitType\":null}," +
+          "- containerCompletedTimestamp: null\n  containerConnectionLostCount: 0\n" +
+          "  containerExitCode: null\n  containerExitDescription: null\n  containerExitDiagnostics: null\n" +
+          "  containerExitType: null\n  containerGpus: 0\n  containerHost: \n  containerId: container_e\n" +
+          "  containerIp: \n  containerIsDecommissioning: false\n  containerLaunchedTimestamp: \n" +
+          "  containerLogHttpAddress: http://:8042/node/containerlogs/container_e\n  containerPorts: ''\n" +
+          "  taskCompletedTimestamp: null\n  taskCreatedTimestamp: \n  taskIndex: \n" +
+          "  taskRetryPolicyState: {nonTransientRetriedCount: 0, retriedCount: 0, succeededRetriedCount: 0,\n" +
+          "    transientConflictRetriedCount: 0, transientNormalRetriedCount: 0, unKnownRetriedCount: 0}\n" +
+          "  taskRoleName: \n  taskServiceStatus: {serviceVersion: 0}\n  taskState: CONTAINER_RUNNING\n"
+  ).getBytes(StandardCharsets.UTF_8);
+
   public static byte[] compress(byte[] bytes) throws IOException {
-    long start = System.currentTimeMillis();
+    return compress(bytes, CompressionCodecType.GZIP, Deflater.DEFAULT_COMPRESSION);
+  }
 
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      try (GZIPOutputStream zos = new GZIPOutputStream(bos)) {
-        zos.write(bytes);
-      }
-      byte[] compressedBytes = bos.toByteArray();
+  // The level is the same as the zlib compression level, i.e. [0, 9] or Deflater.DEFAULT_COMPRESSION.
+  public static byte[] compress(byte[] bytes, CompressionCodecType codec, int level) throws IOException {
+    long start = System.currentTimeMillis();
 
-      long end = System.currentTimeMillis();
-      LOGGER.logTrace("Compressed from %s bytes to %s bytes in %sms.",
-          bytes.length, compressedBytes.length, end - start);
-      return compressedBytes;
+    byte[] compressedBytes;
+    if (codec == CompressionCodecType.GZIP) {
+      compressedBytes = gzip(bytes, level);
+    } else if (codec == CompressionCodecType.DEFLATE) {
+      compressedBytes = deflate(bytes, codec, level, null);
+    } else if (codec == CompressionCodecType.DEFLATE_DICTIONARY) {
+      compressedBytes = deflate(bytes, codec, level, DEFLATE_DICTIONARY_V1);
+    } else {
+      throw new IllegalArgumentException(String.format(
+          "Unsupported CompressionCodecType %s", codec));
     }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logTrace("Compressed from %s bytes to %s bytes by %s in %sms.",
+        bytes.length, compressedBytes.length, codec, end - start);
+    return compressedBytes;
   }
 
   // Works for both decompressed and compressed bytes
-  public static byte[] decompress(byte[] bytes) throws IOException {
+  public static byte[] decompress(byte[] bytes) throws Exception {
     if (!isCompressed(bytes)) {
       LOGGER.logTrace("Found already decompressed bytes. Ignore it.");
       return bytes;
@@ -54,21 +122,120 @@ public static byte[] decompress(byte[] bytes) throws IOException {
 
     long start = System.currentTimeMillis();
 
+    CompressionCodecType codec = getCodec(bytes);
+    byte[] decompressedBytes;
+    if (codec == CompressionCodecType.GZIP) {
+      decompressedBytes = gunzip(bytes);
+    } else if (codec == CompressionCodecType.DEFLATE) {
+      decompressedBytes = inflate(bytes, null);
+    } else if (codec == CompressionCodecType.DEFLATE_DICTIONARY) {
+      decompressedBytes = inflate(bytes, DEFLATE_DICTIONARY_V1);
+    } else {
+      // Such as the payload is compressed by a newer Launcher version
+      throw new NonTransientException(String.format(
+          "Unsupported CompressionCodecType id %s in the compression header", bytes[2]));
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logTrace("Decompressed from %s bytes to %s bytes by %s in %sms.",
+        bytes.length, decompressedBytes.length, codec, end - start);
+    return decompressedBytes;
+  }
+
+  public static boolean isCompressed(byte[] bytes) {
+    // It can judge serialized YAML string correctly, since the YAML string
+    // header !!(0x2121) always does not equal to GZIP_MAGIC(0x8b1f).
+    // Same for other serialized payloads, see SerializationUtils.hasHeader.
+    return CommonUtils.bytesToShort(bytes) == GZIPInputStream.GZIP_MAGIC || hasHeader(bytes);
+  }
+
+  // Return null if the bytes is not compressed or the codec in the header is unknown
+  public static CompressionCodecType getCodec(byte[] bytes) {
+    if (hasHeader(bytes)) {
+      return CompressionCodecType.fromId(bytes[2]);
+    } else if (CommonUtils.bytesToShort(bytes) == GZIPInputStream.GZIP_MAGIC) {
+      return CompressionCodecType.GZIP;
+    } else {
+      return null;
+    }
+  }
+
+  private static boolean hasHeader(byte[] bytes) {
+    return bytes.length >= COMPRESSION_HEADER_BYTES &&
+        CommonUtils.bytesToShort(bytes) == COMPRESSION_MAGIC;
+  }
+
+  private static byte[] gzip(byte[] bytes, int level) throws IOException {
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+      try (GZIPOutputStream zos = new GZIPOutputStream(bos) {
+        {
+          def.setLevel(level);
+        }
+      }) {
+        zos.write(bytes);
+      }
+      return bos.toByteArray();
+    }
+  }
+
+  private static byte[] gunzip(byte[] bytes) throws IOException {
     try (ByteArrayInputStream bis = new ByteArrayInputStream(bytes)) {
       try (GZIPInputStream gis = new GZIPInputStream(bis)) {
-        byte[] decompressedBytes = IOUtils.toByteArray(gis);
+        return IOUtils.toByteArray(gis);
+      }
+    }
+  }
+
+  private static byte[] deflate(
+      byte[] bytes, CompressionCodecType codec, int level, byte[] dictionary) throws IOException {
+    Deflater deflater = new Deflater(level);
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length / 4 + COMPRESSION_HEADER_BYTES)) {
+      bos.write(COMPRESSION_MAGIC & 0xFF);
+      bos.write((COMPRESSION_MAGIC >> 8) & 0xFF);
+      bos.write(codec.getId());
 
-        long end = System.currentTimeMillis();
-        LOGGER.logTrace("Decompressed from %s bytes to %s bytes in %sms.",
-            bytes.length, decompressedBytes.length, end - start);
-        return decompressedBytes;
+      if (dictionary != null) {
+        deflater.setDictionary(dictionary);
       }
+      deflater.setInput(bytes);
+      deflater.finish();
+
+      byte[] buffer = new byte[BUFFER_BYTES];
+      while (!deflater.finished()) {
+        int length = deflater.deflate(buffer);
+        bos.write(buffer, 0, length);
+      }
+      return bos.toByteArray();
+    } finally {
+      deflater.end();
     }
   }
 
-  public static boolean isCompressed(byte[] bytes) {
-    // It can judge serialized YAML string correctly, since the YAML string
-    // header !!(0x2121) always does not equal to GZIP_MAGIC(0x8b1f).
-    return CommonUtils.bytesToShort(bytes) == GZIPInputStream.GZIP_MAGIC;
+  private static byte[] inflate(byte[] bytes, byte[] dictionary) throws IOException {
+    Inflater inflater = new Inflater();
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length * 4)) {
+      inflater.setInput(bytes, COMPRESSION_HEADER_BYTES, bytes.length - COMPRESSION_HEADER_BYTES);
+
+      byte[] buffer = new byte[BUFFER_BYTES];
+      while (!inflater.finished()) {
+        int length = inflater.inflate(buffer);
+        if (length == 0) {
+          if (inflater.needsDictionary()) {
+            if (dictionary == null) {
+              throw new ZipException("Found unexpected preset dictionary in the compressed bytes");
+            }
+            inflater.setDictionary(dictionary);
+          } else if (inflater.needsInput()) {
+            throw new EOFException("Unexpected end of the compressed bytes");
+          }
+        }
+        bos.write(buffer, 0, length);
+      }
+      return bos.toByteArray();
+    } catch (DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    } finally {
+      inflater.end();
+    }
   }
-}
\ No newline at end of file
+}
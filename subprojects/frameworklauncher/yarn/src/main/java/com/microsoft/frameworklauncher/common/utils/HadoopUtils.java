@@ -19,13 +19,19 @@
 
 import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.LoadingCacheMetrics;
 import com.microsoft.frameworklauncher.common.model.ResourceDescriptor;
 import com.microsoft.frameworklauncher.common.model.UserDescriptor;
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
-import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.hdfs.DFSClient;
+import org.apache.hadoop.hdfs.DFSUtil;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
+import org.apache.hadoop.hdfs.protocol.DirectoryListing;
+import org.apache.hadoop.hdfs.protocol.HdfsFileStatus;
 import org.apache.hadoop.util.Shell;
 import org.apache.hadoop.yarn.api.records.*;
 import org.apache.hadoop.yarn.client.api.AMRMClient.ContainerRequest;
@@ -35,8 +41,7 @@
 import org.apache.hadoop.yarn.nodelabels.CommonNodeLabelsManager;
 
 import java.io.FileNotFoundException;
-import java.lang.reflect.UndeclaredThrowableException;
-import java.security.PrivilegedExceptionAction;
+import java.io.IOException;
 import java.util.*;
 
 public class HadoopUtils {
@@ -45,7 +50,23 @@ public class HadoopUtils {
   private static final Configuration CONF = new YarnConfiguration();
 
   // Cache for HDFS ResourceAbsolutePath -> ResourceFileStatus
-  private static final Map<String, FileStatus> resourceFileStatusCache = new HashMap<>();
+  // The TTL bounds the staleness if a resource is overwritten without explicit invalidation.
+  private static final int RESOURCE_FILE_STATUS_CACHE_MAX_SIZE = 10000;
+  private static final long RESOURCE_FILE_STATUS_CACHE_TTL_MS = 5 * 60 * 1000;
+  private static final LoadingCache<String, FileStatus> resourceFileStatusCache = new LoadingCache<>(
+      "ResourceFileStatusCache",
+      RESOURCE_FILE_STATUS_CACHE_MAX_SIZE,
+      RESOURCE_FILE_STATUS_CACHE_TTL_MS,
+      HadoopUtils::getFileStatusInHdfsInternal);
+
+  // Pool for UserName -> Started YarnClient
+  private static final int YARN_CLIENT_POOL_MAX_SIZE = 256;
+  private static final long YARN_CLIENT_POOL_IDLE_TIMEOUT_MS = 10 * 60 * 1000;
+  private static final YarnClientPool yarnClientPool = new YarnClientPool(
+      "YarnClientPool", CONF,
+      YARN_CLIENT_POOL_MAX_SIZE,
+      YARN_CLIENT_POOL_IDLE_TIMEOUT_MS,
+      YarnClient::createYarnClient);
 
   // Node can be file or directory
   public static String getHdfsNodePath(String parentNodePath, String nodeName) {
@@ -117,6 +138,13 @@ public static void makeDirInHdfs(String hdfsPath) throws Exception {
     }
   }
 
+  // Should always success
+  public static boolean existsInHdfs(String hdfsPath) throws Exception {
+    FileSystem fs = FileSystem.get(CONF);
+    LOGGER.logInfo("[hadoop fs -test -e %s]", hdfsPath);
+    return fs.exists(new Path(hdfsPath));
+  }
+
   // Should always success
   // Note the files/directories in subdirectories will not be included
   public static Set<String> listDirInHdfs(String hdfsPath) throws Exception {
@@ -132,6 +160,88 @@ public static Set<String> listDirInHdfs(String hdfsPath) throws Exception {
     return nodeNames;
   }
 
+  // Stream the names of the nodes under the hdfsPath which are after the startAfter (null means from the
+  // beginning) in the lexicographical order, instead of listing all of them at once, so it can be used for
+  // a directory with huge number of nodes, and be resumed from the last streamed name.
+  // On HDFS, each batch of the listing is started after the last name on the NameNode, so the nodes before
+  // the startAfter are never listed. Other FileSystems cannot resume a listing, so the nodes are fully
+  // listed and then filtered.
+  // Should success when the hdfsPath exists
+  public static RemoteIterator<String> listDirIteratorInHdfs(String hdfsPath, String startAfter) throws Exception {
+    try {
+      FileSystem fs = FileSystem.get(CONF);
+      LOGGER.logInfo("[hadoop fs -ls %s] in streaming after [%s]", hdfsPath, startAfter);
+      if (fs instanceof DistributedFileSystem) {
+        return new HdfsDirIterator(((DistributedFileSystem) fs).getClient(),
+            fs.makeQualified(new Path(hdfsPath)).toUri().getPath(),
+            (startAfter == null ? HdfsFileStatus.EMPTY_NAME : DFSUtil.string2Bytes(startAfter)));
+      }
+
+      TreeSet<String> nodeNames = new TreeSet<>();
+      for (FileStatus fileStatus : fs.listStatus(new Path(hdfsPath))) {
+        String nodeName = fileStatus.getPath().getName();
+        if (startAfter == null || nodeName.compareTo(startAfter) > 0) {
+          nodeNames.add(nodeName);
+        }
+      }
+      Iterator<String> nodeNameIterator = nodeNames.iterator();
+      return new RemoteIterator<String>() {
+        @Override
+        public boolean hasNext() {
+          return nodeNameIterator.hasNext();
+        }
+
+        @Override
+        public String next() {
+          return nodeNameIterator.next();
+        }
+      };
+    } catch (FileNotFoundException e) {
+      throw new NonTransientException(e.getMessage(), e);
+    }
+  }
+
+  private static class HdfsDirIterator implements RemoteIterator<String> {
+    private final DFSClient client;
+    private final String src;
+    private DirectoryListing listing;
+    private int index = 0;
+
+    private HdfsDirIterator(DFSClient client, String src, byte[] startAfter) throws IOException {
+      this.client = client;
+      this.src = src;
+      this.listing = listPaths(startAfter);
+    }
+
+    private DirectoryListing listPaths(byte[] startAfter) throws IOException {
+      DirectoryListing listing = client.listPaths(src, startAfter);
+      if (listing == null) {
+        throw new FileNotFoundException("File " + src + " does not exist.");
+      }
+      return listing;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+      while (index >= listing.getPartialListing().length) {
+        if (!listing.hasMore()) {
+          return false;
+        }
+        listing = listPaths(listing.getLastName());
+        index = 0;
+      }
+      return true;
+    }
+
+    @Override
+    public String next() throws IOException {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return listing.getPartialListing()[index++].getLocalName();
+    }
+  }
+
   // Should success when the hdfsPath exists
   private static FileStatus getFileStatusInHdfsInternal(String hdfsPath) throws Exception {
     try {
@@ -144,23 +254,17 @@ private static FileStatus getFileStatusInHdfsInternal(String hdfsPath) throws Ex
   }
 
   public static FileStatus getFileStatusInHdfs(String hdfsPath) throws Exception {
-    synchronized (resourceFileStatusCache) {
-      if (!resourceFileStatusCache.containsKey(hdfsPath)) {
-        resourceFileStatusCache.put(hdfsPath, getFileStatusInHdfsInternal(hdfsPath));
-      }
-      return resourceFileStatusCache.get(hdfsPath);
-    }
+    return resourceFileStatusCache.get(hdfsPath);
   }
 
   // Should always success
   public static void killApplication(String applicationId) throws Exception {
     try {
-      YarnClient yarnClient = YarnClient.createYarnClient();
-      yarnClient.init(CONF);
-      yarnClient.start();
       LOGGER.logInfo("[yarn application -kill %s]", applicationId);
-      yarnClient.killApplication(ApplicationId.fromString(applicationId));
-      yarnClient.stop();
+      yarnClientPool.execute(null, yarnClient -> {
+        yarnClient.killApplication(ApplicationId.fromString(applicationId));
+        return null;
+      });
     } catch (ApplicationNotFoundException ignored) {
     } catch (Exception e) {
       if (e.getMessage().toLowerCase().contains("invalid applicationid")) {
@@ -172,33 +276,19 @@ public static void killApplication(String applicationId) throws Exception {
   }
 
   public static void submitApplication(
-      ApplicationSubmissionContext appContext, UserDescriptor user) throws Throwable {
-    UserGroupInformation ugi =
-        UserGroupInformation.createRemoteUser(user.getName());
-    // Need to start a new YarnClient for a new UGI, since its internal Hadoop RPC
-    // reuse the UGI after YarnClient.start().
-    try {
-      ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
-        YarnClient yarnClient = YarnClient.createYarnClient();
-        yarnClient.init(CONF);
-        yarnClient.start();
-        yarnClient.submitApplication(appContext);
-        yarnClient.stop();
-        return null;
-      });
-    } catch (UndeclaredThrowableException e) {
-      throw e.getCause();
-    }
+      ApplicationSubmissionContext appContext, UserDescriptor user) throws Exception {
+    // The YarnClient is submitting on behalf of the user
+    yarnClientPool.execute(user.getName(), yarnClient -> {
+      yarnClient.submitApplication(appContext);
+      return null;
+    });
   }
 
   public static Set<String> getLiveContainerIdsFromRM(String attemptId, String amContainerId) throws Exception {
     Set<String> containerIds = new HashSet<>();
 
-    YarnClient yarnClient = YarnClient.createYarnClient();
-    yarnClient.init(CONF);
-    yarnClient.start();
-    List<ContainerReport> containerReports = yarnClient.getContainers(ApplicationAttemptId.fromString(attemptId));
-    yarnClient.stop();
+    List<ContainerReport> containerReports = yarnClientPool.execute(null, yarnClient ->
+        yarnClient.getContainers(ApplicationAttemptId.fromString(attemptId)));
 
     // Since we at least has AM container, so we check whether the containerReports is reliable
     if (containerReports == null) {
@@ -254,9 +344,15 @@ private static LocalResource convertToLocalResource(String hdfsPath, LocalResour
     }
   }
 
-  // By default, addToLocalResources is cached, need to use invalidateLocalResourcesCache to explicitly
-  // invalidate out-of-date cache.
+  // By default, addToLocalResources is cached, need to use invalidateLocalResourceCache or
+  // invalidateLocalResourcesCache to explicitly invalidate out-of-date cache before its TTL.
   public static void addToLocalResources(Map<String, LocalResource> localResources, String hdfsPath) throws Exception {
+    addToLocalResources(localResources, hdfsPath, LocalResourceVisibility.APPLICATION);
+  }
+
+  public static void addToLocalResources(
+      Map<String, LocalResource> localResources, String hdfsPath,
+      LocalResourceVisibility visibility) throws Exception {
     hdfsPath = hdfsPath.trim();
     String localNodeName = getHdfsNodeName(hdfsPath);
     if (localResources.containsKey(localNodeName)) {
@@ -268,13 +364,28 @@ public static void addToLocalResources(Map<String, LocalResource> localResources
 
     localResources.put(
         localNodeName,
-        convertToLocalResource(hdfsPath, LocalResourceVisibility.APPLICATION));
+        convertToLocalResource(hdfsPath, visibility));
   }
 
   public static void invalidateLocalResourcesCache() {
-    synchronized (resourceFileStatusCache) {
-      resourceFileStatusCache.clear();
-    }
+    resourceFileStatusCache.invalidateAll();
+  }
+
+  public static void invalidateLocalResourceCache(String hdfsPath) {
+    resourceFileStatusCache.invalidate(hdfsPath.trim());
+  }
+
+  public static LoadingCacheMetrics getLocalResourcesCacheMetrics() {
+    return resourceFileStatusCache.getMetrics();
+  }
+
+  public static YarnClientPoolMetrics getYarnClientPoolMetrics() {
+    return yarnClientPool.getMetrics();
+  }
+
+  // Stop all pooled YarnClients, it should only be called when the process is stopping.
+  public static void closeYarnClientPool() {
+    yarnClientPool.close();
   }
 
   /**
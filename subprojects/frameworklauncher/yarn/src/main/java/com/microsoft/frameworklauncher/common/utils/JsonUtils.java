@@ -0,0 +1,54 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class JsonUtils {
+  // ObjectMapper is thread safe after configured, so share it to avoid to build it per call.
+  // Different from WebCommon, the Json annotations are not used, so the Json is the full
+  // state of the object, i.e. all the properties with getter and setter same as Yaml.
+  private static final ObjectMapper OBJECT_MAPPER;
+
+  static {
+    OBJECT_MAPPER = new ObjectMapper();
+    OBJECT_MAPPER.disable(MapperFeature.USE_ANNOTATIONS);
+    OBJECT_MAPPER.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+
+  // Bytes <-> Json
+  public static <T> T toObject(byte[] bytes, Class<T> classRef) throws IOException {
+    return toObject(bytes, 0, bytes.length, classRef);
+  }
+
+  public static <T> T toObject(byte[] bytes, int offset, int length, Class<T> classRef) throws IOException {
+    return OBJECT_MAPPER.readValue(bytes, offset, length, classRef);
+  }
+
+  public static <T> byte[] toBytes(T obj) throws IOException {
+    return OBJECT_MAPPER.writeValueAsBytes(obj);
+  }
+
+  public static <T> void toStream(T obj, OutputStream stream) throws IOException {
+    OBJECT_MAPPER.writeValue(stream, obj);
+  }
+}
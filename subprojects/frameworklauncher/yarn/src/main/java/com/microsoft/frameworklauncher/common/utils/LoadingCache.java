@@ -0,0 +1,194 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.LoadingCacheMetrics;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// LoadingCache is a bounded cache which loads the value of a missed key by the loader.
+// 1. Size Bound: if there are more than maxSize entries, the least recently used entry is evicted.
+// 2. TTL: an entry is expired after ttlMs since it is loaded, so the next get will reload it.
+// 3. Single Flight: concurrent gets on the same missed key only lead to one load, and others wait for its result.
+// 4. Invalidation: an invalidated key will be reloaded, even if it is invalidated during its loading.
+public class LoadingCache<K, V> { // THREAD SAFE
+  public interface Loader<K, V> {
+    V load(K key) throws Exception;
+  }
+
+  private static class Entry<V> {
+    private final V value;
+    private final long expireTimestamp;
+
+    private Entry(V value, long expireTimestamp) {
+      this.value = value;
+      this.expireTimestamp = expireTimestamp;
+    }
+  }
+
+  private final String name;
+  private final int maxSize;
+  private final long ttlMs;
+  private final Loader<K, V> loader;
+
+  // Key -> Loaded Entry, in the least recently accessed order
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  // Key -> Loading Future
+  private final Map<K, CompletableFuture<V>> loadings = new HashMap<>();
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  // The misses which wait for the loading of another get, instead of loading by itself
+  private long loadWaitCount = 0;
+  private long loadCount = 0;
+  private long loadFailedCount = 0;
+  private long evictionCount = 0;
+  private long expirationCount = 0;
+  private long invalidationCount = 0;
+
+  public LoadingCache(String name, int maxSize, long ttlMs, Loader<K, V> loader) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException(String.format(
+          "LoadingCache %s maxSize %s is less than 1", name, maxSize));
+    }
+
+    this.name = name;
+    this.maxSize = maxSize;
+    this.ttlMs = ttlMs;
+    this.loader = loader;
+  }
+
+  public V get(K key) throws Exception {
+    CompletableFuture<V> loading;
+    boolean isLoader = false;
+    synchronized (this) {
+      Entry<V> entry = entries.get(key);
+      if (entry != null) {
+        if (System.currentTimeMillis() < entry.expireTimestamp) {
+          hitCount++;
+          return entry.value;
+        }
+        entries.remove(key);
+        expirationCount++;
+      }
+
+      missCount++;
+      loading = loadings.get(key);
+      if (loading == null) {
+        loading = new CompletableFuture<>();
+        loadings.put(key, loading);
+        isLoader = true;
+      } else {
+        loadWaitCount++;
+      }
+    }
+
+    if (isLoader) {
+      return load(key, loading);
+    } else {
+      return waitLoading(loading);
+    }
+  }
+
+  private V load(K key, CompletableFuture<V> loading) throws Exception {
+    V value;
+    try {
+      value = loader.load(key);
+    } catch (Throwable e) {
+      // Also complete the loading on an Error, otherwise the waiters of the loading will hang forever.
+      synchronized (this) {
+        loadings.remove(key, loading);
+        loadFailedCount++;
+      }
+      loading.completeExceptionally(e);
+      throw e;
+    }
+
+    synchronized (this) {
+      loadCount++;
+      // Only cache the value if the key is not invalidated during the loading
+      if (loadings.remove(key, loading)) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMs));
+        Iterator<K> eldestKeys = entries.keySet().iterator();
+        while (entries.size() > maxSize) {
+          eldestKeys.next();
+          eldestKeys.remove();
+          evictionCount++;
+        }
+      }
+    }
+    loading.complete(value);
+    return value;
+  }
+
+  private V waitLoading(CompletableFuture<V> loading) throws Exception {
+    try {
+      return loading.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  public synchronized void invalidate(K key) {
+    boolean loaded = (entries.remove(key) != null);
+    boolean loading = (loadings.remove(key) != null);
+    if (loaded || loading) {
+      invalidationCount++;
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    invalidationCount += entries.size() + loadings.size();
+    entries.clear();
+    loadings.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized LoadingCacheMetrics getMetrics() {
+    LoadingCacheMetrics metrics = new LoadingCacheMetrics();
+    metrics.setCacheName(name);
+    metrics.setMaxSize(maxSize);
+    metrics.setTtlMs(ttlMs);
+    metrics.setSize(entries.size());
+    metrics.setLoadingCount(loadings.size());
+    metrics.setHitCount(hitCount);
+    metrics.setMissCount(missCount);
+    metrics.setLoadWaitCount(loadWaitCount);
+    metrics.setLoadCount(loadCount);
+    metrics.setLoadFailedCount(loadFailedCount);
+    metrics.setEvictionCount(evictionCount);
+    metrics.setExpirationCount(expirationCount);
+    metrics.setInvalidationCount(invalidationCount);
+    return metrics;
+  }
+}
@@ -0,0 +1,365 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+// PersistentHashMap is an immutable hash map, whose put and remove return a new map and leave the old one
+// unchanged, so it can be shared by multiple threads without lock, such as be published as a snapshot.
+// It is a Hash Array Mapped Trie: each level consumes 5 bits of the key hash, and a put or remove only copies
+// the nodes on the path to the key, so it costs O(log32(N)) instead of O(N) to copy a whole HashMap.
+// The null key and null value are not supported.
+public class PersistentHashMap<K, V> { // THREAD SAFE
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+  // Null if the map is empty
+  private final Node root;
+  private final int size;
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    if (root == null) {
+      return null;
+    }
+    return (V) root.find(0, hash(key), key);
+  }
+
+  public V getOrDefault(K key, V defaultValue) {
+    V value = get(key);
+    return (value == null ? defaultValue : value);
+  }
+
+  public boolean containsKey(K key) {
+    return get(key) != null;
+  }
+
+  public PersistentHashMap<K, V> put(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+
+    Leaf leaf = new Leaf(hash(key), key, value);
+    boolean[] added = new boolean[]{false};
+    Node newRoot = (root == null ? BitmapNode.EMPTY : root).put(0, leaf, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  public PersistentHashMap<K, V> remove(K key) {
+    if (root == null) {
+      return this;
+    }
+
+    Node newRoot = root.remove(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(newRoot, size - 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    if (root != null) {
+      root.forEach((key, value) -> action.accept((K) key, (V) value));
+    }
+  }
+
+  // O(N) to collect all keys
+  public List<K> keys() {
+    List<K> keys = new ArrayList<>(size);
+    forEach((key, value) -> keys.add(key));
+    return keys;
+  }
+
+  // O(N) to collect all values
+  public List<V> values() {
+    List<V> values = new ArrayList<>(size);
+    forEach((key, value) -> values.add(value));
+    return values;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int getBit(int shift, int hash) {
+    return 1 << ((hash >>> shift) & LEVEL_MASK);
+  }
+
+  /**
+   * REGION Nodes
+   * All Nodes are immutable, and a Node returns itself if the put or remove changes nothing.
+   */
+  private interface Node {
+    Object find(int shift, int hash, Object key);
+
+    // added[0] is set to true if the key is not in the Node before
+    Node put(int shift, Leaf leaf, boolean[] added);
+
+    // Return null if the Node becomes empty
+    Node remove(int shift, int hash, Object key);
+
+    void forEach(BiConsumer<Object, Object> action);
+  }
+
+  private static class Leaf {
+    private final int hash;
+    private final Object key;
+    private final Object value;
+
+    private Leaf(int hash, Object key, Object value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+
+    private boolean matches(int hash, Object key) {
+      return this.hash == hash && this.key.equals(key);
+    }
+  }
+
+  // The children are only stored for the set bits of the bitmap, and each child is a Leaf or a Node
+  private static class BitmapNode implements Node {
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private BitmapNode(int bitmap, Object[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    private int getIndex(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    public Object find(int shift, int hash, Object key) {
+      int bit = getBit(shift, hash);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+
+      Object child = children[getIndex(bit)];
+      if (child instanceof Leaf) {
+        Leaf leaf = (Leaf) child;
+        return (leaf.matches(hash, key) ? leaf.value : null);
+      }
+      return ((Node) child).find(shift + BITS_PER_LEVEL, hash, key);
+    }
+
+    @Override
+    public Node put(int shift, Leaf leaf, boolean[] added) {
+      int bit = getBit(shift, leaf.hash);
+      int index = getIndex(bit);
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        Object[] newChildren = new Object[children.length + 1];
+        System.arraycopy(children, 0, newChildren, 0, index);
+        newChildren[index] = leaf;
+        System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+        return new BitmapNode(bitmap | bit, newChildren);
+      }
+
+      Object child = children[index];
+      Object newChild;
+      if (child instanceof Leaf) {
+        Leaf oldLeaf = (Leaf) child;
+        if (oldLeaf.matches(leaf.hash, leaf.key)) {
+          if (oldLeaf.value == leaf.value) {
+            return this;
+          }
+          newChild = leaf;
+        } else {
+          added[0] = true;
+          newChild = createNode(shift + BITS_PER_LEVEL, oldLeaf, leaf);
+        }
+      } else {
+        newChild = ((Node) child).put(shift + BITS_PER_LEVEL, leaf, added);
+        if (newChild == child) {
+          return this;
+        }
+      }
+
+      Object[] newChildren = children.clone();
+      newChildren[index] = newChild;
+      return new BitmapNode(bitmap, newChildren);
+    }
+
+    @Override
+    public Node remove(int shift, int hash, Object key) {
+      int bit = getBit(shift, hash);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      int index = getIndex(bit);
+      Object child = children[index];
+      Object newChild;
+      if (child instanceof Leaf) {
+        if (!((Leaf) child).matches(hash, key)) {
+          return this;
+        }
+        newChild = null;
+      } else {
+        newChild = ((Node) child).remove(shift + BITS_PER_LEVEL, hash, key);
+        if (newChild == child) {
+          return this;
+        }
+      }
+
+      if (newChild != null) {
+        Object[] newChildren = children.clone();
+        newChildren[index] = newChild;
+        return new BitmapNode(bitmap, newChildren);
+      }
+
+      if (children.length == 1) {
+        return null;
+      }
+      Object[] newChildren = new Object[children.length - 1];
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+      return new BitmapNode(bitmap & ~bit, newChildren);
+    }
+
+    @Override
+    public void forEach(BiConsumer<Object, Object> action) {
+      for (Object child : children) {
+        if (child instanceof Leaf) {
+          Leaf leaf = (Leaf) child;
+          action.accept(leaf.key, leaf.value);
+        } else {
+          ((Node) child).forEach(action);
+        }
+      }
+    }
+
+    private static Node createNode(int shift, Leaf leaf1, Leaf leaf2) {
+      if (leaf1.hash == leaf2.hash) {
+        return new CollisionNode(leaf1.hash, new Leaf[]{leaf1, leaf2});
+      }
+
+      boolean[] added = new boolean[]{false};
+      return EMPTY.put(shift, leaf1, added).put(shift, leaf2, added);
+    }
+  }
+
+  // All the Leaves have the same hash
+  private static class CollisionNode implements Node {
+    private final int hash;
+    private final Leaf[] leaves;
+
+    private CollisionNode(int hash, Leaf[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    private int getIndex(Object key) {
+      for (int i = 0; i < leaves.length; i++) {
+        if (leaves[i].key.equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public Object find(int shift, int hash, Object key) {
+      if (this.hash != hash) {
+        return null;
+      }
+
+      int index = getIndex(key);
+      return (index < 0 ? null : leaves[index].value);
+    }
+
+    @Override
+    public Node put(int shift, Leaf leaf, boolean[] added) {
+      if (this.hash != leaf.hash) {
+        // Nest this Node into a BitmapNode, which can hold both hashes
+        return new BitmapNode(getBit(shift, hash), new Object[]{this}).put(shift, leaf, added);
+      }
+
+      int index = getIndex(leaf.key);
+      if (index < 0) {
+        added[0] = true;
+        Leaf[] newLeaves = new Leaf[leaves.length + 1];
+        System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+        newLeaves[leaves.length] = leaf;
+        return new CollisionNode(hash, newLeaves);
+      }
+
+      if (leaves[index].value == leaf.value) {
+        return this;
+      }
+      Leaf[] newLeaves = leaves.clone();
+      newLeaves[index] = leaf;
+      return new CollisionNode(hash, newLeaves);
+    }
+
+    @Override
+    public Node remove(int shift, int hash, Object key) {
+      int index = (this.hash == hash ? getIndex(key) : -1);
+      if (index < 0) {
+        return this;
+      }
+      if (leaves.length == 1) {
+        return null;
+      }
+
+      Leaf[] newLeaves = new Leaf[leaves.length - 1];
+      System.arraycopy(leaves, 0, newLeaves, 0, index);
+      System.arraycopy(leaves, index + 1, newLeaves, index, leaves.length - index - 1);
+      return new CollisionNode(hash, newLeaves);
+    }
+
+    @Override
+    public void forEach(BiConsumer<Object, Object> action) {
+      for (Leaf leaf : leaves) {
+        action.accept(leaf.key, leaf.value);
+      }
+    }
+  }
+}
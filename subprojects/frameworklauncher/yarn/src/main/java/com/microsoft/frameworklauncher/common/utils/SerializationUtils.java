@@ -0,0 +1,101 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.PayloadCodecType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class SerializationUtils {
+  private static final DefaultLogger LOGGER = new DefaultLogger(SerializationUtils.class);
+
+  // The payload serialized by a codec other than YAML starts with the header:
+  //  PAYLOAD_MAGIC (2 bytes) + PayloadCodecType id (1 byte)
+  // The first byte 0xfa never occurs in an UTF-8 string, so the PAYLOAD_MAGIC(0x4cfa) always does
+  // not equal to the YAML string header !!(0x2121), nor the GZIP_MAGIC(0x8b1f).
+  private static final int PAYLOAD_MAGIC = 0x4cfa;
+  private static final int PAYLOAD_HEADER_BYTES = 3;
+
+  public static <T> byte[] serialize(T obj, PayloadCodecType codec) throws IOException {
+    if (codec == PayloadCodecType.YAML) {
+      // Keep it headerless, so that it can be read by old Launcher versions.
+      return YamlUtils.toBytes(obj);
+    }
+
+    long start = System.currentTimeMillis();
+
+    byte[] serializedObj;
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+      bos.write(PAYLOAD_MAGIC & 0xFF);
+      bos.write((PAYLOAD_MAGIC >> 8) & 0xFF);
+      bos.write(codec.getId());
+      if (codec == PayloadCodecType.JSON) {
+        JsonUtils.toStream(obj, bos);
+      } else {
+        throw new IllegalArgumentException(String.format(
+            "Unsupported PayloadCodecType %s", codec));
+      }
+      serializedObj = bos.toByteArray();
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logTrace("Serialized to %s bytes by %s in %sms.",
+        serializedObj.length, codec, end - start);
+    return serializedObj;
+  }
+
+  // Works for the payload serialized by any codec, including the legacy headerless YAML
+  public static <T> T deserialize(byte[] bytes, Class<T> classRef) throws Exception {
+    PayloadCodecType codec = getCodec(bytes);
+    if (codec == PayloadCodecType.YAML) {
+      return YamlUtils.toObject(bytes, classRef);
+    }
+
+    long start = System.currentTimeMillis();
+
+    T obj;
+    if (codec == PayloadCodecType.JSON) {
+      obj = JsonUtils.toObject(bytes,
+          PAYLOAD_HEADER_BYTES, bytes.length - PAYLOAD_HEADER_BYTES, classRef);
+    } else {
+      // Such as the payload is serialized by a newer Launcher version
+      throw new NonTransientException(String.format(
+          "Unsupported PayloadCodecType id %s in the payload header", bytes[2]));
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logTrace("Deserialized from %s bytes by %s in %sms.",
+        bytes.length, codec, end - start);
+    return obj;
+  }
+
+  // Return null if the codec in the header is unknown
+  public static PayloadCodecType getCodec(byte[] bytes) {
+    if (!hasHeader(bytes)) {
+      return PayloadCodecType.YAML;
+    }
+    return PayloadCodecType.fromId(bytes[2]);
+  }
+
+  public static boolean hasHeader(byte[] bytes) {
+    return bytes.length >= PAYLOAD_HEADER_BYTES &&
+        CommonUtils.bytesToShort(bytes) == PAYLOAD_MAGIC;
+  }
+}
@@ -0,0 +1,287 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.service.Service;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.security.PrivilegedExceptionAction;
+import java.util.*;
+import java.util.function.Supplier;
+
+// YarnClientPool reuses the started YarnClient of each user, instead of creating, starting and stopping
+// a YarnClient for each call, so the RPC proxy, connection and authentication can be reused across calls.
+// 1. A YarnClient is shared by all concurrent calls of its user, since YarnClient is thread safe.
+// 2. A YarnClient is stopped after it is idle for idleTimeoutMs, or it is the least recently used
+//    idle one when there are more than maxSize YarnClients.
+// 3. A YarnClient is discarded if a call failed by an IOException, such as the connection failure,
+//    so the next call will start a new one.
+public class YarnClientPool { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(YarnClientPool.class);
+
+  public interface YarnClientAction<T> {
+    T run(YarnClient yarnClient) throws Exception;
+  }
+
+  private static class PooledYarnClient {
+    private final String userName;
+    // Null means the login user
+    private final UserGroupInformation ugi;
+    private final YarnClient yarnClient;
+    private int inUseCount = 0;
+    private long lastUsedTimestamp = System.currentTimeMillis();
+
+    private PooledYarnClient(String userName, UserGroupInformation ugi, YarnClient yarnClient) {
+      this.userName = userName;
+      this.ugi = ugi;
+      this.yarnClient = yarnClient;
+    }
+  }
+
+  private final String name;
+  private final Configuration conf;
+  private final int maxSize;
+  private final long idleTimeoutMs;
+  private final Supplier<YarnClient> yarnClientFactory;
+
+  // UserName -> PooledYarnClient, in the least recently used order
+  private final LinkedHashMap<String, PooledYarnClient> clients = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long borrowedCount = 0;
+  private long createdCount = 0;
+  private long evictedCount = 0;
+  private long discardedCount = 0;
+
+  public YarnClientPool(
+      String name, Configuration conf, int maxSize, long idleTimeoutMs,
+      Supplier<YarnClient> yarnClientFactory) {
+    this.name = name;
+    this.conf = conf;
+    this.maxSize = maxSize;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.yarnClientFactory = yarnClientFactory;
+  }
+
+  // Run the action by the YarnClient of the userName.
+  // Null userName means the login user.
+  public <T> T execute(String userName, YarnClientAction<T> action) throws Exception {
+    PooledYarnClient client = borrow(userName);
+    boolean healthy = true;
+    try {
+      if (client.ugi == null) {
+        return action.run(client.yarnClient);
+      } else {
+        return doAs(client.ugi, () -> action.run(client.yarnClient));
+      }
+    } catch (Exception e) {
+      healthy = !isConnectionFailure(e);
+      throw e;
+    } finally {
+      giveBack(client, healthy);
+    }
+  }
+
+  // Only an IOException may be caused by the broken connection or RPC proxy of the YarnClient.
+  // Others, such as the YarnException returned by RM, the IllegalArgumentException and the
+  // NonTransientException, are failed before or after the RPC, so the YarnClient is still healthy.
+  private static boolean isConnectionFailure(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof IOException) {
+        return true;
+      }
+      if (cause instanceof YarnException || cause instanceof NonTransientException) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private PooledYarnClient borrow(String userName) throws Exception {
+    List<PooledYarnClient> stoppingClients = new ArrayList<>();
+    try {
+      synchronized (this) {
+        borrowedCount++;
+        stoppingClients.addAll(evictIdleClients());
+
+        PooledYarnClient client = clients.get(userName);
+        if (client != null && !client.yarnClient.isInState(Service.STATE.STARTED)) {
+          LOGGER.logWarning("YarnClient of User [%s] is discarded since it is not started", userName);
+          clients.remove(userName);
+          discardedCount++;
+          if (client.inUseCount == 0) {
+            stoppingClients.add(client);
+          }
+          client = null;
+        }
+        if (client != null) {
+          client.inUseCount++;
+          return client;
+        }
+      }
+
+      // Start the YarnClient outside the lock, since it may be slow.
+      PooledYarnClient newClient = createClient(userName);
+      synchronized (this) {
+        PooledYarnClient client = clients.get(userName);
+        if (client == null) {
+          clients.put(userName, newClient);
+          createdCount++;
+          client = newClient;
+        } else {
+          // Another call has already created one for the user
+          stoppingClients.add(newClient);
+        }
+        client.inUseCount++;
+        stoppingClients.addAll(evictExceededClients());
+        return client;
+      }
+    } finally {
+      stopClients(stoppingClients);
+    }
+  }
+
+  private void giveBack(PooledYarnClient client, boolean healthy) {
+    boolean stopping = false;
+    synchronized (this) {
+      client.inUseCount--;
+      client.lastUsedTimestamp = System.currentTimeMillis();
+      if (!healthy && clients.get(client.userName) == client) {
+        LOGGER.logWarning("YarnClient of User [%s] is discarded since it is unhealthy", client.userName);
+        clients.remove(client.userName);
+        discardedCount++;
+      }
+      // The removed YarnClient is stopped by its last user
+      stopping = (clients.get(client.userName) != client && client.inUseCount == 0);
+    }
+    if (stopping) {
+      stopClients(Collections.singletonList(client));
+    }
+  }
+
+  private PooledYarnClient createClient(String userName) throws Exception {
+    LOGGER.logInfo("Starting YarnClient of User [%s] in %s", userName, name);
+    // Need to start a new YarnClient for a new UGI, since its internal Hadoop RPC
+    // reuse the UGI after YarnClient.start().
+    UserGroupInformation ugi = null;
+    YarnClient yarnClient = yarnClientFactory.get();
+    if (userName == null) {
+      startClient(yarnClient);
+    } else {
+      ugi = UserGroupInformation.createRemoteUser(userName);
+      doAs(ugi, () -> {
+        startClient(yarnClient);
+        return null;
+      });
+    }
+    return new PooledYarnClient(userName, ugi, yarnClient);
+  }
+
+  private void startClient(YarnClient yarnClient) {
+    yarnClient.init(conf);
+    yarnClient.start();
+  }
+
+  private synchronized List<PooledYarnClient> evictIdleClients() {
+    List<PooledYarnClient> evictedClients = new ArrayList<>();
+    long currentTimestamp = System.currentTimeMillis();
+    Iterator<PooledYarnClient> iterator = clients.values().iterator();
+    while (iterator.hasNext()) {
+      PooledYarnClient client = iterator.next();
+      if (client.inUseCount == 0 && currentTimestamp - client.lastUsedTimestamp > idleTimeoutMs) {
+        iterator.remove();
+        evictedClients.add(client);
+        evictedCount++;
+      }
+    }
+    return evictedClients;
+  }
+
+  // The in use YarnClients are never evicted, so maxSize is a soft limit.
+  private synchronized List<PooledYarnClient> evictExceededClients() {
+    List<PooledYarnClient> evictedClients = new ArrayList<>();
+    Iterator<PooledYarnClient> iterator = clients.values().iterator();
+    while (clients.size() > maxSize && iterator.hasNext()) {
+      PooledYarnClient client = iterator.next();
+      if (client.inUseCount == 0) {
+        iterator.remove();
+        evictedClients.add(client);
+        evictedCount++;
+      }
+    }
+    return evictedClients;
+  }
+
+  private void stopClients(List<PooledYarnClient> stoppingClients) {
+    for (PooledYarnClient client : stoppingClients) {
+      LOGGER.logInfo("Stopping YarnClient of User [%s] in %s", client.userName, name);
+      try {
+        client.yarnClient.stop();
+      } catch (Exception e) {
+        LOGGER.logWarning(e, "Failed to stop YarnClient of User [%s] in %s", client.userName, name);
+      }
+    }
+  }
+
+  private static <T> T doAs(UserGroupInformation ugi, PrivilegedExceptionAction<T> action) throws Exception {
+    try {
+      return ugi.doAs(action);
+    } catch (UndeclaredThrowableException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  public void close() {
+    List<PooledYarnClient> stoppingClients;
+    synchronized (this) {
+      stoppingClients = new ArrayList<>(clients.values());
+      clients.clear();
+    }
+    stopClients(stoppingClients);
+  }
+
+  public synchronized YarnClientPoolMetrics getMetrics() {
+    int inUseCount = 0;
+    for (PooledYarnClient client : clients.values()) {
+      inUseCount += client.inUseCount;
+    }
+
+    YarnClientPoolMetrics metrics = new YarnClientPoolMetrics();
+    metrics.setPoolName(name);
+    metrics.setMaxSize(maxSize);
+    metrics.setIdleTimeoutMs(idleTimeoutMs);
+    metrics.setSize(clients.size());
+    metrics.setInUseCount(inUseCount);
+    metrics.setBorrowedCount(borrowedCount);
+    metrics.setCreatedCount(createdCount);
+    metrics.setEvictedCount(evictedCount);
+    metrics.setDiscardedCount(discardedCount);
+    return metrics;
+  }
+}
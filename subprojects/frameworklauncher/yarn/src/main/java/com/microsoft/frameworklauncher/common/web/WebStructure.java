@@ -53,6 +53,15 @@ public class WebStructure {
   public static final String FRAMEWORK_REQUEST_PATH = FRAMEWORK_PATH + PATH_SEPARATOR + "FrameworkRequest";
   public static final String LOG_ROOT_PATH = VERSION_PATH + PATH_SEPARATOR + "Logs";
   public static final String LOG_PATH = LOG_ROOT_PATH + PATH_SEPARATOR + LOG_NAME_PATH_PARAM_PLACEMENT;
+  public static final String METRICS_ROOT_PATH = VERSION_PATH + PATH_SEPARATOR + "Metrics";
+  public static final String SYSTEM_TASK_QUEUE_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "SystemTaskQueues";
+  public static final String BOUNDED_EXECUTOR_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "BoundedExecutors";
+  public static final String ADMISSION_CONTROLLER_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "AdmissionControllers";
+  public static final String LOADING_CACHE_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "LoadingCaches";
+  public static final String YARN_CLIENT_POOL_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "YarnClientPools";
+  public static final String ZOOKEEPER_GARBAGE_COLLECTOR_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "ZookeeperGarbageCollectors";
+  public static final String ZOOKEEPER_COMPRESSION_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "ZookeeperCompressions";
+  public static final String LEFTOVER_FRAMEWORK_GARBAGE_COLLECTOR_METRICS_PATH = METRICS_ROOT_PATH + PATH_SEPARATOR + "LeftoverFrameworkGarbageCollectors";
 
   public static final String REQUEST_PARAM_LAUNCH_CLIENT_TYPE = WebCommon.REQUEST_HEADER_LAUNCH_CLIENT_TYPE;
   public static final String REQUEST_PARAM_USER_NAME = WebCommon.REQUEST_HEADER_USER_NAME;
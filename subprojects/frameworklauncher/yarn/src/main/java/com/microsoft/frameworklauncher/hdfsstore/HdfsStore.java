@@ -24,7 +24,11 @@
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
+import org.apache.hadoop.fs.RemoteIterator;
 
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class HdfsStore {
@@ -49,7 +53,43 @@ protected void setupHDFSStructure() throws Exception {
   }
 
   public Set<String> getFrameworkNames() throws Exception {
-    return HadoopUtils.listDirInHdfs(hdfsStruct.getLauncherRootPath());
+    Set<String> frameworkNames = new HashSet<>();
+    for (String nodeName : HadoopUtils.listDirInHdfs(hdfsStruct.getLauncherRootPath())) {
+      if (!nodeName.startsWith(HdfsStoreStructure.RESERVED_NAME_PREFIX)) {
+        frameworkNames.add(nodeName);
+      }
+    }
+    return frameworkNames;
+  }
+
+  // Stream the FrameworkNames in HDFS which are after the startAfter in lexicographical order
+  public RemoteIterator<String> getFrameworkNamesIterator(String startAfter) throws Exception {
+    RemoteIterator<String> nodeNames = HadoopUtils.listDirIteratorInHdfs(
+        hdfsStruct.getLauncherRootPath(), startAfter);
+    return new RemoteIterator<String>() {
+      private String nextFrameworkName = null;
+
+      @Override
+      public boolean hasNext() throws IOException {
+        while (nextFrameworkName == null && nodeNames.hasNext()) {
+          String nodeName = nodeNames.next();
+          if (!nodeName.startsWith(HdfsStoreStructure.RESERVED_NAME_PREFIX)) {
+            nextFrameworkName = nodeName;
+          }
+        }
+        return (nextFrameworkName != null);
+      }
+
+      @Override
+      public String next() throws IOException {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        String frameworkName = nextFrameworkName;
+        nextFrameworkName = null;
+        return frameworkName;
+      }
+    };
   }
 
   public void makeFrameworkRootDir(String frameworkName) throws Exception {
@@ -68,12 +108,30 @@ public void makeAMStoreRootDir(String frameworkName) throws Exception {
     HadoopUtils.makeDirInHdfs(hdfsStruct.getAMStoreRootPath(frameworkName));
   }
 
-  public String uploadAMPackageFile(String frameworkName) throws Exception {
-    String hdfsPath = hdfsStruct.getAMPackageFilePath(frameworkName);
-    HadoopUtils.uploadFileToHdfs(GlobalConstants.PACKAGE_APPLICATION_MASTER_FILE, hdfsPath);
+  // The AM package file is only uploaded if the amPackageVersion does not exist.
+  // Note uploadAMPackageFile is guaranteed to be atomic, so an existing AM package file is always complete.
+  public String uploadAMPackageFile(String amPackageVersion) throws Exception {
+    String hdfsPath = hdfsStruct.getAMPackageFilePath(amPackageVersion);
+    if (HadoopUtils.existsInHdfs(hdfsPath)) {
+      LOGGER.logInfo("AM package [%s] already exists. Reuse it.", hdfsPath);
+      return hdfsPath;
+    }
+
+    String hdfsTempPath = hdfsStruct.getAMPackageFileTempPath(amPackageVersion);
+    HadoopUtils.makeDirInHdfs(hdfsStruct.getAMPackageRootPath(amPackageVersion));
+    HadoopUtils.uploadFileToHdfs(GlobalConstants.PACKAGE_APPLICATION_MASTER_FILE, hdfsTempPath);
+    HadoopUtils.renameFileInHdfs(hdfsTempPath, hdfsPath);
     return hdfsPath;
   }
 
+  public Set<String> getAMPackageVersions() throws Exception {
+    return HadoopUtils.listDirInHdfs(hdfsStruct.getAMPackageStoreRootPath());
+  }
+
+  public void removeAMPackage(String amPackageVersion) throws Exception {
+    HadoopUtils.removeDirInHdfs(hdfsStruct.getAMPackageRootPath(amPackageVersion));
+  }
+
   public String uploadAgentPackageFile(String frameworkName) throws Exception {
     String hdfsPath = hdfsStruct.getAgentPackageFilePath(frameworkName);
     HadoopUtils.uploadFileToHdfs(GlobalConstants.PACKAGE_AGENT_FILE, hdfsPath);
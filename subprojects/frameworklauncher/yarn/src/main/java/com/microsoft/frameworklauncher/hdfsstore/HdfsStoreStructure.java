@@ -23,6 +23,9 @@
 
 // Define Launcher HdfsStoreStructure
 public class HdfsStoreStructure {
+  // The nodes under LauncherRootPath whose name starts with RESERVED_NAME_PREFIX are not Frameworks,
+  // since it is not allowed in a FrameworkName.
+  public static final String RESERVED_NAME_PREFIX = "@";
   private final String launcherRootPath;
 
   public HdfsStoreStructure(String launcherRootPath) {
@@ -41,11 +44,6 @@ public String getUserStoreRootPath(String frameworkName) {
     return HadoopUtils.getHdfsNodePath(getFrameworkRootPath(frameworkName), "UserStore");
   }
 
-  public String getAMPackageFilePath(String frameworkName) {
-    return HadoopUtils.getHdfsNodePath(getFrameworkRootPath(frameworkName),
-        FilenameUtils.getName(GlobalConstants.PACKAGE_APPLICATION_MASTER_FILE));
-  }
-
   public String getAgentPackageFilePath(String frameworkName) {
     return HadoopUtils.getHdfsNodePath(getFrameworkRootPath(frameworkName),
         FilenameUtils.getName(GlobalConstants.PACKAGE_AGENT_FILE));
@@ -63,4 +61,24 @@ public String getFrameworkInfoFilePath(String frameworkName) {
   public String getFrameworkInfoFileTempPath(String frameworkName) {
     return getFrameworkInfoFilePath(frameworkName) + "_TEMP";
   }
+
+  // The AM package is shared by all Frameworks and addressed by its content, i.e. the AMPackageVersion is the
+  // SHA-256 of the AM package file. So it is only uploaded once for each Launcher version, and NodeManagers
+  // can reuse the localized AM package across Applications.
+  public String getAMPackageStoreRootPath() {
+    return HadoopUtils.getHdfsNodePath(launcherRootPath, RESERVED_NAME_PREFIX + "AMPackageStore");
+  }
+
+  public String getAMPackageRootPath(String amPackageVersion) {
+    return HadoopUtils.getHdfsNodePath(getAMPackageStoreRootPath(), amPackageVersion);
+  }
+
+  public String getAMPackageFilePath(String amPackageVersion) {
+    return HadoopUtils.getHdfsNodePath(getAMPackageRootPath(amPackageVersion),
+        FilenameUtils.getName(GlobalConstants.PACKAGE_APPLICATION_MASTER_FILE));
+  }
+
+  public String getAMPackageFileTempPath(String amPackageVersion) {
+    return getAMPackageFilePath(amPackageVersion) + "_TEMP";
+  }
 }
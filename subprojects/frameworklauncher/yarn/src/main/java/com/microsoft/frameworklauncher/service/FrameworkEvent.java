@@ -22,6 +22,7 @@
 
 public class FrameworkEvent {
   private ApplicationSubmissionContext applicationContext;
+  private String applicationAMPackageVersion;
   private Integer applicationExitCode;
   private String applicationExitDiagnostics;
   private String applicationExitTriggerMessage;
@@ -39,6 +40,15 @@ public FrameworkEvent setApplicationContext(ApplicationSubmissionContext applica
     return this;
   }
 
+  public String getApplicationAMPackageVersion() {
+    return applicationAMPackageVersion;
+  }
+
+  public FrameworkEvent setApplicationAMPackageVersion(String applicationAMPackageVersion) {
+    this.applicationAMPackageVersion = applicationAMPackageVersion;
+    return this;
+  }
+
   public Integer getApplicationExitCode() {
     return applicationExitCode;
   }
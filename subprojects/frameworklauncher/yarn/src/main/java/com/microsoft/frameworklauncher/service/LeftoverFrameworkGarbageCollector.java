@@ -0,0 +1,158 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.microsoft.frameworklauncher.common.GlobalConstants;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.LeftoverFrameworkGarbageCollectorMetrics;
+import com.microsoft.frameworklauncher.hdfsstore.HdfsStore;
+import org.apache.hadoop.fs.RemoteIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// GC the Framework level external resource [HDFS] of LeftoverFrameworks in background, instead of blocking
+// the Service recovery. LeftoverFrameworks may be caused by HDFS down, race condition, etc.
+// Each round resumes the listing of the Frameworks in HDFS after the cursor of last round, so that a huge
+// HDFS root is neither listed into memory at once, nor rescanned from the beginning in each round.
+// The remove of each LeftoverFramework is executed by the Service as a SystemTask of the Framework, so that
+// it is not raced with the Framework which is added again with the same name.
+public class LeftoverFrameworkGarbageCollector { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(LeftoverFrameworkGarbageCollector.class);
+
+  private final Service service;
+  private final LauncherConfiguration conf;
+  private final HdfsStore hdfsStore;
+  private final StatusManager statusManager;
+
+  // The last scanned FrameworkName, and null means the next round starts from the beginning.
+  // Only changed by the GC thread.
+  private volatile String cursor = null;
+
+  /**
+   * REGION Metrics
+   */
+  private final AtomicLong scannedFrameworkCount = new AtomicLong(0);
+  private final AtomicLong removedFrameworkCount = new AtomicLong(0);
+  private final AtomicLong failedFrameworkCount = new AtomicLong(0);
+  private final AtomicLong completedPassCount = new AtomicLong(0);
+
+  public LeftoverFrameworkGarbageCollector(
+      Service service, LauncherConfiguration conf,
+      HdfsStore hdfsStore, StatusManager statusManager) {
+    this.service = service;
+    this.conf = conf;
+    this.hdfsStore = hdfsStore;
+    this.statusManager = statusManager;
+  }
+
+  public void start() {
+    if (conf.getFrameworkLeftoverGCIntervalSec() <= 0) {
+      LOGGER.logInfo("LeftoverFrameworkGarbageCollector is disabled");
+      return;
+    }
+
+    LOGGER.logInfo("Starting LeftoverFrameworkGarbageCollector");
+    new Thread(() -> {
+      while (true) {
+        try {
+          Thread.sleep(conf.getFrameworkLeftoverGCIntervalSec() * 1000);
+
+          gc();
+        } catch (Exception e) {
+          LOGGER.logWarning(e,
+              "Exception occurred during LeftoverFramework GC. It should be transient. " +
+                  "Will retry next time after %ss", conf.getFrameworkLeftoverGCIntervalSec());
+        }
+      }
+    }, "LeftoverFrameworkGarbageCollector").start();
+  }
+
+  @VisibleForTesting
+  void gc() throws Exception {
+    int maxCount = conf.getFrameworkLeftoverGCMaxCount();
+    int maxDeletesPerSec = Math.max(1, conf.getFrameworkLeftoverGCMaxDeletesPerSec());
+    long startScannedCount = scannedFrameworkCount.get();
+    long startRemovedCount = removedFrameworkCount.get();
+    long start = System.currentTimeMillis();
+    String startCursor = cursor;
+
+    List<Future<Boolean>> removings = new ArrayList<>();
+    RemoteIterator<String> frameworkNamesInHdfs = hdfsStore.getFrameworkNamesIterator(cursor);
+    boolean passCompleted = true;
+    while (frameworkNamesInHdfs.hasNext()) {
+      if (maxCount != GlobalConstants.USING_UNLIMITED_VALUE && removings.size() >= maxCount) {
+        passCompleted = false;
+        break;
+      }
+
+      String frameworkNameInHdfs = frameworkNamesInHdfs.next();
+      cursor = frameworkNameInHdfs;
+      scannedFrameworkCount.incrementAndGet();
+      if (statusManager.containsFramework(frameworkNameInHdfs)) {
+        continue;
+      }
+
+      // Limit the HDFS delete rate, so that the GC does not flood the NameNode
+      long expectedMs = start + removings.size() * 1000L / maxDeletesPerSec;
+      long currentMs = System.currentTimeMillis();
+      if (currentMs < expectedMs) {
+        Thread.sleep(expectedMs - currentMs);
+      }
+      removings.add(service.removeLeftoverFramework(frameworkNameInHdfs));
+    }
+
+    // A removing which is completed with false is skipped, since the Framework is added again
+    for (Future<Boolean> removing : removings) {
+      try {
+        if (removing.get()) {
+          removedFrameworkCount.incrementAndGet();
+        }
+      } catch (ExecutionException e) {
+        failedFrameworkCount.incrementAndGet();
+      }
+    }
+
+    if (passCompleted) {
+      cursor = null;
+      completedPassCount.incrementAndGet();
+    }
+
+    LOGGER.logInfo(
+        "LeftoverFramework GC round completed in %sms: [StartCursor] = [%s], [EndCursor] = [%s], " +
+            "[ScannedFrameworks] = [%s], [RemovedFrameworks] = [%s]",
+        System.currentTimeMillis() - start, startCursor, cursor,
+        scannedFrameworkCount.get() - startScannedCount,
+        removedFrameworkCount.get() - startRemovedCount);
+  }
+
+  public LeftoverFrameworkGarbageCollectorMetrics getMetrics() {
+    LeftoverFrameworkGarbageCollectorMetrics metrics = new LeftoverFrameworkGarbageCollectorMetrics();
+    metrics.setScannedFrameworkCount(scannedFrameworkCount.get());
+    metrics.setRemovedFrameworkCount(removedFrameworkCount.get());
+    metrics.setFailedFrameworkCount(failedFrameworkCount.get());
+    metrics.setCompletedPassCount(completedPassCount.get());
+    metrics.setCursor(cursor);
+    return metrics;
+  }
+}
@@ -27,17 +27,33 @@
 import org.apache.hadoop.yarn.api.records.ApplicationReport;
 import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
 import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.api.records.impl.pb.ApplicationReportPBImpl;
 import org.apache.hadoop.yarn.client.api.YarnClient;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class RMResyncHandler { // THREAD SAFE
   private static final DefaultLogger LOGGER = new DefaultLogger(RMResyncHandler.class);
 
+  // The Applications in these states are still running in RM
+  private static final EnumSet<YarnApplicationState> UNFINISHED_APPLICATION_STATES = EnumSet.of(
+      YarnApplicationState.NEW,
+      YarnApplicationState.NEW_SAVING,
+      YarnApplicationState.SUBMITTED,
+      YarnApplicationState.ACCEPTED,
+      YarnApplicationState.RUNNING);
+
   private final Service service;
   private final LauncherConfiguration conf;
   private final YarnClient yarnClient;
   private final StatusManager statusManager;
+  private final ExecutorService supplementExecutor;
+
+  // Only accessed by resyncWithRM, which is serially executed in the SystemTaskQueue
+  private int resyncRound = 0;
 
   public RMResyncHandler(
       Service service, LauncherConfiguration conf,
@@ -46,6 +62,12 @@ public RMResyncHandler(
     this.conf = conf;
     this.yarnClient = yarnClient;
     this.statusManager = statusManager;
+    this.supplementExecutor = Executors.newFixedThreadPool(
+        Math.max(1, conf.getServiceRMResyncSupplementParallelism()), runnable -> {
+          Thread thread = new Thread(runnable, "RMResyncSupplementer");
+          thread.setDaemon(true);
+          return thread;
+        });
   }
 
   public void start() {
@@ -58,17 +80,33 @@ public void start() {
     LOGGER.logInfo("Running RMResyncHandler");
   }
 
+  public void stop() {
+    // The ongoing getApplicationReport calls are abandoned, since they are best effort.
+    supplementExecutor.shutdownNow();
+  }
+
   public void resyncWithRM() throws Exception {
+    // The first round is always full, so that the lost Applications are detected ASAP after Service start.
+    boolean isFullResync = (resyncRound % Math.max(1, conf.getServiceRMResyncFullFrequency()) == 0);
+    String resyncMode = (isFullResync ? "Full" : "Incremental");
+    long startTimestamp = System.currentTimeMillis();
     List<ApplicationReport> applicationReports = null;
 
     try {
-      LOGGER.logDebug("Started to getApplications");
+      LOGGER.logDebug("Started to getApplications in %s mode", resyncMode);
 
       // Only Get LAUNCHER ApplicationReport
-      applicationReports = yarnClient.getApplications(new HashSet<>(
-          Collections.singletonList(GlobalConstants.LAUNCHER_APPLICATION_TYPE)));
+      // In Incremental mode, only Get unfinished ApplicationReport, since the RM may retain a huge number
+      // of finished Applications, and the recently finished ones are supplemented below.
+      Set<String> applicationTypes = new HashSet<>(
+          Collections.singletonList(GlobalConstants.LAUNCHER_APPLICATION_TYPE));
+      if (isFullResync) {
+        applicationReports = yarnClient.getApplications(applicationTypes);
+      } else {
+        applicationReports = yarnClient.getApplications(applicationTypes, UNFINISHED_APPLICATION_STATES);
+      }
 
-      LOGGER.logDebug("Succeeded to getApplications");
+      LOGGER.logDebug("Succeeded to getApplications in %s mode", resyncMode);
     } catch (Exception e) {
       LOGGER.logWarning(e,
           "Exception occurred during getApplications. It should be transient. " +
@@ -76,71 +114,118 @@ public void resyncWithRM() throws Exception {
     }
 
     if (applicationReports != null) {
+      resyncRound++;
+
       // ApplicationId -> ApplicationReport
       Map<String, ApplicationReport> liveApplicationReports = new HashMap<>();
       for (ApplicationReport applicationReport : applicationReports) {
         liveApplicationReports.put(
             applicationReport.getApplicationId().toString(), applicationReport);
       }
-
+      long gotBytes = getSerializedSize(applicationReports);
 
       // GetApplications only leverages RM, so the result may be incomplete due to the application
       // is finished and then GCed in RM. So, we need to also leverage ApplicationHistoryServer
       // by using getApplicationReport to supplement the result.
-      List<String> liveAssociatedApplicationIds = statusManager.getLiveAssociatedApplicationIds();
-      for (String applicationId : liveAssociatedApplicationIds) {
-        if (!liveApplicationReports.containsKey(applicationId)) {
-          FrameworkStatus frameworkStatus = statusManager.getFrameworkStatusWithLiveAssociatedApplicationId(applicationId);
-          String frameworkName = frameworkStatus.getFrameworkName();
-          FrameworkState frameworkState = frameworkStatus.getFrameworkState();
-
-          // APPLICATION_CREATED Application is expected without ApplicationReport, but it is indeed live in RM.
-          if (frameworkState == FrameworkState.APPLICATION_CREATED) {
-            continue;
-          }
+      // In Incremental mode, the result is also incomplete due to the application is finished recently.
+      int supplementedCount = supplementLiveApplicationReports(liveApplicationReports);
+
+      LOGGER.logInfo(
+          "resyncWithRM in %s mode: Got %s Applications in %s bytes from RM, and supplemented %s Applications " +
+              "by getApplicationReport. Took %sms",
+          resyncMode, applicationReports.size(), gotBytes, supplementedCount,
+          System.currentTimeMillis() - startTimestamp);
+
+      service.onLiveApplicationsUpdated(liveApplicationReports, isFullResync);
+    }
+
+    service.queueResyncWithRM(conf.getServiceRMResyncIntervalSec());
+  }
 
-          String supplementLogPrefix = String.format(
-              "[%s][%s]: Supplement liveApplicationReports. Reason: ",
-              frameworkName, applicationId);
-          String skipToSupplementLogPrefix = String.format(
-              "[%s][%s]: Skip to supplement liveApplicationReports. Reason: ",
-              frameworkName, applicationId);
+  // Returns the number of supplemented Applications
+  private int supplementLiveApplicationReports(
+      Map<String, ApplicationReport> liveApplicationReports) throws Exception {
+    // ApplicationId -> FrameworkName
+    Map<String, String> supplementingFrameworkNames = new HashMap<>();
+    // ApplicationId -> Supplementing ApplicationReport
+    Map<String, Future<ApplicationReport>> supplementingApplicationReports = new HashMap<>();
+    List<String> liveAssociatedApplicationIds = statusManager.getLiveAssociatedApplicationIds();
+    for (String applicationId : liveAssociatedApplicationIds) {
+      if (!liveApplicationReports.containsKey(applicationId)) {
+        FrameworkStatus frameworkStatus = statusManager.getFrameworkStatusWithLiveAssociatedApplicationId(applicationId);
+        String frameworkName = frameworkStatus.getFrameworkName();
+        FrameworkState frameworkState = frameworkStatus.getFrameworkState();
+
+        // APPLICATION_CREATED Application is expected without ApplicationReport, but it is indeed live in RM.
+        if (frameworkState == FrameworkState.APPLICATION_CREATED) {
+          continue;
+        }
 
-          ApplicationReport applicationReport = null;
+        String skipToSupplementLogPrefix = String.format(
+            "[%s][%s]: Skip to supplement liveApplicationReports. Reason: ",
+            frameworkName, applicationId);
 
+        supplementingFrameworkNames.put(applicationId, frameworkName);
+        // getApplicationReport is called in parallel, since each call may fall back to the
+        // ApplicationHistoryServer, which is much slower than RM.
+        supplementingApplicationReports.put(applicationId, supplementExecutor.submit(() -> {
           try {
-            applicationReport = yarnClient.getApplicationReport(ApplicationId.fromString(applicationId));
+            return yarnClient.getApplicationReport(ApplicationId.fromString(applicationId));
           } catch (Exception e) {
             // Best Effort to getApplicationReport, since it depends on ApplicationHistoryServer
             // which is not as reliable as RM.
             LOGGER.logWarning(e, skipToSupplementLogPrefix + "Failed to getApplicationReport");
+            return null;
           }
+        }));
+      }
+    }
 
-          if (applicationReport != null) {
-            YarnApplicationState applicationState = applicationReport.getYarnApplicationState();
-            FinalApplicationStatus applicationFinalStatus = applicationReport.getFinalApplicationStatus();
-            String diagnostics = CommonUtils.trim(applicationReport.getDiagnostics());
-            if (applicationFinalStatus == FinalApplicationStatus.UNDEFINED) {
-              LOGGER.logWarning(skipToSupplementLogPrefix +
-                      "The applicationReport is not reliable since " +
-                      "the Application from getApplicationReport is not completed. " +
-                      "ApplicationState: %s, ApplicationFinalStatus: %s, Diagnostics: %s",
-                  applicationState, applicationFinalStatus, diagnostics);
-            } else {
-              LOGGER.logInfo(supplementLogPrefix +
-                      "The applicationReport is reliable since " +
-                      "the Application from getApplicationReport is completed. " +
-                      "ApplicationState: %s, ApplicationFinalStatus: %s, Diagnostics: %s",
-                  applicationState, applicationFinalStatus, diagnostics);
-              liveApplicationReports.put(applicationId, applicationReport);
-            }
-          }
-        }
+    int supplementedCount = 0;
+    for (Map.Entry<String, Future<ApplicationReport>> supplementing : supplementingApplicationReports.entrySet()) {
+      String applicationId = supplementing.getKey();
+      ApplicationReport applicationReport = supplementing.getValue().get();
+      if (applicationReport == null) {
+        continue;
       }
 
-      service.onLiveApplicationsUpdated(liveApplicationReports);
+      String frameworkName = supplementingFrameworkNames.get(applicationId);
+      String supplementLogPrefix = String.format(
+          "[%s][%s]: Supplement liveApplicationReports. Reason: ",
+          frameworkName, applicationId);
+      String skipToSupplementLogPrefix = String.format(
+          "[%s][%s]: Skip to supplement liveApplicationReports. Reason: ",
+          frameworkName, applicationId);
+
+      YarnApplicationState applicationState = applicationReport.getYarnApplicationState();
+      FinalApplicationStatus applicationFinalStatus = applicationReport.getFinalApplicationStatus();
+      String diagnostics = CommonUtils.trim(applicationReport.getDiagnostics());
+      if (applicationFinalStatus == FinalApplicationStatus.UNDEFINED) {
+        LOGGER.logWarning(skipToSupplementLogPrefix +
+                "The applicationReport is not reliable since " +
+                "the Application from getApplicationReport is not completed. " +
+                "ApplicationState: %s, ApplicationFinalStatus: %s, Diagnostics: %s",
+            applicationState, applicationFinalStatus, diagnostics);
+      } else {
+        LOGGER.logInfo(supplementLogPrefix +
+                "The applicationReport is reliable since " +
+                "the Application from getApplicationReport is completed. " +
+                "ApplicationState: %s, ApplicationFinalStatus: %s, Diagnostics: %s",
+            applicationState, applicationFinalStatus, diagnostics);
+        liveApplicationReports.put(applicationId, applicationReport);
+        supplementedCount++;
+      }
     }
+    return supplementedCount;
+  }
 
-    service.queueResyncWithRM(conf.getServiceRMResyncIntervalSec());
+  private static long getSerializedSize(List<ApplicationReport> applicationReports) {
+    long bytes = 0;
+    for (ApplicationReport applicationReport : applicationReports) {
+      if (applicationReport instanceof ApplicationReportPBImpl) {
+        bytes += ((ApplicationReportPBImpl) applicationReport).getProto().getSerializedSize();
+      }
+    }
+    return bytes;
   }
-}
\ No newline at end of file
+}
@@ -17,16 +17,22 @@
 
 package com.microsoft.frameworklauncher.service;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.microsoft.frameworklauncher.common.exts.CommonExts;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
 import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperFrameworkWatcher.Changes;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperRequestWatcher;
 import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.zookeeper.KeeperException;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 
 // Manage the CURD to ZK Request
@@ -49,6 +55,15 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
   // FrameworkName -> FrameworkRequest
   private volatile Map<String, FrameworkRequest> frameworkRequests = null;
 
+  /**
+   * REGION StateVariable
+   */
+  // Null if serviceRequestWatchEnable is false
+  private ZookeeperRequestWatcher requestWatcher;
+  // Only accessed by the pulling Thread
+  private final Set<String> watchedFrameworkNames = new HashSet<>();
+  private long lastFullPullTimestamp = 0;
+
 
   /**
    * REGION AbstractService
@@ -80,12 +95,20 @@ protected Boolean handleException(Exception e) {
   protected void run() throws Exception {
     super.run();
 
+    if (conf.getServiceRequestWatchEnable()) {
+      startRequestWatcher();
+    }
+
     new Thread(() -> {
       while (true) {
         try {
-          pullRequest();
+          if (requestWatcher == null) {
+            pullRequest(isFullReconcileDue());
 
-          Thread.sleep(conf.getServiceRequestPullIntervalSec() * 1000);
+            Thread.sleep(conf.getServiceRequestPullIntervalSec() * 1000);
+          } else {
+            watchRequest(conf.getServiceRequestPullIntervalSec() * 1000);
+          }
         } catch (Exception e) {
           // Directly throw TransientException to Service, since it may not be recovered or make progress any more
           handleException(e);
@@ -97,7 +120,9 @@ protected void run() throws Exception {
   /**
    * REGION InternalUtils
    */
-  private void pullRequest() throws Exception {
+  // If fullReconcile, all Frameworks will be reconciled by Service, even if their FrameworkRequests
+  // are not changed, otherwise only the Frameworks with changed FrameworkRequests will be reconciled.
+  private void pullRequest(Boolean fullReconcile) throws Exception {
     Map<String, FrameworkRequest> newFrameworkRequests;
     try {
       LOGGER.logDebug("Pulling AllFrameworkRequests");
@@ -111,24 +136,147 @@ private void pullRequest() throws Exception {
       throw e;
     }
 
+    if (fullReconcile) {
+      lastFullPullTimestamp = System.currentTimeMillis();
+    }
+
     // newFrameworkRequests is always not null
-    updateFrameworkRequests(newFrameworkRequests);
+    updateFrameworkRequests(newFrameworkRequests, fullReconcile);
   }
 
-  private void updateFrameworkRequests(Map<String, FrameworkRequest> newFrameworkRequests) {
-    if (YamlUtils.deepEquals(frameworkRequests, newFrameworkRequests)) {
+  // Watch all FrameworkRequests and then pull them all.
+  // Always watch before pull, so that no change will be missed.
+  private void resyncRequest() throws Exception {
+    LOGGER.logInfo("Resyncing AllFrameworkRequests");
+
+    watchedFrameworkNames.clear();
+    try {
+      for (String frameworkName : requestWatcher.watchLauncherRequest()) {
+        if (requestWatcher.watchFramework(frameworkName)) {
+          watchedFrameworkNames.add(frameworkName);
+        }
+      }
+    } catch (KeeperException.NoNodeException e) {
+      LOGGER.logWarning(e,
+          "Failed to watchLauncherRequest, LauncherRequest is deleted on ZK");
+      throw e;
+    }
+
+    pullRequest(true);
+  }
+
+  private Boolean isFullReconcileDue() {
+    return (System.currentTimeMillis() - lastFullPullTimestamp >=
+        conf.getServiceRequestFullPullIntervalSec() * 1000L);
+  }
+
+  @VisibleForTesting
+  void startRequestWatcher() {
+    requestWatcher = zkStore.newRequestWatcher();
+    requestWatcher.start();
+  }
+
+  // Keep pulling the changed FrameworkRequests within the given duration, and always do a full pull
+  // every serviceRequestFullPullIntervalSec in case any change is missed.
+  @VisibleForTesting
+  void watchRequest(long durationMs) throws Exception {
+    long endTimestamp = System.currentTimeMillis() + durationMs;
+    while (true) {
+      long currentTimestamp = System.currentTimeMillis();
+      if (currentTimestamp >= endTimestamp) {
+        return;
+      }
+
+      if (isFullReconcileDue()) {
+        requestWatcher.requestResync();
+      }
+
+      pullChangedRequest(requestWatcher.waitForChanges(endTimestamp - currentTimestamp));
+    }
+  }
+
+  private void pullChangedRequest(Changes changes) throws Exception {
+    if (changes.getResyncRequired() || frameworkRequests == null) {
+      resyncRequest();
       return;
     }
 
+    Set<String> frameworkNamesToPull = new HashSet<>(changes.getChangedFrameworkNames());
+    Set<String> frameworkNamesToRemove = new HashSet<>();
+    if (changes.getFrameworkSetChanged()) {
+      Set<String> frameworkNames;
+      try {
+        frameworkNames = new HashSet<>(requestWatcher.watchLauncherRequest());
+      } catch (KeeperException.NoNodeException e) {
+        LOGGER.logWarning(e,
+            "Failed to watchLauncherRequest, LauncherRequest is deleted on ZK");
+        throw e;
+      }
+
+      for (String frameworkName : frameworkNames) {
+        if (!watchedFrameworkNames.contains(frameworkName)) {
+          frameworkNamesToPull.add(frameworkName);
+        }
+      }
+      for (String frameworkName : watchedFrameworkNames) {
+        if (!frameworkNames.contains(frameworkName)) {
+          frameworkNamesToRemove.add(frameworkName);
+        }
+      }
+      for (String frameworkName : frameworkRequests.keySet()) {
+        if (!frameworkNames.contains(frameworkName)) {
+          frameworkNamesToRemove.add(frameworkName);
+        }
+      }
+    }
+
+    if (frameworkNamesToPull.isEmpty() && frameworkNamesToRemove.isEmpty()) {
+      return;
+    }
+
+    LOGGER.logDebug("Pulling changed FrameworkRequests: [%s], Removing FrameworkRequests: [%s]",
+        frameworkNamesToPull.size(), frameworkNamesToRemove.size());
+
+    Map<String, FrameworkRequest> changedFrameworkRequests = new HashMap<>();
+    for (String frameworkName : frameworkNamesToPull) {
+      if (frameworkNamesToRemove.contains(frameworkName)) {
+        continue;
+      }
+
+      if (!requestWatcher.watchFramework(frameworkName)) {
+        frameworkNamesToRemove.add(frameworkName);
+        continue;
+      }
+      watchedFrameworkNames.add(frameworkName);
+
+      try {
+        changedFrameworkRequests.put(frameworkName, zkStore.getFrameworkRequest(frameworkName));
+      } catch (KeeperException.NoNodeException e) {
+        frameworkNamesToRemove.add(frameworkName);
+      }
+    }
+
+    Map<String, FrameworkRequest> newFrameworkRequests = new HashMap<>(frameworkRequests);
+    for (String frameworkName : frameworkNamesToRemove) {
+      watchedFrameworkNames.remove(frameworkName);
+      newFrameworkRequests.remove(frameworkName);
+    }
+    newFrameworkRequests.putAll(changedFrameworkRequests);
+
+    updateFrameworkRequests(newFrameworkRequests, false);
+  }
+
+  private void updateFrameworkRequests(
+      Map<String, FrameworkRequest> newFrameworkRequests, Boolean fullReconcile) {
     // Backup old to detect changes
     Map<String, FrameworkRequest> oldFrameworkRequests = frameworkRequests;
 
-    // Update
-    frameworkRequests = CommonExts.asReadOnly(newFrameworkRequests);
-
     if (oldFrameworkRequests == null) {
+      // Update
+      frameworkRequests = CommonExts.asReadOnly(newFrameworkRequests);
+
       // For the first time, send all Request to AM
-      service.onFrameworkRequestsUpdated(frameworkRequests);
+      service.onFrameworkRequestsUpdated(frameworkRequests, null);
       {
         // Only start them for the first time
         service.onStartRMResyncHandler();
@@ -138,8 +286,39 @@ private void updateFrameworkRequests(Map<String, FrameworkRequest> newFrameworkR
       }
     } else {
       // For the other times, only send changed Request to AM
-      service.onFrameworkRequestsUpdated(frameworkRequests);
+      Set<String> changedFrameworkNames = getChangedFrameworkNames(oldFrameworkRequests, newFrameworkRequests);
+      if (changedFrameworkNames.isEmpty() && !fullReconcile) {
+        return;
+      }
+
+      // Update
+      frameworkRequests = CommonExts.asReadOnly(newFrameworkRequests);
+
+      // Null changedFrameworkNames means all Frameworks should be reconciled
+      service.onFrameworkRequestsUpdated(frameworkRequests, fullReconcile ? null : changedFrameworkNames);
+    }
+  }
+
+  // Get the FrameworkNames whose FrameworkRequests are added, updated or deleted
+  private static Set<String> getChangedFrameworkNames(
+      Map<String, FrameworkRequest> oldFrameworkRequests,
+      Map<String, FrameworkRequest> newFrameworkRequests) {
+    Set<String> changedFrameworkNames = new HashSet<>();
+    for (Map.Entry<String, FrameworkRequest> newFrameworkRequestKV : newFrameworkRequests.entrySet()) {
+      String frameworkName = newFrameworkRequestKV.getKey();
+      FrameworkRequest oldFrameworkRequest = oldFrameworkRequests.get(frameworkName);
+      FrameworkRequest newFrameworkRequest = newFrameworkRequestKV.getValue();
+      if (oldFrameworkRequest != newFrameworkRequest &&
+          !YamlUtils.deepEquals(oldFrameworkRequest, newFrameworkRequest)) {
+        changedFrameworkNames.add(frameworkName);
+      }
+    }
+    for (String frameworkName : oldFrameworkRequests.keySet()) {
+      if (!newFrameworkRequests.containsKey(frameworkName)) {
+        changedFrameworkNames.add(frameworkName);
+      }
     }
+    return changedFrameworkNames;
   }
 
   /**
@@ -30,7 +30,11 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.service.AdmissionController;
+import com.microsoft.frameworklauncher.common.service.BoundedExecutor;
 import com.microsoft.frameworklauncher.common.service.StopStatus;
+import com.microsoft.frameworklauncher.common.service.SystemTask;
+import com.microsoft.frameworklauncher.common.service.SystemTaskPriority;
 import com.microsoft.frameworklauncher.common.service.SystemTaskQueue;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
@@ -56,9 +60,10 @@
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 // Maintains the life cycle for all Frameworks submitted to this Launcher.Service.
 // It is the engine to transition Status to satisfy Request eventually.
@@ -73,6 +78,25 @@ public class Service extends AbstractService {
   private LauncherConfiguration conf;
   private UserContainerExitSpec userContainerExitSpec;
   private SystemTaskQueue transitionFrameworkStateQueue;
+  private BoundedExecutor setupApplicationContextExecutor;
+  // Whether there are FRAMEWORK_WAITING Frameworks deferred to create Application due to
+  // the backpressure from setupApplicationContextExecutor
+  private final AtomicBoolean createApplicationDeferred = new AtomicBoolean(false);
+  private AdmissionController submitApplicationAdmissionController;
+  // Whether a rescan is queued for the FRAMEWORK_WAITING Frameworks deferred to create Application due to
+  // the limits of submitApplicationAdmissionController
+  private final AtomicBoolean createAdmissionDeferredApplicationQueued = new AtomicBoolean(false);
+  // The Frameworks which are admitted by submitApplicationAdmissionController but their createApplication
+  // Tasks are not yet completed, so that they will not be admitted again by the rescans before that.
+  private final Set<String> createApplicationPendingFrameworkNames = ConcurrentHashMap.newKeySet();
+  // The latest FrameworkRequests and the Frameworks changed since last taken by onFrameworkRequestsUpdated.
+  // Null pendingChangedFrameworkNames means all Frameworks should be reconciled.
+  private final Object pendingFrameworkRequestsLock = new Object();
+  private Map<String, FrameworkRequest> pendingFrameworkRequests = null;
+  private Set<String> pendingChangedFrameworkNames = new HashSet<>();
+  // The shared AM package of this Service, see HdfsStoreStructure
+  private String amPackageVersion;
+  private String amPackageFilePath;
 
 
   /**
@@ -84,6 +108,7 @@ public class Service extends AbstractService {
   private StatusManager statusManager;
   private RequestManager requestManager;
   private RMResyncHandler rmResyncHandler;
+  private LeftoverFrameworkGarbageCollector leftoverFrameworkGC;
   private AMDiagnosticsRetriever amDiagnosticsRetriever;
 
 
@@ -125,12 +150,26 @@ protected Boolean handleException(Exception e) {
   @Override
   protected void initialize() throws Exception {
     super.initialize();
-    transitionFrameworkStateQueue = new SystemTaskQueue(this::handleException);
 
     // Initialize Configurations
     conf = YamlUtils.toObject(GlobalConstants.LAUNCHER_CONFIG_FILE, LauncherConfiguration.class);
     CommonValidation.validate(conf);
 
+    // Initialize SystemTaskQueue
+    transitionFrameworkStateQueue = new SystemTaskQueue("TransitionFrameworkStateQueue",
+        this::handleException, Math.max(1, conf.getServiceTransitionFrameworkStateParallelism()));
+    setupApplicationContextExecutor = new BoundedExecutor("SetupApplicationContextExecutor",
+        Math.max(1, conf.getApplicationSetupContextParallelism()), conf.getApplicationSetupContextMaxPendingCount(),
+        this::handleException, this::onApplicationContextSetup);
+    submitApplicationAdmissionController = new AdmissionController("SubmitApplicationAdmissionController",
+        new AdmissionController.Limit(
+            conf.getApplicationSubmitMaxRatePerSec(), conf.getApplicationSubmitMaxBurstCount()),
+        new AdmissionController.Limit(
+            conf.getApplicationSubmitUserMaxRatePerSec(), conf.getApplicationSubmitUserMaxBurstCount()),
+        new AdmissionController.Limit(
+            conf.getApplicationSubmitQueueMaxRatePerSec(), conf.getApplicationSubmitQueueMaxBurstCount()),
+        conf.getApplicationSubmitMinRatePerSec(), conf.getApplicationSubmitTargetLatencyMs());
+
     if (new File(GlobalConstants.USER_CONTAINER_EXIT_SPEC_FILE).exists()) {
       userContainerExitSpec = FrameworkExitSpec.initialize(
           YamlUtils.toObject(GlobalConstants.USER_CONTAINER_EXIT_SPEC_FILE, UserContainerExitSpec.class));
@@ -143,16 +182,29 @@ protected void initialize() throws Exception {
 
     // Initialize Launcher Store
     zkStore = new ZookeeperStore(conf.getZkConnectString(), conf.getZkRootDir());
+    zkStore.setPayloadCodec(conf.getZkPayloadCodec());
+    zkStore.setCompression(conf.getZkCompressionCodec(),
+        conf.getZkCompressionLevel(), conf.getZkMinCompressionBytes());
+    zkStore.setReadParallelism(conf.getZkReadParallelism());
+    zkStore.setBucketedLayout(conf.getZkBucketedLayoutEnable());
+    zkStore.startGarbageCollector(conf, true);
     hdfsStore = new HdfsStore(conf.getHdfsRootDir());
+    amPackageVersion = CommonUtils.getFileSha256(GlobalConstants.PACKAGE_APPLICATION_MASTER_FILE);
+    amPackageFilePath = hdfsStore.uploadAMPackageFile(amPackageVersion);
 
     // Initialize other components
     statusManager = new StatusManager(this, conf, userContainerExitSpec, zkStore);
     requestManager = new RequestManager(this, conf, zkStore);
     rmResyncHandler = new RMResyncHandler(this, conf, yarnClient, statusManager);
+    leftoverFrameworkGC = new LeftoverFrameworkGarbageCollector(this, conf, hdfsStore, statusManager);
     amDiagnosticsRetriever = new AMDiagnosticsRetriever(this, conf, yarnClient);
 
     // Initialize External Service
-    webServer = new WebServer(conf, zkStore);
+    webServer = new WebServer(conf, zkStore,
+        Collections.singletonList(transitionFrameworkStateQueue),
+        Collections.singletonList(setupApplicationContextExecutor),
+        Collections.singletonList(submitApplicationAdmissionController),
+        leftoverFrameworkGC::getMetrics);
 
     // Log Initialized Configuration
     LOGGER.logSplittedLines(Level.INFO,
@@ -176,10 +228,11 @@ protected void run() throws Exception {
 
     // Start ExternalServices
     webServer.start();
-    gcLeftoverFrameworks();
+    gcAMPackages();
 
-    // Run RequestManager depends on WebServer and gcLeftoverFrameworks
+    // Run RequestManager depends on WebServer and gcAMPackages
     requestManager.start();
+    leftoverFrameworkGC.start();
   }
 
   // THREAD SAFE
@@ -199,6 +252,20 @@ public synchronized void stop(StopStatus stopStatus) {
       ae.addException(e);
     }
 
+    try {
+      HadoopUtils.closeYarnClientPool();
+    } catch (Exception e) {
+      ae.addException(e);
+    }
+
+    try {
+      if (rmResyncHandler != null) {
+        rmResyncHandler.stop();
+      }
+    } catch (Exception e) {
+      ae.addException(e);
+    }
+
     if (ae.getExceptions().size() > 0) {
       LOGGER.logWarning(ae, "Failed to stop %s gracefully", serviceName);
     }
@@ -211,36 +278,31 @@ public synchronized void stop(StopStatus stopStatus) {
   /**
    * REGION InternalUtils
    */
-  // GC Framework level external resource [HDFS] for LeftoverFrameworks.
-  // LeftoverFrameworks may be caused by HDFS down, race condition, etc.
-  private void gcLeftoverFrameworks() throws Exception {
-    Set<String> frameworkNamesInStatus = statusManager.getFrameworkNames();
-    Set<String> frameworkNamesInHdfs = hdfsStore.getFrameworkNames();
-    String logPrefix = "gcLeftoverFrameworks: ";
-
-    LOGGER.logInfo(logPrefix +
-            "Started: Frameworks in HDFS: [%s], Frameworks in Status: [%s]",
-        frameworkNamesInHdfs.size(), frameworkNamesInStatus.size());
-
-    ExecutorService taskExecutor = Executors.newFixedThreadPool(20);
-    List<Callable<String>> tasks = new ArrayList<>();
-    for (String frameworkNameInHdfs : frameworkNamesInHdfs) {
-      if (!frameworkNamesInStatus.contains(frameworkNameInHdfs)) {
-        tasks.add(() -> {
-          hdfsStore.removeFrameworkRoot(frameworkNameInHdfs);
-          return frameworkNameInHdfs;
-        });
-        if (conf.getFrameworkLeftoverGCMaxCount() != GlobalConstants.USING_UNLIMITED_VALUE &&
-            tasks.size() >= conf.getFrameworkLeftoverGCMaxCount()) {
-          break;
-        }
+  // GC the AM packages which are neither used by this Service nor used by any live Application.
+  // It should be called before any Application is launched by this Service.
+  private void gcAMPackages() throws Exception {
+    Set<String> amPackageVersionsInUse = new HashSet<>();
+    amPackageVersionsInUse.add(amPackageVersion);
+    for (FrameworkStatus frameworkStatus : statusManager.getFrameworkStatus(
+        FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES)) {
+      if (frameworkStatus.getApplicationAMPackageVersion() == null) {
+        // The live Application is created by a previous release which does not record its AM package,
+        // so any AM package may be still used by it.
+        LOGGER.logInfo("gcAMPackages: [%s]: ApplicationAMPackageVersion is unknown. Skip to GC AM packages.",
+            frameworkStatus.getFrameworkName());
+        return;
       }
+      amPackageVersionsInUse.add(frameworkStatus.getApplicationAMPackageVersion());
     }
-    taskExecutor.invokeAll(tasks);
 
-    LOGGER.logInfo(logPrefix +
-            "Succeeded: Frameworks in HDFS: [%s], Frameworks in Status: [%s]",
-        frameworkNamesInHdfs.size() - tasks.size(), frameworkNamesInStatus.size());
+    Set<String> amPackageVersionsInHdfs = hdfsStore.getAMPackageVersions();
+    LOGGER.logInfo("gcAMPackages: AM packages in HDFS: [%s], AM packages in use: [%s]",
+        amPackageVersionsInHdfs.size(), amPackageVersionsInUse.size());
+    for (String amPackageVersionInHdfs : amPackageVersionsInHdfs) {
+      if (!amPackageVersionsInUse.contains(amPackageVersionInHdfs)) {
+        hdfsStore.removeAMPackage(amPackageVersionInHdfs);
+      }
+    }
   }
 
   private ContainerLaunchContext setupContainerLaunchContext(
@@ -271,8 +333,10 @@ private ContainerLaunchContext setupContainerLaunchContextForDefaultAM(
     Map<String, LocalResource> localResources = new HashMap<>();
     hdfsStore.makeFrameworkRootDir(frameworkName);
     hdfsStore.makeUserStoreRootDir(frameworkName);
-    HadoopUtils.invalidateLocalResourcesCache();
-    HadoopUtils.addToLocalResources(localResources, hdfsStore.uploadAMPackageFile(frameworkName));
+    // The shared AM package is immutable, so its cached FileStatus never needs to be invalidated.
+    // And it is PRIVATE, so that NodeManagers can reuse the localized AM package across Applications,
+    // since all AMs are submitted by the same user.
+    HadoopUtils.addToLocalResources(localResources, amPackageFilePath, LocalResourceVisibility.PRIVATE);
 
     // SetupLocalEnvironment
     Map<String, String> localEnvs = new HashMap<>();
@@ -299,6 +363,7 @@ private ContainerLaunchContext setupContainerLaunchContextForDefaultAM(
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_ROOT_DIR, conf.getZkRootDir());
     localEnvs.put(GlobalConstants.ENV_VAR_AM_VERSION, conf.getAmVersion().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_AM_RM_HEARTBEAT_INTERVAL_SEC, conf.getAmRmHeartbeatIntervalSec().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_AM_WEB_SERVER_ENABLE, conf.getAmWebServerEnable().toString());
 
     // SetupEntryPoint
     Vector<CharSequence> vargs = new Vector<>(30);
@@ -404,9 +469,9 @@ private void setupApplicationContext(
     applicationContext.setAttemptFailuresValidityInterval(conf.getAmAttemptFailuresValidityIntervalSec() * 1000);
 
     // Queue launchApplication to avoid race condition
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("launchApplication", () -> {
       launchApplication(frameworkStatus, applicationContext);
-    });
+    }).setKey(frameworkStatus.getFrameworkName()));
   }
 
 
@@ -414,7 +479,9 @@ private void setupApplicationContext(
    * REGION FrameworkStateMachine
    */
   // Method which will cause transitionFrameworkState
-  // Note they should be called in single thread, such as from transitionFrameworkStateQueue
+  // Note they should be called from transitionFrameworkStateQueue, i.e. serially for the same Framework:
+  // Method for a single Framework can be called in the keyed SystemTask of the Framework,
+  // and Method for all Frameworks should be called in the barrier SystemTask.
 
   // Should be called after StatusManager recover completed
   private void reviseCorruptedFrameworkStates() throws Exception {
@@ -447,19 +514,19 @@ private void recoverTransitionFrameworkStateQueue() {
         CommonExts.toString(FrameworkStateDefinition.QUEUE_CORRUPTED_AFTER_RESTART_STATES));
 
     // There may be a lot of corrupted System.Frameworks, so we queue them as one System.Framework per State
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("recoverFrameworkWaiting", () -> {
       createApplication();
-    });
+    }));
     LOGGER.logInfo("All the previous FRAMEWORK_WAITING Frameworks have been driven");
 
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("recoverApplicationRetrievingDiagnostics", () -> {
       retrieveApplicationExitDiagnostics();
-    });
+    }));
     LOGGER.logInfo("All the previous APPLICATION_RETRIEVING_DIAGNOSTICS Frameworks have been driven");
 
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("recoverApplicationCompleted", () -> {
       attemptToRetry();
-    });
+    }));
     LOGGER.logInfo("All the previous APPLICATION_COMPLETED Frameworks have been driven");
   }
 
@@ -626,17 +693,25 @@ private void launchApplication(FrameworkStatus frameworkStatus, ApplicationSubmi
     UserDescriptor user = frameworkRequest.getFrameworkDescriptor().getUser();
 
     logPrefix += "SubmitApplication: ";
+    long submitStartedTimestamp = System.currentTimeMillis();
     try {
       LOGGER.logInfo(logPrefix + "ApplicationName: %s", applicationContext.getApplicationName());
       LOGGER.logInfo(logPrefix + "ResourceRequest: %s", HadoopExts.toString(applicationContext.getAMContainerResourceRequest()));
       LOGGER.logInfo(logPrefix + "Queue: %s", applicationContext.getQueue());
 
       HadoopUtils.submitApplication(applicationContext, user);
+      submitApplicationAdmissionController.onOperationCompleted(
+          System.currentTimeMillis() - submitStartedTimestamp, false);
 
       LOGGER.logInfo(logPrefix + "Succeeded");
     } catch (Throwable e) {
       LOGGER.logWarning(e, logPrefix + "Failed");
 
+      // Only slow down the submissions for the RPC layer errors, such as RM failover or RM overload,
+      // since the YarnException from RM is mostly caused by the Framework itself.
+      submitApplicationAdmissionController.onOperationCompleted(
+          System.currentTimeMillis() - submitStartedTimestamp, e instanceof IOException);
+
       // YarnException indicates exceptions from yarn servers, and IOException indicates exceptions from RPC layer.
       // So, consider YarnException as NonTransientError, and IOException as TransientError.
       if (e instanceof YarnException) {
@@ -666,16 +741,26 @@ private void launchApplication(FrameworkStatus frameworkStatus, ApplicationSubmi
     statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_LAUNCHED);
   }
 
-  private void createApplication(FrameworkStatus frameworkStatus, boolean isPlaceholderApplication) throws Exception {
+  // Return whether the Application is created
+  private boolean createApplication(FrameworkStatus frameworkStatus, boolean isPlaceholderApplication) throws Exception {
     String frameworkName = frameworkStatus.getFrameworkName();
+    if (!isPlaceholderApplication && !setupApplicationContextExecutor.tryAdmit()) {
+      // Backpressure: Keep the Framework in FRAMEWORK_WAITING, and it will be created again after
+      // some ApplicationContexts are setup.
+      LOGGER.logDebug("[%s]: createApplication: Too many ApplicationContexts to setup. Defer it.", frameworkName);
+      createApplicationDeferred.set(true);
+      return false;
+    }
+
     ApplicationSubmissionContext applicationContext = yarnClient.createApplication().getApplicationSubmissionContext();
     statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_CREATED,
-        new FrameworkEvent().setApplicationContext(applicationContext).setSkipToPersist(isPlaceholderApplication));
+        new FrameworkEvent().setApplicationContext(applicationContext).setSkipToPersist(isPlaceholderApplication)
+            .setApplicationAMPackageVersion(amPackageVersion));
 
     if (!isPlaceholderApplication) {
       // Concurrently setupApplicationContext
-      FrameworkStatus frameworkStatusSnapshot = YamlUtils.deepCopy(frameworkStatus, FrameworkStatus.class);
-      new Thread(() -> {
+      FrameworkStatus frameworkStatusSnapshot = FrameworkStatus.newSnapshot(frameworkStatus);
+      setupApplicationContextExecutor.submit(() -> {
         try {
           // Always Setup a brand new ApplicationContext to tolerate ApplicationContext corruption,
           // such as HDFS data lost.
@@ -688,14 +773,104 @@ private void createApplication(FrameworkStatus frameworkStatus, boolean isPlaceh
         } catch (Exception e) {
           onExceptionOccurred(e);
         }
-      }).start();
+      });
     }
+    return true;
+  }
+
+  // Return whether the Application is created
+  private boolean createApplication(String frameworkName) throws Exception {
+    // Ensure Framework is still waiting for the Application.
+    if (!statusManager.containsFramework(frameworkName) ||
+        statusManager.getFrameworkStatus(frameworkName).getFrameworkState() != FrameworkState.FRAMEWORK_WAITING) {
+      LOGGER.logDebug("[%s]: createApplication: Framework is not %s. Ignore it.",
+          frameworkName, FrameworkState.FRAMEWORK_WAITING);
+      return false;
+    }
+
+    return createApplication(statusManager.getFrameworkStatus(frameworkName), false);
   }
 
   private void createApplication() throws Exception {
-    for (FrameworkStatus frameworkStatus : statusManager.getFrameworkStatus(
-        new HashSet<>(Collections.singletonList(FrameworkState.FRAMEWORK_WAITING)))) {
-      createApplication(frameworkStatus, false);
+    // Only queue the Frameworks which can be admitted by setupApplicationContextExecutor and
+    // submitApplicationAdmissionController now, the others will be queued after some ApplicationContexts
+    // are setup or after some submission tokens are refilled.
+    // The Frameworks are admitted in the order of their FrameworkCreatedTimestamp, so that a Framework will not be
+    // starved by the later ones, and the Frameworks limited by their users or queues will not block the others.
+    List<FrameworkStatus> waitingFrameworkStatuses = statusManager.getFrameworkStatus(
+        new HashSet<>(Collections.singletonList(FrameworkState.FRAMEWORK_WAITING)));
+    waitingFrameworkStatuses.sort(Comparator.comparing(
+        FrameworkStatus::getFrameworkCreatedTimestamp, Comparator.nullsLast(Comparator.naturalOrder())));
+
+    Set<String> waitingFrameworkNames = new HashSet<>();
+    for (FrameworkStatus frameworkStatus : waitingFrameworkStatuses) {
+      waitingFrameworkNames.add(frameworkStatus.getFrameworkName());
+    }
+    submitApplicationAdmissionController.retainWaiting(waitingFrameworkNames);
+
+    // The pending Frameworks will also take the setupApplicationContextExecutor once they are created
+    int availableCount = setupApplicationContextExecutor.getAvailableCount() -
+        createApplicationPendingFrameworkNames.size();
+    boolean admissionDeferred = false;
+    for (FrameworkStatus frameworkStatus : waitingFrameworkStatuses) {
+      String frameworkName = frameworkStatus.getFrameworkName();
+      if (createApplicationPendingFrameworkNames.contains(frameworkName)) {
+        // Already admitted
+        continue;
+      }
+      if (availableCount <= 0) {
+        createApplicationDeferred.set(true);
+        break;
+      }
+      if (submitApplicationAdmissionController.getAvailableCount() <= 0) {
+        admissionDeferred = true;
+        break;
+      }
+
+      FrameworkRequest frameworkRequest = requestManager.tryGetFrameworkRequest(
+          frameworkName, frameworkStatus.getFrameworkVersion());
+      if (frameworkRequest == null) {
+        // The Framework will be upgraded or removed by onFrameworkRequestsUpdated later
+        continue;
+      }
+
+      // The Framework without queue is not limited by the queue limit
+      FrameworkDescriptor frameworkDescriptor = frameworkRequest.getFrameworkDescriptor();
+      String userName = frameworkDescriptor.getUser().getName();
+      String queueName = frameworkDescriptor.getPlatformSpecificParameters().getQueue();
+      if (!submitApplicationAdmissionController.tryAdmit(frameworkName, userName, queueName)) {
+        LOGGER.logDebug("[%s]: createApplication: Too many Applications to submit. Defer it.", frameworkName);
+        admissionDeferred = true;
+        continue;
+      }
+      availableCount--;
+      createApplicationPendingFrameworkNames.add(frameworkName);
+
+      // Queue createApplication for each Framework, so that the slow Application creation in RM
+      // can be executed in parallel for different Frameworks.
+      transitionFrameworkStateQueue.queueSystemTask(new SystemTask("createApplication", () -> {
+        try {
+          if (!createApplication(frameworkName)) {
+            // The Application is not submitted, so its submission token can be used by others
+            submitApplicationAdmissionController.cancelAdmitted(userName, queueName);
+          }
+        } finally {
+          createApplicationPendingFrameworkNames.remove(frameworkName);
+        }
+      }).setKey(frameworkName));
+    }
+
+    if (admissionDeferred) {
+      queueCreateAdmissionDeferredApplication();
+    }
+  }
+
+  private void queueCreateAdmissionDeferredApplication() {
+    if (createAdmissionDeferredApplicationQueued.compareAndSet(false, true)) {
+      transitionFrameworkStateQueue.queueSystemTaskDelayed(new SystemTask("createAdmissionDeferredApplication", () -> {
+        createAdmissionDeferredApplicationQueued.set(false);
+        createApplication();
+      }), submitApplicationAdmissionController.getRetryDelayMs());
     }
   }
 
@@ -728,7 +903,12 @@ private void retryFramework(FrameworkStatus frameworkStatus, RetryPolicyState ne
 
     statusManager.transitionFrameworkState(frameworkName, FrameworkState.FRAMEWORK_WAITING,
         new FrameworkEvent().setNewRetryPolicyState(newRetryPolicyState));
-    createApplication(frameworkStatus, false);
+
+    // Create the Application together with other FRAMEWORK_WAITING Frameworks, so that the retried
+    // Frameworks are also admitted in order, such as the mass retries after RM failover.
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("createRetriedApplication", () -> {
+      createApplication();
+    }).setCoalescingKey("createRetriedApplication"));
   }
 
   // Implement FrameworkRetryPolicy
@@ -779,10 +959,10 @@ private void attemptToRetry(FrameworkStatus frameworkStatus) throws Exception {
             "Will retryFramework with new Application after %ss. Reason: " +
             fancyRetryPolicyLogSuffix, delaySec);
 
-        FrameworkStatus frameworkStatusSnapshot = YamlUtils.deepCopy(frameworkStatus, FrameworkStatus.class);
-        transitionFrameworkStateQueue.queueSystemTaskDelayed(() -> {
+        FrameworkStatus frameworkStatusSnapshot = FrameworkStatus.newSnapshot(frameworkStatus);
+        transitionFrameworkStateQueue.queueSystemTaskDelayed(new SystemTask("retryFramework", () -> {
           retryFramework(frameworkStatusSnapshot, newRetryPolicyState);
-        }, delaySec * 1000);
+        }).setKey(frameworkName), delaySec * 1000);
         return;
       }
     } else if (exitType == ExitType.NON_TRANSIENT) {
@@ -841,7 +1021,8 @@ private void attemptToRetry() throws Exception {
     }
   }
 
-  private void resyncFrameworksWithLiveApplications(Map<String, ApplicationReport> liveApplicationReports) throws Exception {
+  private void resyncFrameworksWithLiveApplications(
+      Map<String, ApplicationReport> liveApplicationReports, boolean isFullResync) throws Exception {
     // Since Application is persistent in ZK by RM, so liveApplicationReports will never incomplete.
     String logScope = "resyncFrameworksWithLiveApplications";
     CHANGE_AWARE_LOGGER.initializeScope(logScope, Level.INFO, Level.DEBUG);
@@ -902,6 +1083,12 @@ private void resyncFrameworksWithLiveApplications(Map<String, ApplicationReport>
       }
     }
 
+    // Only the full resync can tell an Application is lost, since the incremental resync only gets the
+    // unfinished Applications, and a recently finished Application may fail to be supplemented.
+    if (!isFullResync) {
+      return;
+    }
+
     List<String> liveAssociatedApplicationIds = statusManager.getLiveAssociatedApplicationIds();
     for (String applicationId : liveAssociatedApplicationIds) {
       if (!liveApplicationReports.containsKey(applicationId)) {
@@ -935,6 +1122,8 @@ private void resyncFrameworksWithLiveApplications(Map<String, ApplicationReport>
   // Service integrate and process all Callbacks from all its SubServices
   // Note, if a Callback may change FrameworkState/FrameworkStatus, it should be queued in transitionFrameworkStateQueue
   // to let Callee(TaskQueue) to handle it in order.
+  // If a Callback only changes a single Framework, it can be queued with the FrameworkName as the key, so that
+  // it is ordered with the other SystemTasks of the Framework but executed in parallel with other Frameworks'.
   // Note:
   //  1. Queued SystemTask need to double check whether the input param still valid at the time being Executed.
   //  2. For Status: Do not queue SystemTask with Status as the input param otherwise need to double check its
@@ -955,13 +1144,37 @@ public void onExceptionOccurred(Exception e) {
 
   // Callbacks from StatusManager and RequestManager
   // FrameworkName -> FrameworkRequest
+  // changedFrameworkNames are the Frameworks whose FrameworkRequests are added, updated or deleted since
+  // last callback, and null means all Frameworks should be reconciled.
   // Service may need to double check whether FrameworkRequests is changed or not according to StatusManager
-  public void onFrameworkRequestsUpdated(Map<String, FrameworkRequest> frameworkRequests) {
-    LOGGER.logInfo("onFrameworkRequestsUpdated: FrameworkRequests: [%s]", frameworkRequests.size());
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
-      statusManager.updateFrameworkRequests(frameworkRequests);
+  public void onFrameworkRequestsUpdated(
+      Map<String, FrameworkRequest> frameworkRequests, Set<String> changedFrameworkNames) {
+    LOGGER.logInfo("onFrameworkRequestsUpdated: FrameworkRequests: [%s], ChangedFrameworkRequests: [%s]",
+        frameworkRequests.size(), (changedFrameworkNames == null ? "All" : changedFrameworkNames.size()));
+
+    // The pending SystemTask may be replaced by the later one, so the changes are accumulated
+    // outside the SystemTask and taken out together with the latest FrameworkRequests.
+    synchronized (pendingFrameworkRequestsLock) {
+      pendingFrameworkRequests = frameworkRequests;
+      if (changedFrameworkNames == null) {
+        pendingChangedFrameworkNames = null;
+      } else if (pendingChangedFrameworkNames != null) {
+        pendingChangedFrameworkNames.addAll(changedFrameworkNames);
+      }
+    }
+
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("onFrameworkRequestsUpdated", () -> {
+      Map<String, FrameworkRequest> latestFrameworkRequests;
+      Set<String> latestChangedFrameworkNames;
+      synchronized (pendingFrameworkRequestsLock) {
+        latestFrameworkRequests = pendingFrameworkRequests;
+        latestChangedFrameworkNames = pendingChangedFrameworkNames;
+        pendingChangedFrameworkNames = new HashSet<>();
+      }
+
+      statusManager.updateFrameworkRequests(latestFrameworkRequests, latestChangedFrameworkNames);
       createApplication();
-    });
+    }).setCoalescingKey("onFrameworkRequestsUpdated"));
   }
 
   // Cleanup Framework level external resource [HDFS, RM] before RemoveFramework.
@@ -984,8 +1197,8 @@ public void onFrameworkToRemove(FrameworkStatus frameworkStatus, boolean usedToU
         // Note that for the same Framework, there is race condition between the remove operation and
         // setupContainerLaunchContext, but the race condition is safe:
         // If the remove operation before or during the setupContainerLaunchContext,
-        // the Framework is LeftoverFramework and it will be cleaned up by gcLeftoverFrameworks.
-        // Otherwise, the Framework is removed totally and not need gcLeftoverFrameworks.
+        // the Framework is LeftoverFramework and it will be cleaned up by LeftoverFrameworkGarbageCollector.
+        // Otherwise, the Framework is removed totally and not need LeftoverFrameworkGarbageCollector.
         hdfsStore.removeFrameworkRoot(frameworkName);
       } catch (Exception e) {
         // Best Effort to removeFrameworkRoot
@@ -1032,26 +1245,70 @@ public void onStartTransitionFrameworkStateQueue() {
 
   // Callbacks from RMResyncHandler
   public void queueResyncWithRM(int delaySec) {
-    transitionFrameworkStateQueue.queueSystemTaskDelayed(() -> {
+    transitionFrameworkStateQueue.queueSystemTaskDelayed(new SystemTask("resyncWithRM", () -> {
       rmResyncHandler.resyncWithRM();
-    }, delaySec * 1000);
+    }).setCoalescingKey("resyncWithRM"), delaySec * 1000);
   }
 
   // ApplicationId -> ApplicationReport
-  public void onLiveApplicationsUpdated(Map<String, ApplicationReport> liveApplicationReports) throws Exception {
-    LOGGER.logDebug("onLiveApplicationsUpdated: LiveApplications: [%s]", liveApplicationReports.size());
+  // If it is not isFullResync, the liveApplicationReports may not contain all live Applications.
+  public void onLiveApplicationsUpdated(
+      Map<String, ApplicationReport> liveApplicationReports, boolean isFullResync) throws Exception {
+    LOGGER.logDebug("onLiveApplicationsUpdated: LiveApplications: [%s], IsFullResync: %s",
+        liveApplicationReports.size(), isFullResync);
 
     // onLiveApplicationsUpdated is already in queue, so queue it again will disorder
     // the result of resyncWithRM and other SystemTasks
-    resyncFrameworksWithLiveApplications(liveApplicationReports);
+    resyncFrameworksWithLiveApplications(liveApplicationReports, isFullResync);
+  }
+
+
+  // Callbacks from setupApplicationContextExecutor
+  public void onApplicationContextSetup() {
+    // Rescan the deferred FRAMEWORK_WAITING Frameworks, since there may be room to setup more ApplicationContexts
+    if (createApplicationDeferred.compareAndSet(true, false)) {
+      transitionFrameworkStateQueue.queueSystemTask(new SystemTask("createDeferredApplication", () -> {
+        createApplication();
+      }).setCoalescingKey("createDeferredApplication"));
+    }
   }
 
+  // Callbacks from LeftoverFrameworkGarbageCollector
+  // The returned Future tells whether the LeftoverFramework is removed successfully.
+  public Future<Boolean> removeLeftoverFramework(String frameworkName) {
+    // Double check the Framework is still leftover inside the SystemTask of the Framework, so that
+    // it is ordered with the Framework which is added again with the same name.
+    // The returned Future is completed with true if the Framework is removed, false if it is skipped,
+    // and exceptionally if it is failed to remove.
+    CompletableFuture<Boolean> removed = new CompletableFuture<>();
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("removeLeftoverFramework", () -> {
+      try {
+        if (statusManager.containsFramework(frameworkName)) {
+          removed.complete(false);
+          return;
+        }
+        hdfsStore.removeFrameworkRoot(frameworkName);
+        removed.complete(true);
+      } catch (Exception e) {
+        // Best Effort to removeFrameworkRoot, it will be removed in next GC pass.
+        LOGGER.logWarning(e,
+            "[%s]: removeLeftoverFramework: Failed to remove Framework in HDFS, will remove it later",
+            frameworkName);
+        removed.completeExceptionally(e);
+      }
+    }).setKey(frameworkName));
+    return removed;
+  }
 
   // Callbacks from AMDiagnosticsRetriever
   public void onAMDiagnosticsRetrieved(
       String applicationId, String amDiagnostics, Exception retrieveException) {
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    // The association is double checked inside retrieveApplicationExitCode, and if the Application is not
+    // associated now, it will never be associated again, so just queue it as a barrier SystemTask.
+    // It is queued as HIGH, so that the Application completion will not be stuck behind the bulk rescans.
+    String frameworkName = statusManager.tryGetFrameworkNameWithAssociatedApplicationId(applicationId);
+    transitionFrameworkStateQueue.queueSystemTask(new SystemTask("onAMDiagnosticsRetrieved", () -> {
       retrieveApplicationExitCode(applicationId, amDiagnostics, retrieveException);
-    });
+    }).setKey(frameworkName).setPriority(SystemTaskPriority.HIGH));
   }
 }
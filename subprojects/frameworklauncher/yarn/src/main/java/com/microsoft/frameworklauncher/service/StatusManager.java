@@ -31,28 +31,46 @@
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.yarn.api.records.ApplicationReport;
 import org.apache.hadoop.yarn.api.records.ApplicationSubmissionContext;
-import org.apache.log4j.Level;
 import org.apache.zookeeper.KeeperException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 // Manage the CURD to ZK Status
 public class StatusManager extends AbstractService {  // THREAD SAFE
   private static final DefaultLogger LOGGER = new DefaultLogger(StatusManager.class);
+  private static final int FRAMEWORK_LOCK_STRIPE_COUNT = 64;
 
   private final Service service;
   private final LauncherConfiguration conf;
   private final UserContainerExitSpec userContainerExitSpec;
   private final ZookeeperStore zkStore;
 
+  // Framework level modifications, such as transitionFrameworkState, are serialized by the lock stripe
+  // of the Framework, so different Frameworks can be modified in parallel.
+  // Launcher level modifications, such as add or remove Frameworks, hold the write lock of launcherLock,
+  // so they are exclusive to all Framework level modifications which hold its read lock.
+  // Reads are not locked, so a consistent view of multiple Frameworks is only guaranteed when no Framework
+  // level modification is in progress, such as in a barrier Task of the transitionFrameworkStateQueue.
+  private final ReadWriteLock launcherLock = new ReentrantReadWriteLock();
+  private final Lock[] frameworkLocks = new Lock[FRAMEWORK_LOCK_STRIPE_COUNT];
+
 
   /**
    * REGION BaseStatus
    */
   // Service only need to maintain LauncherStatus and AllFrameworkStatuses, and it is the only maintainer.
-  private LauncherStatus launcherStatus = null;
+  private volatile LauncherStatus launcherStatus = null;
   // FrameworkName -> FrameworkStatus
-  private Map<String, FrameworkStatus> frameworkStatuses = null;
+  private final Map<String, FrameworkStatus> frameworkStatuses = new ConcurrentHashMap<>();
+  // The last FrameworkStatusGeneration assigned to any FrameworkStatus.
+  // A FrameworkStatus snapshot is stale iff its FrameworkStatusGeneration differs from the current one.
+  private final AtomicLong lastFrameworkStatusGeneration = new AtomicLong(0);
 
 
   /**
@@ -61,11 +79,11 @@ public class StatusManager extends AbstractService {  // THREAD SAFE
    */
   // Used to invert index FrameworkStatus by ApplicationId/FrameworkState instead of FrameworkName
   // FrameworkState -> FrameworkNames
-  private final Map<FrameworkState, Set<String>> frameworkStateLocators = new HashMap<>();
+  private final Map<FrameworkState, Set<String>> frameworkStateLocators = new ConcurrentHashMap<>();
   // Associated ApplicationId -> FrameworkName
-  private final Map<String, String> associatedApplicationIdLocators = new HashMap<>();
+  private final Map<String, String> associatedApplicationIdLocators = new ConcurrentHashMap<>();
   // Live Associated ApplicationId -> FrameworkName
-  private final Map<String, String> liveAssociatedApplicationIdLocators = new HashMap<>();
+  private final Map<String, String> liveAssociatedApplicationIdLocators = new ConcurrentHashMap<>();
 
 
   /**
@@ -99,7 +117,10 @@ protected void initialize() throws Exception {
     super.initialize();
 
     for (FrameworkState frameworkState : FrameworkState.values()) {
-      frameworkStateLocators.put(frameworkState, new HashSet<>());
+      frameworkStateLocators.put(frameworkState, ConcurrentHashMap.newKeySet());
+    }
+    for (int i = 0; i < FRAMEWORK_LOCK_STRIPE_COUNT; i++) {
+      frameworkLocks[i] = new ReentrantLock();
     }
   }
 
@@ -122,13 +143,13 @@ protected void recover() throws Exception {
     updateLauncherStatus(launcherStatus);
 
     // Recover AllFrameworkStatuses from ZK and clean the corrupted AggregatedFrameworkStatus
-    frameworkStatuses = new HashMap<>();
     AggregatedLauncherStatus aggLauncherStatus = zkStore.getAggregatedLauncherStatus();
     for (Map.Entry<String, AggregatedFrameworkStatus> aggFrameworkStatusKV :
         aggLauncherStatus.getAggregatedFrameworkStatuses().entrySet()) {
       String frameworkName = aggFrameworkStatusKV.getKey();
       AggregatedFrameworkStatus aggFrameworkStatus = aggFrameworkStatusKV.getValue();
       if (aggFrameworkStatus != null) {
+        increaseFrameworkStatusGeneration(aggFrameworkStatus.getFrameworkStatus());
         frameworkStatuses.put(frameworkName, aggFrameworkStatus.getFrameworkStatus());
         addExtensionFrameworkStatus(frameworkName);
       } else {
@@ -154,6 +175,7 @@ protected void recover() throws Exception {
 
           // If frameworkStatus is the new version, it should be recovered, otherwise it can also be recovered.
           // Because any frameworkStatus can be driven by RequestManager and FrameworkStateMachine.
+          increaseFrameworkStatusGeneration(frameworkStatus);
           frameworkStatuses.put(frameworkName, frameworkStatus);
           addExtensionFrameworkStatus(frameworkName);
         }
@@ -174,6 +196,20 @@ protected void recover() throws Exception {
   /**
    * REGION InternalUtils
    */
+  private Lock getFrameworkLock(String frameworkName) {
+    return frameworkLocks[(frameworkName.hashCode() & Integer.MAX_VALUE) % FRAMEWORK_LOCK_STRIPE_COUNT];
+  }
+
+  private void lockFramework(String frameworkName) {
+    launcherLock.readLock().lock();
+    getFrameworkLock(frameworkName).lock();
+  }
+
+  private void unlockFramework(String frameworkName) {
+    getFrameworkLock(frameworkName).unlock();
+    launcherLock.readLock().unlock();
+  }
+
   private void updateLauncherStatus(LauncherStatus newLauncherStatus) throws Exception {
     if (YamlUtils.deepEquals(launcherStatus, newLauncherStatus)) {
       return;
@@ -186,6 +222,11 @@ private void updateLauncherStatus(LauncherStatus newLauncherStatus) throws Excep
     zkStore.setLauncherStatus(launcherStatus);
   }
 
+  // Should be called before persisting the changed FrameworkStatus
+  private void increaseFrameworkStatusGeneration(FrameworkStatus frameworkStatus) {
+    frameworkStatus.setFrameworkStatusGeneration(lastFrameworkStatusGeneration.incrementAndGet());
+  }
+
   private void addExtensionFrameworkStatus(String frameworkName) {
     FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
     String applicationId = frameworkStatus.getApplicationId();
@@ -239,6 +280,7 @@ private void disassociateFrameworkWithApplication(String frameworkName) {
     frameworkStatus.setApplicationProgress(null);
     frameworkStatus.setApplicationTrackingUrl(null);
     frameworkStatus.setApplicationLaunchedTimestamp(null);
+    frameworkStatus.setApplicationAMPackageVersion(null);
     frameworkStatus.setApplicationCompletedTimestamp(null);
     frameworkStatus.setApplicationExitCode(null);
     frameworkStatus.setApplicationExitDescription(null);
@@ -268,6 +310,7 @@ private void addFramework(FrameworkRequest frameworkRequest) throws Exception {
     assert !frameworkStatuses.containsKey(frameworkName);
 
     FrameworkStatus frameworkStatus = FrameworkStatus.newInstance(frameworkRequest);
+    increaseFrameworkStatusGeneration(frameworkStatus);
 
     // Update Mem Status
     frameworkStatuses.put(frameworkName, frameworkStatus);
@@ -355,50 +398,60 @@ private void stopFramework(String frameworkName) throws Exception {
   /**
    * REGION ReadInterface
    */
-  public synchronized UserDescriptor getLoggedInUser() {
+  public UserDescriptor getLoggedInUser() {
     return launcherStatus.getLoggedInUser();
   }
 
-  public synchronized Set<String> getFrameworkNames() {
+  public Set<String> getFrameworkNames() {
     return frameworkStatuses.keySet();
   }
 
-  public synchronized boolean containsFramework(String frameworkName) {
+  public boolean containsFramework(String frameworkName) {
     return frameworkStatuses.containsKey(frameworkName);
   }
 
-  public synchronized boolean containsFramework(FrameworkStatus frameworkStatus) {
+  public boolean containsFramework(FrameworkStatus frameworkStatus) {
     String frameworkName = frameworkStatus.getFrameworkName();
 
-    if (!containsFramework(frameworkName)) {
-      LOGGER.logDebug("FrameworkName not found in Status. FrameworkName: %s", frameworkName);
-      return false;
-    }
+    lockFramework(frameworkName);
+    try {
+      if (!containsFramework(frameworkName)) {
+        LOGGER.logDebug("FrameworkName not found in Status. FrameworkName: %s", frameworkName);
+        return false;
+      }
 
-    FrameworkStatus thisFrameworkStatus = getFrameworkStatus(frameworkName);
-    if (!YamlUtils.deepEquals(thisFrameworkStatus, frameworkStatus)) {
-      LOGGER.logSplittedLines(Level.DEBUG,
-          "FrameworkStatus not found in Status. FrameworkStatus:\n%s\nCurrent FrameworkStatus in Status:\n%s",
-          WebCommon.toJson(frameworkStatus), WebCommon.toJson(thisFrameworkStatus));
-      return false;
-    }
+      // The FrameworkStatus is the same as the current one iff their FrameworkStatusGenerations are the same,
+      // since any change of the current one increases its FrameworkStatusGeneration.
+      FrameworkStatus thisFrameworkStatus = getFrameworkStatus(frameworkName);
+      if (!Objects.equals(thisFrameworkStatus.getFrameworkStatusGeneration(),
+          frameworkStatus.getFrameworkStatusGeneration())) {
+        LOGGER.logDebug(
+            "FrameworkStatus not found in Status. FrameworkName: %s, FrameworkStatusGeneration: %s, " +
+                "Current FrameworkStatusGeneration in Status: %s",
+            frameworkName, frameworkStatus.getFrameworkStatusGeneration(),
+            thisFrameworkStatus.getFrameworkStatusGeneration());
+        return false;
+      }
 
-    return true;
+      return true;
+    } finally {
+      unlockFramework(frameworkName);
+    }
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized FrameworkStatus getFrameworkStatus(String frameworkName) {
+  public FrameworkStatus getFrameworkStatus(String frameworkName) {
     assert containsFramework(frameworkName);
     return frameworkStatuses.get(frameworkName);
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet) {
+  public List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet) {
     return getFrameworkStatus(frameworkStateSet, true);
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet, boolean contains) {
+  public List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet, boolean contains) {
     Set<FrameworkState> acceptableFrameworkStateSet = new HashSet<>();
     if (contains) {
       acceptableFrameworkStateSet.addAll(frameworkStateSet);
@@ -410,40 +463,51 @@ public synchronized List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState>
       }
     }
 
-    List<FrameworkStatus> frameworkStatuses = new ArrayList<>();
-    for (FrameworkState frameworkState : acceptableFrameworkStateSet) {
-      for (String frameworkName : frameworkStateLocators.get(frameworkState)) {
-        frameworkStatuses.add(getFrameworkStatus(frameworkName));
+    // Frameworks cannot be added or removed during the iteration
+    launcherLock.readLock().lock();
+    try {
+      List<FrameworkStatus> frameworkStatuses = new ArrayList<>();
+      for (FrameworkState frameworkState : acceptableFrameworkStateSet) {
+        for (String frameworkName : frameworkStateLocators.get(frameworkState)) {
+          frameworkStatuses.add(getFrameworkStatus(frameworkName));
+        }
       }
+      return frameworkStatuses;
+    } finally {
+      launcherLock.readLock().unlock();
     }
-    return frameworkStatuses;
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized FrameworkStatus getFrameworkStatusWithLiveAssociatedApplicationId(String applicationId) {
+  public FrameworkStatus getFrameworkStatusWithLiveAssociatedApplicationId(String applicationId) {
     assert isApplicationIdLiveAssociated(applicationId);
     return getFrameworkStatus(liveAssociatedApplicationIdLocators.get(applicationId));
   }
 
-  public synchronized List<String> getLiveAssociatedApplicationIds() {
+  public List<String> getLiveAssociatedApplicationIds() {
     return new ArrayList<>(liveAssociatedApplicationIdLocators.keySet());
   }
 
-  public synchronized boolean isApplicationIdLiveAssociated(String applicationId) {
+  public boolean isApplicationIdLiveAssociated(String applicationId) {
     return liveAssociatedApplicationIdLocators.containsKey(applicationId);
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized FrameworkStatus getFrameworkStatusWithAssociatedApplicationId(String applicationId) {
+  public FrameworkStatus getFrameworkStatusWithAssociatedApplicationId(String applicationId) {
     assert isApplicationIdAssociated(applicationId);
     return getFrameworkStatus(associatedApplicationIdLocators.get(applicationId));
   }
 
-  public synchronized List<String> getAssociatedApplicationIds() {
+  // Returns null if the ApplicationId is not associated
+  public String tryGetFrameworkNameWithAssociatedApplicationId(String applicationId) {
+    return associatedApplicationIdLocators.get(applicationId);
+  }
+
+  public List<String> getAssociatedApplicationIds() {
     return new ArrayList<>(associatedApplicationIdLocators.keySet());
   }
 
-  public synchronized boolean isApplicationIdAssociated(String applicationId) {
+  public boolean isApplicationIdAssociated(String applicationId) {
     return associatedApplicationIdLocators.containsKey(applicationId);
   }
 
@@ -453,13 +517,25 @@ public synchronized boolean isApplicationIdAssociated(String applicationId) {
   // Note to avoid update partially modified Status on ZK
 
   // This is the only interface to modify FrameworkState for both internal and external
-  public synchronized void transitionFrameworkState(
+  public void transitionFrameworkState(
       String frameworkName,
       FrameworkState dstState) throws Exception {
     transitionFrameworkState(frameworkName, dstState, new FrameworkEvent());
   }
 
-  public synchronized void transitionFrameworkState(
+  public void transitionFrameworkState(
+      String frameworkName,
+      FrameworkState dstState,
+      FrameworkEvent event) throws Exception {
+    lockFramework(frameworkName);
+    try {
+      transitionFrameworkStateInternal(frameworkName, dstState, event);
+    } finally {
+      unlockFramework(frameworkName);
+    }
+  }
+
+  private void transitionFrameworkStateInternal(
       String frameworkName,
       FrameworkState dstState,
       FrameworkEvent event) throws Exception {
@@ -475,6 +551,9 @@ public synchronized void transitionFrameworkState(
 
     assert !FrameworkStateDefinition.FINAL_STATES.contains(srcState);
 
+    // Invalidate all snapshots of the FrameworkStatus before changing it
+    increaseFrameworkStatusGeneration(frameworkStatus);
+
     if (!FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(srcState) &&
         FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(dstState)) {
       assert (event.getApplicationContext() != null);
@@ -541,6 +620,10 @@ public synchronized void transitionFrameworkState(
     Long currentTimestamp = System.currentTimeMillis();
     if (dstState == FrameworkState.FRAMEWORK_COMPLETED) {
       frameworkStatus.setFrameworkCompletedTimestamp(currentTimestamp);
+    } else if (dstState == FrameworkState.APPLICATION_CREATED) {
+      // Record it once the Application is created instead of launched, since an APPLICATION_CREATED
+      // Application may be already submitted with the AM package, when it is revised after restart.
+      frameworkStatus.setApplicationAMPackageVersion(event.getApplicationAMPackageVersion());
     } else if (dstState == FrameworkState.APPLICATION_LAUNCHED) {
       frameworkStatus.setApplicationLaunchedTimestamp(currentTimestamp);
     } else if (dstState == FrameworkState.APPLICATION_COMPLETED) {
@@ -560,9 +643,39 @@ public synchronized void transitionFrameworkState(
         frameworkName, srcState, dstState, event.getSkipToPersist());
   }
 
-  public synchronized void updateFrameworkRequests(Map<String, FrameworkRequest> frameworkRequests) throws Exception {
+  // Only reconcile the Frameworks in changedFrameworkNames, or all Frameworks if it is null.
+  public void updateFrameworkRequests(
+      Map<String, FrameworkRequest> frameworkRequests, Set<String> changedFrameworkNames) throws Exception {
+    launcherLock.writeLock().lock();
+    try {
+      updateFrameworkRequestsInternal(frameworkRequests, changedFrameworkNames);
+    } finally {
+      launcherLock.writeLock().unlock();
+    }
+  }
+
+  private void updateFrameworkRequestsInternal(
+      Map<String, FrameworkRequest> frameworkRequests, Set<String> changedFrameworkNames) throws Exception {
+    Collection<FrameworkRequest> changedFrameworkRequests;
+    Collection<FrameworkStatus> changedFrameworkStatuses;
+    if (changedFrameworkNames == null) {
+      changedFrameworkRequests = frameworkRequests.values();
+      changedFrameworkStatuses = new ArrayList<>(frameworkStatuses.values());
+    } else {
+      changedFrameworkRequests = new ArrayList<>();
+      changedFrameworkStatuses = new ArrayList<>();
+      for (String frameworkName : changedFrameworkNames) {
+        if (frameworkRequests.containsKey(frameworkName)) {
+          changedFrameworkRequests.add(frameworkRequests.get(frameworkName));
+        }
+        if (frameworkStatuses.containsKey(frameworkName)) {
+          changedFrameworkStatuses.add(frameworkStatuses.get(frameworkName));
+        }
+      }
+    }
+
     // Add or Update Framework
-    for (FrameworkRequest frameworkRequest : frameworkRequests.values()) {
+    for (FrameworkRequest frameworkRequest : changedFrameworkRequests) {
       String frameworkName = frameworkRequest.getFrameworkName();
       Integer frameworkVersion = frameworkRequest.getFrameworkDescriptor().getVersion();
 
@@ -587,7 +700,7 @@ public synchronized void updateFrameworkRequests(Map<String, FrameworkRequest> f
     }
 
     // Remove Framework
-    for (FrameworkStatus frameworkStatus : new ArrayList<>(frameworkStatuses.values())) {
+    for (FrameworkStatus frameworkStatus : changedFrameworkStatuses) {
       String frameworkName = frameworkStatus.getFrameworkName();
       Integer frameworkVersion = frameworkStatus.getFrameworkVersion();
 
@@ -602,7 +715,16 @@ public synchronized void updateFrameworkRequests(Map<String, FrameworkRequest> f
     }
   }
 
-  public synchronized void updateApplicationStatus(String frameworkName, ApplicationReport applicationReport) throws Exception {
+  public void updateApplicationStatus(String frameworkName, ApplicationReport applicationReport) throws Exception {
+    lockFramework(frameworkName);
+    try {
+      updateApplicationStatusInternal(frameworkName, applicationReport);
+    } finally {
+      unlockFramework(frameworkName);
+    }
+  }
+
+  private void updateApplicationStatusInternal(String frameworkName, ApplicationReport applicationReport) throws Exception {
     FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
     String applicationId = applicationReport.getApplicationId().toString();
     String logPrefix = String.format(
@@ -632,6 +754,7 @@ public synchronized void updateApplicationStatus(String frameworkName, Applicati
     }
 
     if (frameworkStatusChanged) {
+      increaseFrameworkStatusGeneration(frameworkStatus);
       zkStore.setFrameworkStatus(frameworkName, frameworkStatus);
     }
   }
@@ -46,12 +46,16 @@
 @Path(WebStructure.ROOT_PATH)
 public class LauncherModule {
   private static final DefaultLogger LOGGER = new DefaultLogger(LauncherModule.class);
+  private final WebServer webServer;
   private final LauncherConfiguration conf;
   private final StatusManager statusManager;
   private final RequestManager requestManager;
 
   @Inject
-  public LauncherModule(LauncherConfiguration conf, StatusManager statusManager, RequestManager requestManager) {
+  public LauncherModule(
+      WebServer webServer, LauncherConfiguration conf,
+      StatusManager statusManager, RequestManager requestManager) {
+    this.webServer = webServer;
     this.conf = conf;
     this.statusManager = statusManager;
     this.requestManager = requestManager;
@@ -219,6 +223,62 @@ public LauncherRequest getLauncherRequest() throws Exception {
     return requestManager.getLauncherRequest();
   }
 
+  @GET
+  @Path(WebStructure.SYSTEM_TASK_QUEUE_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<SystemTaskQueueMetrics> getSystemTaskQueueMetrics() {
+    return webServer.getSystemTaskQueueMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.BOUNDED_EXECUTOR_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<BoundedExecutorMetrics> getBoundedExecutorMetrics() {
+    return webServer.getBoundedExecutorMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.ADMISSION_CONTROLLER_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<AdmissionControllerMetrics> getAdmissionControllerMetrics() {
+    return webServer.getAdmissionControllerMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.LOADING_CACHE_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<LoadingCacheMetrics> getLoadingCacheMetrics() {
+    return webServer.getLoadingCacheMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.YARN_CLIENT_POOL_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<YarnClientPoolMetrics> getYarnClientPoolMetrics() {
+    return webServer.getYarnClientPoolMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.ZOOKEEPER_GARBAGE_COLLECTOR_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<ZookeeperGarbageCollectorMetrics> getZookeeperGarbageCollectorMetrics() {
+    return webServer.getZookeeperGarbageCollectorMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.ZOOKEEPER_COMPRESSION_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<ZookeeperCompressionMetrics> getZookeeperCompressionMetrics() {
+    return webServer.getZookeeperCompressionMetrics();
+  }
+
+  @GET
+  @Path(WebStructure.LEFTOVER_FRAMEWORK_GARBAGE_COLLECTOR_METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public List<LeftoverFrameworkGarbageCollectorMetrics> getLeftoverFrameworkGarbageCollectorMetrics() {
+    return webServer.getLeftoverFrameworkGarbageCollectorMetrics();
+  }
+
   @PUT
   @Path(WebStructure.DATA_DEPLOYMENT_VERSION_PATH)
   @Consumes({MediaType.APPLICATION_JSON})
@@ -307,8 +367,7 @@ public SummarizedFrameworkInfos getFrameworks(@Context HttpServletRequest hsr) t
 
     List<SummarizedFrameworkInfo> sFrameworkInfoList = new ArrayList<>();
     for (FrameworkRequest frameworkRequest : frameworkRequests) {
-      FrameworkStatus frameworkStatus = statusManager.getFrameworkStatus(frameworkRequest);
-      sFrameworkInfoList.add(SummarizedFrameworkInfo.newInstance(frameworkRequest, frameworkStatus));
+      sFrameworkInfoList.add(statusManager.getSummarizedFrameworkInfo(frameworkRequest));
     }
 
     SummarizedFrameworkInfos sFrameworkInfos = new SummarizedFrameworkInfos();
@@ -21,11 +21,15 @@
 import org.apache.hadoop.yarn.webapp.WebApp;
 
 public class LauncherWebApp extends WebApp {
+  private final WebServer webServer;
   private final LauncherConfiguration conf;
   private final StatusManager statusManager;
   private final RequestManager requestManager;
 
-  public LauncherWebApp(LauncherConfiguration conf, StatusManager statusManager, RequestManager requestManager) {
+  public LauncherWebApp(
+      WebServer webServer, LauncherConfiguration conf,
+      StatusManager statusManager, RequestManager requestManager) {
+    this.webServer = webServer;
     this.conf = conf;
     this.statusManager = statusManager;
     this.requestManager = requestManager;
@@ -36,6 +40,7 @@ public void setup() {
     bind(JacksonObjectMapperProvider.class);
     bind(LauncherExceptionHandler.class);
     bind(LauncherModule.class);
+    bind(WebServer.class).toInstance(webServer);
     bind(LauncherConfiguration.class).toInstance(conf);
     bind(StatusManager.class).toInstance(statusManager);
     bind(RequestManager.class).toInstance(requestManager);
@@ -19,18 +19,20 @@
 
 import com.microsoft.frameworklauncher.common.exceptions.BadRequestException;
 import com.microsoft.frameworklauncher.common.exceptions.ThrottledRequestException;
+import com.microsoft.frameworklauncher.common.exts.CommonExts;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
+import com.microsoft.frameworklauncher.common.utils.PersistentHashMap;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.zookeeper.KeeperException;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -40,27 +42,48 @@
 // Manage the CURD to ZK Request
 public class RequestManager extends AbstractService {  // THREAD SAFE
   private static final DefaultLogger LOGGER = new DefaultLogger(RequestManager.class);
+  private static final int FRAMEWORK_LOCK_STRIPE_COUNT = 64;
 
   private final WebServer webServer;
   private final LauncherConfiguration conf;
   private final ZookeeperStore zkStore;
-  private final ReadLock readLock;
-  private final WriteLock writeLock;
+
+  // Writers only, readers never take them.
+  // Lock Ordering: sharedWriteLock or exclusiveWriteLock -> frameworkLocks -> taskNumberLock.
+  // A single Framework write holds the sharedWriteLock and the stripe of frameworkLocks for the Framework,
+  // so writes of different Frameworks do their ZK I/O in parallel, and writes of the same Framework
+  // are still serialized.
+  // A write across Frameworks, such as propagating the stop or delete of a ParentFramework to its child
+  // Frameworks, or a write of the LauncherRequest holds the exclusiveWriteLock, so it never interleaves
+  // with any single Framework write.
+  // Note the propagation is always executed after the single Framework write which triggers it,
+  // the same as recover continues the previous propagation.
+  private final ReadLock sharedWriteLock;
+  private final WriteLock exclusiveWriteLock;
+  private final ReentrantLock[] frameworkLocks;
 
 
   /**
    * REGION BaseRequest
+   * WebServer only need to maintain AggregatedLauncherRequest, and it is the only maintainer.
+   * BaseRequest is an immutable RequestSnapshot, so readers are lock free and never wait for the writers,
+   * which may be slowed down by the ZK writes.
+   * A writer replaces the RequestSnapshot by a new one after each write, and since the RequestSnapshot
+   * is built on PersistentHashMaps, the new one shares almost all of its structure with the old one,
+   * so a write costs O(log(N)) instead of copying all the FrameworkRequests.
+   * The Framework entry of the RequestSnapshot is only changed by the writer holding its locks, so
+   * it is stable for the writer, even if the RequestSnapshot is concurrently replaced by writers of
+   * other Frameworks.
    */
-  // WebServer only need to maintain AggregatedLauncherRequest, and it is the only maintainer.
-  private LauncherRequest launcherRequest;
-  // FrameworkName -> AggregatedFrameworkRequest
-  private Map<String, AggregatedFrameworkRequest> aggFrameworkRequests;
+  private final AtomicReference<RequestSnapshot> requestSnapshot = new AtomicReference<>();
 
 
   /**
    * REGION ExtensionRequest
    * ExtensionRequest should be always CONSISTENT with BaseRequest
    */
+  // Guarded by taskNumberLock, since it is shared by all single Framework writes.
+  private final Object taskNumberLock = new Object();
   private int totalTaskNumber = 0;
 
 
@@ -73,10 +96,13 @@ public RequestManager(WebServer webServer, LauncherConfiguration conf, Zookeeper
     this.conf = conf;
     this.zkStore = zkStore;
 
-    // Using FairSync to avoid potential reader starvation for a long time.
-    ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
-    this.readLock = lock.readLock();
-    this.writeLock = lock.writeLock();
+    ReentrantReadWriteLock writeLock = new ReentrantReadWriteLock();
+    this.sharedWriteLock = writeLock.readLock();
+    this.exclusiveWriteLock = writeLock.writeLock();
+    this.frameworkLocks = new ReentrantLock[FRAMEWORK_LOCK_STRIPE_COUNT];
+    for (int i = 0; i < frameworkLocks.length; i++) {
+      frameworkLocks[i] = new ReentrantLock();
+    }
   }
 
   @Override
@@ -101,16 +127,21 @@ protected void recover() throws Exception {
 
     try {
       AggregatedLauncherRequest aggLauncherRequest = zkStore.getAggregatedLauncherRequest();
-      launcherRequest = aggLauncherRequest.getLauncherRequest();
-      aggFrameworkRequests = aggLauncherRequest.getAggregatedFrameworkRequests();
+      RequestSnapshot snapshot = RequestSnapshot.EMPTY.withLauncherRequest(aggLauncherRequest.getLauncherRequest());
+      for (Map.Entry<String, AggregatedFrameworkRequest> aggFrameworkRequestKV :
+          aggLauncherRequest.getAggregatedFrameworkRequests().entrySet()) {
+        snapshot = snapshot.withAggregatedFrameworkRequest(
+            aggFrameworkRequestKV.getKey(), aggFrameworkRequestKV.getValue());
+      }
+      requestSnapshot.set(snapshot);
       totalTaskNumber = getTotalTaskNumber();
 
       LOGGER.logDebug("Total TaskNumber: %s", totalTaskNumber);
     } catch (KeeperException.NoNodeException e) {
       LOGGER.logInfo("Initializing LauncherRequest on ZK.");
-      launcherRequest = new LauncherRequest();
-      aggFrameworkRequests = new HashMap<>();
+      LauncherRequest launcherRequest = new LauncherRequest();
       zkStore.setLauncherRequest(launcherRequest);
+      requestSnapshot.set(RequestSnapshot.EMPTY.withLauncherRequest(launcherRequest));
     }
 
     // Continue previous deleteOrphanFrameworks to provide Atomic deleteFrameworkRequest
@@ -125,22 +156,163 @@ protected void recover() throws Exception {
   /**
    * REGION InternalUtils
    */
+  private <T> T executeFrameworkWrite(String frameworkName, Callable<T> action) throws Exception {
+    return CommonUtils.executeWithLock(sharedWriteLock, () ->
+        CommonUtils.executeWithLock(getFrameworkLock(frameworkName), action));
+  }
+
+  private void executeFrameworkWrite(String frameworkName, CommonExts.VoidCallable action) throws Exception {
+    executeFrameworkWrite(frameworkName, () -> {
+      action.call();
+      return null;
+    });
+  }
+
+  private void executeExclusiveWrite(CommonExts.VoidCallable action) throws Exception {
+    CommonUtils.executeWithLock(exclusiveWriteLock, action);
+  }
+
+  private ReentrantLock getFrameworkLock(String frameworkName) {
+    return frameworkLocks[(frameworkName.hashCode() & Integer.MAX_VALUE) % frameworkLocks.length];
+  }
+
+  private PersistentHashMap<String, AggregatedFrameworkRequest> getAggFrameworkRequests() {
+    return requestSnapshot.get().aggFrameworkRequests;
+  }
+
+  // Only called after the write is persisted on ZK, so that BaseRequest is always CONSISTENT with ZK.
+  // The aggFrameworkRequest is null if the Framework is deleted.
+  private void setAggregatedFrameworkRequest(String frameworkName, AggregatedFrameworkRequest aggFrameworkRequest) {
+    requestSnapshot.updateAndGet(snapshot ->
+        snapshot.withAggregatedFrameworkRequest(frameworkName, aggFrameworkRequest));
+  }
+
+  private void setLauncherRequest(LauncherRequest launcherRequest) {
+    requestSnapshot.updateAndGet(snapshot -> snapshot.withLauncherRequest(launcherRequest));
+  }
+
+  // Reserve the TaskNumber change of a Framework before it is persisted,
+  // so that concurrent writes of different Frameworks cannot exceed the MaxTotalTaskNumber together.
+  private void reserveTotalTaskNumber(String frameworkName, int taskNumberChange) throws Exception {
+    synchronized (taskNumberLock) {
+      int newTotalTaskNumber = totalTaskNumber + taskNumberChange;
+      if (newTotalTaskNumber > conf.getMaxTotalTaskNumber()) {
+        throw new ThrottledRequestException(String.format(
+            "[%s]: setFrameworkRequest Rejected: " +
+                "Since the New Total TaskNumber %s will exceed the Max Total TaskNumber %s",
+            frameworkName, newTotalTaskNumber, conf.getMaxTotalTaskNumber()));
+      }
+
+      LOGGER.logDebug("[%s]: reserveTotalTaskNumber: " +
+              "New Total TaskNumber: %s, Old Total TaskNumber: %s, TaskNumber Change: %s",
+          frameworkName, newTotalTaskNumber, totalTaskNumber, taskNumberChange);
+      totalTaskNumber = newTotalTaskNumber;
+    }
+  }
+
+  private void releaseTotalTaskNumber(String frameworkName, int taskNumberChange) {
+    synchronized (taskNumberLock) {
+      int newTotalTaskNumber = totalTaskNumber - taskNumberChange;
+
+      LOGGER.logDebug("[%s]: releaseTotalTaskNumber: " +
+              "New Total TaskNumber: %s, Old Total TaskNumber: %s, TaskNumber Change: %s",
+          frameworkName, newTotalTaskNumber, totalTaskNumber, taskNumberChange);
+      totalTaskNumber = newTotalTaskNumber;
+    }
+  }
+
+  // Note to avoid update partially modified Request on ZK
+  // Return whether the child Frameworks should be stopped after it.
+  private boolean setFrameworkRequestInternal(
+      String frameworkName, FrameworkRequest frameworkRequest)
+      throws Exception {
+    FrameworkDescriptor frameworkDescriptor = frameworkRequest.getFrameworkDescriptor();
+    ExecutionType executionType = frameworkDescriptor.getExecutionType();
+    ParentFrameworkDescriptor parentFramework = frameworkDescriptor.getParentFramework();
+
+    // The ParentFramework may be deleted or stopped concurrently, but its propagation to child Frameworks
+    // needs the exclusiveWriteLock, so it will still be applied to this Framework after this write.
+    if (parentFramework != null) {
+      String parentFrameworkName = parentFramework.getParentFrameworkName();
+      boolean deleteOnParentDeleted = parentFramework.isDeleteOnParentDeleted();
+      if (deleteOnParentDeleted && !getAggFrameworkRequests().containsKey(parentFrameworkName) &&
+          !frameworkName.equals(parentFrameworkName)) {
+        // Reject future child Frameworks
+        throw new BadRequestException(String.format(
+            "[%s]: setFrameworkRequest Rejected: " +
+                "Since its DeleteOnParentDeleted is enabled and its ParentFramework [%s] is Deleted",
+            frameworkName, parentFrameworkName));
+      }
+
+      boolean stopOnParentStopped = parentFramework.isStopOnParentStopped();
+      AggregatedFrameworkRequest aggParentFrameworkRequest = getAggFrameworkRequests().get(parentFrameworkName);
+      if (stopOnParentStopped && executionType != ExecutionType.STOP &&
+          aggParentFrameworkRequest != null &&
+          aggParentFrameworkRequest.getFrameworkRequest().
+              getFrameworkDescriptor().getExecutionType() == ExecutionType.STOP) {
+        // Stop future child Frameworks
+        executionType = ExecutionType.STOP;
+        frameworkDescriptor.setExecutionType(executionType);
+      }
+    }
+
+    Long currentTimestamp = System.currentTimeMillis();
+    int taskNumberChange = frameworkRequest.calcTotalTaskNumber();
+    AggregatedFrameworkRequest oldAggFrameworkRequest = getAggFrameworkRequests().get(frameworkName);
+    if (oldAggFrameworkRequest != null) {
+      FrameworkRequest oldFrameworkRequest = oldAggFrameworkRequest.getFrameworkRequest();
+      taskNumberChange -= oldFrameworkRequest.calcTotalTaskNumber();
+      frameworkRequest.setFirstRequestTimestamp(oldFrameworkRequest.getFirstRequestTimestamp());
+    } else {
+      frameworkRequest.setFirstRequestTimestamp(currentTimestamp);
+    }
+    frameworkRequest.setLastRequestTimestamp(currentTimestamp);
+
+    reserveTotalTaskNumber(frameworkName, taskNumberChange);
+    try {
+      zkStore.setFrameworkRequest(frameworkName, frameworkRequest);
+    } catch (Exception e) {
+      releaseTotalTaskNumber(frameworkName, taskNumberChange);
+      throw e;
+    }
+
+    AggregatedFrameworkRequest aggFrameworkRequest = copyAggregatedFrameworkRequest(frameworkName);
+    aggFrameworkRequest.setFrameworkRequest(frameworkRequest);
+    setAggregatedFrameworkRequest(frameworkName, aggFrameworkRequest);
+    return (executionType == ExecutionType.STOP);
+  }
+
+  private static String getUserName(FrameworkRequest frameworkRequest) {
+    return frameworkRequest.getFrameworkDescriptor().getUser().getName();
+  }
+
+  // Return a copy of current AggregatedFrameworkRequest, or a new one if it does not exist, to be modified
+  // and then set back, since the current one is shared with the RequestSnapshots which may be being read.
+  private AggregatedFrameworkRequest copyAggregatedFrameworkRequest(String frameworkName) {
+    AggregatedFrameworkRequest aggFrameworkRequest = getAggFrameworkRequests().get(frameworkName);
+    AggregatedFrameworkRequest aggFrameworkRequestCopy = new AggregatedFrameworkRequest();
+    if (aggFrameworkRequest != null) {
+      aggFrameworkRequestCopy.setFrameworkRequest(aggFrameworkRequest.getFrameworkRequest());
+      aggFrameworkRequestCopy.setOverrideApplicationProgressRequest(
+          aggFrameworkRequest.getOverrideApplicationProgressRequest());
+      if (aggFrameworkRequest.getMigrateTaskRequests() != null) {
+        aggFrameworkRequestCopy.setMigrateTaskRequests(new HashMap<>(aggFrameworkRequest.getMigrateTaskRequests()));
+      }
+    }
+    return aggFrameworkRequestCopy;
+  }
+
+  // Return whether the Framework existed, i.e. whether its child Frameworks should be deleted after it.
   private boolean deleteFrameworkRequestInternal(String frameworkName) throws Exception {
     // Should success even if frameworkName does not exist
     zkStore.deleteFrameworkRequest(frameworkName);
 
-    if (aggFrameworkRequests.containsKey(frameworkName)) {
-      AggregatedFrameworkRequest aggFrameworkRequest = aggFrameworkRequests.get(frameworkName);
-      int oldTotalTaskNumber = totalTaskNumber;
-      int frameworkTaskNumber = aggFrameworkRequest.calcTotalTaskNumber();
-      totalTaskNumber -= frameworkTaskNumber;
-
-      LOGGER.logDebug(
-          "[%s]: deleteFrameworkRequestInternal: " +
-              "New Total TaskNumber: %s, Old Total TaskNumber: %s, Framework TaskNumber: %s",
-          frameworkName, totalTaskNumber, oldTotalTaskNumber, frameworkTaskNumber);
+    AggregatedFrameworkRequest aggFrameworkRequest = getAggFrameworkRequests().get(frameworkName);
+    if (aggFrameworkRequest != null) {
+      setAggregatedFrameworkRequest(frameworkName, null);
+      releaseTotalTaskNumber(frameworkName, aggFrameworkRequest.calcTotalTaskNumber());
     }
-    return aggFrameworkRequests.remove(frameworkName) == null;
+    return (aggFrameworkRequest != null);
   }
 
   // deleteOrphanFrameworks need to be handled in WebServer side instead of AM side,
@@ -152,7 +324,7 @@ private void deleteOrphanFrameworks() throws Exception {
     do {
       frameworkDeletedInThisPass = false;
 
-      for (AggregatedFrameworkRequest aggFrameworkRequest : new ArrayList<>(aggFrameworkRequests.values())) {
+      for (AggregatedFrameworkRequest aggFrameworkRequest : getAggFrameworkRequests().values()) {
         FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
         String frameworkName = frameworkRequest.getFrameworkName();
         ParentFrameworkDescriptor parentFramework =
@@ -161,7 +333,7 @@ private void deleteOrphanFrameworks() throws Exception {
         if (parentFramework != null) {
           String parentFrameworkName = parentFramework.getParentFrameworkName();
           boolean deleteOnParentDeleted = parentFramework.isDeleteOnParentDeleted();
-          if (deleteOnParentDeleted && !aggFrameworkRequests.containsKey(parentFrameworkName)) {
+          if (deleteOnParentDeleted && !getAggFrameworkRequests().containsKey(parentFrameworkName)) {
             LOGGER.logInfo(
                 "[%s]: deleteOrphanFrameworks: " +
                     "Since its DeleteOnParentDeleted is enabled and its ParentFramework [%s] is Deleted",
@@ -175,13 +347,14 @@ private void deleteOrphanFrameworks() throws Exception {
     } while (frameworkDeletedInThisPass);
   }
 
-  private void updateExecutionTypeInternal(String frameworkName, ExecutionType executionType) throws Exception {
+  private boolean updateExecutionTypeInternal(String frameworkName, ExecutionType executionType) throws Exception {
     FrameworkRequest frameworkRequest = YamlUtils.deepCopy(
-        checkExist(aggFrameworkRequests.get(frameworkName)).getFrameworkRequest(), FrameworkRequest.class);
+        checkExist(getAggFrameworkRequests().get(frameworkName)).getFrameworkRequest(), FrameworkRequest.class);
     frameworkRequest.getFrameworkDescriptor().setExecutionType(executionType);
-    setFrameworkRequest(frameworkName, frameworkRequest);
+    return setFrameworkRequestInternal(frameworkName, frameworkRequest);
   }
 
+  // The child Frameworks of the stopped Framework will be stopped in the next pass of stopOrphanFrameworks.
   private void stopFrameworkRequestInternal(String frameworkName) throws Exception {
     updateExecutionTypeInternal(frameworkName, ExecutionType.STOP);
   }
@@ -195,7 +368,7 @@ private void stopOrphanFrameworks() throws Exception {
     do {
       frameworkStoppedInThisPass = false;
 
-      for (AggregatedFrameworkRequest aggFrameworkRequest : new ArrayList<>(aggFrameworkRequests.values())) {
+      for (AggregatedFrameworkRequest aggFrameworkRequest : getAggFrameworkRequests().values()) {
         FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
         String frameworkName = frameworkRequest.getFrameworkName();
         FrameworkDescriptor frameworkDescriptor = frameworkRequest.getFrameworkDescriptor();
@@ -206,8 +379,8 @@ private void stopOrphanFrameworks() throws Exception {
           String parentFrameworkName = parentFramework.getParentFrameworkName();
           boolean stopOnParentStopped = parentFramework.isStopOnParentStopped();
           if (stopOnParentStopped && executionType != ExecutionType.STOP &&
-              aggFrameworkRequests.containsKey(parentFrameworkName) &&
-              aggFrameworkRequests.get(parentFrameworkName).getFrameworkRequest().
+              getAggFrameworkRequests().containsKey(parentFrameworkName) &&
+              getAggFrameworkRequests().get(parentFrameworkName).getFrameworkRequest().
                   getFrameworkDescriptor().getExecutionType() == ExecutionType.STOP) {
             LOGGER.logInfo(
                 "[%s]: stopOrphanFrameworks: " +
@@ -229,12 +402,13 @@ private void gcCompletedFrameworks(Map<String, FrameworkStatus> completedFramewo
       Integer frameworkVersion = completedFrameworkStatus.getFrameworkVersion();
       Long frameworkCompletedTimestamp = completedFrameworkStatus.getFrameworkCompletedTimestamp();
 
-      if (!aggFrameworkRequests.containsKey(frameworkName)) {
+      AggregatedFrameworkRequest aggFrameworkRequest = getAggFrameworkRequests().get(frameworkName);
+      if (aggFrameworkRequest == null) {
         // Framework is already deleted.
         continue;
       }
 
-      FrameworkRequest frameworkRequest = aggFrameworkRequests.get(frameworkName).getFrameworkRequest();
+      FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
       if (!frameworkRequest.getFrameworkDescriptor().getVersion().equals(frameworkVersion)) {
         // Framework is already upgraded.
         // Note although FrameworkStatus maybe older than FrameworkRequest, it is still unchanged if version matched,
@@ -262,13 +436,15 @@ private void gcCompletedFrameworks(Map<String, FrameworkStatus> completedFramewo
           conf.getFrameworkCompletedRetainSec(),
           currentTimestamp);
 
-      deleteFrameworkRequest(frameworkName);
+      if (deleteFrameworkRequestInternal(frameworkName)) {
+        deleteOrphanFrameworks();
+      }
     }
   }
 
   private int getTotalTaskNumber() {
     int totalTaskNumber = 0;
-    for (AggregatedFrameworkRequest aggFrameworkRequest : aggFrameworkRequests.values()) {
+    for (AggregatedFrameworkRequest aggFrameworkRequest : getAggFrameworkRequests().values()) {
       totalTaskNumber += aggFrameworkRequest.calcTotalTaskNumber();
     }
     return totalTaskNumber;
@@ -276,148 +452,114 @@ private int getTotalTaskNumber() {
 
   /**
    * REGION ReadInterface
-   * For some data which will not be partially updated, such as launcherRequest and frameworkRequest,
-   * we can just return a reference instead of a cloned snapshot in case of later changes.
+   * All data in the RequestSnapshot will not be changed after it is set, so we can just return
+   * a reference instead of a cloned snapshot in case of later changes.
    */
   public LauncherRequest getLauncherRequest() throws Exception {
-    return CommonUtils.executeWithLock(readLock, () -> launcherRequest);
+    return requestSnapshot.get().launcherRequest;
   }
 
+  // Its cost is proportional to the count of the FrameworkRequests of the given user or LaunchClientType,
+  // instead of the count of all FrameworkRequests.
   public List<FrameworkRequest> getFrameworkRequests(LaunchClientType clientType, String userName) throws Exception {
-    return CommonUtils.executeWithLock(readLock, () -> {
-      List<FrameworkRequest> frameworkRequests = new ArrayList<>();
+    RequestSnapshot snapshot = requestSnapshot.get();
+    List<FrameworkRequest> frameworkRequests = new ArrayList<>();
 
-      for (AggregatedFrameworkRequest aggFrameworkRequest : aggFrameworkRequests.values()) {
-        FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
+    // Scan the smaller index entry, and filter by the other one
+    PersistentHashMap<String, Boolean> frameworkNames = null;
+    if (clientType != null) {
+      frameworkNames = snapshot.clientTypeFrameworkNames.getOrDefault(clientType, PersistentHashMap.empty());
+    }
+    if (userName != null) {
+      PersistentHashMap<String, Boolean> frameworkNamesOfUser =
+          snapshot.userFrameworkNames.getOrDefault(userName, PersistentHashMap.empty());
+      if (frameworkNames == null || frameworkNamesOfUser.size() < frameworkNames.size()) {
+        frameworkNames = frameworkNamesOfUser;
+      }
+    }
 
-        if (clientType != null &&
-            !clientType.equals(frameworkRequest.getLaunchClientType())) {
-          continue;
-        }
-        if (userName != null &&
-            !userName.equals(frameworkRequest.getFrameworkDescriptor().getUser().getName())) {
-          continue;
-        }
+    List<AggregatedFrameworkRequest> aggFrameworkRequests;
+    if (frameworkNames == null) {
+      aggFrameworkRequests = snapshot.aggFrameworkRequests.values();
+    } else {
+      // The index is always CONSISTENT with aggFrameworkRequests in the same RequestSnapshot
+      aggFrameworkRequests = new ArrayList<>(frameworkNames.size());
+      for (String frameworkName : frameworkNames.keys()) {
+        aggFrameworkRequests.add(snapshot.aggFrameworkRequests.get(frameworkName));
+      }
+    }
+
+    for (AggregatedFrameworkRequest aggFrameworkRequest : aggFrameworkRequests) {
+      FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
 
-        frameworkRequests.add(frameworkRequest);
+      if (clientType != null &&
+          !clientType.equals(frameworkRequest.getLaunchClientType())) {
+        continue;
+      }
+      if (userName != null &&
+          !userName.equals(getUserName(frameworkRequest))) {
+        continue;
       }
 
-      return frameworkRequests;
-    });
+      frameworkRequests.add(frameworkRequest);
+    }
+
+    return frameworkRequests;
   }
 
   public AggregatedFrameworkRequest getAggregatedFrameworkRequest(String frameworkName) throws Exception {
-    return CommonUtils.executeWithLock(readLock, () ->
-        YamlUtils.deepCopy(checkExist(aggFrameworkRequests.get(frameworkName)), AggregatedFrameworkRequest.class));
+    return YamlUtils.deepCopy(
+        checkExist(requestSnapshot.get().aggFrameworkRequests.get(frameworkName)), AggregatedFrameworkRequest.class);
   }
 
   public FrameworkRequest getFrameworkRequest(String frameworkName) throws Exception {
-    return CommonUtils.executeWithLock(readLock, () ->
-        checkExist(aggFrameworkRequests.get(frameworkName)).getFrameworkRequest());
+    return checkExist(requestSnapshot.get().aggFrameworkRequests.get(frameworkName)).getFrameworkRequest();
   }
 
   public ClusterConfiguration getClusterConfiguration() throws Exception {
-    return CommonUtils.executeWithLock(readLock, () -> launcherRequest.getClusterConfiguration());
+    return requestSnapshot.get().launcherRequest.getClusterConfiguration();
   }
 
   public AclConfiguration getAclConfiguration() throws Exception {
-    return CommonUtils.executeWithLock(readLock, () -> launcherRequest.getAclConfiguration());
+    return requestSnapshot.get().launcherRequest.getAclConfiguration();
   }
 
   /**
    * REGION ModifyInterface
    */
-  // Note to avoid update partially modified Request on ZK
   public void setFrameworkRequest(
       String frameworkName, FrameworkRequest frameworkRequest)
       throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
-      FrameworkDescriptor frameworkDescriptor = frameworkRequest.getFrameworkDescriptor();
-      ExecutionType executionType = frameworkDescriptor.getExecutionType();
-      ParentFrameworkDescriptor parentFramework = frameworkDescriptor.getParentFramework();
-
-      if (parentFramework != null) {
-        String parentFrameworkName = parentFramework.getParentFrameworkName();
-        boolean deleteOnParentDeleted = parentFramework.isDeleteOnParentDeleted();
-        if (deleteOnParentDeleted && !aggFrameworkRequests.containsKey(parentFrameworkName) &&
-            !frameworkName.equals(parentFrameworkName)) {
-          // Reject future child Frameworks
-          throw new BadRequestException(String.format(
-              "[%s]: setFrameworkRequest Rejected: " +
-                  "Since its DeleteOnParentDeleted is enabled and its ParentFramework [%s] is Deleted",
-              frameworkName, parentFrameworkName));
-        }
-
-        boolean stopOnParentStopped = parentFramework.isStopOnParentStopped();
-        if (stopOnParentStopped && executionType != ExecutionType.STOP &&
-            aggFrameworkRequests.containsKey(parentFrameworkName) &&
-            aggFrameworkRequests.get(parentFrameworkName).getFrameworkRequest().
-                getFrameworkDescriptor().getExecutionType() == ExecutionType.STOP) {
-          // Stop future child Frameworks
-          executionType = ExecutionType.STOP;
-          frameworkDescriptor.setExecutionType(executionType);
-        }
-      }
-
-      Long currentTimestamp = System.currentTimeMillis();
-      int frameworkTaskNumber = frameworkRequest.calcTotalTaskNumber();
-      int newTotalTaskNumber = totalTaskNumber + frameworkTaskNumber;
-      if (aggFrameworkRequests.containsKey(frameworkName)) {
-        FrameworkRequest oldFrameworkRequest = aggFrameworkRequests.get(frameworkName).getFrameworkRequest();
-        newTotalTaskNumber -= oldFrameworkRequest.calcTotalTaskNumber();
-        frameworkRequest.setFirstRequestTimestamp(oldFrameworkRequest.getFirstRequestTimestamp());
-      } else {
-        frameworkRequest.setFirstRequestTimestamp(currentTimestamp);
-      }
-      frameworkRequest.setLastRequestTimestamp(currentTimestamp);
-
-      if (newTotalTaskNumber > conf.getMaxTotalTaskNumber()) {
-        throw new ThrottledRequestException(String.format(
-            "[%s]: setFrameworkRequest Rejected: " +
-                "Since the New Total TaskNumber %s will exceed the Max Total TaskNumber %s",
-            frameworkName, newTotalTaskNumber, conf.getMaxTotalTaskNumber()));
-      } else {
-        zkStore.setFrameworkRequest(frameworkName, frameworkRequest);
-
-        LOGGER.logDebug("[%s]: setFrameworkRequest: " +
-                "New Total TaskNumber: %s, Old Total TaskNumber: %s, Framework TaskNumber: %s",
-            frameworkName, newTotalTaskNumber, totalTaskNumber, frameworkTaskNumber);
-        totalTaskNumber = newTotalTaskNumber;
-      }
-
-      if (!aggFrameworkRequests.containsKey(frameworkName)) {
-        aggFrameworkRequests.put(frameworkName, new AggregatedFrameworkRequest());
-      }
-      aggFrameworkRequests.get(frameworkName).setFrameworkRequest(frameworkRequest);
-
-      if (executionType == ExecutionType.STOP) {
-        // Stop existing child Frameworks
-        stopOrphanFrameworks();
-      }
-    });
+    if (executeFrameworkWrite(frameworkName, () ->
+        setFrameworkRequestInternal(frameworkName, frameworkRequest))) {
+      // Stop existing child Frameworks
+      executeExclusiveWrite(this::stopOrphanFrameworks);
+    }
   }
 
   public void deleteFrameworkRequest(
       String frameworkName)
       throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
-      // Should success even if frameworkName does not exist
-      if (deleteFrameworkRequestInternal(frameworkName)) {
-        // Delete existing child Frameworks
-        deleteOrphanFrameworks();
-      }
-    });
+    // Should success even if frameworkName does not exist
+    if (executeFrameworkWrite(frameworkName, () ->
+        deleteFrameworkRequestInternal(frameworkName))) {
+      // Delete existing child Frameworks
+      executeExclusiveWrite(this::deleteOrphanFrameworks);
+    }
   }
 
   public void deleteMigrateTaskRequest(
       String frameworkName, String containerId)
       throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
+    executeFrameworkWrite(frameworkName, () -> {
       // Should success even if frameworkName and containerId does not exist
       zkStore.deleteMigrateTaskRequest(frameworkName, containerId);
-      try {
-        aggFrameworkRequests.get(frameworkName).getMigrateTaskRequests().remove(containerId);
-      } catch (Exception ignored) {
+      AggregatedFrameworkRequest aggFrameworkRequest = getAggFrameworkRequests().get(frameworkName);
+      if (aggFrameworkRequest != null && aggFrameworkRequest.getMigrateTaskRequests() != null &&
+          aggFrameworkRequest.getMigrateTaskRequests().containsKey(containerId)) {
+        AggregatedFrameworkRequest newAggFrameworkRequest = copyAggregatedFrameworkRequest(frameworkName);
+        newAggFrameworkRequest.getMigrateTaskRequests().remove(containerId);
+        setAggregatedFrameworkRequest(frameworkName, newAggFrameworkRequest);
       }
     });
   }
@@ -425,77 +567,86 @@ public void deleteMigrateTaskRequest(
   public void updateTaskNumber(
       String frameworkName, String taskRoleName, UpdateTaskNumberRequest updateTaskNumberRequest)
       throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
+    if (executeFrameworkWrite(frameworkName, () -> {
       FrameworkRequest frameworkRequest = YamlUtils.deepCopy(
-          checkExist(aggFrameworkRequests.get(frameworkName)).getFrameworkRequest(), FrameworkRequest.class);
+          checkExist(getAggFrameworkRequests().get(frameworkName)).getFrameworkRequest(), FrameworkRequest.class);
       Map<String, TaskRoleDescriptor> taskRoles = frameworkRequest.getFrameworkDescriptor().getTaskRoles();
       TaskRoleDescriptor taskRole = checkExist(taskRoles.get(taskRoleName));
       taskRole.setTaskNumber(updateTaskNumberRequest.getTaskNumber());
-      setFrameworkRequest(frameworkName, frameworkRequest);
-    });
+      return setFrameworkRequestInternal(frameworkName, frameworkRequest);
+    })) {
+      // Stop existing child Frameworks
+      executeExclusiveWrite(this::stopOrphanFrameworks);
+    }
   }
 
   public void updateExecutionType(
       String frameworkName, UpdateExecutionTypeRequest updateExecutionTypeRequest)
       throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
-      updateExecutionTypeInternal(frameworkName, updateExecutionTypeRequest.getExecutionType());
-    });
+    if (executeFrameworkWrite(frameworkName, () ->
+        updateExecutionTypeInternal(frameworkName, updateExecutionTypeRequest.getExecutionType()))) {
+      // Stop existing child Frameworks
+      executeExclusiveWrite(this::stopOrphanFrameworks);
+    }
   }
 
   public void updateMigrateTask(
       String frameworkName, String containerId, MigrateTaskRequest migrateTaskRequest)
       throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
+    executeFrameworkWrite(frameworkName, () -> {
       // Check whether frameworkName exists first
-      AggregatedFrameworkRequest aggFrameworkRequest = checkExist(aggFrameworkRequests.get(frameworkName));
+      checkExist(getAggFrameworkRequests().get(frameworkName));
       zkStore.setMigrateTaskRequest(frameworkName, containerId, migrateTaskRequest);
+      AggregatedFrameworkRequest aggFrameworkRequest = copyAggregatedFrameworkRequest(frameworkName);
       if (aggFrameworkRequest.getMigrateTaskRequests() == null) {
         aggFrameworkRequest.setMigrateTaskRequests(new HashMap<>());
       }
       aggFrameworkRequest.getMigrateTaskRequests().put(containerId, migrateTaskRequest);
+      setAggregatedFrameworkRequest(frameworkName, aggFrameworkRequest);
     });
   }
 
   public void updateApplicationProgress(
       String frameworkName, OverrideApplicationProgressRequest overrideApplicationProgressRequest)
       throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
+    executeFrameworkWrite(frameworkName, () -> {
       // Check whether frameworkName exists first
-      AggregatedFrameworkRequest aggFrameworkRequest = checkExist(aggFrameworkRequests.get(frameworkName));
+      checkExist(getAggFrameworkRequests().get(frameworkName));
       zkStore.setOverrideApplicationProgressRequest(frameworkName, overrideApplicationProgressRequest);
+      AggregatedFrameworkRequest aggFrameworkRequest = copyAggregatedFrameworkRequest(frameworkName);
       aggFrameworkRequest.setOverrideApplicationProgressRequest(overrideApplicationProgressRequest);
+      setAggregatedFrameworkRequest(frameworkName, aggFrameworkRequest);
     });
   }
 
   public void updateDataDeploymentVersion(UpdateDataDeploymentVersionRequest updateDataDeploymentVersionRequest) throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
-      LauncherRequest newLauncherRequest = YamlUtils.deepCopy(launcherRequest, LauncherRequest.class);
+    executeExclusiveWrite(() -> {
+      LauncherRequest newLauncherRequest = YamlUtils.deepCopy(requestSnapshot.get().launcherRequest, LauncherRequest.class);
       if (updateDataDeploymentVersionRequest.getDataDeploymentVersionType() == DataDeploymentVersionType.LAUNCHING) {
         newLauncherRequest.setLaunchingDataDeploymentVersion(updateDataDeploymentVersionRequest.getDataDeploymentVersion());
       } else if (updateDataDeploymentVersionRequest.getDataDeploymentVersionType() == DataDeploymentVersionType.LAUNCHED) {
         newLauncherRequest.setLaunchedDataDeploymentVersion(updateDataDeploymentVersionRequest.getDataDeploymentVersion());
       }
       zkStore.setLauncherRequest(newLauncherRequest);
-      launcherRequest = newLauncherRequest;
+      setLauncherRequest(newLauncherRequest);
     });
   }
 
   public void updateClusterConfiguration(ClusterConfiguration clusterConfiguration) throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
-      LauncherRequest newLauncherRequest = YamlUtils.deepCopy(launcherRequest, LauncherRequest.class);
+    executeExclusiveWrite(() -> {
+      LauncherRequest newLauncherRequest = YamlUtils.deepCopy(requestSnapshot.get().launcherRequest, LauncherRequest.class);
       newLauncherRequest.setClusterConfiguration(clusterConfiguration);
       zkStore.setLauncherRequest(newLauncherRequest);
-      launcherRequest = newLauncherRequest;
+      setLauncherRequest(newLauncherRequest);
     });
   }
 
   public void updateAclConfiguration(AclConfiguration aclConfiguration) throws Exception {
-    CommonUtils.executeWithLock(writeLock, () -> {
-      LauncherRequest newLauncherRequest = YamlUtils.deepCopy(launcherRequest, LauncherRequest.class);
+    executeExclusiveWrite(() -> {
+      LauncherRequest newLauncherRequest = YamlUtils.deepCopy(requestSnapshot.get().launcherRequest, LauncherRequest.class);
       newLauncherRequest.setAclConfiguration(aclConfiguration);
       zkStore.setLauncherRequest(newLauncherRequest);
-      launcherRequest = newLauncherRequest;
+      setLauncherRequest(newLauncherRequest);
     });
   }
 
@@ -506,8 +657,97 @@ public void onCompletedFrameworkStatusesUpdated(
       Map<String, FrameworkStatus> completedFrameworkStatuses)
       throws Exception {
     if (completedFrameworkStatuses.size() > 0) {
-      CommonUtils.executeWithLock(writeLock, () ->
+      executeExclusiveWrite(() ->
           gcCompletedFrameworks(completedFrameworkStatuses));
     }
   }
-}
\ No newline at end of file
+
+  // Immutable, and a write returns a new RequestSnapshot which shares the unchanged parts with the old one.
+  private static class RequestSnapshot {
+    private static final RequestSnapshot EMPTY = new RequestSnapshot(
+        null, PersistentHashMap.empty(), PersistentHashMap.empty(), PersistentHashMap.empty());
+
+    private final LauncherRequest launcherRequest;
+    // FrameworkName -> AggregatedFrameworkRequest
+    private final PersistentHashMap<String, AggregatedFrameworkRequest> aggFrameworkRequests;
+    // IndexedRequest is updated along with aggFrameworkRequests, so that the FrameworkRequests of a
+    // user or a LaunchClientType can be got without scanning all FrameworkRequests.
+    // UserName -> FrameworkNames Set
+    private final PersistentHashMap<String, PersistentHashMap<String, Boolean>> userFrameworkNames;
+    // LaunchClientType -> FrameworkNames Set
+    private final PersistentHashMap<LaunchClientType, PersistentHashMap<String, Boolean>> clientTypeFrameworkNames;
+
+    private RequestSnapshot(
+        LauncherRequest launcherRequest,
+        PersistentHashMap<String, AggregatedFrameworkRequest> aggFrameworkRequests,
+        PersistentHashMap<String, PersistentHashMap<String, Boolean>> userFrameworkNames,
+        PersistentHashMap<LaunchClientType, PersistentHashMap<String, Boolean>> clientTypeFrameworkNames) {
+      this.launcherRequest = launcherRequest;
+      this.aggFrameworkRequests = aggFrameworkRequests;
+      this.userFrameworkNames = userFrameworkNames;
+      this.clientTypeFrameworkNames = clientTypeFrameworkNames;
+    }
+
+    private RequestSnapshot withLauncherRequest(LauncherRequest newLauncherRequest) {
+      return new RequestSnapshot(
+          newLauncherRequest, aggFrameworkRequests, userFrameworkNames, clientTypeFrameworkNames);
+    }
+
+    // The newAggFrameworkRequest is null if the Framework is deleted.
+    // Move the Framework from the index entries of its old FrameworkRequest to the ones of its new FrameworkRequest.
+    private RequestSnapshot withAggregatedFrameworkRequest(
+        String frameworkName, AggregatedFrameworkRequest newAggFrameworkRequest) {
+      AggregatedFrameworkRequest oldAggFrameworkRequest = aggFrameworkRequests.get(frameworkName);
+      FrameworkRequest oldFrameworkRequest =
+          (oldAggFrameworkRequest == null ? null : oldAggFrameworkRequest.getFrameworkRequest());
+      FrameworkRequest newFrameworkRequest =
+          (newAggFrameworkRequest == null ? null : newAggFrameworkRequest.getFrameworkRequest());
+
+      PersistentHashMap<String, PersistentHashMap<String, Boolean>> newUserFrameworkNames = userFrameworkNames;
+      String oldUserName = (oldFrameworkRequest == null ? null : getUserName(oldFrameworkRequest));
+      String newUserName = (newFrameworkRequest == null ? null : getUserName(newFrameworkRequest));
+      if (!Objects.equals(oldUserName, newUserName)) {
+        newUserFrameworkNames = removeIndexedFrameworkName(newUserFrameworkNames, oldUserName, frameworkName);
+        newUserFrameworkNames = addIndexedFrameworkName(newUserFrameworkNames, newUserName, frameworkName);
+      }
+
+      PersistentHashMap<LaunchClientType, PersistentHashMap<String, Boolean>> newClientTypeFrameworkNames =
+          clientTypeFrameworkNames;
+      LaunchClientType oldClientType = (oldFrameworkRequest == null ? null : oldFrameworkRequest.getLaunchClientType());
+      LaunchClientType newClientType = (newFrameworkRequest == null ? null : newFrameworkRequest.getLaunchClientType());
+      if (oldClientType != newClientType) {
+        newClientTypeFrameworkNames = removeIndexedFrameworkName(newClientTypeFrameworkNames, oldClientType, frameworkName);
+        newClientTypeFrameworkNames = addIndexedFrameworkName(newClientTypeFrameworkNames, newClientType, frameworkName);
+      }
+
+      return new RequestSnapshot(
+          launcherRequest,
+          (newAggFrameworkRequest == null ?
+              aggFrameworkRequests.remove(frameworkName) :
+              aggFrameworkRequests.put(frameworkName, newAggFrameworkRequest)),
+          newUserFrameworkNames,
+          newClientTypeFrameworkNames);
+    }
+
+    private static <K> PersistentHashMap<K, PersistentHashMap<String, Boolean>> addIndexedFrameworkName(
+        PersistentHashMap<K, PersistentHashMap<String, Boolean>> index, K key, String frameworkName) {
+      if (key == null) {
+        return index;
+      }
+
+      PersistentHashMap<String, Boolean> frameworkNames = index.getOrDefault(key, PersistentHashMap.empty());
+      return index.put(key, frameworkNames.put(frameworkName, true));
+    }
+
+    private static <K> PersistentHashMap<K, PersistentHashMap<String, Boolean>> removeIndexedFrameworkName(
+        PersistentHashMap<K, PersistentHashMap<String, Boolean>> index, K key, String frameworkName) {
+      PersistentHashMap<String, Boolean> frameworkNames = (key == null ? null : index.get(key));
+      if (frameworkNames == null) {
+        return index;
+      }
+
+      PersistentHashMap<String, Boolean> newFrameworkNames = frameworkNames.remove(frameworkName);
+      return (newFrameworkNames.isEmpty() ? index.remove(key) : index.put(key, newFrameworkNames));
+    }
+  }
+}
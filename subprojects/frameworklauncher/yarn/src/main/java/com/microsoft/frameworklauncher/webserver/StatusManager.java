@@ -17,6 +17,7 @@
 
 package com.microsoft.frameworklauncher.webserver;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.microsoft.frameworklauncher.common.definition.FrameworkStateDefinition;
 import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.exit.FrameworkExitCode;
@@ -26,11 +27,17 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperFrameworkWatcher.Changes;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStatusWatcher;
 import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
+import org.apache.zookeeper.KeeperException;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Manage the CURD to ZK Status
 public class StatusManager extends AbstractService { // THREAD SAFE
@@ -39,6 +46,8 @@ public class StatusManager extends AbstractService { // THREAD SAFE
   private final WebServer webServer;
   private final LauncherConfiguration conf;
   private final ZookeeperStore zkStore;
+  // Null if webServerStatusWatchEnable is false
+  private ZookeeperStatusWatcher statusWatcher;
 
   /**
    * REGION BaseStatus
@@ -48,6 +57,21 @@ public class StatusManager extends AbstractService { // THREAD SAFE
   // FrameworkName -> AggregatedFrameworkStatus
   private volatile Map<String, AggregatedFrameworkStatus> aggFrameworkStatuses;
 
+  /**
+   * REGION ExtensionStatus
+   */
+  // FrameworkName -> SummarizedFrameworkInfo
+  // It is reused until its FrameworkRequest or AggregatedFrameworkStatus is changed, and it is also
+  // invalidated once the AggregatedFrameworkStatus is pulled, to drop the ones of deleted Frameworks.
+  private final Map<String, CachedSummarizedFrameworkInfo> sFrameworkInfos = new ConcurrentHashMap<>();
+
+  /**
+   * REGION StateVariable
+   */
+  // Only accessed by the pulling Thread
+  private final Set<String> watchedFrameworkNames = new HashSet<>();
+  private long lastFullPullTimestamp = 0;
+
 
   /**
    * REGION AbstractService
@@ -78,7 +102,13 @@ protected Boolean handleException(Exception e) {
   protected void recover() throws Exception {
     super.recover();
 
-    pullStatus();
+    if (conf.getWebServerStatusWatchEnable()) {
+      statusWatcher = zkStore.newStatusWatcher();
+      statusWatcher.start();
+      resyncStatus();
+    } else {
+      pullStatus();
+    }
 
     LOGGER.logInfo("Succeeded to recover %s.", serviceName);
   }
@@ -94,9 +124,12 @@ protected void run() throws Exception {
           // No need to updateCompletedFrameworkStatuses when recover
           updateCompletedFrameworkStatuses();
 
-          Thread.sleep(conf.getWebServerStatusPullIntervalSec() * 1000);
-
-          pullStatus();
+          if (statusWatcher == null) {
+            Thread.sleep(conf.getWebServerStatusPullIntervalSec() * 1000);
+            pullStatus();
+          } else {
+            watchStatus(conf.getWebServerStatusPullIntervalSec() * 1000);
+          }
         } catch (Exception e) {
           // Directly throw TransientException to WebServer, since it may not be recovered or make progress any more
           handleException(e);
@@ -108,7 +141,8 @@ protected void run() throws Exception {
   /**
    * REGION InternalUtils
    */
-  private void pullStatus() throws Exception {
+  @VisibleForTesting
+  void pullStatus() throws Exception {
     LOGGER.logDebug("Pulling AggregatedLauncherStatus");
 
     Map<String, AggregatedFrameworkStatus> reusableAggFrameworkStatuses =
@@ -125,6 +159,7 @@ private void pullStatus() throws Exception {
     newAggFrameworkStatuses.putAll(nonreusableAggFrameworkStatuses);
     reviseAggregatedFrameworkStatuses(newAggFrameworkStatuses);
     aggFrameworkStatuses = CommonExts.asReadOnly(newAggFrameworkStatuses);
+    sFrameworkInfos.keySet().retainAll(reusableAggFrameworkStatuses.keySet());
 
     LOGGER.logDebug("Pulled AggregatedLauncherStatus: " +
             "AggregatedFrameworkStatus Reused Percentage: [%s / %s]",
@@ -142,6 +177,117 @@ private void pullStatus() throws Exception {
     }
   }
 
+  // Watch all Statuses and then pull them all.
+  // Always watch before pull, so that no change will be missed.
+  private void resyncStatus() throws Exception {
+    LOGGER.logInfo("Resyncing AggregatedLauncherStatus");
+
+    watchedFrameworkNames.clear();
+    for (String frameworkName : statusWatcher.watchLauncherStatus()) {
+      if (statusWatcher.watchFramework(frameworkName)) {
+        watchedFrameworkNames.add(frameworkName);
+      }
+    }
+
+    lastFullPullTimestamp = System.currentTimeMillis();
+    pullStatus();
+  }
+
+  // Keep pulling the changed Statuses within the given duration, and always do a full pull
+  // every webServerStatusFullPullIntervalSec in case any change is missed.
+  private void watchStatus(long durationMs) throws Exception {
+    long endTimestamp = System.currentTimeMillis() + durationMs;
+    while (true) {
+      long currentTimestamp = System.currentTimeMillis();
+      if (currentTimestamp >= endTimestamp) {
+        return;
+      }
+
+      if (currentTimestamp - lastFullPullTimestamp >=
+          conf.getWebServerStatusFullPullIntervalSec() * 1000L) {
+        statusWatcher.requestResync();
+      }
+
+      pullChangedStatus(statusWatcher.waitForChanges(endTimestamp - currentTimestamp));
+    }
+  }
+
+  private void pullChangedStatus(Changes changes) throws Exception {
+    if (changes.getResyncRequired()) {
+      resyncStatus();
+      return;
+    }
+
+    Set<String> frameworkNamesToPull = new HashSet<>(changes.getChangedFrameworkNames());
+    Set<String> frameworkNamesToRemove = new HashSet<>();
+    if (changes.getRootChanged() || changes.getFrameworkSetChanged()) {
+      Set<String> frameworkNames = new HashSet<>(statusWatcher.watchLauncherStatus());
+      if (changes.getRootChanged()) {
+        launcherStatus = zkStore.getLauncherStatus();
+      }
+
+      for (String frameworkName : frameworkNames) {
+        if (!watchedFrameworkNames.contains(frameworkName)) {
+          frameworkNamesToPull.add(frameworkName);
+        }
+      }
+      for (String frameworkName : watchedFrameworkNames) {
+        if (!frameworkNames.contains(frameworkName)) {
+          frameworkNamesToRemove.add(frameworkName);
+        }
+      }
+      for (String frameworkName : aggFrameworkStatuses.keySet()) {
+        if (!frameworkNames.contains(frameworkName)) {
+          frameworkNamesToRemove.add(frameworkName);
+        }
+      }
+    }
+
+    if (frameworkNamesToPull.isEmpty() && frameworkNamesToRemove.isEmpty()) {
+      return;
+    }
+
+    Map<String, AggregatedFrameworkStatus> changedAggFrameworkStatuses = new HashMap<>();
+    for (String frameworkName : frameworkNamesToPull) {
+      if (frameworkNamesToRemove.contains(frameworkName)) {
+        continue;
+      }
+
+      if (!statusWatcher.watchFramework(frameworkName)) {
+        frameworkNamesToRemove.add(frameworkName);
+        continue;
+      }
+      watchedFrameworkNames.add(frameworkName);
+
+      try {
+        changedAggFrameworkStatuses.put(frameworkName, zkStore.getAggregatedFrameworkStatus(frameworkName));
+      } catch (KeeperException.NoNodeException e) {
+        frameworkNamesToRemove.add(frameworkName);
+      } catch (KeeperException e) {
+        throw e;
+      } catch (Exception e) {
+        // Detect the corrupted AggregatedFrameworkStatus and lead Service.StatusManager.recover to clean
+        throw new NonTransientException(String.format(
+            "[%s]: AggregatedFrameworkStatus is corrupted", frameworkName), e);
+      }
+    }
+    watchedFrameworkNames.removeAll(frameworkNamesToRemove);
+
+    // Only revise the changed AggregatedFrameworkStatuses, since the others are already revised
+    reviseAggregatedFrameworkStatuses(changedAggFrameworkStatuses);
+
+    Map<String, AggregatedFrameworkStatus> newAggFrameworkStatuses = new HashMap<>(aggFrameworkStatuses);
+    newAggFrameworkStatuses.keySet().removeAll(frameworkNamesToRemove);
+    newAggFrameworkStatuses.putAll(changedAggFrameworkStatuses);
+    aggFrameworkStatuses = CommonExts.asReadOnly(newAggFrameworkStatuses);
+    sFrameworkInfos.keySet().removeAll(frameworkNamesToRemove);
+    sFrameworkInfos.keySet().removeAll(changedAggFrameworkStatuses.keySet());
+
+    LOGGER.logDebug("Pulled changed AggregatedFrameworkStatuses: " +
+            "Updated: [%s], Removed: [%s], Total: [%s]",
+        changedAggFrameworkStatuses.size(), frameworkNamesToRemove.size(), aggFrameworkStatuses.size());
+  }
+
   private Map<String, AggregatedFrameworkStatus> getReusableAggregatedFrameworkStatuses() throws Exception {
     Map<String, AggregatedFrameworkStatus> reusableAggFrameworkStatuses = new HashMap<>();
 
@@ -269,12 +415,8 @@ public LauncherStatus getLauncherStatus() {
   }
 
   public AggregatedFrameworkStatus getAggregatedFrameworkStatus(FrameworkRequest frameworkRequest) {
-    String frameworkName = frameworkRequest.getFrameworkName();
-    Integer frameworkVersion = frameworkRequest.getFrameworkDescriptor().getVersion();
-
-    AggregatedFrameworkStatus aggFrameworkStatus = aggFrameworkStatuses.get(frameworkName);
-    if (aggFrameworkStatus != null &&
-        aggFrameworkStatus.getFrameworkStatus().getFrameworkVersion().equals(frameworkVersion)) {
+    AggregatedFrameworkStatus aggFrameworkStatus = getPulledAggregatedFrameworkStatus(frameworkRequest);
+    if (aggFrameworkStatus != null) {
       return aggFrameworkStatus;
     } else {
       // If the real Status has not yet appeared, return the inferred Status according to the Request.
@@ -290,4 +432,56 @@ public FrameworkStatus getFrameworkStatus(FrameworkRequest frameworkRequest) {
     AggregatedFrameworkStatus aggFrameworkStatus = getAggregatedFrameworkStatus(frameworkRequest);
     return aggFrameworkStatus.getFrameworkStatus();
   }
-}
\ No newline at end of file
+
+  // The FrameworkRequest should not be modified after it is passed in, such as the one from RequestManager,
+  // since it is used to check whether the cached SummarizedFrameworkInfo is still valid.
+  public SummarizedFrameworkInfo getSummarizedFrameworkInfo(FrameworkRequest frameworkRequest) {
+    String frameworkName = frameworkRequest.getFrameworkName();
+    AggregatedFrameworkStatus aggFrameworkStatus = getPulledAggregatedFrameworkStatus(frameworkRequest);
+
+    CachedSummarizedFrameworkInfo cachedSFrameworkInfo = sFrameworkInfos.get(frameworkName);
+    if (cachedSFrameworkInfo != null &&
+        cachedSFrameworkInfo.frameworkRequest == frameworkRequest &&
+        cachedSFrameworkInfo.aggFrameworkStatus == aggFrameworkStatus) {
+      return cachedSFrameworkInfo.sFrameworkInfo;
+    }
+
+    // The inferred FrameworkStatus only depends on the FrameworkRequest, so the SummarizedFrameworkInfo
+    // of it can also be cached, with a null AggregatedFrameworkStatus.
+    FrameworkStatus frameworkStatus = (aggFrameworkStatus != null ?
+        aggFrameworkStatus.getFrameworkStatus() : getFrameworkStatus(frameworkRequest));
+    SummarizedFrameworkInfo sFrameworkInfo = SummarizedFrameworkInfo.newInstance(frameworkRequest, frameworkStatus);
+    sFrameworkInfos.put(frameworkName,
+        new CachedSummarizedFrameworkInfo(frameworkRequest, aggFrameworkStatus, sFrameworkInfo));
+    return sFrameworkInfo;
+  }
+
+  // Return null if the real Status has not yet appeared
+  private AggregatedFrameworkStatus getPulledAggregatedFrameworkStatus(FrameworkRequest frameworkRequest) {
+    String frameworkName = frameworkRequest.getFrameworkName();
+    Integer frameworkVersion = frameworkRequest.getFrameworkDescriptor().getVersion();
+
+    AggregatedFrameworkStatus aggFrameworkStatus = aggFrameworkStatuses.get(frameworkName);
+    if (aggFrameworkStatus != null &&
+        aggFrameworkStatus.getFrameworkStatus().getFrameworkVersion().equals(frameworkVersion)) {
+      return aggFrameworkStatus;
+    } else {
+      return null;
+    }
+  }
+
+  private static class CachedSummarizedFrameworkInfo {
+    private final FrameworkRequest frameworkRequest;
+    private final AggregatedFrameworkStatus aggFrameworkStatus;
+    private final SummarizedFrameworkInfo sFrameworkInfo;
+
+    private CachedSummarizedFrameworkInfo(
+        FrameworkRequest frameworkRequest,
+        AggregatedFrameworkStatus aggFrameworkStatus,
+        SummarizedFrameworkInfo sFrameworkInfo) {
+      this.frameworkRequest = frameworkRequest;
+      this.aggFrameworkStatus = aggFrameworkStatus;
+      this.sFrameworkInfo = sFrameworkInfo;
+    }
+  }
+}
@@ -21,23 +21,45 @@
 import com.microsoft.frameworklauncher.common.exceptions.AggregateException;
 import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.AdmissionControllerMetrics;
+import com.microsoft.frameworklauncher.common.model.BoundedExecutorMetrics;
 import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
 import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
 import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.LeftoverFrameworkGarbageCollectorMetrics;
+import com.microsoft.frameworklauncher.common.model.LoadingCacheMetrics;
+import com.microsoft.frameworklauncher.common.model.SystemTaskQueueMetrics;
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
+import com.microsoft.frameworklauncher.common.model.ZookeeperCompressionMetrics;
+import com.microsoft.frameworklauncher.common.model.ZookeeperGarbageCollectorMetrics;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.service.AdmissionController;
+import com.microsoft.frameworklauncher.common.service.BoundedExecutor;
 import com.microsoft.frameworklauncher.common.service.StopStatus;
+import com.microsoft.frameworklauncher.common.service.SystemTaskQueue;
+import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
 import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.hadoop.yarn.webapp.WebApps;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 // Forward Http Request to ZK Request and Return ZK Status.
 public class WebServer extends AbstractService {
   private static final DefaultLogger LOGGER = new DefaultLogger(WebServer.class);
 
   private final LauncherConfiguration conf;
+  // The SystemTaskQueues, BoundedExecutors and AdmissionControllers of the process which hosts the WebServer,
+  // to expose their metrics
+  private final List<SystemTaskQueue> systemTaskQueues;
+  private final List<BoundedExecutor> boundedExecutors;
+  private final List<AdmissionController> admissionControllers;
+  // The LeftoverFrameworkGarbageCollector metrics of the Service, and null if the process does not host it
+  private final Supplier<LeftoverFrameworkGarbageCollectorMetrics> leftoverFrameworkGCMetricsSupplier;
 
   /**
    * REGION SubServices
@@ -49,10 +71,18 @@ public class WebServer extends AbstractService {
   /**
    * REGION AbstractService
    */
-  public WebServer(LauncherConfiguration conf, ZookeeperStore zkStore) {
+  public WebServer(
+      LauncherConfiguration conf, ZookeeperStore zkStore,
+      List<SystemTaskQueue> systemTaskQueues, List<BoundedExecutor> boundedExecutors,
+      List<AdmissionController> admissionControllers,
+      Supplier<LeftoverFrameworkGarbageCollectorMetrics> leftoverFrameworkGCMetricsSupplier) {
     super(WebServer.class.getName());
     this.conf = conf;
     this.zkStore = zkStore;
+    this.systemTaskQueues = systemTaskQueues;
+    this.boundedExecutors = boundedExecutors;
+    this.admissionControllers = admissionControllers;
+    this.leftoverFrameworkGCMetricsSupplier = leftoverFrameworkGCMetricsSupplier;
   }
 
   protected Boolean handleException(Exception e) {
@@ -97,7 +127,7 @@ protected void run() throws Exception {
         conf.getWebServerBindHost(), conf.getWebServerAddress());
     WebApps.$for("frameworklauncher", null, null, "ws")
         .at(bindAddress)
-        .start(new LauncherWebApp(conf, statusManager, requestManager));
+        .start(new LauncherWebApp(this, conf, statusManager, requestManager));
 
     LOGGER.logInfo("WebApp Started at %s", bindAddress);
   }
@@ -146,4 +176,50 @@ public void onCompletedFrameworkStatusesUpdated(
   public List<FrameworkRequest> getAllFrameworkRequests() throws Exception {
     return requestManager.getFrameworkRequests(null, null);
   }
-}
\ No newline at end of file
+
+  public List<SystemTaskQueueMetrics> getSystemTaskQueueMetrics() {
+    List<SystemTaskQueueMetrics> metricses = new ArrayList<>();
+    for (SystemTaskQueue systemTaskQueue : systemTaskQueues) {
+      metricses.add(systemTaskQueue.getMetrics());
+    }
+    return metricses;
+  }
+
+  public List<BoundedExecutorMetrics> getBoundedExecutorMetrics() {
+    List<BoundedExecutorMetrics> metricses = new ArrayList<>();
+    for (BoundedExecutor boundedExecutor : boundedExecutors) {
+      metricses.add(boundedExecutor.getMetrics());
+    }
+    return metricses;
+  }
+
+  public List<AdmissionControllerMetrics> getAdmissionControllerMetrics() {
+    List<AdmissionControllerMetrics> metricses = new ArrayList<>();
+    for (AdmissionController admissionController : admissionControllers) {
+      metricses.add(admissionController.getMetrics());
+    }
+    return metricses;
+  }
+
+  public List<LoadingCacheMetrics> getLoadingCacheMetrics() {
+    return Collections.singletonList(HadoopUtils.getLocalResourcesCacheMetrics());
+  }
+
+  public List<YarnClientPoolMetrics> getYarnClientPoolMetrics() {
+    return Collections.singletonList(HadoopUtils.getYarnClientPoolMetrics());
+  }
+
+  public List<ZookeeperGarbageCollectorMetrics> getZookeeperGarbageCollectorMetrics() {
+    ZookeeperGarbageCollectorMetrics metrics = zkStore.getGarbageCollectorMetrics();
+    return (metrics == null ? Collections.emptyList() : Collections.singletonList(metrics));
+  }
+
+  public List<ZookeeperCompressionMetrics> getZookeeperCompressionMetrics() {
+    return zkStore.getCompressionMetrics();
+  }
+
+  public List<LeftoverFrameworkGarbageCollectorMetrics> getLeftoverFrameworkGarbageCollectorMetrics() {
+    return (leftoverFrameworkGCMetricsSupplier == null ? Collections.emptyList() :
+        Collections.singletonList(leftoverFrameworkGCMetricsSupplier.get()));
+  }
+}
@@ -20,19 +20,26 @@
 import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.exceptions.TransientException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.CompressionCodecType;
+import com.microsoft.frameworklauncher.common.model.PayloadCodecType;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.CompressionUtils;
-import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.common.utils.SerializationUtils;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.curator.retry.BoundedExponentialBackoffRetry;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
 
 public class ZooKeeperClient {
   private static final DefaultLogger LOGGER = new DefaultLogger(ZooKeeperClient.class);
@@ -40,9 +47,28 @@ public class ZooKeeperClient {
   // Do not set to 1024 * 1024 in case java.io.IOException:
   // Len error 1048695 (org.apache.zookeeper.server.NIOServerCnxn)
   private static final int ZK_MAX_NODE_BYTES = 768 * 1024;
-  private static final int ZK_MIN_COMPRESSION_BYTES = 10 * 1024;
-  private static final String READY_PAYLOAD_VERSIONS_NODE_NAME = "ReadyPayloadVersions";
+  private static final int ZK_DEFAULT_MIN_COMPRESSION_BYTES = 10 * 1024;
+  // Keep the transaction request size of delete operations far below the ZK jute.maxbuffer
+  static final int ZK_MAX_BATCH_OPERATIONS = 1000;
+  static final String READY_PAYLOAD_VERSIONS_NODE_NAME = "ReadyPayloadVersions";
   private final CuratorFramework curator;
+  // LargeObject Path -> The PayloadVersion published by this client last time
+  private final Map<String, PublishedPayloadVersion> publishedPayloadVersions = new ConcurrentHashMap<>();
+  // The codec to serialize objects, objects serialized by any codec can always be deserialized.
+  private volatile PayloadCodecType payloadCodec = PayloadCodecType.YAML;
+  // The codec to compress serialized objects which are not smaller than minCompressionBytes,
+  // objects compressed by any codec can always be decompressed.
+  private volatile CompressionCodecType compressionCodec = CompressionCodecType.GZIP;
+  private volatile int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+  private volatile int minCompressionBytes = ZK_DEFAULT_MIN_COMPRESSION_BYTES;
+  private final ZookeeperCompressionMetricsRecorder compressionMetrics = new ZookeeperCompressionMetricsRecorder();
+  // If it is enabled, the old PayloadVersions which cannot be GC together with publish are left to the
+  // ZookeeperGarbageCollector, instead of GC them inline, see setLargeObject.
+  private volatile Boolean backgroundGCEnabled = false;
+  // LargeObject Paths which have old PayloadVersions left to the ZookeeperGarbageCollector
+  private final Set<String> pendingGCPaths = ConcurrentHashMap.newKeySet();
+  // Path -> The object got by the last cached read on the path
+  private final Map<String, CachedObject> cachedObjects = new ConcurrentHashMap<>();
 
   public ZooKeeperClient(String connectString) {
     curator = CuratorFrameworkFactory.builder()
@@ -63,6 +89,47 @@ public void stop() {
     curator.close();
   }
 
+  public void setPayloadCodec(PayloadCodecType payloadCodec) {
+    this.payloadCodec = payloadCodec;
+  }
+
+  public void setCompression(CompressionCodecType codec, int level, int minBytes) {
+    this.compressionCodec = codec;
+    this.compressionLevel = level;
+    this.minCompressionBytes = minBytes;
+  }
+
+  public ZookeeperCompressionMetricsRecorder getCompressionMetrics() {
+    return compressionMetrics;
+  }
+
+  public void setBackgroundGCEnabled(Boolean backgroundGCEnabled) {
+    this.backgroundGCEnabled = backgroundGCEnabled;
+  }
+
+  // Take all pending LargeObject Paths to GC
+  public Set<String> takePendingGCPaths() {
+    Set<String> paths = new HashSet<>();
+    for (String path : pendingGCPaths) {
+      if (pendingGCPaths.remove(path)) {
+        paths.add(path);
+      }
+    }
+    return paths;
+  }
+
+  public void addPendingGCPath(String path) {
+    pendingGCPaths.add(path);
+  }
+
+  public int getPendingGCPathCount() {
+    return pendingGCPaths.size();
+  }
+
+  public void addConnectionStateListener(ConnectionStateListener listener) {
+    curator.getConnectionStateListenable().addListener(listener);
+  }
+
   private String create(String path, byte[] data, CreateMode mode) throws Exception {
     return curator.create().withMode(mode).forPath(path, data);
   }
@@ -75,10 +142,28 @@ public List<String> getChildren(String path) throws Exception {
     return curator.getChildren().forPath(path);
   }
 
-  private byte[] getData(String path) throws Exception {
+  // Leave a one-shot watcher on the children of the given path.
+  // Note NoNodeException is thrown and no watcher is left if the path does not exist.
+  public List<String> getChildren(String path, CuratorWatcher watcher) throws Exception {
+    return curator.getChildren().usingWatcher(watcher).forPath(path);
+  }
+
+  // Return null if the path does not exist.
+  public Stat getStat(String path) throws Exception {
+    return curator.checkExists().forPath(path);
+  }
+
+  byte[] getData(String path) throws Exception {
     return curator.getData().forPath(path);
   }
 
+  // Leave a one-shot watcher on the data of the given path.
+  // Note NoNodeException is thrown and no watcher is left if the path does not exist,
+  // this is different from checkExists which also watches the creation of a not existing path.
+  public void watchData(String path, CuratorWatcher watcher) throws Exception {
+    curator.getData().usingWatcher(watcher).forPath(path);
+  }
+
   private void setData(String path, byte[] data) throws Exception {
     curator.setData().forPath(path, data);
   }
@@ -147,19 +232,47 @@ public void deleteRecursively(String path, Boolean childrenOnly) throws Exceptio
     }
   }
 
+  private byte[] compress(String path, byte[] serializedObj) throws Exception {
+    if (serializedObj.length < minCompressionBytes) {
+      return serializedObj;
+    }
+
+    CompressionCodecType codec = compressionCodec;
+    long start = System.currentTimeMillis();
+    byte[] payload = CompressionUtils.compress(serializedObj, codec, compressionLevel);
+    long end = System.currentTimeMillis();
+
+    ZookeeperCompressionMetricsRecorder.PathMetrics metrics = compressionMetrics.recordCompression(
+        path, codec, serializedObj.length, payload.length, end - start);
+    LOGGER.logDebug("Compressed from %s bytes to %s bytes on path %s in %sms. PathMetrics: %s",
+        serializedObj.length, payload.length, path, end - start, metrics);
+    return payload;
+  }
+
+  private byte[] decompress(String path, byte[] payload) throws Exception {
+    if (!CompressionUtils.isCompressed(payload)) {
+      return payload;
+    }
+
+    long start = System.currentTimeMillis();
+    byte[] serializedObj = CompressionUtils.decompress(payload);
+    long end = System.currentTimeMillis();
+
+    ZookeeperCompressionMetricsRecorder.PathMetrics metrics = compressionMetrics.recordDecompression(
+        path, CompressionUtils.getCodec(payload), payload.length, serializedObj.length, end - start);
+    LOGGER.logDebug("Decompressed from %s bytes to %s bytes on path %s in %sms. PathMetrics: %s",
+        payload.length, serializedObj.length, path, end - start, metrics);
+    return serializedObj;
+  }
+
   // Set/Get small size (<= ZK_MAX_NODE_BYTES) object to the node of the given path, no matter the given path exist or not.
   // DISTRIBUTED THREAD SAFE
   public <T> void setSmallObject(String path, T obj) throws Exception {
-    byte[] serializedObj = YamlUtils.toBytes(obj);
+    byte[] serializedObj = SerializationUtils.serialize(obj, payloadCodec);
 
     long start = System.currentTimeMillis();
 
-    byte[] payload;
-    if (serializedObj.length >= ZK_MIN_COMPRESSION_BYTES) {
-      payload = CompressionUtils.compress(serializedObj);
-    } else {
-      payload = serializedObj;
-    }
+    byte[] payload = compress(path, serializedObj);
     createNode(path, payload);
 
     long end = System.currentTimeMillis();
@@ -167,38 +280,70 @@ public <T> void setSmallObject(String path, T obj) throws Exception {
         serializedObj.length, path, end - start);
   }
 
+  // Note an empty node, such as the placeholder created by createPath, has no object set yet,
+  // so NoNodeException is also thrown for it.
   // DISTRIBUTED THREAD SAFE
   public <T> T getSmallObject(String path, Class<T> classRef) throws Exception {
     long start = System.currentTimeMillis();
 
-    byte[] serializedObj = CompressionUtils.decompress(getData(path));
+    byte[] serializedObj = decompress(path, checkNotEmpty(path, getData(path)));
 
     long end = System.currentTimeMillis();
     LOGGER.logTrace("getSmallObject with %s bytes on path %s in %sms.",
         serializedObj.length, path, end - start);
 
-    return YamlUtils.toObject(serializedObj, classRef);
+    return SerializationUtils.deserialize(serializedObj, classRef);
+  }
+
+  // Same as getSmallObject, except that the node is only fetched and deserialized if it is changed
+  // since the last cached read on the path, which is judged by the mzxid of the node.
+  // So, it is cheap to poll an unchanged node, such as the LauncherRequest.
+  // Note the returned object is shared by all cached reads on the path, so it MUST NOT be modified.
+  // DISTRIBUTED THREAD SAFE
+  public <T> T getCachedSmallObject(String path, Class<T> classRef) throws Exception {
+    Stat stat = getStat(path);
+    if (stat == null) {
+      cachedObjects.remove(path);
+      throw new KeeperException.NoNodeException(path);
+    }
+
+    String version = Long.toString(stat.getMzxid());
+    CachedObject cachedObject = cachedObjects.get(path);
+    if (cachedObject != null && cachedObject.matches(version, classRef)) {
+      LOGGER.logTrace("getCachedSmallObject hit on path %s with version %s.", path, version);
+      return classRef.cast(cachedObject.getObject());
+    }
+
+    // The node may be changed after getStat, so record the version of the fetched data.
+    Stat dataStat = new Stat();
+    byte[] payload;
+    try {
+      payload = curator.getData().storingStatIn(dataStat).forPath(path);
+    } catch (KeeperException.NoNodeException e) {
+      cachedObjects.remove(path);
+      throw e;
+    }
+    T obj = SerializationUtils.deserialize(decompress(path, checkNotEmpty(path, payload)), classRef);
+    cachedObjects.put(path, new CachedObject(Long.toString(dataStat.getMzxid()), obj));
+    return obj;
+  }
+
+  private static byte[] checkNotEmpty(String path, byte[] payload) throws Exception {
+    if (payload == null || payload.length == 0) {
+      throw new KeeperException.NoNodeException(path);
+    }
+    return payload;
   }
 
   // Set/Get large size (> ZK_MAX_NODE_BYTES) object to the node of the given path, no matter the given path exist or not.
   // Note the node of the given path can only be leaf node.
   // DISTRIBUTED THREAD SAFE and Atomic like getSmallObject
   public <T> void setLargeObject(String path, T obj) throws Exception {
-    byte[] serializedObj = YamlUtils.toBytes(obj);
+    byte[] serializedObj = SerializationUtils.serialize(obj, payloadCodec);
 
     long start = System.currentTimeMillis();
 
-    byte[] payload;
-    if (serializedObj.length >= ZK_MIN_COMPRESSION_BYTES) {
-      payload = CompressionUtils.compress(serializedObj);
-    } else {
-      payload = serializedObj;
-    }
-
-    // Prepare internal ZookeeperStoreStructure for LargeObject
-    if (!exists(path)) {
-      createPath(path);
-    }
+    byte[] payload = compress(path, serializedObj);
 
     // ReadyPayloadVersionsRootPath is used to store ReadyPayloadVersions whose Payload has been Set, i.e. Path/ReadyPayloadVersions
     // At any time, we can guarantee that:
@@ -206,31 +351,80 @@ public <T> void setLargeObject(String path, T obj) throws Exception {
     // Note:
     //  The Payload of not the latest ReadyPayloadVersion may be incomplete.
     //  Such as in case that new Payload GC old Payload before the old PayloadVersion add under ReadyPayloadVersionsRootPath.
-    String readyPayloadVersionsRootPath = ZookeeperStoreStructure.getNodePath(path, READY_PAYLOAD_VERSIONS_NODE_NAME);
-    if (!exists(readyPayloadVersionsRootPath)) {
-      createPath(readyPayloadVersionsRootPath);
+    String readyPayloadVersionsRootPath = getReadyPayloadVersionsPath(path);
+
+    // The PayloadVersion published by this client last time, it is null if this client has not published any
+    // PayloadVersion, or the last publish is not completed, so the internal ZookeeperStoreStructure may not
+    // be prepared and there may be leftover PayloadVersions to GC.
+    PublishedPayloadVersion previousVersion = publishedPayloadVersions.remove(path);
+
+    // Prepare internal ZookeeperStoreStructure for LargeObject
+    if (previousVersion == null) {
+      prepareLargeObjectStructure(path);
     }
 
     // Generate new PayloadVersion for this Payload
-    String payloadVersion = createSequentialPath(path);
+    String payloadVersion;
+    try {
+      payloadVersion = createSequentialPath(path);
+    } catch (KeeperException.NoNodeException e) {
+      if (previousVersion == null) {
+        throw e;
+      }
+
+      // The whole LargeObject is deleted since previous publish
+      prepareLargeObjectStructure(path);
+      previousVersion = null;
+      payloadVersion = createSequentialPath(path);
+    }
 
     // PayloadRootPath is already cleaned and created in createSequentialPath, i.e. Path/{PayloadVersion}
     String payloadRootPath = ZookeeperStoreStructure.getNodePath(path, payloadVersion);
 
-    // Split and Set Payload
+    // Split Payload by ZK_MAX_NODE_BYTES to PayloadParts
+    // PayloadPart: {partIndex : [partStartOffset, partEndOffset)}
+    List<byte[]> payloadParts = new ArrayList<>();
+    for (int partStartOffset = 0; partStartOffset < payload.length; partStartOffset += ZK_MAX_NODE_BYTES) {
+      int partEndOffset = Math.min(payload.length, partStartOffset + ZK_MAX_NODE_BYTES);
+      payloadParts.add(CommonUtils.subArray(payload, partStartOffset, partEndOffset - partStartOffset));
+    }
+
+    // Set PayloadParts into corresponding PayloadPartPath, i.e. Path/{PayloadVersion}/{PayLoadPartIndex},
+    // by transactions whose total bytes are limited by ZK_MAX_NODE_BYTES.
+    // The last transaction also adds the PayloadVersion under ReadyPayloadVersionsRootPath and GC the
+    // previous PayloadVersion, so that a Payload within ZK_MAX_NODE_BYTES can be published in one round trip.
     try {
-      for (int partStartOffset = 0; partStartOffset < payload.length; partStartOffset += ZK_MAX_NODE_BYTES) {
-        // Split Payload by ZK_MAX_NODE_BYTES to PayloadParts
-        // PayloadPart: {partIndex : [partStartOffset, partEndOffset)}
-        int partEndOffset = Math.min(payload.length, partStartOffset + ZK_MAX_NODE_BYTES);
-        int partBytes = partEndOffset - partStartOffset;
-        byte[] payloadPart = CommonUtils.subArray(payload, partStartOffset, partBytes);
-
-        // Set each PayloadParts into corresponding PayloadPartPath, i.e. Path/{PayloadVersion}/{PayLoadPartIndex}
-        Integer partIndex = partStartOffset / ZK_MAX_NODE_BYTES;
-        String partIndexStr = partIndex.toString();
-        String partIndexPath = ZookeeperStoreStructure.getNodePath(payloadRootPath, partIndexStr);
-        createNode(partIndexPath, payloadPart);
+      int partIndex = 0;
+      while (true) {
+        CuratorTransactionFinal transaction = null;
+        int transactionBytes = 0;
+        while (partIndex < payloadParts.size() &&
+            (transaction == null || transactionBytes + payloadParts.get(partIndex).length <= ZK_MAX_NODE_BYTES)) {
+          String partIndexPath = ZookeeperStoreStructure.getNodePath(payloadRootPath, Integer.toString(partIndex));
+          transaction = inTransaction(transaction).create().forPath(partIndexPath, payloadParts.get(partIndex)).and();
+          transactionBytes += payloadParts.get(partIndex).length;
+          partIndex++;
+        }
+
+        if (partIndex < payloadParts.size()) {
+          transaction.commit();
+          continue;
+        }
+
+        // Add PayloadVersion under ReadyPayloadVersionsRootPath, i.e. Path/ReadyPayloadVersions/{PayloadVersion},
+        // and its data is the total bytes of the PayloadParts, see getReadyPayloadBytes.
+        transaction = inTransaction(transaction).create().forPath(
+            ZookeeperStoreStructure.getNodePath(readyPayloadVersionsRootPath, payloadVersion),
+            encodePayloadBytes(payload.length)).and();
+        if (!commitWithGC(transaction, path, previousVersion)) {
+          // The previous PayloadVersion may be already GC, so publish without GC it.
+          transaction = inTransaction(null).create().forPath(
+              ZookeeperStoreStructure.getNodePath(readyPayloadVersionsRootPath, payloadVersion),
+              encodePayloadBytes(payload.length)).and();
+          transaction.commit();
+          previousVersion = null;
+        }
+        break;
       }
     } catch (KeeperException.NoNodeException e) {
       LOGGER.logWarning(e,
@@ -240,20 +434,65 @@ public <T> void setLargeObject(String path, T obj) throws Exception {
       return;
     }
 
-    // Add PayloadVersion under ReadyPayloadVersionsRootPath, i.e. Path/ReadyPayloadVersions/{PayloadVersion}
-    addNewVersion(readyPayloadVersionsRootPath, payloadVersion);
-
-    // First GC old PayloadVersion under ReadyPayloadVersionsRootPath, then GC old Payload under Path
-    gcOldVersions(readyPayloadVersionsRootPath, payloadVersion, null);
-    gcOldVersions(path, payloadVersion, new HashSet<>(Collections.singletonList(READY_PAYLOAD_VERSIONS_NODE_NAME)));
+    if (previousVersion == null) {
+      if (backgroundGCEnabled) {
+        // Only publish in the write path, and leave the old PayloadVersions to the ZookeeperGarbageCollector
+        pendingGCPaths.add(path);
+      } else {
+        // First GC old PayloadVersion under ReadyPayloadVersionsRootPath, then GC old Payload under Path
+        gcOldVersions(readyPayloadVersionsRootPath, payloadVersion, null);
+        gcOldVersions(path, payloadVersion, new HashSet<>(Collections.singletonList(READY_PAYLOAD_VERSIONS_NODE_NAME)));
+      }
+    }
+    publishedPayloadVersions.put(path, new PublishedPayloadVersion(payloadVersion, payloadParts.size()));
 
     long end = System.currentTimeMillis();
     LOGGER.logTrace("setLargeObject with %s bytes on path %s in %sms.",
         serializedObj.length, path, end - start);
   }
 
-  private void addNewVersion(String versionsRootPath, String newVersion) throws Exception {
-    createPath(ZookeeperStoreStructure.getNodePath(versionsRootPath, newVersion));
+  private void prepareLargeObjectStructure(String path) throws Exception {
+    if (!exists(path)) {
+      createPath(path);
+    }
+
+    String readyPayloadVersionsRootPath = getReadyPayloadVersionsPath(path);
+    if (!exists(readyPayloadVersionsRootPath)) {
+      createPath(readyPayloadVersionsRootPath);
+    }
+  }
+
+  private CuratorTransaction inTransaction(CuratorTransactionFinal transaction) {
+    return (transaction == null ? curator.inTransaction() : transaction);
+  }
+
+  // Commit the transaction together with GC the previousVersion of the LargeObject in the given path.
+  // Return false if the transaction is not committed since the previousVersion is already GC.
+  private Boolean commitWithGC(
+      CuratorTransactionFinal transaction, String path, PublishedPayloadVersion previousVersion) throws Exception {
+    if (previousVersion == null) {
+      transaction.commit();
+      return true;
+    }
+
+    String previousPayloadRootPath = ZookeeperStoreStructure.getNodePath(path, previousVersion.getVersion());
+    transaction = transaction.delete().forPath(
+        ZookeeperStoreStructure.getNodePath(getReadyPayloadVersionsPath(path), previousVersion.getVersion())).and();
+    for (int partIndex = 0; partIndex < previousVersion.getPartCount(); partIndex++) {
+      transaction = transaction.delete().forPath(
+          ZookeeperStoreStructure.getNodePath(previousPayloadRootPath, Integer.toString(partIndex))).and();
+    }
+    transaction = transaction.delete().forPath(previousPayloadRootPath).and();
+
+    try {
+      transaction.commit();
+      return true;
+    } catch (KeeperException.NoNodeException | KeeperException.NotEmptyException e) {
+      // The whole transaction is rolled back, and it is also possible that the new PayloadRootPath
+      // is GC by a newer Payload, so let the caller retry without GC to judge it.
+      LOGGER.logDebug(e, "Failed to GC previous PayloadVersion %s together with publish", previousPayloadRootPath);
+      return false;
+    }
   }
 
   // Try best to GC old version nodes under versionsRootPath and return the failed GC Versions
@@ -262,6 +501,7 @@ private void gcOldVersions(
       String currentVersion,
       Set<String> excludeNodeNames) throws Exception {
     Long currentVersionInt = Long.parseLong(currentVersion);
+    List<String> versionPathsToGC = new ArrayList<>();
     for (String version : getChildren(versionsRootPath)) {
       if (excludeNodeNames != null && excludeNodeNames.contains(version)) {
         continue;
@@ -282,11 +522,52 @@ private void gcOldVersions(
       }
 
       if (shouldGC) {
-        try {
-          deleteRecursively(versionPath);
-        } catch (KeeperException.NoNodeException ignored) {
-        } catch (Exception e) {
-          LOGGER.logDebug(e, "Failed to Delete old version node under VersionPath %s", versionPath);
+        versionPathsToGC.add(versionPath);
+      }
+    }
+
+    // Delete the version nodes together with their children in batches
+    List<String> nodePathsToDelete = new ArrayList<>();
+    for (String versionPath : versionPathsToGC) {
+      try {
+        for (String child : getChildren(versionPath)) {
+          nodePathsToDelete.add(ZookeeperStoreStructure.getNodePath(versionPath, child));
+        }
+      } catch (KeeperException.NoNodeException ignored) {
+        continue;
+      } catch (Exception e) {
+        LOGGER.logDebug(e, "Failed to Get children of old version node under VersionPath %s", versionPath);
+        continue;
+      }
+      nodePathsToDelete.add(versionPath);
+    }
+
+    try {
+      deleteInBatches(nodePathsToDelete);
+    } catch (Exception e) {
+      LOGGER.logDebug(e, "Failed to Delete old version nodes under VersionsRootPath %s", versionsRootPath);
+    }
+  }
+
+  // Delete the given nodes by transactions with at most ZK_MAX_BATCH_OPERATIONS operations each,
+  // so the given node should be after all its children.
+  // If a transaction failed, such as some of its nodes are already deleted or have new children,
+  // fall back to delete its nodes one by one.
+  // DISTRIBUTED THREAD SAFE
+  public void deleteInBatches(List<String> paths) throws Exception {
+    for (int batchStart = 0; batchStart < paths.size(); batchStart += ZK_MAX_BATCH_OPERATIONS) {
+      List<String> batchPaths = paths.subList(batchStart, Math.min(paths.size(), batchStart + ZK_MAX_BATCH_OPERATIONS));
+
+      CuratorTransactionFinal transaction = null;
+      for (String path : batchPaths) {
+        transaction = inTransaction(transaction).delete().forPath(path).and();
+      }
+
+      try {
+        transaction.commit();
+      } catch (KeeperException.NoNodeException | KeeperException.NotEmptyException e) {
+        for (String path : batchPaths) {
+          deleteRecursively(path);
         }
       }
     }
@@ -309,6 +590,32 @@ private static String getLatestVersion(ZooKeeperClient zkClient, String versions
     return latestVersion;
   }
 
+  // The node whose children changes once a new version of the LargeObject in the given path is ready to get.
+  public static String getReadyPayloadVersionsPath(String path) {
+    return ZookeeperStoreStructure.getNodePath(path, READY_PAYLOAD_VERSIONS_NODE_NAME);
+  }
+
+  private static byte[] encodePayloadBytes(int payloadBytes) {
+    return Integer.toString(payloadBytes).getBytes(StandardCharsets.UTF_8);
+  }
+
+  // Get the total bytes of the PayloadParts recorded in the given ReadyPayloadVersion node when it is published,
+  // so that the reclaimed bytes can be known without reading all the PayloadParts.
+  // Return null if it is not recorded, such as the ReadyPayloadVersion is published by a previous release.
+  Long getReadyPayloadBytes(String readyPayloadVersionPath) throws Exception {
+    byte[] data = getData(readyPayloadVersionPath);
+    if (data == null || data.length == 0) {
+      return null;
+    }
+
+    try {
+      return Long.parseLong(new String(data, StandardCharsets.UTF_8));
+    } catch (NumberFormatException e) {
+      LOGGER.logDebug(e, "Failed to Parse PayloadBytes at ReadyPayloadVersionPath %s", readyPayloadVersionPath);
+      return null;
+    }
+  }
+
 
   // DISTRIBUTED THREAD SAFE and Atomic like getSmallObject
   public <T> T getLargeObject(String path, Class<T> classRef) throws Exception {
@@ -381,12 +688,49 @@ private static <T> T getLargeObjectInternal(ZooKeeperClient zkClient, String pat
               payloadRootPath));
     }
 
-    byte[] serializedObj = CompressionUtils.decompress(payload);
+    byte[] serializedObj = zkClient.decompress(path, payload);
 
     long end = System.currentTimeMillis();
     LOGGER.logTrace("getLargeObject with %s bytes on path %s in %sms.",
         serializedObj.length, path, end - start);
 
-    return YamlUtils.toObject(serializedObj, classRef);
+    return SerializationUtils.deserialize(serializedObj, classRef);
+  }
+
+  private static class CachedObject {
+    // The version of the node when the object is fetched
+    private final String version;
+    private final Object object;
+
+    private CachedObject(String version, Object object) {
+      this.version = version;
+      this.object = object;
+    }
+
+    private Boolean matches(String version, Class<?> classRef) {
+      return this.version.equals(version) && classRef.isInstance(object);
+    }
+
+    private Object getObject() {
+      return object;
+    }
+  }
+
+  private static class PublishedPayloadVersion {
+    private final String version;
+    private final int partCount;
+
+    private PublishedPayloadVersion(String version, int partCount) {
+      this.version = version;
+      this.partCount = partCount;
+    }
+
+    private String getVersion() {
+      return version;
+    }
+
+    private int getPartCount() {
+      return partCount;
+    }
   }
 }
@@ -0,0 +1,162 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.model.CompressionCodecType;
+import com.microsoft.frameworklauncher.common.model.ZookeeperCompressionMetrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The compression metrics of the recently accessed ZK object paths, which can be used to
+// tune the compression codec and level, see ZookeeperCompressionMetrics.
+public class ZookeeperCompressionMetricsRecorder { // THREAD SAFE
+  // Bound the memory, since the object paths are created and deleted with Frameworks.
+  private static final int MAX_PATH_COUNT = 1000;
+
+  // Path -> PathMetrics, ordered by the access time
+  private final LinkedHashMap<String, PathMetrics> pathMetricses =
+      new LinkedHashMap<String, PathMetrics>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PathMetrics> eldest) {
+          return size() > MAX_PATH_COUNT;
+        }
+      };
+
+  public synchronized PathMetrics recordCompression(
+      String path, CompressionCodecType codec, int rawBytes, int compressedBytes, long elapsedMs) {
+    PathMetrics metrics = getOrCreatePathMetrics(path);
+    metrics.codec = codec;
+    metrics.compressCount++;
+    metrics.compressRawBytes += rawBytes;
+    metrics.compressCompressedBytes += compressedBytes;
+    metrics.compressTotalMs += elapsedMs;
+    return metrics.copy();
+  }
+
+  public synchronized PathMetrics recordDecompression(
+      String path, CompressionCodecType codec, int compressedBytes, int rawBytes, long elapsedMs) {
+    PathMetrics metrics = getOrCreatePathMetrics(path);
+    metrics.codec = codec;
+    metrics.decompressCount++;
+    metrics.decompressRawBytes += rawBytes;
+    metrics.decompressCompressedBytes += compressedBytes;
+    metrics.decompressTotalMs += elapsedMs;
+    return metrics.copy();
+  }
+
+  // Return a snapshot of all PathMetricses, from the least recently accessed one
+  public synchronized List<ZookeeperCompressionMetrics> getMetricses() {
+    List<ZookeeperCompressionMetrics> metricses = new ArrayList<>(pathMetricses.size());
+    for (Map.Entry<String, PathMetrics> entry : pathMetricses.entrySet()) {
+      metricses.add(entry.getValue().toMetrics(entry.getKey()));
+    }
+    return metricses;
+  }
+
+  private PathMetrics getOrCreatePathMetrics(String path) {
+    PathMetrics metrics = pathMetricses.get(path);
+    if (metrics == null) {
+      metrics = new PathMetrics();
+      pathMetricses.put(path, metrics);
+    }
+    return metrics;
+  }
+
+  public static class PathMetrics {
+    private CompressionCodecType codec;
+    private long compressCount;
+    private long compressRawBytes;
+    private long compressCompressedBytes;
+    private long compressTotalMs;
+    private long decompressCount;
+    private long decompressRawBytes;
+    private long decompressCompressedBytes;
+    private long decompressTotalMs;
+
+    private PathMetrics copy() {
+      PathMetrics copy = new PathMetrics();
+      copy.codec = codec;
+      copy.compressCount = compressCount;
+      copy.compressRawBytes = compressRawBytes;
+      copy.compressCompressedBytes = compressCompressedBytes;
+      copy.compressTotalMs = compressTotalMs;
+      copy.decompressCount = decompressCount;
+      copy.decompressRawBytes = decompressRawBytes;
+      copy.decompressCompressedBytes = decompressCompressedBytes;
+      copy.decompressTotalMs = decompressTotalMs;
+      return copy;
+    }
+
+    private ZookeeperCompressionMetrics toMetrics(String path) {
+      ZookeeperCompressionMetrics metrics = new ZookeeperCompressionMetrics();
+      metrics.setPath(path);
+      metrics.setCodec(codec);
+      metrics.setCompressCount(compressCount);
+      metrics.setCompressRatio(getCompressRatio());
+      metrics.setCompressTotalMs(compressTotalMs);
+      metrics.setDecompressCount(decompressCount);
+      metrics.setDecompressRatio(getDecompressRatio());
+      metrics.setDecompressTotalMs(decompressTotalMs);
+      return metrics;
+    }
+
+    // The codec used by the last compression or decompression
+    public CompressionCodecType getCodec() {
+      return codec;
+    }
+
+    public long getCompressCount() {
+      return compressCount;
+    }
+
+    public long getCompressTotalMs() {
+      return compressTotalMs;
+    }
+
+    // Compressed bytes / raw bytes of all compressions
+    public double getCompressRatio() {
+      return compressRawBytes == 0 ? 0 : (double) compressCompressedBytes / compressRawBytes;
+    }
+
+    public long getDecompressCount() {
+      return decompressCount;
+    }
+
+    public long getDecompressTotalMs() {
+      return decompressTotalMs;
+    }
+
+    // Compressed bytes / raw bytes of all decompressions
+    public double getDecompressRatio() {
+      return decompressRawBytes == 0 ? 0 : (double) decompressCompressedBytes / decompressRawBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "[Codec] = [%s], " +
+              "[CompressCount] = [%s], [CompressRatio] = [%.3f], [CompressTotalMs] = [%s], " +
+              "[DecompressCount] = [%s], [DecompressRatio] = [%.3f], [DecompressTotalMs] = [%s]",
+          codec,
+          compressCount, getCompressRatio(), compressTotalMs,
+          decompressCount, getDecompressRatio(), decompressTotalMs);
+    }
+  }
+}
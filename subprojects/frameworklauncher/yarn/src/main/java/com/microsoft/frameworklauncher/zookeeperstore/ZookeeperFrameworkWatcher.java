@@ -0,0 +1,240 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+import java.util.*;
+
+// Watch the nodes of all Frameworks under a root path in ZK, such as the LauncherStatus or the LauncherRequest,
+// and collect which Frameworks are changed, so that the watcher owner can reload the changed Frameworks only.
+// The subclass decides which nodes of a Framework are watched.
+// Note:
+//  1. ZK watchers are one-shot, so the owner should call watchFramework again before reloading
+//  a changed Framework, i.e. always watch before read, so that no change will be missed.
+//  2. All watchers may be lost if the ZK session is lost, in that case a resync is required,
+//  i.e. the owner should watch and reload all Frameworks again.
+public abstract class ZookeeperFrameworkWatcher { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(ZookeeperFrameworkWatcher.class);
+
+  // Wait a little bit more after the first change is detected, so that a burst of changes, such as
+  // the TaskRoleStatus and TaskStatuses of one Status push, or a batch of Frameworks submission,
+  // can be reloaded once.
+  private static final long CHANGES_COALESCE_MS = 100;
+
+  protected final ZooKeeperClient zkClient;
+  protected final ZookeeperStoreStructure zkStruct;
+  protected final ZookeeperStoreStructure legacyZkStruct;
+  protected final CuratorWatcher watcher = this::onWatchedEvent;
+  private final String rootPath;
+
+  /**
+   * REGION PendingChanges
+   */
+  private final Object changesLock = new Object();
+  private Boolean resyncRequired = true;
+  private Boolean rootChanged = false;
+  private Boolean frameworkSetChanged = false;
+  private Set<String> changedFrameworkNames = new HashSet<>();
+
+  protected ZookeeperFrameworkWatcher(
+      ZooKeeperClient zkClient, ZookeeperStoreStructure zkStruct, String rootPath) {
+    this.zkClient = zkClient;
+    this.zkStruct = zkStruct;
+    this.legacyZkStruct = zkStruct.getLegacyStructure();
+    this.rootPath = rootPath;
+  }
+
+  public void start() {
+    zkClient.addConnectionStateListener((client, newState) -> {
+      // All watchers are lost if the session is lost, and events may be missed
+      // during the connection is suspended.
+      if (newState == ConnectionState.RECONNECTED || newState == ConnectionState.LOST) {
+        LOGGER.logWarning("ZK connection state changed to %s, will resync all Frameworks under %s",
+            newState, rootPath);
+        requestResync();
+      }
+    });
+  }
+
+  public void requestResync() {
+    synchronized (changesLock) {
+      resyncRequired = true;
+      changesLock.notifyAll();
+    }
+  }
+
+  // Watch the FrameworkName set, and return current FrameworkNames.
+  // The FrameworkName set includes the Frameworks in both the bucketed and the legacy layout.
+  protected List<String> watchFrameworkNames() throws Exception {
+    Set<String> frameworkNames = new LinkedHashSet<>();
+    for (String nodeName : zkClient.getChildren(rootPath, watcher)) {
+      if (!ZookeeperStoreStructure.isBucketName(nodeName)) {
+        frameworkNames.add(nodeName);
+        continue;
+      }
+
+      try {
+        frameworkNames.addAll(zkClient.getChildren(
+            ZookeeperStoreStructure.getNodePath(rootPath, nodeName), watcher));
+      } catch (KeeperException.NoNodeException ignored) {
+      }
+    }
+    return new ArrayList<>(frameworkNames);
+  }
+
+  // Watch the nodes of the given Framework.
+  // If the Framework is in both layouts, i.e. it is being migrated, only the bucketed one is watched,
+  // and the deletion of the legacy one will notify that the Framework should be watched again.
+  // Return false if the Framework does not exist.
+  public Boolean watchFramework(String frameworkName) throws Exception {
+    if (watchFramework(zkStruct, frameworkName)) {
+      return true;
+    }
+    return zkStruct.getBucketed() && watchFramework(legacyZkStruct, frameworkName);
+  }
+
+  protected abstract Boolean watchFramework(
+      ZookeeperStoreStructure struct, String frameworkName) throws Exception;
+
+  // The parent node should be watched before, so that it can notify the creation of the not existing node.
+  protected void tryWatchData(String path) throws Exception {
+    try {
+      zkClient.watchData(path, watcher);
+    } catch (KeeperException.NoNodeException ignored) {
+    }
+  }
+
+  protected Boolean tryWatchChildren(String path) throws Exception {
+    try {
+      zkClient.getChildren(path, watcher);
+      return true;
+    } catch (KeeperException.NoNodeException ignored) {
+      return false;
+    }
+  }
+
+  // Block until some changes are detected or timeout, and then take out all the pending changes.
+  public Changes waitForChanges(long timeoutMs) throws InterruptedException {
+    synchronized (changesLock) {
+      if (!hasPendingChanges()) {
+        changesLock.wait(timeoutMs);
+      }
+      if (!hasPendingChanges()) {
+        return new Changes(false, false, false, Collections.emptySet());
+      }
+    }
+
+    Thread.sleep(CHANGES_COALESCE_MS);
+
+    synchronized (changesLock) {
+      Changes changes = new Changes(
+          resyncRequired, rootChanged, frameworkSetChanged, changedFrameworkNames);
+      resyncRequired = false;
+      rootChanged = false;
+      frameworkSetChanged = false;
+      changedFrameworkNames = new HashSet<>();
+      return changes;
+    }
+  }
+
+  private Boolean hasPendingChanges() {
+    return resyncRequired || rootChanged || frameworkSetChanged || !changedFrameworkNames.isEmpty();
+  }
+
+  private void onWatchedEvent(WatchedEvent event) {
+    String path = event.getPath();
+    if (event.getType() == Watcher.Event.EventType.None || path == null) {
+      // Connection state changes are handled by the ConnectionStateListener
+      return;
+    }
+
+    synchronized (changesLock) {
+      if (path.equals(rootPath)) {
+        if (event.getType() == Watcher.Event.EventType.NodeChildrenChanged) {
+          frameworkSetChanged = true;
+        } else {
+          rootChanged = true;
+        }
+      } else if (path.startsWith(rootPath + "/")) {
+        String relativePath = path.substring(rootPath.length() + 1);
+        String nodeName = getFirstNodeName(relativePath);
+        if (!ZookeeperStoreStructure.isBucketName(nodeName)) {
+          changedFrameworkNames.add(nodeName);
+        } else if (nodeName.length() == relativePath.length()) {
+          // The bucket itself is changed, i.e. its FrameworkName set
+          frameworkSetChanged = true;
+        } else {
+          changedFrameworkNames.add(getFirstNodeName(relativePath.substring(nodeName.length() + 1)));
+        }
+      } else {
+        return;
+      }
+      changesLock.notifyAll();
+    }
+
+    LOGGER.logTrace("Watched %s on path %s", event.getType(), path);
+  }
+
+  private static String getFirstNodeName(String relativePath) {
+    int separatorIndex = relativePath.indexOf('/');
+    return (separatorIndex < 0 ? relativePath : relativePath.substring(0, separatorIndex));
+  }
+
+  public static class Changes {
+    private final Boolean resyncRequired;
+    private final Boolean rootChanged;
+    private final Boolean frameworkSetChanged;
+    private final Set<String> changedFrameworkNames;
+
+    private Changes(
+        Boolean resyncRequired,
+        Boolean rootChanged,
+        Boolean frameworkSetChanged,
+        Set<String> changedFrameworkNames) {
+      this.resyncRequired = resyncRequired;
+      this.rootChanged = rootChanged;
+      this.frameworkSetChanged = frameworkSetChanged;
+      this.changedFrameworkNames = changedFrameworkNames;
+    }
+
+    // If true, all other changes should be ignored and all Frameworks should be watched and reloaded.
+    public Boolean getResyncRequired() {
+      return resyncRequired;
+    }
+
+    // If true, the data of the root node is changed, such as the LauncherStatus.
+    public Boolean getRootChanged() {
+      return rootChanged;
+    }
+
+    // If true, some Frameworks may be added or deleted.
+    public Boolean getFrameworkSetChanged() {
+      return frameworkSetChanged;
+    }
+
+    public Set<String> getChangedFrameworkNames() {
+      return changedFrameworkNames;
+    }
+  }
+}
@@ -0,0 +1,256 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.ZookeeperGarbageCollectorMetrics;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// GC the stale PayloadVersions of LargeObjects in background, so that the write path, such as the
+// AM pushStatus, only needs to publish the new PayloadVersion. It GC:
+//  1. The ReadyPayloadVersions and Payloads older than the latest ReadyPayloadVersion.
+//  2. The incomplete Payloads newer than the latest ReadyPayloadVersion, which are left by crashed
+//  writers, and they are only GC after zkGCIncompleteVersionGraceSec, in case they are being written.
+// The LargeObject Paths to GC come from:
+//  1. The Paths whose old PayloadVersions are not GC together with publish in this process.
+//  2. All LargeObject Paths in ZK, if full scan is enabled, so that the garbage is also GC even if the
+//  Path will not be written by any process again.
+public class ZookeeperGarbageCollector { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(ZookeeperGarbageCollector.class);
+
+  private final LauncherConfiguration conf;
+  private final ZooKeeperClient zkClient;
+  // Null if full scan is disabled
+  private final Callable<Collection<String>> fullScanPathsProvider;
+  private long lastFullScanTimestamp = 0;
+
+  /**
+   * REGION Metrics
+   */
+  private final AtomicLong scannedPathCount = new AtomicLong(0);
+  private final AtomicLong failedPathCount = new AtomicLong(0);
+  private final AtomicLong reclaimedNodeCount = new AtomicLong(0);
+  private final AtomicLong reclaimedPayloadBytes = new AtomicLong(0);
+  // The Paths taken but not yet GC in current round
+  private final AtomicLong roundBacklogPathCount = new AtomicLong(0);
+
+  public ZookeeperGarbageCollector(
+      LauncherConfiguration conf, ZooKeeperClient zkClient,
+      Callable<Collection<String>> fullScanPathsProvider) {
+    this.conf = conf;
+    this.zkClient = zkClient;
+    this.fullScanPathsProvider = fullScanPathsProvider;
+  }
+
+  public void start() {
+    zkClient.setBackgroundGCEnabled(true);
+
+    new Thread(() -> {
+      while (true) {
+        try {
+          Thread.sleep(conf.getZkGCIntervalSec() * 1000);
+
+          gc();
+        } catch (Exception e) {
+          LOGGER.logWarning(e,
+              "Exception occurred during ZK GC. It should be transient. " +
+                  "Will retry next time after %ss", conf.getZkGCIntervalSec());
+        }
+      }
+    }, "ZookeeperGarbageCollector").start();
+  }
+
+  @VisibleForTesting
+  void gc() throws Exception {
+    Set<String> paths = zkClient.takePendingGCPaths();
+    Boolean fullScan = false;
+    if (fullScanPathsProvider != null &&
+        System.currentTimeMillis() - lastFullScanTimestamp >= conf.getZkGCFullScanIntervalSec() * 1000L) {
+      fullScan = true;
+      paths.addAll(fullScanPathsProvider.call());
+      lastFullScanTimestamp = System.currentTimeMillis();
+    }
+    if (paths.isEmpty()) {
+      return;
+    }
+
+    long startNodeCount = reclaimedNodeCount.get();
+    long startPayloadBytes = reclaimedPayloadBytes.get();
+    long start = System.currentTimeMillis();
+
+    roundBacklogPathCount.set(paths.size());
+    for (String path : paths) {
+      try {
+        gcLargeObject(path);
+      } catch (Exception e) {
+        failedPathCount.incrementAndGet();
+        zkClient.addPendingGCPath(path);
+        LOGGER.logDebug(e, "Failed to GC LargeObject on path %s, will retry next time", path);
+      } finally {
+        scannedPathCount.incrementAndGet();
+        roundBacklogPathCount.decrementAndGet();
+      }
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logInfo(
+        "ZK GC round completed in %sms: [FullScan] = [%s], [Paths] = [%s], " +
+            "[ReclaimedNodes] = [%s], [ReclaimedPayloadBytes] = [%s]. " +
+            "Total: [ScannedPaths] = [%s], [FailedPaths] = [%s], " +
+            "[ReclaimedNodes] = [%s], [ReclaimedPayloadBytes] = [%s]",
+        end - start, fullScan, paths.size(),
+        reclaimedNodeCount.get() - startNodeCount, reclaimedPayloadBytes.get() - startPayloadBytes,
+        scannedPathCount.get(), failedPathCount.get(),
+        reclaimedNodeCount.get(), reclaimedPayloadBytes.get());
+  }
+
+  private void gcLargeObject(String path) throws Exception {
+    String readyPayloadVersionsRootPath = ZooKeeperClient.getReadyPayloadVersionsPath(path);
+    List<String> readyVersions;
+    List<String> versions;
+    try {
+      readyVersions = zkClient.getChildren(readyPayloadVersionsRootPath);
+      versions = zkClient.getChildren(path);
+    } catch (KeeperException.NoNodeException e) {
+      // The whole LargeObject is deleted or it is not a LargeObject
+      return;
+    }
+
+    Long latestReadyVersion = null;
+    for (String readyVersion : readyVersions) {
+      Long readyVersionLong = parseVersion(readyVersion);
+      if (readyVersionLong != null &&
+          (latestReadyVersion == null || readyVersionLong > latestReadyVersion)) {
+        latestReadyVersion = readyVersionLong;
+      }
+    }
+
+    // First GC old PayloadVersion under ReadyPayloadVersionsRootPath, then GC old Payload under Path,
+    // so that a PayloadVersion is always not ready before its Payload is GC.
+    // The Payload bytes are only known for the ReadyPayloadVersions, and they are read before the
+    // ReadyPayloadVersions are GC, so the incomplete Payloads are not counted in reclaimedPayloadBytes.
+    List<String> nodePathsToDelete = new ArrayList<>();
+    // PayloadVersion Path -> The bytes of its Payload
+    Map<String, Long> payloadBytesToReclaim = new HashMap<>();
+    for (String readyVersion : readyVersions) {
+      Long readyVersionLong = parseVersion(readyVersion);
+      if (readyVersionLong == null || readyVersionLong < latestReadyVersion) {
+        String readyVersionPath = ZookeeperStoreStructure.getNodePath(readyPayloadVersionsRootPath, readyVersion);
+        nodePathsToDelete.add(readyVersionPath);
+        if (readyVersionLong != null) {
+          Long payloadBytes = getReadyPayloadBytes(readyVersionPath);
+          if (payloadBytes != null) {
+            payloadBytesToReclaim.put(ZookeeperStoreStructure.getNodePath(path, readyVersion), payloadBytes);
+          }
+        }
+      }
+    }
+
+    long incompleteVersionGraceMs = conf.getZkGCIncompleteVersionGraceSec() * 1000L;
+    for (String version : versions) {
+      if (version.equals(ZooKeeperClient.READY_PAYLOAD_VERSIONS_NODE_NAME)) {
+        continue;
+      }
+
+      String versionPath = ZookeeperStoreStructure.getNodePath(path, version);
+      Long versionLong = parseVersion(version);
+      if (versionLong != null && latestReadyVersion != null && versionLong.equals(latestReadyVersion)) {
+        continue;
+      }
+      if (versionLong != null && (latestReadyVersion == null || versionLong > latestReadyVersion)) {
+        // It is incomplete, and it may be being written now
+        Stat stat = zkClient.getStat(versionPath);
+        if (stat == null || System.currentTimeMillis() - stat.getCtime() < incompleteVersionGraceMs) {
+          continue;
+        }
+      }
+
+      try {
+        for (String child : zkClient.getChildren(versionPath)) {
+          nodePathsToDelete.add(ZookeeperStoreStructure.getNodePath(versionPath, child));
+        }
+      } catch (KeeperException.NoNodeException ignored) {
+        continue;
+      }
+      nodePathsToDelete.add(versionPath);
+    }
+
+    deleteWithRateLimit(nodePathsToDelete, payloadBytesToReclaim);
+  }
+
+  private Long getReadyPayloadBytes(String readyVersionPath) throws Exception {
+    try {
+      return zkClient.getReadyPayloadBytes(readyVersionPath);
+    } catch (KeeperException.NoNodeException e) {
+      return null;
+    }
+  }
+
+  // Delete the given nodes in batches, and the delete rate is limited by zkGCMaxDeletesPerSec,
+  // so that the GC does not burst the ZK.
+  // The Payload bytes of a PayloadVersion are reclaimed once its PayloadVersion Path is deleted.
+  private void deleteWithRateLimit(List<String> paths, Map<String, Long> payloadBytesToReclaim) throws Exception {
+    int maxDeletesPerSec = Math.max(1, conf.getZkGCMaxDeletesPerSec());
+    int batchSize = Math.min(ZooKeeperClient.ZK_MAX_BATCH_OPERATIONS, maxDeletesPerSec);
+    for (int batchStart = 0; batchStart < paths.size(); batchStart += batchSize) {
+      List<String> batchPaths = paths.subList(batchStart, Math.min(paths.size(), batchStart + batchSize));
+      long batchStartTimestamp = System.currentTimeMillis();
+
+      zkClient.deleteInBatches(batchPaths);
+      reclaimedNodeCount.addAndGet(batchPaths.size());
+      for (String batchPath : batchPaths) {
+        Long payloadBytes = payloadBytesToReclaim.get(batchPath);
+        if (payloadBytes != null) {
+          reclaimedPayloadBytes.addAndGet(payloadBytes);
+        }
+      }
+
+      long expectedBatchMs = batchPaths.size() * 1000L / maxDeletesPerSec;
+      long elapsedBatchMs = System.currentTimeMillis() - batchStartTimestamp;
+      if (elapsedBatchMs < expectedBatchMs) {
+        Thread.sleep(expectedBatchMs - elapsedBatchMs);
+      }
+    }
+  }
+
+  // Return null if it is not a valid version, which should be a garbage node to GC
+  private static Long parseVersion(String version) {
+    try {
+      return Long.parseLong(version);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  public ZookeeperGarbageCollectorMetrics getMetrics() {
+    ZookeeperGarbageCollectorMetrics metrics = new ZookeeperGarbageCollectorMetrics();
+    metrics.setFullScanEnabled(fullScanPathsProvider != null);
+    metrics.setScannedPathCount(scannedPathCount.get());
+    metrics.setFailedPathCount(failedPathCount.get());
+    metrics.setReclaimedNodeCount(reclaimedNodeCount.get());
+    metrics.setReclaimedPayloadBytes(reclaimedPayloadBytes.get());
+    metrics.setBacklogPathCount(roundBacklogPathCount.get() + zkClient.getPendingGCPathCount());
+    return metrics;
+  }
+}
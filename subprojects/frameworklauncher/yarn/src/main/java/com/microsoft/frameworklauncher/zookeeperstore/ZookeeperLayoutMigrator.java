@@ -0,0 +1,54 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.GlobalConstants;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.common.validation.CommonValidation;
+
+import java.util.List;
+
+// Migrate the Frameworks in ZK from the legacy flat layout to the bucketed layout.
+// It uses the same LauncherConfiguration file as the Service, so zkBucketedLayoutEnable should be enabled in it,
+// and the Service should be restarted with it, before the migration.
+// Usage:
+//  java -cp <Launcher Jar>:<ClassPath> com.microsoft.frameworklauncher.zookeeperstore.ZookeeperLayoutMigrator [--all]
+// By default, it is safe to run while the Launcher is running, and only the completed Frameworks are migrated,
+// so it can be run repeatedly until all Frameworks are migrated.
+// With --all, all Frameworks are migrated, so it should only be run when the Launcher is stopped.
+public class ZookeeperLayoutMigrator {
+  private static final DefaultLogger LOGGER = new DefaultLogger(ZookeeperLayoutMigrator.class);
+
+  public static void main(String[] args) throws Exception {
+    Boolean completedOnly = !(args.length > 0 && args[0].equals("--all"));
+
+    LauncherConfiguration conf = YamlUtils.toObject(GlobalConstants.LAUNCHER_CONFIG_FILE, LauncherConfiguration.class);
+    CommonValidation.validate(conf);
+
+    ZookeeperStore zkStore = new ZookeeperStore(conf.getZkConnectString(), conf.getZkRootDir());
+    zkStore.setPayloadCodec(conf.getZkPayloadCodec());
+    zkStore.setCompression(conf.getZkCompressionCodec(),
+        conf.getZkCompressionLevel(), conf.getZkMinCompressionBytes());
+    zkStore.setBucketedLayout(conf.getZkBucketedLayoutEnable());
+
+    List<String> migratedFrameworkNames = zkStore.migrateToBucketedLayout(completedOnly);
+    LOGGER.logInfo("Migrated Frameworks: %s", migratedFrameworkNames);
+  }
+}
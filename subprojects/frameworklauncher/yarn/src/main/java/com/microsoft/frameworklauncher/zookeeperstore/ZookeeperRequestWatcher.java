@@ -0,0 +1,47 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import org.apache.zookeeper.KeeperException;
+
+import java.util.List;
+
+// Watch the FrameworkRequest nodes in ZK, so that the watcher owner can reload the changed
+// FrameworkRequests only, instead of all FrameworkRequests.
+// Only the FrameworkRequest itself is watched, since the other Requests of a Framework, such as
+// MigrateTaskRequests, are not consumed by the watcher owner.
+public class ZookeeperRequestWatcher extends ZookeeperFrameworkWatcher { // THREAD SAFE
+  public ZookeeperRequestWatcher(ZooKeeperClient zkClient, ZookeeperStoreStructure zkStruct) {
+    super(zkClient, zkStruct, zkStruct.getLauncherRequestPath());
+  }
+
+  // Watch the FrameworkName set, and return current FrameworkNames.
+  public List<String> watchLauncherRequest() throws Exception {
+    return watchFrameworkNames();
+  }
+
+  @Override
+  protected Boolean watchFramework(ZookeeperStoreStructure struct, String frameworkName) throws Exception {
+    try {
+      zkClient.watchData(struct.getFrameworkRequestPath(frameworkName), watcher);
+      return true;
+    } catch (KeeperException.NoNodeException e) {
+      return false;
+    }
+  }
+}
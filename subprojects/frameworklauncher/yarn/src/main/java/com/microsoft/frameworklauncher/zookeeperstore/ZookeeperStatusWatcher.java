@@ -0,0 +1,70 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import org.apache.zookeeper.KeeperException;
+
+import java.util.List;
+
+// Watch the Status nodes in ZK, so that the watcher owner can reload the changed Frameworks only,
+// instead of the whole AggregatedLauncherStatus.
+// The whole AggregatedFrameworkStatus of each Framework is watched.
+public class ZookeeperStatusWatcher extends ZookeeperFrameworkWatcher { // THREAD SAFE
+  public ZookeeperStatusWatcher(ZooKeeperClient zkClient, ZookeeperStoreStructure zkStruct) {
+    super(zkClient, zkStruct, zkStruct.getLauncherStatusPath());
+  }
+
+  // Watch the LauncherStatus and the FrameworkName set, and return current FrameworkNames.
+  public List<String> watchLauncherStatus() throws Exception {
+    zkClient.watchData(zkStruct.getLauncherStatusPath(), watcher);
+    return watchFrameworkNames();
+  }
+
+  @Override
+  protected Boolean watchFramework(ZookeeperStoreStructure struct, String frameworkName) throws Exception {
+    String frameworkStatusPath = struct.getFrameworkStatusPath(frameworkName);
+    List<String> taskRoleNames;
+    try {
+      zkClient.watchData(frameworkStatusPath, watcher);
+      taskRoleNames = zkClient.getChildren(frameworkStatusPath, watcher);
+    } catch (KeeperException.NoNodeException e) {
+      return false;
+    }
+
+    for (String taskRoleName : taskRoleNames) {
+      String taskStatusesPath = struct.getTaskStatusesPath(frameworkName, taskRoleName);
+      try {
+        zkClient.watchData(struct.getTaskRoleStatusPath(frameworkName, taskRoleName), watcher);
+        zkClient.getChildren(struct.getTaskRoleStatusPath(frameworkName, taskRoleName), watcher);
+      } catch (KeeperException.NoNodeException ignored) {
+        // The parent node watched above will notify the creation of the not existing node
+        continue;
+      }
+
+      // The paged TaskStatuses is ready to get only after a new TaskStatusesPageIndex is set.
+      tryWatchData(struct.getTaskStatusesPageIndexPath(frameworkName, taskRoleName));
+
+      // The LargeObject TaskStatuses is ready to get only after a new ReadyPayloadVersion is added.
+      if (tryWatchChildren(taskStatusesPath)) {
+        tryWatchChildren(ZooKeeperClient.getReadyPayloadVersionsPath(taskStatusesPath));
+      }
+    }
+
+    return true;
+  }
+}
@@ -17,20 +17,33 @@
 
 package com.microsoft.frameworklauncher.zookeeperstore;
 
+import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import org.apache.zookeeper.KeeperException;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
 
 public class ZookeeperStore {
   private static final DefaultLogger LOGGER = new DefaultLogger(ZookeeperStore.class);
+  // TaskStatusesPage name: {PageIndex}-{PageGeneration}
+  private static final Pattern TASK_STATUSES_PAGE_NAME_PATTERN = Pattern.compile("^\\d+-\\d+$");
 
   protected final ZooKeeperClient zkClient;
-  protected final ZookeeperStoreStructure zkStruct;
+  // The layout to write new Frameworks to, see setBucketedLayout.
+  protected volatile ZookeeperStoreStructure zkStruct;
+  // The legacy flat layout, which is also read if zkStruct is the bucketed layout.
+  protected final ZookeeperStoreStructure legacyZkStruct;
+  // The Framework root paths in the bucketed layout which are known to exist, so their writers
+  // need not to check whether they still exist in the legacy layout.
+  private final Set<String> bucketedFrameworkPaths = ConcurrentHashMap.newKeySet();
+  private final Set<String> preparedBucketPaths = ConcurrentHashMap.newKeySet();
+  // The executor to read the objects of all Frameworks in parallel, its thread count is the
+  // max count of in-flight reads. It is null if the Frameworks are read one by one.
+  private volatile ExecutorService readExecutor = null;
+  private ZookeeperGarbageCollector garbageCollector = null;
 
   public ZookeeperStore(String connectString, String launcherRootPath) throws Exception {
     LOGGER.logInfo(
@@ -38,7 +51,8 @@ public ZookeeperStore(String connectString, String launcherRootPath) throws Exce
         connectString, launcherRootPath);
 
     zkClient = new ZooKeeperClient(connectString);
-    zkStruct = new ZookeeperStoreStructure(launcherRootPath);
+    legacyZkStruct = new ZookeeperStoreStructure(launcherRootPath);
+    zkStruct = legacyZkStruct;
 
     setupZKStructure();
   }
@@ -47,6 +61,7 @@ public ZookeeperStore(String connectString, String launcherRootPath) throws Exce
   protected ZookeeperStore(ZooKeeperClient zkClient, ZookeeperStoreStructure zkStruct) {
     this.zkClient = zkClient;
     this.zkStruct = zkStruct;
+    this.legacyZkStruct = zkStruct.getLegacyStructure();
   }
 
   // Setup Basic ZookeeperStoreStructure
@@ -56,29 +71,396 @@ private void setupZKStructure() throws Exception {
     }
   }
 
+  // Codec
+  public void setPayloadCodec(PayloadCodecType payloadCodec) {
+    LOGGER.logInfo("Serialize ZK payloads by PayloadCodec [%s]", payloadCodec);
+    zkClient.setPayloadCodec(payloadCodec);
+  }
+
+  public void setCompression(CompressionCodecType codec, Integer level, Integer minBytes) {
+    LOGGER.logInfo(
+        "Compress ZK payloads not smaller than %s bytes by CompressionCodec [%s] with level [%s]",
+        minBytes, codec, level);
+    zkClient.setCompression(codec, level, minBytes);
+  }
+
+  public List<ZookeeperCompressionMetrics> getCompressionMetrics() {
+    return zkClient.getCompressionMetrics().getMetricses();
+  }
+
+  // Parallelism
+  // Set the max count of in-flight reads when read the objects of all Frameworks,
+  // such as getAggregatedLauncherStatus, so that the read time is not bounded by
+  // Framework count * ZK round trip time.
+  // If it is not greater than 1, the Frameworks are read one by one.
+  public synchronized void setReadParallelism(Integer readParallelism) {
+    LOGGER.logInfo("Read all Frameworks with ReadParallelism [%s]", readParallelism);
+
+    ExecutorService oldReadExecutor = readExecutor;
+    if (readParallelism > 1) {
+      readExecutor = Executors.newFixedThreadPool(readParallelism, runnable -> {
+        Thread thread = new Thread(runnable, "ZookeeperStoreReader");
+        thread.setDaemon(true);
+        return thread;
+      });
+    } else {
+      readExecutor = null;
+    }
+
+    if (oldReadExecutor != null) {
+      oldReadExecutor.shutdown();
+    }
+  }
+
+  // Start to read the object of each given name, and return name -> the read in the order of
+  // the given names. The result or exception of each read is same as reading it directly, and
+  // it can be got by getReadResult.
+  private <T> Map<String, Future<T>> startReads(Collection<String> names, ObjectReader<T> reader) {
+    ExecutorService executor = readExecutor;
+    Map<String, Future<T>> reads = new LinkedHashMap<>();
+    for (String name : names) {
+      Callable<T> read = () -> reader.read(name);
+      if (executor != null) {
+        reads.put(name, executor.submit(read));
+      } else {
+        FutureTask<T> readTask = new FutureTask<>(read);
+        readTask.run();
+        reads.put(name, readTask);
+      }
+    }
+    return reads;
+  }
+
+  private static <T> T getReadResult(Future<T> read) throws Exception {
+    try {
+      return read.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  // Cancel the not yet started reads, such as the caller fails before get all read results.
+  private static <T> void cancelReads(Map<String, Future<T>> reads) {
+    for (Future<T> read : reads.values()) {
+      read.cancel(false);
+    }
+  }
+
+  private interface ObjectReader<T> {
+    T read(String name) throws Exception;
+  }
+
+  // GC
+  // Start to GC the stale LargeObject PayloadVersions in background, instead of in the write path.
+  // If fullScan is enabled, all LargeObjects in ZK are also GC periodically, so it should only be
+  // enabled by one process, i.e. the Service.
+  public synchronized void startGarbageCollector(LauncherConfiguration conf, Boolean fullScan) {
+    if (conf.getZkGCIntervalSec() <= 0 || garbageCollector != null) {
+      return;
+    }
+
+    LOGGER.logInfo("Starting ZookeeperGarbageCollector: [FullScan] = [%s]", fullScan);
+    garbageCollector = new ZookeeperGarbageCollector(
+        conf, zkClient, fullScan ? this::getAllLargeObjectPaths : null);
+    garbageCollector.start();
+  }
+
+  // Return null if the ZookeeperGarbageCollector is not started
+  public synchronized ZookeeperGarbageCollectorMetrics getGarbageCollectorMetrics() {
+    return (garbageCollector == null ? null : garbageCollector.getMetrics());
+  }
+
+  private Collection<String> getAllLargeObjectPaths() throws Exception {
+    List<String> paths = new ArrayList<>();
+    for (String frameworkName : getFrameworkNames(zkStruct.getLauncherStatusPath())) {
+      for (ZookeeperStoreStructure struct : getStructures()) {
+        try {
+          for (String taskRoleName : zkClient.getChildren(struct.getFrameworkStatusPath(frameworkName))) {
+            paths.add(struct.getTaskStatusesPath(frameworkName, taskRoleName));
+          }
+        } catch (KeeperException.NoNodeException ignored) {
+        }
+      }
+    }
+    return paths;
+  }
+
+  // Layout
+  // Place the Frameworks in the bucketed layout instead of the legacy flat layout, see ZookeeperStoreStructure.
+  // Once enabled, new Frameworks are placed in the bucketed layout, and the existing Frameworks are kept in
+  // the legacy layout until they are migrated by migrateToBucketedLayout. During that time, all Frameworks
+  // are still readable since they are read from both layouts.
+  // Note the bucketed layout cannot be disabled once there are Frameworks in it.
+  public void setBucketedLayout(Boolean bucketedLayout) {
+    LOGGER.logInfo("Place Frameworks in ZK by BucketedLayout [%s]", bucketedLayout);
+    zkStruct = new ZookeeperStoreStructure(legacyZkStruct.getLauncherRootPath(), bucketedLayout);
+  }
+
+  // The layouts to read a Framework from, in the preferred order.
+  private List<ZookeeperStoreStructure> getStructures() {
+    ZookeeperStoreStructure struct = zkStruct;
+    return struct.getBucketed() ? Arrays.asList(struct, legacyZkStruct) : Collections.singletonList(struct);
+  }
+
+  // Read a Framework from the bucketed layout, and fall back to the legacy layout if it is not found there.
+  // The Framework root node in the bucketed layout is only readable after all its children are migrated,
+  // so a Framework being migrated is always read from one consistent layout.
+  private <T> T readFramework(StructureReader<T> reader) throws Exception {
+    ZookeeperStoreStructure struct = zkStruct;
+    try {
+      return reader.read(struct);
+    } catch (KeeperException.NoNodeException e) {
+      if (!struct.getBucketed()) {
+        throw e;
+      }
+      return reader.read(legacyZkStruct);
+    }
+  }
+
+  private interface StructureReader<T> {
+    T read(ZookeeperStoreStructure struct) throws Exception;
+  }
+
+  // Get the layout to write the Framework Request or Status to, i.e. the layout it already exists in,
+  // so that one Framework is never split into two layouts by its writers.
+  // New Frameworks are written to zkStruct, and the parent bucket node is also prepared for them.
+  private ZookeeperStoreStructure getWriteStructure(String frameworkName, Boolean isStatus) throws Exception {
+    ZookeeperStoreStructure struct = zkStruct;
+    if (!struct.getBucketed()) {
+      return struct;
+    }
+
+    String frameworkPath = isStatus ?
+        struct.getFrameworkStatusPath(frameworkName) : struct.getFrameworkRequestPath(frameworkName);
+    if (bucketedFrameworkPaths.contains(frameworkPath)) {
+      return struct;
+    }
+
+    String legacyFrameworkPath = isStatus ?
+        legacyZkStruct.getFrameworkStatusPath(frameworkName) : legacyZkStruct.getFrameworkRequestPath(frameworkName);
+    if (!zkClient.exists(frameworkPath) && zkClient.exists(legacyFrameworkPath)) {
+      return legacyZkStruct;
+    }
+
+    prepareBucket(isStatus ?
+        struct.getFrameworkStatusBucketPath(frameworkName) : struct.getFrameworkRequestBucketPath(frameworkName));
+    bucketedFrameworkPaths.add(frameworkPath);
+    return struct;
+  }
+
+  private void prepareBucket(String bucketPath) throws Exception {
+    if (!preparedBucketPaths.contains(bucketPath)) {
+      if (!zkClient.exists(bucketPath)) {
+        zkClient.createPath(bucketPath);
+      }
+      preparedBucketPaths.add(bucketPath);
+    }
+  }
+
+  // Get the FrameworkNames under the LauncherRequest or LauncherStatus node in both layouts.
+  // The buckets are listed in parallel like reading all Frameworks, and each of them only has about
+  // 1 / BUCKET_COUNT of all Frameworks, so no single getChildren response is too large.
+  private List<String> getFrameworkNames(String launcherPath) throws Exception {
+    Set<String> frameworkNames = new LinkedHashSet<>();
+    List<String> bucketNames = new ArrayList<>();
+    for (String nodeName : zkClient.getChildren(launcherPath)) {
+      if (ZookeeperStoreStructure.isBucketName(nodeName)) {
+        bucketNames.add(nodeName);
+      } else {
+        frameworkNames.add(nodeName);
+      }
+    }
+
+    Map<String, Future<List<String>>> reads = startReads(bucketNames,
+        bucketName -> zkClient.getChildren(ZookeeperStoreStructure.getNodePath(launcherPath, bucketName)));
+    try {
+      for (Future<List<String>> read : reads.values()) {
+        try {
+          frameworkNames.addAll(getReadResult(read));
+        } catch (KeeperException.NoNodeException ignored) {
+        }
+      }
+    } finally {
+      cancelReads(reads);
+    }
+    return new ArrayList<>(frameworkNames);
+  }
+
+  // Migrate the Frameworks in the legacy layout to the bucketed layout, and return the migrated FrameworkNames.
+  // It is online, i.e. readers can always read a Framework consistently during its migration by the dual-read.
+  // However, the writes to a Framework during its migration may be lost, so if completedOnly, only the
+  // FRAMEWORK_COMPLETED Frameworks are migrated, which are seldom written, and the others can be migrated
+  // by later calls after they are completed. Otherwise, all Frameworks are migrated, which should only be
+  // used when no Launcher process is running.
+  public List<String> migrateToBucketedLayout(Boolean completedOnly) throws Exception {
+    if (!zkStruct.getBucketed()) {
+      throw new NonTransientException("Cannot migrate Frameworks since BucketedLayout is not enabled");
+    }
+
+    Set<String> legacyFrameworkNames = new TreeSet<>();
+    for (String launcherPath : Arrays.asList(
+        legacyZkStruct.getLauncherRequestPath(), legacyZkStruct.getLauncherStatusPath())) {
+      if (zkClient.exists(launcherPath)) {
+        for (String nodeName : zkClient.getChildren(launcherPath)) {
+          if (!ZookeeperStoreStructure.isBucketName(nodeName)) {
+            legacyFrameworkNames.add(nodeName);
+          }
+        }
+      }
+    }
+
+    List<String> migratedFrameworkNames = new ArrayList<>();
+    for (String frameworkName : legacyFrameworkNames) {
+      if (completedOnly && !isLegacyFrameworkCompleted(frameworkName)) {
+        continue;
+      }
+
+      migrateFramework(frameworkName);
+      migratedFrameworkNames.add(frameworkName);
+    }
+
+    LOGGER.logInfo("Migrated %s of %s Frameworks to BucketedLayout: [CompletedOnly] = [%s]",
+        migratedFrameworkNames.size(), legacyFrameworkNames.size(), completedOnly);
+    return migratedFrameworkNames;
+  }
+
+  private Boolean isLegacyFrameworkCompleted(String frameworkName) throws Exception {
+    try {
+      return getFrameworkStatus(legacyZkStruct, frameworkName).getFrameworkState() ==
+          FrameworkState.FRAMEWORK_COMPLETED;
+    } catch (KeeperException.NoNodeException e) {
+      return false;
+    } catch (KeeperException e) {
+      throw e;
+    } catch (Exception e) {
+      LOGGER.logWarning(e,
+          "[%s]: isLegacyFrameworkCompleted: Got corrupted data, will not migrate it",
+          frameworkName);
+      return false;
+    }
+  }
+
+  // Copy the Framework to the bucketed layout, and then delete it from the legacy layout.
+  // The Framework root node is created as an empty placeholder, and it is set at last to publish
+  // the Framework in the bucketed layout, after all its children are copied.
+  private void migrateFramework(String frameworkName) throws Exception {
+    ZookeeperStoreStructure struct = zkStruct;
+
+    String legacyFrameworkRequestPath = legacyZkStruct.getFrameworkRequestPath(frameworkName);
+    if (zkClient.exists(legacyFrameworkRequestPath)) {
+      AggregatedFrameworkRequest aggFrameworkRequest =
+          getAggregatedFrameworkRequest(legacyZkStruct, frameworkName, false);
+      prepareBucket(struct.getFrameworkRequestBucketPath(frameworkName));
+      preparePlaceholder(struct.getFrameworkRequestPath(frameworkName));
+
+      if (aggFrameworkRequest.getOverrideApplicationProgressRequest() != null) {
+        zkClient.setSmallObject(struct.getOverrideApplicationProgressRequestPath(frameworkName),
+            aggFrameworkRequest.getOverrideApplicationProgressRequest());
+      }
+      zkClient.createPath(struct.getMigrateTaskRequestsPath(frameworkName));
+      if (aggFrameworkRequest.getMigrateTaskRequests() != null) {
+        for (Map.Entry<String, MigrateTaskRequest> migrateTaskRequest :
+            aggFrameworkRequest.getMigrateTaskRequests().entrySet()) {
+          zkClient.setSmallObject(struct.getMigrateTaskRequestPath(frameworkName, migrateTaskRequest.getKey()),
+              migrateTaskRequest.getValue());
+        }
+      }
+
+      zkClient.setSmallObject(struct.getFrameworkRequestPath(frameworkName),
+          aggFrameworkRequest.getFrameworkRequest());
+      bucketedFrameworkPaths.add(struct.getFrameworkRequestPath(frameworkName));
+      zkClient.deleteRecursively(legacyFrameworkRequestPath);
+    }
+
+    String legacyFrameworkStatusPath = legacyZkStruct.getFrameworkStatusPath(frameworkName);
+    if (zkClient.exists(legacyFrameworkStatusPath)) {
+      AggregatedFrameworkStatus aggFrameworkStatus =
+          getAggregatedFrameworkStatus(legacyZkStruct, frameworkName);
+      prepareBucket(struct.getFrameworkStatusBucketPath(frameworkName));
+      preparePlaceholder(struct.getFrameworkStatusPath(frameworkName));
+
+      for (Map.Entry<String, AggregatedTaskRoleStatus> aggTaskRoleStatus :
+          aggFrameworkStatus.getAggregatedTaskRoleStatuses().entrySet()) {
+        String taskRoleName = aggTaskRoleStatus.getKey();
+        zkClient.setSmallObject(struct.getTaskRoleStatusPath(frameworkName, taskRoleName),
+            aggTaskRoleStatus.getValue().getTaskRoleStatus());
+        setTaskStatuses(struct, frameworkName, taskRoleName, aggTaskRoleStatus.getValue().getTaskStatuses());
+      }
+
+      zkClient.setSmallObject(struct.getFrameworkStatusPath(frameworkName),
+          aggFrameworkStatus.getFrameworkStatus());
+      bucketedFrameworkPaths.add(struct.getFrameworkStatusPath(frameworkName));
+      zkClient.deleteRecursively(legacyFrameworkStatusPath);
+    }
+
+    LOGGER.logInfo("[%s]: Migrated to BucketedLayout", frameworkName);
+  }
+
+  private void preparePlaceholder(String frameworkPath) throws Exception {
+    // Keep the existing object, such as a previous migration was interrupted after it is published.
+    if (!zkClient.exists(frameworkPath)) {
+      zkClient.createPath(frameworkPath);
+    }
+  }
+
+  // Watchers
+  public ZookeeperStatusWatcher newStatusWatcher() {
+    return new ZookeeperStatusWatcher(zkClient, zkStruct);
+  }
+
+  public ZookeeperRequestWatcher newRequestWatcher() {
+    return new ZookeeperRequestWatcher(zkClient, zkStruct);
+  }
+
   // Requests
   public LauncherRequest getLauncherRequest() throws Exception {
     return zkClient.getSmallObject(
         zkStruct.getLauncherRequestPath(), LauncherRequest.class);
   }
 
+  // Same as getLauncherRequest, but it is cheap if the LauncherRequest is not changed since last call.
+  // Note the returned object is shared, so it MUST NOT be modified.
+  public LauncherRequest getCachedLauncherRequest() throws Exception {
+    return zkClient.getCachedSmallObject(
+        zkStruct.getLauncherRequestPath(), LauncherRequest.class);
+  }
+
   public void setLauncherRequest(LauncherRequest launcherRequest) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getLauncherRequestPath(), launcherRequest);
   }
 
   public FrameworkRequest getFrameworkRequest(String frameworkName) throws Exception {
+    return readFramework(struct -> getFrameworkRequest(struct, frameworkName));
+  }
+
+  private FrameworkRequest getFrameworkRequest(ZookeeperStoreStructure struct, String frameworkName) throws Exception {
     return zkClient.getSmallObject(
-        zkStruct.getFrameworkRequestPath(frameworkName), FrameworkRequest.class);
+        struct.getFrameworkRequestPath(frameworkName), FrameworkRequest.class);
+  }
+
+  // Same as getFrameworkRequest, but it is cheap if the FrameworkRequest is not changed since last call.
+  // Note the returned object is shared, so it MUST NOT be modified.
+  public FrameworkRequest getCachedFrameworkRequest(String frameworkName) throws Exception {
+    return readFramework(struct -> getCachedFrameworkRequest(struct, frameworkName));
+  }
+
+  private FrameworkRequest getCachedFrameworkRequest(ZookeeperStoreStructure struct, String frameworkName) throws Exception {
+    return zkClient.getCachedSmallObject(
+        struct.getFrameworkRequestPath(frameworkName), FrameworkRequest.class);
   }
 
   public void setFrameworkRequest(String frameworkName, FrameworkRequest frameworkRequest) throws Exception {
+    ZookeeperStoreStructure struct = getWriteStructure(frameworkName, false);
     zkClient.setSmallObject(
-        zkStruct.getFrameworkRequestPath(frameworkName), frameworkRequest);
+        struct.getFrameworkRequestPath(frameworkName), frameworkRequest);
 
     // Also prepare the dummy request node for its future child nodes
     zkClient.createPath(
-        zkStruct.getMigrateTaskRequestsPath(frameworkName));
+        struct.getMigrateTaskRequestsPath(frameworkName));
   }
 
   public void deleteFrameworkRequest(String frameworkName) throws Exception {
@@ -86,33 +468,52 @@ public void deleteFrameworkRequest(String frameworkName) throws Exception {
   }
 
   public void deleteFrameworkRequest(String frameworkName, Boolean childrenOnly) throws Exception {
-    zkClient.deleteRecursively(
-        zkStruct.getFrameworkRequestPath(frameworkName), childrenOnly);
+    for (ZookeeperStoreStructure struct : getStructures()) {
+      zkClient.deleteRecursively(
+          struct.getFrameworkRequestPath(frameworkName), childrenOnly);
+      if (!childrenOnly) {
+        bucketedFrameworkPaths.remove(struct.getFrameworkRequestPath(frameworkName));
+      }
+    }
   }
 
   public OverrideApplicationProgressRequest getOverrideApplicationProgressRequest(String frameworkName) throws Exception {
+    return readFramework(struct -> getOverrideApplicationProgressRequest(struct, frameworkName));
+  }
+
+  private OverrideApplicationProgressRequest getOverrideApplicationProgressRequest(
+      ZookeeperStoreStructure struct, String frameworkName) throws Exception {
     return zkClient.getSmallObject(
-        zkStruct.getOverrideApplicationProgressRequestPath(frameworkName), OverrideApplicationProgressRequest.class);
+        struct.getOverrideApplicationProgressRequestPath(frameworkName), OverrideApplicationProgressRequest.class);
   }
 
   public void setOverrideApplicationProgressRequest(String frameworkName, OverrideApplicationProgressRequest overrideApplicationProgressRequest) throws Exception {
     zkClient.setSmallObject(
-        zkStruct.getOverrideApplicationProgressRequestPath(frameworkName), overrideApplicationProgressRequest);
+        getWriteStructure(frameworkName, false).getOverrideApplicationProgressRequestPath(frameworkName),
+        overrideApplicationProgressRequest);
   }
 
   public MigrateTaskRequest getMigrateTaskRequest(String frameworkName, String containerId) throws Exception {
+    return readFramework(struct -> getMigrateTaskRequest(struct, frameworkName, containerId));
+  }
+
+  private MigrateTaskRequest getMigrateTaskRequest(
+      ZookeeperStoreStructure struct, String frameworkName, String containerId) throws Exception {
     return zkClient.getSmallObject(
-        zkStruct.getMigrateTaskRequestPath(frameworkName, containerId), MigrateTaskRequest.class);
+        struct.getMigrateTaskRequestPath(frameworkName, containerId), MigrateTaskRequest.class);
   }
 
   public void setMigrateTaskRequest(String frameworkName, String containerId, MigrateTaskRequest migrateTaskRequest) throws Exception {
     zkClient.setSmallObject(
-        zkStruct.getMigrateTaskRequestPath(frameworkName, containerId), migrateTaskRequest);
+        getWriteStructure(frameworkName, false).getMigrateTaskRequestPath(frameworkName, containerId),
+        migrateTaskRequest);
   }
 
   public void deleteMigrateTaskRequest(String frameworkName, String containerId) throws Exception {
-    zkClient.deleteRecursively(
-        zkStruct.getMigrateTaskRequestPath(frameworkName, containerId));
+    for (ZookeeperStoreStructure struct : getStructures()) {
+      zkClient.deleteRecursively(
+          struct.getMigrateTaskRequestPath(frameworkName, containerId));
+    }
   }
 
   // Statuses
@@ -127,13 +528,17 @@ public void setLauncherStatus(LauncherStatus launcherStatus) throws Exception {
   }
 
   public FrameworkStatus getFrameworkStatus(String frameworkName) throws Exception {
+    return readFramework(struct -> getFrameworkStatus(struct, frameworkName));
+  }
+
+  private FrameworkStatus getFrameworkStatus(ZookeeperStoreStructure struct, String frameworkName) throws Exception {
     return zkClient.getSmallObject(
-        zkStruct.getFrameworkStatusPath(frameworkName), FrameworkStatus.class);
+        struct.getFrameworkStatusPath(frameworkName), FrameworkStatus.class);
   }
 
   public void setFrameworkStatus(String frameworkName, FrameworkStatus frameworkStatus) throws Exception {
     zkClient.setSmallObject(
-        zkStruct.getFrameworkStatusPath(frameworkName), frameworkStatus);
+        getWriteStructure(frameworkName, true).getFrameworkStatusPath(frameworkName), frameworkStatus);
   }
 
   public void deleteFrameworkStatus(String frameworkName) throws Exception {
@@ -141,48 +546,271 @@ public void deleteFrameworkStatus(String frameworkName) throws Exception {
   }
 
   public void deleteFrameworkStatus(String frameworkName, Boolean childrenOnly) throws Exception {
-    zkClient.deleteRecursively(
-        zkStruct.getFrameworkStatusPath(frameworkName), childrenOnly);
+    for (ZookeeperStoreStructure struct : getStructures()) {
+      zkClient.deleteRecursively(
+          struct.getFrameworkStatusPath(frameworkName), childrenOnly);
+      if (!childrenOnly) {
+        bucketedFrameworkPaths.remove(struct.getFrameworkStatusPath(frameworkName));
+      }
+    }
   }
 
   public TaskRoleStatus getTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception {
+    return readFramework(struct -> getTaskRoleStatus(struct, frameworkName, taskRoleName));
+  }
+
+  private TaskRoleStatus getTaskRoleStatus(
+      ZookeeperStoreStructure struct, String frameworkName, String taskRoleName) throws Exception {
     return zkClient.getSmallObject(
-        zkStruct.getTaskRoleStatusPath(frameworkName, taskRoleName), TaskRoleStatus.class);
+        struct.getTaskRoleStatusPath(frameworkName, taskRoleName), TaskRoleStatus.class);
   }
 
   public void setTaskRoleStatus(String frameworkName, String taskRoleName, TaskRoleStatus taskRoleStatus) throws Exception {
     zkClient.setSmallObject(
-        zkStruct.getTaskRoleStatusPath(frameworkName, taskRoleName), taskRoleStatus);
+        getWriteStructure(frameworkName, true).getTaskRoleStatusPath(frameworkName, taskRoleName), taskRoleStatus);
   }
 
+  // Get the paged TaskStatuses if it exists, otherwise get the LargeObject TaskStatuses.
+  // DISTRIBUTED THREAD SAFE and Atomic
   public TaskStatuses getTaskStatuses(String frameworkName, String taskRoleName) throws Exception {
-    return zkClient.getLargeObject(
-        zkStruct.getTaskStatusesPath(frameworkName, taskRoleName), TaskStatuses.class);
+    return readFramework(struct -> getTaskStatuses(struct, frameworkName, taskRoleName));
   }
 
+  private TaskStatuses getTaskStatuses(
+      ZookeeperStoreStructure struct, String frameworkName, String taskRoleName) throws Exception {
+    while (true) {
+      TaskStatusesPageIndex pageIndex;
+      try {
+        pageIndex = getTaskStatusesPageIndex(struct, frameworkName, taskRoleName);
+      } catch (KeeperException.NoNodeException e) {
+        return zkClient.getLargeObject(
+            struct.getTaskStatusesPath(frameworkName, taskRoleName), TaskStatuses.class);
+      }
+
+      try {
+        return getTaskStatusesPages(struct, frameworkName, taskRoleName, pageIndex);
+      } catch (KeeperException.NoNodeException e) {
+        // The pages referenced by a PageIndex are immutable, and they can only be deleted after a newer
+        // PageIndex is published. So, always retry like CAS if the PageIndex is changed.
+        TaskStatusesPageIndex pageIndexAfterGet = getTaskStatusesPageIndex(struct, frameworkName, taskRoleName);
+        if (pageIndexAfterGet.getGeneration().equals(pageIndex.getGeneration())) {
+          throw new NonTransientException(String.format(
+              "[%s][%s]: Got corrupt TaskStatusesPages, but its PageIndex Generation %s is still the latest",
+              frameworkName, taskRoleName, pageIndex.getGeneration()), e);
+        }
+
+        LOGGER.logWarning(e,
+            "[%s][%s]: TaskStatusesPageIndex Generation changed from %s to %s during Get TaskStatusesPages, " +
+                "will retry again.",
+            frameworkName, taskRoleName, pageIndex.getGeneration(), pageIndexAfterGet.getGeneration());
+      }
+    }
+  }
+
+  public TaskStatusesPageIndex getTaskStatusesPageIndex(String frameworkName, String taskRoleName) throws Exception {
+    return readFramework(struct -> getTaskStatusesPageIndex(struct, frameworkName, taskRoleName));
+  }
+
+  private TaskStatusesPageIndex getTaskStatusesPageIndex(
+      ZookeeperStoreStructure struct, String frameworkName, String taskRoleName) throws Exception {
+    return zkClient.getSmallObject(
+        struct.getTaskStatusesPageIndexPath(frameworkName, taskRoleName), TaskStatusesPageIndex.class);
+  }
+
+  private TaskStatuses getTaskStatusesPages(
+      ZookeeperStoreStructure struct, String frameworkName, String taskRoleName,
+      TaskStatusesPageIndex pageIndex) throws Exception {
+    List<TaskStatus> taskStatusArray = new ArrayList<>(pageIndex.getTaskNumber());
+    List<Long> pageGenerations = pageIndex.getPageGenerations();
+    for (int page = 0; page < pageGenerations.size(); page++) {
+      TaskStatuses taskStatusesPage = zkClient.getSmallObject(
+          struct.getTaskStatusesPagePath(frameworkName, taskRoleName,
+              getTaskStatusesPageName(page, pageGenerations.get(page))),
+          TaskStatuses.class);
+      taskStatusArray.addAll(taskStatusesPage.getTaskStatusArray());
+    }
+
+    if (taskStatusArray.size() != pageIndex.getTaskNumber()) {
+      throw new NonTransientException(String.format(
+          "[%s][%s]: Got %s Tasks from TaskStatusesPages, but TaskStatusesPageIndex Generation %s has %s Tasks",
+          frameworkName, taskRoleName, taskStatusArray.size(), pageIndex.getGeneration(), pageIndex.getTaskNumber()));
+    }
+
+    TaskStatuses taskStatuses = new TaskStatuses();
+    taskStatuses.setTaskRoleName(pageIndex.getTaskRoleName());
+    taskStatuses.setFrameworkVersion(pageIndex.getFrameworkVersion());
+    taskStatuses.setTaskStatusArray(taskStatusArray);
+    return taskStatuses;
+  }
+
+  // Set the whole TaskStatuses as one LargeObject
   public void setTaskStatuses(String frameworkName, String taskRoleName, TaskStatuses taskStatuses) throws Exception {
+    setTaskStatuses(getWriteStructure(frameworkName, true), frameworkName, taskRoleName, taskStatuses);
+  }
+
+  private void setTaskStatuses(
+      ZookeeperStoreStructure struct, String frameworkName, String taskRoleName,
+      TaskStatuses taskStatuses) throws Exception {
     zkClient.setLargeObject(
-        zkStruct.getTaskStatusesPath(frameworkName, taskRoleName), taskStatuses);
+        struct.getTaskStatusesPath(frameworkName, taskRoleName), taskStatuses);
+
+    // The paged TaskStatuses is preferred by readers, so it must be deleted
+    zkClient.deleteRecursively(struct.getTaskStatusesPageIndexPath(frameworkName, taskRoleName));
+    zkClient.deleteRecursively(struct.getTaskStatusesPagesPath(frameworkName, taskRoleName));
+  }
+
+  // Set the TaskStatuses by pages with pageSize Tasks each:
+  //  1. Set the changed pages as new immutable nodes, i.e. the pages containing changedTaskIndexes, and the
+  //  pages which are affected by the TaskNumber change since persistedPageIndex.
+  //  2. Publish the new PageIndex which references both the new pages and the unchanged pages.
+  //  3. GC the pages which are not referenced any more.
+  // All pages are set if persistedPageIndex or changedTaskIndexes is null, and in that case, the leftover
+  // nodes, such as the pages from a crashed writer and the LargeObject TaskStatuses, are also GC.
+  // Return the new PageIndex, which should be passed as the persistedPageIndex of the next call.
+  // Note it should only be called by one writer at a time, i.e. the AM.
+  // DISTRIBUTED THREAD SAFE and Atomic for readers
+  public TaskStatusesPageIndex setTaskStatuses(
+      String frameworkName, String taskRoleName, TaskStatuses taskStatuses, Integer pageSize,
+      TaskStatusesPageIndex persistedPageIndex, Set<Integer> changedTaskIndexes) throws Exception {
+    ZookeeperStoreStructure struct = getWriteStructure(frameworkName, true);
+    List<TaskStatus> taskStatusArray = taskStatuses.getTaskStatusArray();
+    int taskNumber = taskStatusArray.size();
+    int pageCount = (taskNumber + pageSize - 1) / pageSize;
+    Boolean setAllPages = (persistedPageIndex == null || changedTaskIndexes == null ||
+        !persistedPageIndex.getPageSize().equals(pageSize));
+
+    Long generation;
+    Set<Integer> changedPages = new HashSet<>();
+    if (setAllPages) {
+      generation = getLatestTaskStatusesPageGeneration(struct, frameworkName, taskRoleName) + 1;
+    } else {
+      generation = persistedPageIndex.getGeneration() + 1;
+      for (Integer taskIndex : changedTaskIndexes) {
+        if (taskIndex < taskNumber) {
+          changedPages.add(taskIndex / pageSize);
+        }
+      }
+
+      int persistedTaskNumber = persistedPageIndex.getTaskNumber();
+      if (persistedTaskNumber != taskNumber) {
+        // The page across the TaskNumber boundary is changed, and the pages after it are added or removed.
+        for (int page = Math.min(persistedTaskNumber, taskNumber) / pageSize; page < pageCount; page++) {
+          changedPages.add(page);
+        }
+      }
+    }
+
+    String pagesPath = struct.getTaskStatusesPagesPath(frameworkName, taskRoleName);
+    if (!zkClient.exists(pagesPath)) {
+      zkClient.createPath(pagesPath);
+    }
+
+    List<Long> pageGenerations = new ArrayList<>();
+    for (int page = 0; page < pageCount; page++) {
+      if (setAllPages || changedPages.contains(page)) {
+        int pageStartIndex = page * pageSize;
+        int pageEndIndex = Math.min(taskNumber, pageStartIndex + pageSize);
+
+        TaskStatuses taskStatusesPage = new TaskStatuses();
+        taskStatusesPage.setTaskRoleName(taskStatuses.getTaskRoleName());
+        taskStatusesPage.setFrameworkVersion(taskStatuses.getFrameworkVersion());
+        taskStatusesPage.setTaskStatusArray(new ArrayList<>(taskStatusArray.subList(pageStartIndex, pageEndIndex)));
+
+        zkClient.setSmallObject(
+            struct.getTaskStatusesPagePath(frameworkName, taskRoleName, getTaskStatusesPageName(page, generation)),
+            taskStatusesPage);
+        pageGenerations.add(generation);
+      } else {
+        pageGenerations.add(persistedPageIndex.getPageGenerations().get(page));
+      }
+    }
+
+    TaskStatusesPageIndex pageIndex = new TaskStatusesPageIndex();
+    pageIndex.setTaskRoleName(taskStatuses.getTaskRoleName());
+    pageIndex.setFrameworkVersion(taskStatuses.getFrameworkVersion());
+    pageIndex.setGeneration(generation);
+    pageIndex.setTaskNumber(taskNumber);
+    pageIndex.setPageSize(pageSize);
+    pageIndex.setPageGenerations(pageGenerations);
+    zkClient.setSmallObject(
+        struct.getTaskStatusesPageIndexPath(frameworkName, taskRoleName), pageIndex);
+
+    if (setAllPages) {
+      Set<String> referencedPageNames = new HashSet<>();
+      for (int page = 0; page < pageGenerations.size(); page++) {
+        referencedPageNames.add(getTaskStatusesPageName(page, pageGenerations.get(page)));
+      }
+      for (String pageName : zkClient.getChildren(pagesPath)) {
+        if (TASK_STATUSES_PAGE_NAME_PATTERN.matcher(pageName).matches() &&
+            !referencedPageNames.contains(pageName)) {
+          zkClient.deleteRecursively(struct.getTaskStatusesPagePath(frameworkName, taskRoleName, pageName));
+        }
+      }
+      zkClient.deleteRecursively(struct.getTaskStatusesPath(frameworkName, taskRoleName));
+    } else {
+      List<Long> persistedPageGenerations = persistedPageIndex.getPageGenerations();
+      for (int page = 0; page < persistedPageGenerations.size(); page++) {
+        if (page >= pageCount || !persistedPageGenerations.get(page).equals(pageGenerations.get(page))) {
+          zkClient.deleteRecursively(struct.getTaskStatusesPagePath(frameworkName, taskRoleName,
+              getTaskStatusesPageName(page, persistedPageGenerations.get(page))));
+        }
+      }
+    }
+
+    return pageIndex;
+  }
+
+  private Long getLatestTaskStatusesPageGeneration(
+      ZookeeperStoreStructure struct, String frameworkName, String taskRoleName) throws Exception {
+    try {
+      return getTaskStatusesPageIndex(struct, frameworkName, taskRoleName).getGeneration();
+    } catch (KeeperException.NoNodeException e) {
+      return 0L;
+    } catch (KeeperException e) {
+      throw e;
+    } catch (Exception e) {
+      LOGGER.logWarning(e,
+          "[%s][%s]: Got corrupted TaskStatusesPageIndex, will override it",
+          frameworkName, taskRoleName);
+      return 0L;
+    }
+  }
+
+  private static String getTaskStatusesPageName(int page, Long pageGeneration) {
+    return page + "-" + pageGeneration;
   }
 
 
   // AggregatedRequests
   public AggregatedFrameworkRequest getAggregatedFrameworkRequest(String frameworkName) throws Exception {
+    return getAggregatedFrameworkRequest(frameworkName, false);
+  }
+
+  // If cachedFrameworkRequest is true, the FrameworkRequest is got by getCachedFrameworkRequest,
+  // so it MUST NOT be modified.
+  public AggregatedFrameworkRequest getAggregatedFrameworkRequest(
+      String frameworkName, Boolean cachedFrameworkRequest) throws Exception {
+    return readFramework(struct -> getAggregatedFrameworkRequest(struct, frameworkName, cachedFrameworkRequest));
+  }
+
+  private AggregatedFrameworkRequest getAggregatedFrameworkRequest(
+      ZookeeperStoreStructure struct, String frameworkName, Boolean cachedFrameworkRequest) throws Exception {
     AggregatedFrameworkRequest aggregatedFrameworkRequest = new AggregatedFrameworkRequest();
 
-    aggregatedFrameworkRequest.setFrameworkRequest(getFrameworkRequest(frameworkName));
+    aggregatedFrameworkRequest.setFrameworkRequest(cachedFrameworkRequest ?
+        getCachedFrameworkRequest(struct, frameworkName) : getFrameworkRequest(struct, frameworkName));
 
     try {
-      aggregatedFrameworkRequest.setOverrideApplicationProgressRequest(getOverrideApplicationProgressRequest(frameworkName));
+      aggregatedFrameworkRequest.setOverrideApplicationProgressRequest(getOverrideApplicationProgressRequest(struct, frameworkName));
     } catch (KeeperException.NoNodeException e) {
       aggregatedFrameworkRequest.setOverrideApplicationProgressRequest(null);
     }
 
     try {
       aggregatedFrameworkRequest.setMigrateTaskRequests(new HashMap<>());
-      for (String containerId : zkClient.getChildren(zkStruct.getMigrateTaskRequestsPath(frameworkName))) {
+      for (String containerId : zkClient.getChildren(struct.getMigrateTaskRequestsPath(frameworkName))) {
         try {
-          aggregatedFrameworkRequest.getMigrateTaskRequests().put(containerId, getMigrateTaskRequest(frameworkName, containerId));
+          aggregatedFrameworkRequest.getMigrateTaskRequests().put(containerId, getMigrateTaskRequest(struct, frameworkName, containerId));
         } catch (KeeperException.NoNodeException ignored) {
         }
       }
@@ -198,11 +826,18 @@ public AggregatedLauncherRequest getAggregatedLauncherRequest() throws Exception
 
     aggregatedLauncherRequest.setLauncherRequest(getLauncherRequest());
     aggregatedLauncherRequest.setAggregatedFrameworkRequests(new HashMap<>());
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherRequestPath())) {
-      try {
-        aggregatedLauncherRequest.getAggregatedFrameworkRequests().put(frameworkName, getAggregatedFrameworkRequest(frameworkName));
-      } catch (KeeperException.NoNodeException ignored) {
+    Map<String, Future<AggregatedFrameworkRequest>> reads = startReads(
+        getFrameworkNames(zkStruct.getLauncherRequestPath()), this::getAggregatedFrameworkRequest);
+    try {
+      for (Map.Entry<String, Future<AggregatedFrameworkRequest>> read : reads.entrySet()) {
+        String frameworkName = read.getKey();
+        try {
+          aggregatedLauncherRequest.getAggregatedFrameworkRequests().put(frameworkName, getReadResult(read.getValue()));
+        } catch (KeeperException.NoNodeException ignored) {
+        }
       }
+    } finally {
+      cancelReads(reads);
     }
 
     return aggregatedLauncherRequest;
@@ -211,31 +846,48 @@ public AggregatedLauncherRequest getAggregatedLauncherRequest() throws Exception
   // Specialization for performance
   public Map<String, FrameworkRequest> getAllFrameworkRequests() throws Exception {
     Map<String, FrameworkRequest> allFrameworkRequests = new HashMap<>();
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherRequestPath())) {
-      try {
-        allFrameworkRequests.put(frameworkName, getFrameworkRequest(frameworkName));
-      } catch (KeeperException.NoNodeException ignored) {
+    Map<String, Future<FrameworkRequest>> reads = startReads(
+        getFrameworkNames(zkStruct.getLauncherRequestPath()), this::getFrameworkRequest);
+    try {
+      for (Map.Entry<String, Future<FrameworkRequest>> read : reads.entrySet()) {
+        String frameworkName = read.getKey();
+        try {
+          allFrameworkRequests.put(frameworkName, getReadResult(read.getValue()));
+        } catch (KeeperException.NoNodeException ignored) {
+        }
       }
+    } finally {
+      cancelReads(reads);
     }
     return allFrameworkRequests;
   }
 
   // AggregatedStatuses
   public AggregatedTaskRoleStatus getAggregatedTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception {
+    return readFramework(struct -> getAggregatedTaskRoleStatus(struct, frameworkName, taskRoleName));
+  }
+
+  private AggregatedTaskRoleStatus getAggregatedTaskRoleStatus(
+      ZookeeperStoreStructure struct, String frameworkName, String taskRoleName) throws Exception {
     AggregatedTaskRoleStatus aggregatedTaskRoleStatus = new AggregatedTaskRoleStatus();
-    aggregatedTaskRoleStatus.setTaskRoleStatus(getTaskRoleStatus(frameworkName, taskRoleName));
-    aggregatedTaskRoleStatus.setTaskStatuses(getTaskStatuses(frameworkName, taskRoleName));
+    aggregatedTaskRoleStatus.setTaskRoleStatus(getTaskRoleStatus(struct, frameworkName, taskRoleName));
+    aggregatedTaskRoleStatus.setTaskStatuses(getTaskStatuses(struct, frameworkName, taskRoleName));
     return aggregatedTaskRoleStatus;
   }
 
   public AggregatedFrameworkStatus getAggregatedFrameworkStatus(String frameworkName) throws Exception {
+    return readFramework(struct -> getAggregatedFrameworkStatus(struct, frameworkName));
+  }
+
+  private AggregatedFrameworkStatus getAggregatedFrameworkStatus(
+      ZookeeperStoreStructure struct, String frameworkName) throws Exception {
     AggregatedFrameworkStatus aggregatedFrameworkStatus = new AggregatedFrameworkStatus();
-    aggregatedFrameworkStatus.setFrameworkStatus(getFrameworkStatus(frameworkName));
+    aggregatedFrameworkStatus.setFrameworkStatus(getFrameworkStatus(struct, frameworkName));
 
     aggregatedFrameworkStatus.setAggregatedTaskRoleStatuses(new HashMap<>());
-    for (String taskRoleName : zkClient.getChildren(zkStruct.getFrameworkStatusPath(frameworkName))) {
+    for (String taskRoleName : zkClient.getChildren(struct.getFrameworkStatusPath(frameworkName))) {
       try {
-        aggregatedFrameworkStatus.getAggregatedTaskRoleStatuses().put(taskRoleName, getAggregatedTaskRoleStatus(frameworkName, taskRoleName));
+        aggregatedFrameworkStatus.getAggregatedTaskRoleStatuses().put(taskRoleName, getAggregatedTaskRoleStatus(struct, frameworkName, taskRoleName));
       } catch (KeeperException.NoNodeException ignored) {
       }
     }
@@ -250,22 +902,32 @@ public AggregatedLauncherStatus getAggregatedLauncherStatus(Set<String> excluded
     AggregatedLauncherStatus aggregatedLauncherStatus = new AggregatedLauncherStatus();
     aggregatedLauncherStatus.setLauncherStatus(getLauncherStatus());
     aggregatedLauncherStatus.setAggregatedFrameworkStatuses(new HashMap<>());
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherStatusPath())) {
-      if (excludedFrameworkNames.contains(frameworkName)) {
-        continue;
+    List<String> frameworkNames = new ArrayList<>();
+    for (String frameworkName : getFrameworkNames(zkStruct.getLauncherStatusPath())) {
+      if (!excludedFrameworkNames.contains(frameworkName)) {
+        frameworkNames.add(frameworkName);
       }
+    }
 
-      try {
-        aggregatedLauncherStatus.getAggregatedFrameworkStatuses().put(frameworkName, getAggregatedFrameworkStatus(frameworkName));
-      } catch (KeeperException.NoNodeException ignored) {
-      } catch (KeeperException e) {
-        throw e;
-      } catch (Exception e) {
-        LOGGER.logWarning(e,
-            "[%s]: getAggregatedLauncherStatus: Got corrupted data",
-            frameworkName);
-        aggregatedLauncherStatus.getAggregatedFrameworkStatuses().put(frameworkName, null);
+    Map<String, Future<AggregatedFrameworkStatus>> reads =
+        startReads(frameworkNames, this::getAggregatedFrameworkStatus);
+    try {
+      for (Map.Entry<String, Future<AggregatedFrameworkStatus>> read : reads.entrySet()) {
+        String frameworkName = read.getKey();
+        try {
+          aggregatedLauncherStatus.getAggregatedFrameworkStatuses().put(frameworkName, getReadResult(read.getValue()));
+        } catch (KeeperException.NoNodeException ignored) {
+        } catch (KeeperException e) {
+          throw e;
+        } catch (Exception e) {
+          LOGGER.logWarning(e,
+              "[%s]: getAggregatedLauncherStatus: Got corrupted data",
+              frameworkName);
+          aggregatedLauncherStatus.getAggregatedFrameworkStatuses().put(frameworkName, null);
+        }
       }
+    } finally {
+      cancelReads(reads);
     }
     return aggregatedLauncherStatus;
   }
@@ -273,18 +935,25 @@ public AggregatedLauncherStatus getAggregatedLauncherStatus(Set<String> excluded
   // Specialization for performance
   public Map<String, FrameworkStatus> getAllFrameworkStatuses() throws Exception {
     Map<String, FrameworkStatus> allFrameworkStatuses = new HashMap<>();
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherStatusPath())) {
-      try {
-        allFrameworkStatuses.put(frameworkName, getFrameworkStatus(frameworkName));
-      } catch (KeeperException.NoNodeException ignored) {
-      } catch (KeeperException e) {
-        throw e;
-      } catch (Exception e) {
-        LOGGER.logWarning(e,
-            "[%s]: getAllFrameworkStatuses: Got corrupted data",
-            frameworkName);
-        allFrameworkStatuses.put(frameworkName, null);
+    Map<String, Future<FrameworkStatus>> reads = startReads(
+        getFrameworkNames(zkStruct.getLauncherStatusPath()), this::getFrameworkStatus);
+    try {
+      for (Map.Entry<String, Future<FrameworkStatus>> read : reads.entrySet()) {
+        String frameworkName = read.getKey();
+        try {
+          allFrameworkStatuses.put(frameworkName, getReadResult(read.getValue()));
+        } catch (KeeperException.NoNodeException ignored) {
+        } catch (KeeperException e) {
+          throw e;
+        } catch (Exception e) {
+          LOGGER.logWarning(e,
+              "[%s]: getAllFrameworkStatuses: Got corrupted data",
+              frameworkName);
+          allFrameworkStatuses.put(frameworkName, null);
+        }
       }
+    } finally {
+      cancelReads(reads);
     }
     return allFrameworkStatuses;
   }
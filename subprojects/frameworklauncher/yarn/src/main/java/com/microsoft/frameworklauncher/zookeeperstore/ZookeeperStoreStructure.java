@@ -19,14 +19,31 @@
 
 import org.apache.commons.lang.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
 public class ZookeeperStoreStructure {
   private static final String PATH_SEPARATOR = "/";
+  // In the bucketed layout, the Framework nodes under Requests and Statuses are spread into
+  // BUCKET_COUNT bucket nodes by the hash of the FrameworkName, so that no node has too many
+  // children to list, i.e. Requests/{Bucket}/{FrameworkName} instead of Requests/{FrameworkName}.
+  // The bucket name starts with BUCKET_NAME_PREFIX which is not allowed in a FrameworkName, so
+  // the buckets and the Frameworks in the legacy flat layout can coexist during the migration.
+  // Note the BUCKET_COUNT and the hash MUST NOT be changed once there are buckets in ZK.
+  public static final int BUCKET_COUNT = 256;
+  public static final String BUCKET_NAME_PREFIX = "@";
   private final String launcherRootPath;
   private final String launcherRequestPath;
   private final String launcherStatusPath;
+  private final Boolean bucketed;
 
   public ZookeeperStoreStructure(String launcherRootPath) {
+    this(launcherRootPath, false);
+  }
+
+  public ZookeeperStoreStructure(String launcherRootPath, Boolean bucketed) {
     this.launcherRootPath = launcherRootPath;
+    this.bucketed = bucketed;
     launcherRequestPath = getNodePath(this.launcherRootPath, "Requests");
     launcherStatusPath = getNodePath(this.launcherRootPath, "Statuses");
   }
@@ -45,6 +62,26 @@ public static String getNodeName(String path) {
     return path.substring(s, t + 1);
   }
 
+  // The hash is stable across processes and Launcher versions.
+  public static String getBucketName(String frameworkName) {
+    CRC32 crc32 = new CRC32();
+    crc32.update(frameworkName.getBytes(StandardCharsets.UTF_8));
+    return String.format("%s%02x", BUCKET_NAME_PREFIX, crc32.getValue() % BUCKET_COUNT);
+  }
+
+  public static Boolean isBucketName(String nodeName) {
+    return nodeName.startsWith(BUCKET_NAME_PREFIX);
+  }
+
+  public Boolean getBucketed() {
+    return bucketed;
+  }
+
+  // The structure of the legacy flat layout with the same LauncherRootPath
+  public ZookeeperStoreStructure getLegacyStructure() {
+    return bucketed ? new ZookeeperStoreStructure(launcherRootPath, false) : this;
+  }
+
   public String getLauncherRootPath() {
     return launcherRootPath;
   }
@@ -54,8 +91,12 @@ public String getLauncherRequestPath() {
     return launcherRequestPath;
   }
 
+  public String getFrameworkRequestBucketPath(String frameworkName) {
+    return getNodePath(getLauncherRequestPath(), getBucketName(frameworkName));
+  }
+
   public String getFrameworkRequestPath(String frameworkName) {
-    return getNodePath(getLauncherRequestPath(), frameworkName);
+    return getNodePath(bucketed ? getFrameworkRequestBucketPath(frameworkName) : getLauncherRequestPath(), frameworkName);
   }
 
   public String getOverrideApplicationProgressRequestPath(String frameworkName) {
@@ -75,8 +116,12 @@ public String getLauncherStatusPath() {
     return launcherStatusPath;
   }
 
+  public String getFrameworkStatusBucketPath(String frameworkName) {
+    return getNodePath(getLauncherStatusPath(), getBucketName(frameworkName));
+  }
+
   public String getFrameworkStatusPath(String frameworkName) {
-    return getNodePath(getLauncherStatusPath(), frameworkName);
+    return getNodePath(bucketed ? getFrameworkStatusBucketPath(frameworkName) : getLauncherStatusPath(), frameworkName);
   }
 
   public String getTaskRoleStatusPath(String frameworkName, String taskRoleName) {
@@ -86,4 +131,16 @@ public String getTaskRoleStatusPath(String frameworkName, String taskRoleName) {
   public String getTaskStatusesPath(String frameworkName, String taskRoleName) {
     return getNodePath(getTaskRoleStatusPath(frameworkName, taskRoleName), "TaskStatuses");
   }
+
+  public String getTaskStatusesPageIndexPath(String frameworkName, String taskRoleName) {
+    return getNodePath(getTaskRoleStatusPath(frameworkName, taskRoleName), "TaskStatusesPageIndex");
+  }
+
+  public String getTaskStatusesPagesPath(String frameworkName, String taskRoleName) {
+    return getNodePath(getTaskRoleStatusPath(frameworkName, taskRoleName), "TaskStatusesPages");
+  }
+
+  public String getTaskStatusesPagePath(String frameworkName, String taskRoleName, String pageName) {
+    return getNodePath(getTaskStatusesPagesPath(frameworkName, taskRoleName), pageName);
+  }
 }
@@ -31,7 +31,7 @@ public class MockApplicationMaster extends ApplicationMaster {
 
   @Override
   protected void initialize() throws Exception {
-    transitionTaskStateQueue = new SystemTaskQueue(this::handleException);
+    transitionTaskStateQueue = new SystemTaskQueue("TransitionTaskStateQueue", this::handleException);
 
     // Initialize AM NoDependenceConfig
     conf = new MockConfiguration();
@@ -0,0 +1,125 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.AdmissionControllerMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class AdmissionControllerTest {
+  // Slow enough so that no token is refilled during the test
+  private static final double SLOW_RATE_PER_SEC = 0.001;
+
+  @Test
+  public void testLimits() throws Exception {
+    AdmissionController controller = new AdmissionController("TestController",
+        new AdmissionController.Limit(SLOW_RATE_PER_SEC, 3),
+        new AdmissionController.Limit(SLOW_RATE_PER_SEC, 2),
+        new AdmissionController.Limit(0, 0),
+        0, 1000);
+
+    Assert.assertEquals(3, controller.getAvailableCount());
+    Assert.assertTrue(controller.tryAdmit("a", "user1", "queue1"));
+    Assert.assertTrue(controller.tryAdmit("b", "user1", "queue1"));
+    // Denied by the user limit, and no token is taken from the global bucket
+    Assert.assertFalse(controller.tryAdmit("c", "user1", "queue1"));
+    Assert.assertEquals(1, controller.getAvailableCount());
+    Assert.assertTrue(controller.tryAdmit("d", "user2", "queue1"));
+    // Denied by the global limit
+    Assert.assertFalse(controller.tryAdmit("e", "user2", "queue1"));
+    Assert.assertEquals(0, controller.getAvailableCount());
+
+    AdmissionControllerMetrics metrics = controller.getMetrics();
+    Assert.assertEquals("TestController", metrics.getControllerName());
+    Assert.assertEquals(3, (long) metrics.getAdmittedCount());
+    Assert.assertEquals(2, (long) metrics.getDeniedCount());
+    Assert.assertEquals(2, (int) metrics.getWaitingCount());
+    Assert.assertEquals(3, (long) metrics.getWaitTimeHistogram().getCount());
+
+    controller.retainWaiting(Collections.singleton("c"));
+    Assert.assertEquals(1, (int) controller.getMetrics().getWaitingCount());
+  }
+
+  @Test
+  public void testCancelAdmitted() throws Exception {
+    AdmissionController controller = new AdmissionController("TestController",
+        new AdmissionController.Limit(SLOW_RATE_PER_SEC, 2),
+        new AdmissionController.Limit(SLOW_RATE_PER_SEC, 1),
+        new AdmissionController.Limit(SLOW_RATE_PER_SEC, 1),
+        0, 1000);
+
+    Assert.assertTrue(controller.tryAdmit("a", "user1", "queue1"));
+    Assert.assertFalse(controller.tryAdmit("b", "user1", "queue1"));
+    Assert.assertEquals(1, controller.getAvailableCount());
+
+    // The tokens are returned to all the buckets
+    controller.cancelAdmitted("user1", "queue1");
+    Assert.assertEquals(2, controller.getAvailableCount());
+    Assert.assertTrue(controller.tryAdmit("b", "user1", "queue1"));
+    Assert.assertTrue(controller.tryAdmit("c", "user2", "queue2"));
+    Assert.assertEquals(0, controller.getAvailableCount());
+
+    // The returned tokens can be taken by others
+    controller.cancelAdmitted("user1", "queue1");
+    controller.cancelAdmitted("user2", "queue2");
+    Assert.assertEquals(2, controller.getAvailableCount());
+    Assert.assertTrue(controller.tryAdmit("d", "user1", "queue1"));
+    Assert.assertFalse(controller.tryAdmit("e", "user1", "queue2"));
+
+    AdmissionControllerMetrics metrics = controller.getMetrics();
+    Assert.assertEquals(1, (long) metrics.getAdmittedCount());
+    Assert.assertEquals(3, (long) metrics.getCanceledCount());
+  }
+
+  @Test
+  public void testAdaptiveRate() throws Exception {
+    AdmissionController controller = new AdmissionController("TestController",
+        new AdmissionController.Limit(10, 10),
+        new AdmissionController.Limit(0, 0),
+        new AdmissionController.Limit(0, 0),
+        1, 100);
+
+    // Multiplicative decrease for failed and slow operations
+    controller.onOperationCompleted(10, true);
+    Assert.assertEquals(5, controller.getMetrics().getCurrentRatePerSec(), 0.001);
+    controller.onOperationCompleted(500, false);
+    Assert.assertEquals(4.5, controller.getMetrics().getCurrentRatePerSec(), 0.001);
+
+    // Additive increase for fast operations
+    controller.onOperationCompleted(10, false);
+    Assert.assertEquals(5.5, controller.getMetrics().getCurrentRatePerSec(), 0.001);
+
+    // Bounded by the max and min rate
+    for (int i = 0; i < 20; i++) {
+      controller.onOperationCompleted(10, false);
+    }
+    Assert.assertEquals(10, controller.getMetrics().getCurrentRatePerSec(), 0.001);
+    for (int i = 0; i < 20; i++) {
+      controller.onOperationCompleted(10, true);
+    }
+    Assert.assertEquals(1, controller.getMetrics().getCurrentRatePerSec(), 0.001);
+
+    AdmissionControllerMetrics metrics = controller.getMetrics();
+    Assert.assertEquals(22, (long) metrics.getSucceededCount());
+    Assert.assertEquals(21, (long) metrics.getFailedCount());
+    Assert.assertEquals(1, (long) metrics.getSlowCount());
+    Assert.assertEquals(43, (long) metrics.getOperationTimeHistogram().getCount());
+  }
+}
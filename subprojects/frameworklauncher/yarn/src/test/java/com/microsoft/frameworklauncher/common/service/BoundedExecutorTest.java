@@ -0,0 +1,92 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.BoundedExecutorMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedExecutorTest {
+  @Test
+  public void testBackpressure() throws Exception {
+    CountDownLatch completedLatch = new CountDownLatch(3);
+    BoundedExecutor executor = new BoundedExecutor(
+        "TestExecutor", 2, 3, this::handleException, completedLatch::countDown);
+    AtomicInteger maxRunningCount = new AtomicInteger(0);
+    AtomicInteger runningCount = new AtomicInteger(0);
+    CountDownLatch startedLatch = new CountDownLatch(2);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(executor.tryAdmit());
+      executor.submit(() -> {
+        maxRunningCount.accumulateAndGet(runningCount.incrementAndGet(), Math::max);
+        startedLatch.countDown();
+        releaseLatch.await(30, TimeUnit.SECONDS);
+        runningCount.decrementAndGet();
+      });
+    }
+
+    // Running and queued Tasks reach the maxPendingCount
+    Assert.assertEquals(0, executor.getAvailableCount());
+    Assert.assertFalse(executor.tryAdmit());
+
+    // Only parallelism Tasks are running
+    Assert.assertTrue(startedLatch.await(30, TimeUnit.SECONDS));
+    releaseLatch.countDown();
+    Assert.assertTrue(completedLatch.await(30, TimeUnit.SECONDS));
+    Assert.assertEquals(2, maxRunningCount.get());
+    Assert.assertEquals(3, executor.getAvailableCount());
+    Assert.assertTrue(executor.tryAdmit());
+
+    BoundedExecutorMetrics metrics = executor.getMetrics();
+    Assert.assertEquals("TestExecutor", metrics.getExecutorName());
+    Assert.assertEquals(0, (int) metrics.getRunningCount());
+    Assert.assertEquals(0, (int) metrics.getQueuedCount());
+    Assert.assertEquals(3, (long) metrics.getSubmittedCount());
+    Assert.assertEquals(3, (long) metrics.getCompletedCount());
+    Assert.assertEquals(0, (long) metrics.getFailedCount());
+    Assert.assertEquals(1, (long) metrics.getDeferredCount());
+    Assert.assertEquals(3, (long) metrics.getExecutionTimeHistogram().getCount());
+  }
+
+  @Test
+  public void testFailedTask() throws Exception {
+    CountDownLatch completedLatch = new CountDownLatch(1);
+    AtomicInteger handledExceptionCount = new AtomicInteger(0);
+    BoundedExecutor executor = new BoundedExecutor("TestExecutor", 1, 1, e -> {
+      handledExceptionCount.incrementAndGet();
+      return true;
+    }, completedLatch::countDown);
+
+    executor.submit(() -> {
+      throw new Exception("TestException");
+    });
+    Assert.assertTrue(completedLatch.await(30, TimeUnit.SECONDS));
+    Assert.assertEquals(1, handledExceptionCount.get());
+    Assert.assertEquals(1, (long) executor.getMetrics().getFailedCount());
+  }
+
+  private Boolean handleException(Exception e) {
+    throw new AssertionError("Unexpected exception in Task", e);
+  }
+}
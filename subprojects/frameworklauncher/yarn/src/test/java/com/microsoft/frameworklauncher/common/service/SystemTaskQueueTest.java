@@ -0,0 +1,268 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.SystemTaskMetrics;
+import com.microsoft.frameworklauncher.common.model.SystemTaskQueueMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SystemTaskQueueTest {
+  private static final int KEY_COUNT = 8;
+  private static final int TASK_COUNT_PER_KEY = 50;
+
+  @Test
+  public void testKeyedTaskOrder() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::handleException, 4);
+    try {
+      List<List<Integer>> executedTasks = new ArrayList<>();
+      for (int k = 0; k < KEY_COUNT; k++) {
+        executedTasks.add(Collections.synchronizedList(new ArrayList<>()));
+      }
+
+      CountDownLatch latch = new CountDownLatch(KEY_COUNT * TASK_COUNT_PER_KEY);
+      for (int i = 0; i < TASK_COUNT_PER_KEY; i++) {
+        for (int k = 0; k < KEY_COUNT; k++) {
+          List<Integer> keyExecutedTasks = executedTasks.get(k);
+          int taskIndex = i;
+          queue.queueSystemTask(new SystemTask("KeyedTask", () -> {
+            keyExecutedTasks.add(taskIndex);
+            latch.countDown();
+          }).setKey("Key" + k));
+        }
+      }
+
+      // Nothing is executed before start
+      Thread.sleep(100);
+      Assert.assertEquals(KEY_COUNT * TASK_COUNT_PER_KEY, queue.length());
+
+      queue.start();
+      Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+      for (List<Integer> keyExecutedTasks : executedTasks) {
+        Assert.assertEquals(TASK_COUNT_PER_KEY, keyExecutedTasks.size());
+        for (int i = 0; i < TASK_COUNT_PER_KEY; i++) {
+          Assert.assertEquals(i, (int) keyExecutedTasks.get(i));
+        }
+      }
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testBarrierTask() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::handleException, 4);
+    try {
+      AtomicInteger runningTaskCount = new AtomicInteger(0);
+      AtomicInteger completedKeyedTaskCount = new AtomicInteger(0);
+      List<Integer> completedKeyedTaskCountAtBarriers = Collections.synchronizedList(new ArrayList<>());
+      CountDownLatch latch = new CountDownLatch(1);
+
+      for (int i = 0; i < 3; i++) {
+        for (int k = 0; k < KEY_COUNT; k++) {
+          queue.queueSystemTask(new SystemTask("KeyedTask", () -> {
+            runningTaskCount.incrementAndGet();
+            Thread.sleep(5);
+            completedKeyedTaskCount.incrementAndGet();
+            runningTaskCount.decrementAndGet();
+          }).setKey("Key" + k));
+        }
+        queue.queueSystemTask(new SystemTask("BarrierTask", () -> {
+          // Barrier Task runs exclusively after all previous Tasks
+          completedKeyedTaskCountAtBarriers.add(
+              runningTaskCount.get() == 0 ? completedKeyedTaskCount.get() : -1);
+        }));
+      }
+      queue.queueSystemTask(new SystemTask("BarrierTask", latch::countDown));
+
+      queue.start();
+      Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+      Assert.assertEquals(3, completedKeyedTaskCountAtBarriers.size());
+      for (int i = 0; i < 3; i++) {
+        Assert.assertEquals(KEY_COUNT * (i + 1), (int) completedKeyedTaskCountAtBarriers.get(i));
+      }
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testDelayedTask() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::handleException, 2);
+    try {
+      CountDownLatch latch = new CountDownLatch(2);
+      queue.queueSystemTaskDelayed(new SystemTask("DelayedKeyedTask", latch::countDown).setKey("Key"), 50);
+      queue.queueSystemTaskDelayed(new SystemTask("DelayedBarrierTask", latch::countDown), 50);
+      queue.start();
+      Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testCoalescedTask() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::handleException, 2);
+    try {
+      List<Integer> executedTasks = Collections.synchronizedList(new ArrayList<>());
+      for (int i = 0; i < 10; i++) {
+        int taskIndex = i;
+        queue.queueSystemTask(new SystemTask("CoalescedTask", () -> {
+          executedTasks.add(taskIndex);
+        }).setCoalescingKey("CoalescingKey"));
+      }
+      Assert.assertEquals(1, queue.length());
+
+      // Only the pending Task can be coalesced
+      CountDownLatch startedLatch = new CountDownLatch(1);
+      CountDownLatch releaseLatch = new CountDownLatch(1);
+      queue.queueSystemTask(new SystemTask("BlockingTask", () -> {
+        startedLatch.countDown();
+        releaseLatch.await(30, TimeUnit.SECONDS);
+        executedTasks.add(10);
+      }).setCoalescingKey("BlockingCoalescingKey"));
+
+      queue.start();
+      Assert.assertTrue(startedLatch.await(30, TimeUnit.SECONDS));
+      queue.queueSystemTask(new SystemTask("BlockingTask", () -> {
+        executedTasks.add(11);
+      }).setCoalescingKey("BlockingCoalescingKey"));
+      releaseLatch.countDown();
+
+      CountDownLatch latch = new CountDownLatch(1);
+      queue.queueSystemTask(new SystemTask("BarrierTask", latch::countDown));
+      Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+      Assert.assertEquals(Arrays.asList(9, 10, 11), executedTasks);
+
+      SystemTaskQueueMetrics metrics = queue.getMetrics();
+      Assert.assertEquals(9, (long) metrics.getCoalescedCount());
+      Assert.assertEquals(9, (long) metrics.getSystemTaskMetricses().get("CoalescedTask").getCoalescedCount());
+      Assert.assertEquals(0, (long) metrics.getSystemTaskMetricses().get("BlockingTask").getCoalescedCount());
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testTaskPriority() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::handleException, 4);
+    try {
+      List<String> executedTasks = Collections.synchronizedList(new ArrayList<>());
+      for (int i = 0; i < 3; i++) {
+        String taskName = "Normal" + i;
+        queue.queueSystemTask(new SystemTask("NormalTask", () -> executedTasks.add(taskName)));
+      }
+      for (int i = 0; i < 2; i++) {
+        String taskName = "High" + i;
+        queue.queueSystemTask(new SystemTask("HighTask", () -> executedTasks.add(taskName))
+            .setPriority(SystemTaskPriority.HIGH));
+      }
+
+      CountDownLatch latch = new CountDownLatch(1);
+      queue.queueSystemTask(new SystemTask("BarrierTask", latch::countDown));
+      queue.start();
+      Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+      Assert.assertEquals(Arrays.asList("High0", "High1", "Normal0", "Normal1", "Normal2"), executedTasks);
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testKeyedTaskAcrossPriorities() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::handleException, 4);
+    try {
+      AtomicInteger runningTaskCount = new AtomicInteger(0);
+      List<Integer> runningTaskCounts = Collections.synchronizedList(new ArrayList<>());
+      CountDownLatch startedLatch = new CountDownLatch(1);
+      CountDownLatch latch = new CountDownLatch(2);
+      queue.start();
+
+      queue.queueSystemTask(new SystemTask("NormalTask", () -> {
+        runningTaskCount.incrementAndGet();
+        startedLatch.countDown();
+        Thread.sleep(50);
+        runningTaskCount.decrementAndGet();
+        latch.countDown();
+      }).setKey("Key"));
+      Assert.assertTrue(startedLatch.await(30, TimeUnit.SECONDS));
+
+      // The HIGH Task is not executed in parallel with the running NORMAL Task with the same key
+      queue.queueSystemTask(new SystemTask("HighTask", () -> {
+        runningTaskCounts.add(runningTaskCount.get());
+        latch.countDown();
+      }).setKey("Key").setPriority(SystemTaskPriority.HIGH));
+      Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+      Assert.assertEquals(Collections.singletonList(0), runningTaskCounts);
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::handleException, 2);
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      for (int i = 0; i < 10; i++) {
+        queue.queueSystemTask(new SystemTask("SleepTask", () -> Thread.sleep(10)).setKey("Key" + i));
+      }
+      queue.queueSystemTaskDelayed(new SystemTask("DelayedTask", () -> {
+      }), 50);
+
+      // Nothing is executed before start, the sleep only makes the DelayedTask overdue
+      // and the queued Tasks wait measurably
+      Thread.sleep(100);
+      queue.queueSystemTask(new SystemTask("BarrierTask", latch::countDown));
+      queue.start();
+      Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+
+      SystemTaskQueueMetrics metrics = queue.getMetrics();
+      Assert.assertEquals("TestQueue", metrics.getQueueName());
+      Assert.assertEquals(12, (long) metrics.getQueuedCount());
+      Assert.assertEquals(12, (int) metrics.getMaxLength());
+      Assert.assertEquals(6.5f, metrics.getAverageLength(), 0.01);
+
+      SystemTaskMetrics sleepTaskMetrics = metrics.getSystemTaskMetricses().get("SleepTask");
+      Assert.assertEquals(10, (long) sleepTaskMetrics.getQueuedCount());
+      Assert.assertEquals(10, (long) sleepTaskMetrics.getExecutionTimeHistogram().getCount());
+      Assert.assertTrue(sleepTaskMetrics.getExecutionTimeHistogram().getTotalMs() >= 100);
+      Assert.assertTrue(sleepTaskMetrics.getWaitTimeHistogram().getMaxMs() >= 100);
+      Assert.assertEquals(0, (long) sleepTaskMetrics.getDelayDriftHistogram().getCount());
+
+      SystemTaskMetrics delayedTaskMetrics = metrics.getSystemTaskMetricses().get("DelayedTask");
+      Assert.assertEquals(1, (long) delayedTaskMetrics.getDelayDriftHistogram().getCount());
+      // The DelayedTask is due before the Queue is started
+      Assert.assertTrue(delayedTaskMetrics.getDelayDriftHistogram().getMaxMs() >= 30);
+    } finally {
+      queue.stop();
+    }
+  }
+
+  private Boolean handleException(Exception e) {
+    throw new AssertionError("Unexpected exception in SystemTask", e);
+  }
+}
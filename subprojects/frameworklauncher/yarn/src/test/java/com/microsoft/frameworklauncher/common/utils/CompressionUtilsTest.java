@@ -0,0 +1,66 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.CompressionCodecType;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.zip.Deflater;
+
+public class CompressionUtilsTest {
+  private static final String TASK_ROLE_NAME = "TaskRole";
+
+  @Test
+  public void testCompressionCompatibility() throws Exception {
+    byte[] bytes = YamlUtils.toBytes(TestUtils.newTaskStatuses(TASK_ROLE_NAME, 100));
+    Assert.assertFalse(CompressionUtils.isCompressed(bytes));
+    Assert.assertNull(CompressionUtils.getCodec(bytes));
+    Assert.assertArrayEquals(bytes, CompressionUtils.decompress(bytes));
+
+    // Legacy GZIP payload can be read transparently
+    byte[] legacyBytes = CompressionUtils.compress(bytes);
+    Assert.assertEquals(CompressionCodecType.GZIP, CompressionUtils.getCodec(legacyBytes));
+    Assert.assertArrayEquals(bytes, CompressionUtils.decompress(legacyBytes));
+
+    for (CompressionCodecType codec : CompressionCodecType.values()) {
+      for (int level : new int[]{Deflater.DEFAULT_COMPRESSION, Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION}) {
+        byte[] compressedBytes = CompressionUtils.compress(bytes, codec, level);
+        Assert.assertTrue(CompressionUtils.isCompressed(compressedBytes));
+        Assert.assertEquals(codec, CompressionUtils.getCodec(compressedBytes));
+        Assert.assertTrue(String.format("%s with level %s does not compress", codec, level),
+            compressedBytes.length < bytes.length);
+        Assert.assertArrayEquals(String.format("%s with level %s result and expect do not match!", codec, level),
+            bytes, CompressionUtils.decompress(compressedBytes));
+      }
+    }
+  }
+
+  @Test
+  public void testCompressionDictionary() throws Exception {
+    byte[] bytes = YamlUtils.toBytes(TestUtils.newTaskStatuses(TASK_ROLE_NAME, 1));
+    byte[] deflateBytes = CompressionUtils.compress(
+        bytes, CompressionCodecType.DEFLATE, Deflater.DEFAULT_COMPRESSION);
+    byte[] dictionaryBytes = CompressionUtils.compress(
+        bytes, CompressionCodecType.DEFLATE_DICTIONARY, Deflater.DEFAULT_COMPRESSION);
+
+    // The dictionary helps most on small payloads
+    Assert.assertTrue(dictionaryBytes.length < deflateBytes.length);
+    Assert.assertArrayEquals(bytes, CompressionUtils.decompress(dictionaryBytes));
+  }
+}
@@ -0,0 +1,163 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.LoadingCacheMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadingCacheTest {
+  @Test
+  public void testSizeBoundAndInvalidation() throws Exception {
+    AtomicInteger loadCount = new AtomicInteger(0);
+    LoadingCache<String, String> cache = new LoadingCache<>("TestCache", 2, 60000, key -> {
+      loadCount.incrementAndGet();
+      return key + loadCount.get();
+    });
+
+    Assert.assertEquals("a1", cache.get("a"));
+    Assert.assertEquals("b2", cache.get("b"));
+    Assert.assertEquals("a1", cache.get("a"));
+    // b is the least recently used one, so it is evicted
+    Assert.assertEquals("c3", cache.get("c"));
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals("a1", cache.get("a"));
+    Assert.assertEquals("b4", cache.get("b"));
+
+    cache.invalidate("b");
+    Assert.assertEquals("b5", cache.get("b"));
+    cache.invalidateAll();
+    Assert.assertEquals(0, cache.size());
+
+    LoadingCacheMetrics metrics = cache.getMetrics();
+    Assert.assertEquals(2, (long) metrics.getHitCount());
+    Assert.assertEquals(5, (long) metrics.getMissCount());
+    Assert.assertEquals(5, (long) metrics.getLoadCount());
+    Assert.assertEquals(2, (long) metrics.getEvictionCount());
+    Assert.assertEquals(3, (long) metrics.getInvalidationCount());
+  }
+
+  @Test
+  public void testExpiration() throws Exception {
+    AtomicInteger loadCount = new AtomicInteger(0);
+    LoadingCache<String, Integer> cache = new LoadingCache<>("TestCache", 10, 50,
+        key -> loadCount.incrementAndGet());
+
+    Assert.assertEquals(1, (int) cache.get("a"));
+    Thread.sleep(100);
+    Assert.assertEquals(2, (int) cache.get("a"));
+    Assert.assertEquals(1, (long) cache.getMetrics().getExpirationCount());
+  }
+
+  @Test
+  public void testSingleFlight() throws Exception {
+    AtomicInteger loadCount = new AtomicInteger(0);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    LoadingCache<String, Integer> cache = new LoadingCache<>("TestCache", 10, 60000, key -> {
+      releaseLatch.await(30, TimeUnit.SECONDS);
+      if (loadCount.incrementAndGet() == 1) {
+        throw new Exception("FirstLoadFailed");
+      }
+      return loadCount.get();
+    });
+
+    // All concurrent gets share the failed first load
+    int threadCount = 4;
+    AtomicInteger failedCount = new AtomicInteger(0);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          cache.get("a");
+        } catch (Exception e) {
+          if (e.getMessage().equals("FirstLoadFailed")) {
+            failedCount.incrementAndGet();
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    while (cache.getMetrics().getMissCount() < threadCount) {
+      Thread.sleep(10);
+    }
+    releaseLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join(30000);
+    }
+
+    Assert.assertEquals(threadCount, failedCount.get());
+    Assert.assertEquals(1, loadCount.get());
+    Assert.assertEquals(threadCount - 1, (long) cache.getMetrics().getLoadWaitCount());
+
+    // The failed load is not cached
+    Assert.assertEquals(2, (int) cache.get("a"));
+    Assert.assertEquals(2, (int) cache.get("a"));
+    Assert.assertEquals(1, (long) cache.getMetrics().getLoadFailedCount());
+  }
+
+  @Test
+  public void testLoadError() throws Exception {
+    AtomicInteger loadCount = new AtomicInteger(0);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    LoadingCache<String, Integer> cache = new LoadingCache<>("TestCache", 10, 60000, key -> {
+      releaseLatch.await(30, TimeUnit.SECONDS);
+      if (loadCount.incrementAndGet() == 1) {
+        throw new AssertionError("FirstLoadError");
+      }
+      return loadCount.get();
+    });
+
+    // The waiter of the loading also gets the Error, instead of hanging forever
+    AtomicInteger errorCount = new AtomicInteger(0);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          cache.get("a");
+        } catch (AssertionError e) {
+          errorCount.incrementAndGet();
+        } catch (Exception ignored) {
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    while (cache.getMetrics().getMissCount() < 2) {
+      Thread.sleep(10);
+    }
+    releaseLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join(30000);
+      Assert.assertFalse(thread.isAlive());
+    }
+    Assert.assertEquals(2, errorCount.get());
+
+    // The failed loading is removed, so the next get loads again
+    Assert.assertEquals(2, (int) cache.get("a"));
+    Assert.assertEquals(1, (long) cache.getMetrics().getLoadFailedCount());
+  }
+}
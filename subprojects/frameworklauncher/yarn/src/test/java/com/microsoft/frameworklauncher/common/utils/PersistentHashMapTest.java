@@ -0,0 +1,130 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+public class PersistentHashMapTest {
+  // A key whose hashCode collides with all other keys with the same bucket
+  private static class CollidingKey {
+    private final int bucket;
+    private final int id;
+
+    private CollidingKey(int bucket, int id) {
+      this.bucket = bucket;
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return bucket;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof CollidingKey)) {
+        return false;
+      }
+      CollidingKey other = (CollidingKey) obj;
+      return bucket == other.bucket && id == other.id;
+    }
+  }
+
+  @Test
+  public void testRandomOperations() {
+    Random random = new Random(123);
+    Map<Integer, Integer> expected = new HashMap<>();
+    PersistentHashMap<Integer, Integer> actual = PersistentHashMap.empty();
+
+    for (int i = 0; i < 100000; i++) {
+      // Mix small keys, to hit existing ones, with full range keys, to build deep tries
+      int key = (random.nextBoolean() ? random.nextInt(2000) : random.nextInt());
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        actual = actual.remove(key);
+      } else {
+        expected.put(key, i);
+        actual = actual.put(key, i);
+      }
+      Assert.assertEquals(expected.size(), actual.size());
+    }
+
+    for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+      Assert.assertEquals(entry.getValue(), actual.get(entry.getKey()));
+    }
+    Map<Integer, Integer> iterated = new HashMap<>();
+    actual.forEach(iterated::put);
+    Assert.assertEquals(expected, iterated);
+    Assert.assertEquals(expected.keySet(), new HashSet<>(actual.keys()));
+    Assert.assertEquals(expected.size(), actual.values().size());
+
+    for (Integer key : expected.keySet()) {
+      actual = actual.remove(key);
+    }
+    Assert.assertTrue(actual.isEmpty());
+  }
+
+  @Test
+  public void testCollidingKeys() {
+    PersistentHashMap<CollidingKey, String> map = PersistentHashMap.empty();
+    for (int bucket = 0; bucket < 3; bucket++) {
+      for (int id = 0; id < 5; id++) {
+        map = map.put(new CollidingKey(bucket, id), bucket + "-" + id);
+      }
+    }
+    Assert.assertEquals(15, map.size());
+    Assert.assertEquals("1-3", map.get(new CollidingKey(1, 3)));
+    Assert.assertNull(map.get(new CollidingKey(1, 5)));
+
+    map = map.put(new CollidingKey(1, 3), "updated");
+    Assert.assertEquals(15, map.size());
+    Assert.assertEquals("updated", map.get(new CollidingKey(1, 3)));
+
+    for (int id = 0; id < 5; id++) {
+      map = map.remove(new CollidingKey(1, id));
+    }
+    Assert.assertEquals(10, map.size());
+    Assert.assertNull(map.get(new CollidingKey(1, 0)));
+    Assert.assertEquals("2-4", map.get(new CollidingKey(2, 4)));
+  }
+
+  @Test
+  public void testOldVersionUnchanged() {
+    PersistentHashMap<String, String> v1 = PersistentHashMap.<String, String>empty().put("a", "1");
+    PersistentHashMap<String, String> v2 = v1.put("b", "2").put("a", "3");
+    PersistentHashMap<String, String> v3 = v2.remove("a");
+
+    Assert.assertEquals(1, v1.size());
+    Assert.assertEquals("1", v1.get("a"));
+    Assert.assertNull(v1.get("b"));
+    Assert.assertEquals(2, v2.size());
+    Assert.assertEquals("3", v2.get("a"));
+    Assert.assertEquals(1, v3.size());
+    Assert.assertFalse(v3.containsKey("a"));
+
+    // Unchanged writes return the same map
+    Assert.assertSame(v3, v3.remove("a"));
+    Assert.assertSame(v1, v1.put("a", v1.get("a")));
+  }
+}
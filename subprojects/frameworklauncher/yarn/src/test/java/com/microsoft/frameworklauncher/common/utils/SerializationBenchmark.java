@@ -0,0 +1,127 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import com.microsoft.frameworklauncher.zookeeperstore.EmbeddedZookeeperBenchmark;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+// Benchmark each PayloadCodecType and CompressionCodecType on the TaskStatuses and FrameworkStatus
+// payloads which are persisted in ZK, without the ZK round trips, so that the codecs can be compared alone.
+// The encoded bytes of each combination are also logged in the setup, to compare the payload sizes.
+// Run it and write the machine-readable JSON report to the given file (default SerializationBenchmark.json):
+//  mvn test-compile exec:java -Dexec.classpathScope=test \
+//    -Dexec.mainClass=com.microsoft.frameworklauncher.common.utils.SerializationBenchmark \
+//    -Dexec.args=<ReportFile>
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SerializationBenchmark {
+  private static final DefaultLogger LOGGER = new DefaultLogger(SerializationBenchmark.class);
+  private static final String FRAMEWORK_NAME = "SerializationBenchmark";
+  private static final String TASK_ROLE_NAME = "TaskRole";
+
+  public static void main(String[] args) throws Exception {
+    EmbeddedZookeeperBenchmark.run(SerializationBenchmark.class, args);
+  }
+
+  /**
+   * REGION States
+   */
+  @State(Scope.Benchmark)
+  public static class CodecState {
+    @Param({"YAML", "JSON"})
+    public PayloadCodecType payloadCodec;
+
+    @Param({"GZIP", "DEFLATE", "DEFLATE_DICTIONARY"})
+    public CompressionCodecType compressionCodec;
+
+    protected Object payload;
+    protected Class<?> payloadClass;
+    protected byte[] encodedPayload;
+
+    protected void setupPayload(Object payload) throws Exception {
+      this.payload = payload;
+      this.payloadClass = payload.getClass();
+      this.encodedPayload = encode(this, payload);
+      LOGGER.logInfo("%s encoded by %s and %s: %s bytes",
+          payloadClass.getSimpleName(), payloadCodec, compressionCodec, encodedPayload.length);
+    }
+  }
+
+  public static class TaskStatusesState extends CodecState {
+    @Param({"100", "10000"})
+    public int taskNumber;
+
+    @Setup(Level.Trial)
+    public void setupTaskStatuses() throws Exception {
+      setupPayload(TestUtils.newTaskStatuses(TASK_ROLE_NAME, taskNumber));
+    }
+  }
+
+  public static class FrameworkStatusState extends CodecState {
+    @Setup(Level.Trial)
+    public void setupFrameworkStatus() throws Exception {
+      setupPayload(TestUtils.newFrameworkStatus(FRAMEWORK_NAME));
+    }
+  }
+
+  /**
+   * REGION Benchmarks
+   */
+  @Benchmark
+  public byte[] encodeTaskStatuses(TaskStatusesState state) throws Exception {
+    return encode(state, state.payload);
+  }
+
+  @Benchmark
+  public Object decodeTaskStatuses(TaskStatusesState state) throws Exception {
+    return decode(state);
+  }
+
+  @Benchmark
+  public byte[] encodeFrameworkStatus(FrameworkStatusState state) throws Exception {
+    return encode(state, state.payload);
+  }
+
+  @Benchmark
+  public Object decodeFrameworkStatus(FrameworkStatusState state) throws Exception {
+    return decode(state);
+  }
+
+  /**
+   * REGION Helpers
+   */
+  // Same as how ZooKeeperClient encodes and decodes a payload which is large enough to be compressed
+  private static byte[] encode(CodecState state, Object payload) throws Exception {
+    byte[] serializedObj = SerializationUtils.serialize(payload, state.payloadCodec);
+    return CompressionUtils.compress(serializedObj, state.compressionCodec, Deflater.DEFAULT_COMPRESSION);
+  }
+
+  private static Object decode(CodecState state) throws Exception {
+    byte[] serializedObj = CompressionUtils.decompress(state.encodedPayload);
+    return SerializationUtils.deserialize(serializedObj, state.payloadClass);
+  }
+}
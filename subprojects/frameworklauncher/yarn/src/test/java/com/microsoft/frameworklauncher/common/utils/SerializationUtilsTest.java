@@ -0,0 +1,58 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import com.microsoft.frameworklauncher.testutils.YamlTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SerializationUtilsTest {
+  private static final String TASK_ROLE_NAME = "TaskRole";
+
+  @Test
+  public void testSerializationCompatibility() throws Exception {
+    testSerializationCompatibility(TestUtils.newTaskStatuses(TASK_ROLE_NAME, 100), TaskStatuses.class);
+    testSerializationCompatibility(YamlTestUtils.newInstance(FrameworkStatus.class), FrameworkStatus.class);
+  }
+
+  private <T> void testSerializationCompatibility(T object, Class<T> classRef) throws Exception {
+    // Legacy YAML payload can be read transparently
+    byte[] legacyBytes = YamlUtils.toBytes(object);
+    Assert.assertFalse(SerializationUtils.hasHeader(legacyBytes));
+    Assert.assertEquals(PayloadCodecType.YAML, SerializationUtils.getCodec(legacyBytes));
+    Assert.assertTrue(YamlUtils.deepEquals(object,
+        SerializationUtils.deserialize(legacyBytes, classRef)));
+
+    for (PayloadCodecType codec : PayloadCodecType.values()) {
+      byte[] bytes = SerializationUtils.serialize(object, codec);
+      Assert.assertEquals(codec, SerializationUtils.getCodec(bytes));
+      Assert.assertFalse(CompressionUtils.isCompressed(bytes));
+      Assert.assertTrue(String.format("%s: Codec %s result and expect do not match!",
+          classRef.getSimpleName(), codec),
+          YamlUtils.deepEquals(object, SerializationUtils.deserialize(bytes, classRef)));
+
+      // Compressed payload
+      byte[] compressedBytes = CompressionUtils.compress(bytes);
+      Assert.assertTrue(CompressionUtils.isCompressed(compressedBytes));
+      Assert.assertTrue(YamlUtils.deepEquals(object, SerializationUtils.deserialize(
+          CompressionUtils.decompress(compressedBytes), classRef)));
+    }
+  }
+}
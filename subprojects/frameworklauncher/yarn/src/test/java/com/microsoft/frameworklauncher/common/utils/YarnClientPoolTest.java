@@ -0,0 +1,117 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.applicationmaster.MockYarnClient;
+import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
+import org.apache.hadoop.service.Service;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.conf.YarnConfiguration;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class YarnClientPoolTest {
+  @Test
+  public void testReuseAndEviction() throws Exception {
+    YarnClientPool pool = new YarnClientPool(
+        "TestPool", new YarnConfiguration(), 1, 60000, () -> new MockYarnClient(null));
+
+    YarnClient client1 = pool.execute(null, yarnClient -> yarnClient);
+    Assert.assertSame(client1, pool.execute(null, yarnClient -> yarnClient));
+    Assert.assertTrue(client1.isInState(Service.STATE.STARTED));
+
+    // The least recently used idle YarnClient is evicted since it exceeds maxSize
+    YarnClient client2 = pool.execute("TestUser", yarnClient -> yarnClient);
+    Assert.assertNotSame(client1, client2);
+    Assert.assertTrue(client1.isInState(Service.STATE.STOPPED));
+
+    pool.close();
+    Assert.assertTrue(client2.isInState(Service.STATE.STOPPED));
+
+    YarnClientPoolMetrics metrics = pool.getMetrics();
+    Assert.assertEquals(0, (int) metrics.getSize());
+    Assert.assertEquals(3, (long) metrics.getBorrowedCount());
+    Assert.assertEquals(2, (long) metrics.getCreatedCount());
+    Assert.assertEquals(1, (long) metrics.getEvictedCount());
+  }
+
+  @Test
+  public void testIdleTimeout() throws Exception {
+    YarnClientPool pool = new YarnClientPool(
+        "TestPool", new YarnConfiguration(), 10, 50, () -> new MockYarnClient(null));
+
+    YarnClient client1 = pool.execute(null, yarnClient -> yarnClient);
+    Thread.sleep(100);
+    YarnClient client2 = pool.execute(null, yarnClient -> yarnClient);
+    Assert.assertNotSame(client1, client2);
+    Assert.assertTrue(client1.isInState(Service.STATE.STOPPED));
+    Assert.assertEquals(1, (long) pool.getMetrics().getEvictedCount());
+  }
+
+  @Test
+  public void testUnhealthyYarnClient() throws Exception {
+    YarnClientPool pool = new YarnClientPool(
+        "TestPool", new YarnConfiguration(), 10, 60000, () -> new MockYarnClient(null));
+    YarnClient client1 = pool.execute(null, yarnClient -> yarnClient);
+
+    // YarnException is returned by RM, so the YarnClient is still reused
+    try {
+      pool.execute(null, yarnClient -> {
+        throw new YarnException("TestYarnException");
+      });
+      Assert.fail();
+    } catch (YarnException ignored) {
+    }
+    Assert.assertSame(client1, pool.execute(null, yarnClient -> yarnClient));
+
+    // IllegalArgumentException and NonTransientException are not from the connection,
+    // so the YarnClient is still reused
+    try {
+      pool.execute(null, yarnClient -> {
+        throw new IllegalArgumentException("TestIllegalArgumentException");
+      });
+      Assert.fail();
+    } catch (IllegalArgumentException ignored) {
+    }
+    try {
+      pool.execute(null, yarnClient -> {
+        throw new NonTransientException("TestNonTransientException", new IOException("TestIOException"));
+      });
+      Assert.fail();
+    } catch (NonTransientException ignored) {
+    }
+    Assert.assertSame(client1, pool.execute(null, yarnClient -> yarnClient));
+    Assert.assertEquals(0, (long) pool.getMetrics().getDiscardedCount());
+
+    // IOException may be from the broken connection, so the YarnClient is discarded
+    try {
+      pool.execute(null, yarnClient -> {
+        throw new IOException("TestIOException");
+      });
+      Assert.fail();
+    } catch (IOException ignored) {
+    }
+    Assert.assertTrue(client1.isInState(Service.STATE.STOPPED));
+    Assert.assertNotSame(client1, pool.execute(null, yarnClient -> yarnClient));
+    Assert.assertEquals(1, (long) pool.getMetrics().getDiscardedCount());
+  }
+}
@@ -20,9 +20,12 @@
 import com.microsoft.frameworklauncher.common.model.FrameworkInfo;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
+import org.apache.hadoop.fs.RemoteIterator;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.TreeSet;
 
 public class MockHdfsStore extends HdfsStore {
 
@@ -35,6 +38,34 @@ protected void setupHDFSStructure() throws Exception {
     createDir(getHdfsStruct().getLauncherRootPath());
   }
 
+  @Override
+  public RemoteIterator<String> getFrameworkNamesIterator(String startAfter) throws Exception {
+    TreeSet<String> frameworkNames = new TreeSet<>();
+    String[] nodeNames = new File(getHdfsStruct().getLauncherRootPath()).list();
+    if (nodeNames == null) {
+      throw new IOException("Failed to list " + getHdfsStruct().getLauncherRootPath());
+    }
+    for (String nodeName : nodeNames) {
+      if (!nodeName.startsWith(HdfsStoreStructure.RESERVED_NAME_PREFIX) &&
+          (startAfter == null || nodeName.compareTo(startAfter) > 0)) {
+        frameworkNames.add(nodeName);
+      }
+    }
+
+    Iterator<String> frameworkNameIterator = frameworkNames.iterator();
+    return new RemoteIterator<String>() {
+      @Override
+      public boolean hasNext() {
+        return frameworkNameIterator.hasNext();
+      }
+
+      @Override
+      public String next() {
+        return frameworkNameIterator.next();
+      }
+    };
+  }
+
   @Override
   public void makeFrameworkRootDir(String frameworkName) throws Exception {
     createDir(getHdfsStruct().getFrameworkRootPath(frameworkName));
@@ -0,0 +1,172 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.LeftoverFrameworkGarbageCollectorMetrics;
+import com.microsoft.frameworklauncher.common.service.SystemTaskQueue;
+import com.microsoft.frameworklauncher.hdfsstore.MockHdfsStore;
+import com.microsoft.frameworklauncher.testutils.FeatureTestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class LeftoverFrameworkGarbageCollectorTest {
+  private static final String HDFS_ROOT_DIR =
+      FeatureTestUtils.HDFS_BASE_DIR + File.separator + LeftoverFrameworkGarbageCollectorTest.class.getSimpleName();
+
+  @Test
+  public void testResumeAfterCursor() throws Exception {
+    TestHdfsStore hdfsStore = newHdfsStore("A", "B", "C", "D", "E");
+    TestStatusManager statusManager = new TestStatusManager();
+    statusManager.frameworkNames.add("C");
+    LeftoverFrameworkGarbageCollector gc = newGC(2, hdfsStore, statusManager);
+
+    // The first round stops after 2 removals, and the second round resumes after its cursor
+    gc.gc();
+    Assert.assertEquals("B", gc.getMetrics().getCursor());
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("C", "D", "E")), getFrameworkNamesInHdfs(hdfsStore));
+    gc.gc();
+    Assert.assertEquals(Arrays.asList(null, "B"), hdfsStore.startAfters);
+    Assert.assertEquals(new TreeSet<>(Collections.singletonList("C")), getFrameworkNamesInHdfs(hdfsStore));
+
+    LeftoverFrameworkGarbageCollectorMetrics metrics = gc.getMetrics();
+    Assert.assertNull(metrics.getCursor());
+    Assert.assertEquals(5L, metrics.getScannedFrameworkCount().longValue());
+    Assert.assertEquals(4L, metrics.getRemovedFrameworkCount().longValue());
+    Assert.assertEquals(0L, metrics.getFailedFrameworkCount().longValue());
+    Assert.assertEquals(1L, metrics.getCompletedPassCount().longValue());
+
+    // A new pass starts from the beginning
+    gc.gc();
+    Assert.assertEquals(Arrays.asList(null, "B", null), hdfsStore.startAfters);
+    Assert.assertEquals(2L, gc.getMetrics().getCompletedPassCount().longValue());
+  }
+
+  @Test
+  public void testSkippedAndFailedRemovals() throws Exception {
+    TestHdfsStore hdfsStore = newHdfsStore("Failed", "Leftover", "Readded");
+    hdfsStore.failedFrameworkNames.add("Failed");
+    TestStatusManager statusManager = new TestStatusManager();
+    // Readded is added again after it is scanned by the GC, but before it is removed by the Service
+    statusManager.readdedFrameworkNames.add("Readded");
+    LeftoverFrameworkGarbageCollector gc = newGC(-1, hdfsStore, statusManager);
+
+    gc.gc();
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("Failed", "Readded")), getFrameworkNamesInHdfs(hdfsStore));
+
+    LeftoverFrameworkGarbageCollectorMetrics metrics = gc.getMetrics();
+    Assert.assertEquals(3L, metrics.getScannedFrameworkCount().longValue());
+    Assert.assertEquals(1L, metrics.getRemovedFrameworkCount().longValue());
+    Assert.assertEquals(1L, metrics.getFailedFrameworkCount().longValue());
+    Assert.assertEquals(1L, metrics.getCompletedPassCount().longValue());
+  }
+
+  private static TestHdfsStore newHdfsStore(String... frameworkNames) throws Exception {
+    FileUtils.deleteDirectory(new File(HDFS_ROOT_DIR));
+    TestHdfsStore hdfsStore = new TestHdfsStore(HDFS_ROOT_DIR);
+    for (String frameworkName : frameworkNames) {
+      hdfsStore.makeFrameworkRootDir(frameworkName);
+    }
+    return hdfsStore;
+  }
+
+  private static Set<String> getFrameworkNamesInHdfs(TestHdfsStore hdfsStore) throws Exception {
+    Set<String> frameworkNames = new TreeSet<>();
+    RemoteIterator<String> iterator = hdfsStore.getFrameworkNamesIterator(null);
+    while (iterator.hasNext()) {
+      frameworkNames.add(iterator.next());
+    }
+    return frameworkNames;
+  }
+
+  // The Service is not started, so only the SubServices which removeLeftoverFramework depends on are set.
+  private static LeftoverFrameworkGarbageCollector newGC(
+      int maxCount, TestHdfsStore hdfsStore, TestStatusManager statusManager) throws Exception {
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setFrameworkLeftoverGCMaxCount(maxCount);
+    conf.setFrameworkLeftoverGCMaxDeletesPerSec(1000);
+
+    Service service = new Service();
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", e -> false);
+    queue.start();
+    setField(service, "transitionFrameworkStateQueue", queue);
+    setField(service, "hdfsStore", hdfsStore);
+    setField(service, "statusManager", statusManager);
+    return new LeftoverFrameworkGarbageCollector(service, conf, hdfsStore, statusManager);
+  }
+
+  private static void setField(Service service, String fieldName, Object value) throws Exception {
+    Field field = Service.class.getDeclaredField(fieldName);
+    field.setAccessible(true);
+    field.set(service, value);
+  }
+
+  private static class TestHdfsStore extends MockHdfsStore {
+    private final List<String> startAfters = new ArrayList<>();
+    private final Set<String> failedFrameworkNames = new HashSet<>();
+
+    public TestHdfsStore(String launcherRootPath) throws Exception {
+      super(launcherRootPath);
+    }
+
+    @Override
+    public RemoteIterator<String> getFrameworkNamesIterator(String startAfter) throws Exception {
+      startAfters.add(startAfter);
+      return super.getFrameworkNamesIterator(startAfter);
+    }
+
+    @Override
+    public void removeFrameworkRoot(String frameworkName) throws Exception {
+      if (failedFrameworkNames.contains(frameworkName)) {
+        throw new Exception("Failed to remove " + frameworkName);
+      }
+      super.removeFrameworkRoot(frameworkName);
+    }
+  }
+
+  private static class TestStatusManager extends StatusManager {
+    private final Set<String> frameworkNames = new HashSet<>();
+    // The Frameworks which do not exist at the first check, but exist after that
+    private final Set<String> readdedFrameworkNames = new HashSet<>();
+
+    public TestStatusManager() {
+      super(null, null, null, null);
+    }
+
+    @Override
+    public synchronized boolean containsFramework(String frameworkName) {
+      if (readdedFrameworkNames.remove(frameworkName)) {
+        frameworkNames.add(frameworkName);
+        return false;
+      }
+      return frameworkNames.contains(frameworkName);
+    }
+  }
+}
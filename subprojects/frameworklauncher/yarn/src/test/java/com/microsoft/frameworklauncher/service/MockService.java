@@ -0,0 +1,106 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
+import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// A Service which is never started, so that its SubServices, such as RequestManager and StatusManager,
+// can be tested alone. The callbacks from the SubServices are recorded instead of driving the Frameworks.
+public class MockService extends Service {
+  private final List<Exception> exceptions = new CopyOnWriteArrayList<>();
+  private final List<FrameworkRequestsUpdate> frameworkRequestsUpdates = new CopyOnWriteArrayList<>();
+  private final List<String> removedFrameworkNames = new CopyOnWriteArrayList<>();
+  private final List<String> upgradedFrameworkNames = new CopyOnWriteArrayList<>();
+
+  public static class FrameworkRequestsUpdate {
+    private final Map<String, FrameworkRequest> frameworkRequests;
+    private final Set<String> changedFrameworkNames;
+
+    private FrameworkRequestsUpdate(
+        Map<String, FrameworkRequest> frameworkRequests, Set<String> changedFrameworkNames) {
+      this.frameworkRequests = frameworkRequests;
+      this.changedFrameworkNames = changedFrameworkNames;
+    }
+
+    public Map<String, FrameworkRequest> getFrameworkRequests() {
+      return frameworkRequests;
+    }
+
+    // Null means all Frameworks should be reconciled
+    public Set<String> getChangedFrameworkNames() {
+      return changedFrameworkNames;
+    }
+  }
+
+  // Record the Exception of the SubServices instead of stopping the process
+  @Override
+  public void onExceptionOccurred(Exception e) {
+    exceptions.add(e);
+  }
+
+  @Override
+  public void onFrameworkRequestsUpdated(
+      Map<String, FrameworkRequest> frameworkRequests, Set<String> changedFrameworkNames) {
+    frameworkRequestsUpdates.add(new FrameworkRequestsUpdate(frameworkRequests, changedFrameworkNames));
+  }
+
+  @Override
+  public void onFrameworkToRemove(FrameworkStatus frameworkStatus, boolean usedToUpgrade) {
+    if (usedToUpgrade) {
+      upgradedFrameworkNames.add(frameworkStatus.getFrameworkName());
+    } else {
+      removedFrameworkNames.add(frameworkStatus.getFrameworkName());
+    }
+  }
+
+  @Override
+  public void onFrameworkToStop(FrameworkStatus frameworkStatus) {
+  }
+
+  @Override
+  public void onStartRMResyncHandler() {
+  }
+
+  @Override
+  public void onStartTransitionFrameworkStateQueue() {
+  }
+
+  public void checkNoExceptionOccurred() throws Exception {
+    if (!exceptions.isEmpty()) {
+      throw exceptions.get(0);
+    }
+  }
+
+  public List<FrameworkRequestsUpdate> getFrameworkRequestsUpdates() {
+    return frameworkRequestsUpdates;
+  }
+
+  public List<String> getRemovedFrameworkNames() {
+    return removedFrameworkNames;
+  }
+
+  public List<String> getUpgradedFrameworkNames() {
+    return upgradedFrameworkNames;
+  }
+}
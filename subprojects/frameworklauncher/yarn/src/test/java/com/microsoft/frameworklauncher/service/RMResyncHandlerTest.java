@@ -0,0 +1,178 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.applicationmaster.MockYarnClient;
+import com.microsoft.frameworklauncher.common.exit.FrameworkExitCode;
+import com.microsoft.frameworklauncher.common.model.FrameworkState;
+import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.api.records.impl.pb.ApplicationReportPBImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+public class RMResyncHandlerTest {
+  private static final String RUNNING_APPLICATION_ID = "application_1500000000000_0001";
+  // The Application which is finished and then GCed in RM, and it cannot be got from ApplicationHistoryServer
+  private static final String LOST_APPLICATION_ID = "application_1500000000000_0002";
+
+  @Test
+  public void testLostApplicationOnlyDetectedByFullResync() throws Exception {
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setServiceRMResyncFullFrequency(3);
+    TestYarnClient yarnClient = new TestYarnClient();
+    TestStatusManager statusManager = new TestStatusManager();
+    Service service = new Service() {
+      @Override
+      public void queueResyncWithRM(int delaySec) {
+      }
+    };
+    Field field = Service.class.getDeclaredField("statusManager");
+    field.setAccessible(true);
+    field.set(service, statusManager);
+
+    RMResyncHandler rmResyncHandler = new RMResyncHandler(service, conf, yarnClient, statusManager);
+    try {
+      // The first round is full, then every 3rd round is full
+      List<Boolean> expectedFullResyncs = Arrays.asList(true, false, false, true, false);
+      for (int round = 0; round < expectedFullResyncs.size(); round++) {
+        boolean isFullResync = expectedFullResyncs.get(round);
+        yarnClient.fullResyncs.clear();
+        statusManager.lostFrameworkNames.clear();
+
+        rmResyncHandler.resyncWithRM();
+
+        String roundMessage = "Round " + round;
+        Assert.assertEquals(roundMessage, Collections.singletonList(isFullResync), yarnClient.fullResyncs);
+        Assert.assertEquals(roundMessage, Collections.singletonList(LOST_APPLICATION_ID),
+            yarnClient.gotApplicationReportIds);
+        yarnClient.gotApplicationReportIds.clear();
+        if (isFullResync) {
+          Assert.assertEquals(roundMessage, Collections.singletonList("Lost"), statusManager.lostFrameworkNames);
+        } else {
+          Assert.assertEquals(roundMessage, Collections.emptyList(), statusManager.lostFrameworkNames);
+        }
+      }
+    } finally {
+      rmResyncHandler.stop();
+    }
+  }
+
+  private static class TestYarnClient extends MockYarnClient {
+    // Whether each getApplications is full
+    private final List<Boolean> fullResyncs = new ArrayList<>();
+    private final List<String> gotApplicationReportIds = Collections.synchronizedList(new ArrayList<>());
+
+    public TestYarnClient() {
+      super(null);
+    }
+
+    @Override
+    public List<ApplicationReport> getApplications(Set<String> applicationTypes) {
+      fullResyncs.add(true);
+      return Collections.singletonList(newApplicationReport(RUNNING_APPLICATION_ID));
+    }
+
+    @Override
+    public List<ApplicationReport> getApplications(
+        Set<String> applicationTypes, EnumSet<YarnApplicationState> applicationStates) {
+      fullResyncs.add(false);
+      return Collections.singletonList(newApplicationReport(RUNNING_APPLICATION_ID));
+    }
+
+    @Override
+    public ApplicationReport getApplicationReport(ApplicationId appId) {
+      gotApplicationReportIds.add(appId.toString());
+      return null;
+    }
+
+    private static ApplicationReport newApplicationReport(String applicationId) {
+      ApplicationReport applicationReport = new ApplicationReportPBImpl();
+      applicationReport.setApplicationId(ApplicationId.fromString(applicationId));
+      applicationReport.setYarnApplicationState(YarnApplicationState.RUNNING);
+      applicationReport.setFinalApplicationStatus(FinalApplicationStatus.UNDEFINED);
+      return applicationReport;
+    }
+  }
+
+  // Both Applications are always live associated, since the transitions are only recorded.
+  private static class TestStatusManager extends StatusManager {
+    private final Map<String, FrameworkStatus> frameworkStatuses = new HashMap<>();
+    // The Frameworks which are completed as RMResyncLost
+    private final List<String> lostFrameworkNames = new ArrayList<>();
+
+    public TestStatusManager() {
+      super(null, null, null, null);
+      frameworkStatuses.put(RUNNING_APPLICATION_ID, newFrameworkStatus("Running", RUNNING_APPLICATION_ID));
+      frameworkStatuses.put(LOST_APPLICATION_ID, newFrameworkStatus("Lost", LOST_APPLICATION_ID));
+    }
+
+    @Override
+    public List<String> getLiveAssociatedApplicationIds() {
+      return new ArrayList<>(frameworkStatuses.keySet());
+    }
+
+    @Override
+    public boolean isApplicationIdLiveAssociated(String applicationId) {
+      return frameworkStatuses.containsKey(applicationId);
+    }
+
+    @Override
+    public FrameworkStatus getFrameworkStatusWithLiveAssociatedApplicationId(String applicationId) {
+      return frameworkStatuses.get(applicationId);
+    }
+
+    @Override
+    public boolean isApplicationIdAssociated(String applicationId) {
+      return frameworkStatuses.containsKey(applicationId);
+    }
+
+    @Override
+    public FrameworkStatus getFrameworkStatusWithAssociatedApplicationId(String applicationId) {
+      return frameworkStatuses.get(applicationId);
+    }
+
+    @Override
+    public void updateApplicationStatus(String frameworkName, ApplicationReport applicationReport) {
+    }
+
+    @Override
+    public void transitionFrameworkState(String frameworkName, FrameworkState dstState, FrameworkEvent event) {
+      if (dstState == FrameworkState.APPLICATION_RETRIEVING_DIAGNOSTICS) {
+        Assert.assertEquals(FrameworkExitCode.APP_RM_RESYNC_LOST.toInt(), (int) event.getApplicationExitCode());
+        lostFrameworkNames.add(frameworkName);
+      }
+    }
+
+    private static FrameworkStatus newFrameworkStatus(String frameworkName, String applicationId) {
+      FrameworkStatus frameworkStatus = new FrameworkStatus();
+      frameworkStatus.setFrameworkName(frameworkName);
+      frameworkStatus.setFrameworkVersion(0);
+      frameworkStatus.setFrameworkState(FrameworkState.APPLICATION_RUNNING);
+      frameworkStatus.setApplicationId(applicationId);
+      return frameworkStatus;
+    }
+  }
+}
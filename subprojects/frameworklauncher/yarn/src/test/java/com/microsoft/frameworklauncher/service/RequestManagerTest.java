@@ -0,0 +1,162 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.common.model.FrameworkDescriptor;
+import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.TaskRoleDescriptor;
+import com.microsoft.frameworklauncher.service.MockService.FrameworkRequestsUpdate;
+import com.microsoft.frameworklauncher.zookeeperstore.EmbeddedZookeeperBenchmark;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStoreStructure;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+// Test the FrameworkRequests pulled by watching the ZK, so it is against an embedded ZooKeeper server
+// instead of MockZooKeeperClient, which does not support watchers.
+public class RequestManagerTest {
+  private static final long WATCH_ROUND_MS = 200;
+  private static final long TIMEOUT_MS = 30000;
+
+  @Test
+  public void testWatchChangedFrameworkRequests() throws Exception {
+    EmbeddedZK zk = new EmbeddedZK();
+    zk.setupZK();
+    try {
+      ZookeeperStore zkStore = zk.getZkStore();
+      zkStore.setBucketedLayout(true);
+      zkStore.setFrameworkRequest("A", newFrameworkRequest("A", 1));
+
+      MockService service = new MockService();
+      RequestManager requestManager = new RequestManager(service, new LauncherConfiguration(), zkStore);
+      requestManager.startRequestWatcher();
+
+      // The first pull is a resync, so all Frameworks are reconciled
+      FrameworkRequestsUpdate update = watchForUpdate(requestManager, service);
+      Assert.assertNull(update.getChangedFrameworkNames());
+      assertFrameworkNames(update, "A");
+
+      // Add a Framework in a new bucket, so that the bucket set is changed
+      zkStore.setFrameworkRequest("B", newFrameworkRequest("B", 1));
+      update = watchForUpdate(requestManager, service);
+      assertChangedFrameworkNames(update, "B");
+      assertFrameworkNames(update, "A", "B");
+
+      // Add a Framework in the existing bucket, so that only the FrameworkName set of the bucket is changed
+      String frameworkNameInSameBucket = getFrameworkNameInSameBucket("B");
+      zkStore.setFrameworkRequest(frameworkNameInSameBucket, newFrameworkRequest(frameworkNameInSameBucket, 1));
+      update = watchForUpdate(requestManager, service);
+      assertChangedFrameworkNames(update, frameworkNameInSameBucket);
+      assertFrameworkNames(update, "A", "B", frameworkNameInSameBucket);
+
+      // Update a Framework
+      zkStore.setFrameworkRequest("A", newFrameworkRequest("A", 2));
+      update = watchForUpdate(requestManager, service);
+      assertChangedFrameworkNames(update, "A");
+      Assert.assertEquals(2, getTaskNumber(update.getFrameworkRequests().get("A")));
+
+      // Rewrite a Framework without any change, so it is not reconciled
+      zkStore.setFrameworkRequest("A", newFrameworkRequest("A", 2));
+      service.getFrameworkRequestsUpdates().clear();
+      requestManager.watchRequest(WATCH_ROUND_MS * 5);
+      Assert.assertTrue(service.getFrameworkRequestsUpdates().isEmpty());
+
+      // Delete a Framework
+      zkStore.deleteFrameworkRequest("B");
+      update = watchForUpdate(requestManager, service);
+      assertChangedFrameworkNames(update, "B");
+      assertFrameworkNames(update, "A", frameworkNameInSameBucket);
+
+      // The ZK connection is lost and then reconnected, so all Frameworks are resynced and reconciled
+      zk.restartZK();
+      update = watchForUpdate(requestManager, service);
+      Assert.assertNull(update.getChangedFrameworkNames());
+      assertFrameworkNames(update, "A", frameworkNameInSameBucket);
+      service.checkNoExceptionOccurred();
+    } finally {
+      zk.tearDownZK();
+    }
+  }
+
+  // Keep watching until the FrameworkRequests are updated to the Service
+  private static FrameworkRequestsUpdate watchForUpdate(
+      RequestManager requestManager, MockService service) throws Exception {
+    service.getFrameworkRequestsUpdates().clear();
+    long endTimestamp = System.currentTimeMillis() + TIMEOUT_MS;
+    while (service.getFrameworkRequestsUpdates().isEmpty()) {
+      if (System.currentTimeMillis() >= endTimestamp) {
+        Assert.fail("FrameworkRequests are not updated in " + TIMEOUT_MS + "ms");
+      }
+      requestManager.watchRequest(WATCH_ROUND_MS);
+    }
+    Assert.assertEquals(1, service.getFrameworkRequestsUpdates().size());
+    return service.getFrameworkRequestsUpdates().get(0);
+  }
+
+  private static void assertChangedFrameworkNames(FrameworkRequestsUpdate update, String... frameworkNames) {
+    Assert.assertEquals(new HashSet<>(Arrays.asList(frameworkNames)), update.getChangedFrameworkNames());
+  }
+
+  private static void assertFrameworkNames(FrameworkRequestsUpdate update, String... frameworkNames) {
+    Assert.assertEquals(new HashSet<>(Arrays.asList(frameworkNames)), update.getFrameworkRequests().keySet());
+  }
+
+  private static String getFrameworkNameInSameBucket(String frameworkName) {
+    String bucketName = ZookeeperStoreStructure.getBucketName(frameworkName);
+    for (int i = 0; ; i++) {
+      String candidate = frameworkName + i;
+      if (ZookeeperStoreStructure.getBucketName(candidate).equals(bucketName)) {
+        return candidate;
+      }
+    }
+  }
+
+  private static int getTaskNumber(FrameworkRequest frameworkRequest) {
+    return frameworkRequest.getFrameworkDescriptor().getTaskRoles().get("TaskRole").getTaskNumber();
+  }
+
+  private static FrameworkRequest newFrameworkRequest(String frameworkName, int taskNumber) {
+    TaskRoleDescriptor taskRole = new TaskRoleDescriptor();
+    taskRole.setTaskNumber(taskNumber);
+    Map<String, TaskRoleDescriptor> taskRoles = new HashMap<>();
+    taskRoles.put("TaskRole", taskRole);
+
+    FrameworkDescriptor frameworkDescriptor = new FrameworkDescriptor();
+    frameworkDescriptor.setVersion(0);
+    frameworkDescriptor.setTaskRoles(taskRoles);
+
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    return frameworkRequest;
+  }
+
+  private static class EmbeddedZK extends EmbeddedZookeeperBenchmark.ZKState {
+    private ZookeeperStore getZkStore() {
+      return zkStore;
+    }
+
+    // The ZK data is kept, but the connections are closed, so the clients reconnect.
+    private void restartZK() throws Exception {
+      zkServer.restart();
+    }
+  }
+}
@@ -0,0 +1,163 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.common.definition.FrameworkStateDefinition;
+import com.microsoft.frameworklauncher.common.model.FrameworkDescriptor;
+import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
+import com.microsoft.frameworklauncher.common.model.FrameworkState;
+import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.TaskRoleDescriptor;
+import com.microsoft.frameworklauncher.common.model.UserContainerExitSpec;
+import com.microsoft.frameworklauncher.testutils.FeatureTestUtils;
+import com.microsoft.frameworklauncher.zookeeperstore.MockZookeeperStore;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationSubmissionContext;
+import org.apache.hadoop.yarn.api.records.impl.pb.ApplicationSubmissionContextPBImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class StatusManagerTest {
+  @Test
+  public void testUpdateChangedFrameworkRequests() throws Exception {
+    MockService service = new MockService();
+    StatusManager statusManager = newStatusManager(service);
+
+    Map<String, FrameworkRequest> frameworkRequests = new HashMap<>();
+    frameworkRequests.put("A", newFrameworkRequest("A", 1));
+    frameworkRequests.put("B", newFrameworkRequest("B", 1));
+    statusManager.updateFrameworkRequests(frameworkRequests, null);
+    assertFrameworkVersions(statusManager, "A", 1, "B", 1);
+
+    // Add
+    frameworkRequests.put("C", newFrameworkRequest("C", 1));
+    statusManager.updateFrameworkRequests(frameworkRequests, setOf("C"));
+    assertFrameworkVersions(statusManager, "A", 1, "B", 1, "C", 1);
+
+    // Update, and the unchanged Frameworks are not reconciled even if their FrameworkRequests are different
+    frameworkRequests.put("A", newFrameworkRequest("A", 2));
+    frameworkRequests.put("B", newFrameworkRequest("B", 2));
+    statusManager.updateFrameworkRequests(frameworkRequests, setOf("A"));
+    assertFrameworkVersions(statusManager, "A", 2, "B", 1, "C", 1);
+    Assert.assertEquals(Collections.singletonList("A"), service.getUpgradedFrameworkNames());
+
+    // Delete, and the changed Framework which exists in neither the Request nor the Status is ignored
+    frameworkRequests.remove("B");
+    frameworkRequests.remove("C");
+    statusManager.updateFrameworkRequests(frameworkRequests, setOf("B", "NotExisted"));
+    assertFrameworkVersions(statusManager, "A", 2, "C", 1);
+    Assert.assertEquals(Collections.singletonList("B"), service.getRemovedFrameworkNames());
+
+    // Resync, so all Frameworks are reconciled
+    frameworkRequests.put("B", newFrameworkRequest("B", 2));
+    statusManager.updateFrameworkRequests(frameworkRequests, null);
+    assertFrameworkVersions(statusManager, "A", 2, "B", 2);
+    Assert.assertEquals(Arrays.asList("B", "C"), service.getRemovedFrameworkNames());
+    Assert.assertEquals(Collections.singletonList("A"), service.getUpgradedFrameworkNames());
+    service.checkNoExceptionOccurred();
+  }
+
+  @Test
+  public void testAMPackageVersionAcrossRestart() throws Exception {
+    MockService service = new MockService();
+    ZookeeperStore zkStore = MockZookeeperStore.newInstanceWithClean(FeatureTestUtils.ZK_BASE_DIR);
+    StatusManager statusManager = newStatusManager(service, zkStore);
+    Map<String, FrameworkRequest> frameworkRequests = new HashMap<>();
+    frameworkRequests.put("A", newFrameworkRequest("A", 1));
+    statusManager.updateFrameworkRequests(frameworkRequests, null);
+
+    // The AM package is recorded once the Application is created
+    ApplicationSubmissionContext applicationContext = new ApplicationSubmissionContextPBImpl();
+    applicationContext.setApplicationId(ApplicationId.newInstance(1500000000000L, 1));
+    statusManager.transitionFrameworkState("A", FrameworkState.APPLICATION_CREATED,
+        new FrameworkEvent().setApplicationContext(applicationContext).setApplicationAMPackageVersion("V1"));
+    Assert.assertEquals("V1", statusManager.getFrameworkStatus("A").getApplicationAMPackageVersion());
+
+    // Restart, and the APPLICATION_CREATED Application is revised to APPLICATION_LAUNCHED without
+    // knowing whether it is submitted, like Service.reviseCorruptedFrameworkStates.
+    StatusManager restartedStatusManager = newStatusManager(service, zkStore);
+    Assert.assertEquals(FrameworkState.APPLICATION_CREATED,
+        restartedStatusManager.getFrameworkStatus("A").getFrameworkState());
+    restartedStatusManager.transitionFrameworkState("A", FrameworkState.APPLICATION_LAUNCHED);
+
+    // So its AM package is still known to be in use
+    FrameworkStatus frameworkStatus = restartedStatusManager.getFrameworkStatus("A");
+    Assert.assertEquals(FrameworkState.APPLICATION_LAUNCHED, frameworkStatus.getFrameworkState());
+    Assert.assertEquals("V1", frameworkStatus.getApplicationAMPackageVersion());
+    List<FrameworkStatus> liveFrameworkStatuses = restartedStatusManager.getFrameworkStatus(
+        FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES);
+    Assert.assertEquals(1, liveFrameworkStatuses.size());
+    Assert.assertEquals("V1", liveFrameworkStatuses.get(0).getApplicationAMPackageVersion());
+    service.checkNoExceptionOccurred();
+  }
+
+  // Return a recovered StatusManager without any Framework
+  private static StatusManager newStatusManager(MockService service) throws Exception {
+    ZookeeperStore zkStore = MockZookeeperStore.newInstanceWithClean(FeatureTestUtils.ZK_BASE_DIR);
+    StatusManager statusManager = newStatusManager(service, zkStore);
+    statusManager.updateFrameworkRequests(new HashMap<>(), null);
+    service.getRemovedFrameworkNames().clear();
+    return statusManager;
+  }
+
+  // Return a StatusManager recovered from the given ZookeeperStore
+  private static StatusManager newStatusManager(MockService service, ZookeeperStore zkStore) throws Exception {
+    StatusManager statusManager = new StatusManager(
+        service, new LauncherConfiguration(), new UserContainerExitSpec(), zkStore);
+    statusManager.start();
+    return statusManager;
+  }
+
+  // The expected FrameworkNames and FrameworkVersions are given in pairs
+  private static void assertFrameworkVersions(StatusManager statusManager, Object... expectedNameVersions) {
+    Map<String, Integer> expected = new HashMap<>();
+    for (int i = 0; i < expectedNameVersions.length; i += 2) {
+      expected.put((String) expectedNameVersions[i], (Integer) expectedNameVersions[i + 1]);
+    }
+
+    Map<String, Integer> actual = new HashMap<>();
+    for (String frameworkName : statusManager.getFrameworkNames()) {
+      actual.put(frameworkName, statusManager.getFrameworkStatus(frameworkName).getFrameworkVersion());
+    }
+    Assert.assertEquals(expected, actual);
+  }
+
+  private static Set<String> setOf(String... frameworkNames) {
+    return new HashSet<>(Arrays.asList(frameworkNames));
+  }
+
+  private static FrameworkRequest newFrameworkRequest(String frameworkName, int frameworkVersion) {
+    TaskRoleDescriptor taskRole = new TaskRoleDescriptor();
+    taskRole.setTaskNumber(1);
+    Map<String, TaskRoleDescriptor> taskRoles = new HashMap<>();
+    taskRoles.put("TaskRole", taskRole);
+
+    FrameworkDescriptor frameworkDescriptor = new FrameworkDescriptor();
+    frameworkDescriptor.setVersion(frameworkVersion);
+    frameworkDescriptor.setTaskRoles(taskRoles);
+
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    return frameworkRequest;
+  }
+}
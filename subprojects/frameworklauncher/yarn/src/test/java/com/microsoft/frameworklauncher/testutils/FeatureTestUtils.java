@@ -121,7 +121,8 @@ public static void waitForTaskStatusesPathCreate(String frameworkName, String ta
       throws Exception {
     ZooKeeperClient zkClient = new MockZooKeeperClient();
     ZookeeperStoreStructure zkStruct = new ZookeeperStoreStructure(FeatureTestUtils.ZK_BASE_DIR);
-    while (!zkClient.exists(zkStruct.getTaskStatusesPath(frameworkName, taskRoleName))) {
+    while (!zkClient.exists(zkStruct.getTaskStatusesPath(frameworkName, taskRoleName)) &&
+        !zkClient.exists(zkStruct.getTaskStatusesPageIndexPath(frameworkName, taskRoleName))) {
       Thread.sleep(2000);
     }
   }
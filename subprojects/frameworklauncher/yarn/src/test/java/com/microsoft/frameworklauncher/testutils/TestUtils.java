@@ -17,7 +17,15 @@
 
 package com.microsoft.frameworklauncher.testutils;
 
+import com.microsoft.frameworklauncher.common.model.ExitType;
+import com.microsoft.frameworklauncher.common.model.FrameworkState;
+import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
+import com.microsoft.frameworklauncher.common.model.TaskState;
+import com.microsoft.frameworklauncher.common.model.TaskStatus;
+import com.microsoft.frameworklauncher.common.model.TaskStatuses;
+
 import java.io.File;
+import java.util.ArrayList;
 
 public class TestUtils {
 
@@ -37,4 +45,55 @@ private static String getResourceRoot() {
     return s.substring(0, idx - 1);
   }
 
+  // The TaskStatus is filled like a running or completed Task in production,
+  // so that the payload size and the compression ratio are realistic.
+  public static TaskStatuses newTaskStatuses(String taskRoleName, int taskNumber) {
+    TaskStatuses taskStatuses = new TaskStatuses();
+    taskStatuses.setTaskRoleName(taskRoleName);
+    taskStatuses.setFrameworkVersion(0);
+    taskStatuses.setTaskStatusArray(new ArrayList<>(taskNumber));
+    long now = System.currentTimeMillis();
+    for (int taskIndex = 0; taskIndex < taskNumber; taskIndex++) {
+      TaskStatus taskStatus = new TaskStatus();
+      taskStatus.setTaskIndex(taskIndex);
+      taskStatus.setTaskRoleName(taskRoleName);
+      taskStatus.setTaskCreatedTimestamp(now - taskIndex);
+      taskStatus.setContainerId(String.format("container_e01_1500000000000_0001_01_%06d", taskIndex + 2));
+      taskStatus.setContainerHost(String.format("node%05d.cluster.local", taskIndex % 10000));
+      taskStatus.setContainerIp(String.format("10.%d.%d.%d", taskIndex / 65536 % 256, taskIndex / 256 % 256, taskIndex % 256));
+      taskStatus.setContainerPorts("http:" + (20000 + taskIndex % 10000) + ";ssh:" + (30000 + taskIndex % 10000) + ";");
+      taskStatus.setContainerGpus((long) (taskIndex % 16));
+      taskStatus.setContainerLogHttpAddress(String.format(
+          "http://node%05d.cluster.local:8042/node/containerlogs/%s/user/", taskIndex % 10000, taskStatus.getContainerId()));
+      taskStatus.setContainerConnectionLostCount(0);
+      taskStatus.setContainerIsDecommissioning(false);
+      taskStatus.setContainerLaunchedTimestamp(now - taskIndex);
+      if (taskIndex % 2 == 0) {
+        taskStatus.setTaskState(TaskState.CONTAINER_RUNNING);
+      } else {
+        taskStatus.setTaskState(TaskState.TASK_COMPLETED);
+        taskStatus.setTaskCompletedTimestamp(now);
+        taskStatus.setContainerCompletedTimestamp(now);
+        taskStatus.setContainerExitCode(0);
+        taskStatus.setContainerExitDescription("Succeeded");
+        taskStatus.setContainerExitDiagnostics("Container exited with a exit code of 0");
+        taskStatus.setContainerExitType(ExitType.SUCCEEDED);
+      }
+      taskStatuses.getTaskStatusArray().add(taskStatus);
+    }
+    return taskStatuses;
+  }
+
+  public static FrameworkStatus newFrameworkStatus(String frameworkName) {
+    FrameworkStatus frameworkStatus = new FrameworkStatus();
+    frameworkStatus.setFrameworkName(frameworkName);
+    frameworkStatus.setFrameworkVersion(0);
+    frameworkStatus.setFrameworkState(FrameworkState.APPLICATION_RUNNING);
+    frameworkStatus.setFrameworkCreatedTimestamp(System.currentTimeMillis());
+    frameworkStatus.setApplicationId("application_1500000000000_0001");
+    frameworkStatus.setApplicationProgress(0.5f);
+    frameworkStatus.setApplicationTrackingUrl("http://localhost:8088/proxy/application_1500000000000_0001/");
+    frameworkStatus.setApplicationLaunchedTimestamp(System.currentTimeMillis());
+    return frameworkStatus;
+  }
 }
@@ -0,0 +1,53 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// A WebServer which is never started, so that its SubServices, such as RequestManager, can be tested alone.
+public class MockWebServer extends WebServer {
+  private final List<Exception> exceptions = new CopyOnWriteArrayList<>();
+
+  public MockWebServer(LauncherConfiguration conf, ZookeeperStore zkStore) {
+    super(conf, zkStore, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null);
+  }
+
+  // Record the Exception of the SubServices instead of stopping the process
+  @Override
+  public void onExceptionOccurred(Exception e) {
+    exceptions.add(e);
+  }
+
+  // No RequestManager is started, so the SubServices see no FrameworkRequest
+  @Override
+  public List<FrameworkRequest> getAllFrameworkRequests() {
+    return new ArrayList<>();
+  }
+
+  public void checkNoExceptionOccurred() throws Exception {
+    if (!exceptions.isEmpty()) {
+      throw exceptions.get(0);
+    }
+  }
+}
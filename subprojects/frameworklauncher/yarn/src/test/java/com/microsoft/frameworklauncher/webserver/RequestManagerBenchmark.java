@@ -0,0 +1,132 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.zookeeperstore.EmbeddedZookeeperBenchmark;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Benchmark the concurrent Framework submissions to RequestManager against an embedded ZooKeeper server
+// (see EmbeddedZookeeperBenchmark), so that the ZK round trips are measured and the writes of different
+// Frameworks can overlap them.
+// Compare the throughput of submitDifferentFrameworks with different thread counts to see how it scales,
+// and submitSameFramework is the baseline, since the writes of the same Framework are always serialized.
+// Run it and write the machine-readable JSON report to the given file (default RequestManagerBenchmark.json):
+//  mvn test-compile exec:java -Dexec.classpathScope=test \
+//    -Dexec.mainClass=com.microsoft.frameworklauncher.webserver.RequestManagerBenchmark \
+//    -Dexec.args=<ReportFile>
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestManagerBenchmark {
+  private static final String FRAMEWORK_NAME = "RequestManagerBenchmark";
+  private static final String TASK_ROLE_NAME = "TaskRole";
+
+  public static void main(String[] args) throws Exception {
+    EmbeddedZookeeperBenchmark.run(RequestManagerBenchmark.class, args);
+  }
+
+  /**
+   * REGION States
+   */
+  public static class RequestManagerState extends EmbeddedZookeeperBenchmark.ZKState {
+    protected RequestManager requestManager;
+
+    @Setup(Level.Trial)
+    public void setupRequestManager() throws Exception {
+      LauncherConfiguration conf = new LauncherConfiguration();
+      MockWebServer webServer = new MockWebServer(conf, zkStore);
+      requestManager = new RequestManager(webServer, conf, zkStore);
+      requestManager.start();
+      webServer.checkNoExceptionOccurred();
+    }
+  }
+
+  // Each benchmark thread submits its own Framework
+  @State(Scope.Thread)
+  public static class FrameworkState {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger(0);
+
+    protected String frameworkName;
+    protected int version = 0;
+
+    @Setup(Level.Trial)
+    public void setupFramework() {
+      frameworkName = FRAMEWORK_NAME + THREAD_COUNT.getAndIncrement();
+    }
+  }
+
+  /**
+   * REGION Benchmarks
+   */
+  @Benchmark
+  @Threads(1)
+  public void submitDifferentFrameworks1Thread(RequestManagerState state, FrameworkState framework) throws Exception {
+    submitDifferentFrameworks(state, framework);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void submitDifferentFrameworks4Threads(RequestManagerState state, FrameworkState framework) throws Exception {
+    submitDifferentFrameworks(state, framework);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void submitDifferentFrameworks16Threads(RequestManagerState state, FrameworkState framework) throws Exception {
+    submitDifferentFrameworks(state, framework);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void submitSameFramework16Threads(RequestManagerState state) throws Exception {
+    state.requestManager.setFrameworkRequest(FRAMEWORK_NAME, newFrameworkRequest(FRAMEWORK_NAME, 0));
+  }
+
+  /**
+   * REGION Helpers
+   */
+  private static void submitDifferentFrameworks(
+      RequestManagerState state, FrameworkState framework) throws Exception {
+    state.requestManager.setFrameworkRequest(
+        framework.frameworkName, newFrameworkRequest(framework.frameworkName, framework.version++));
+  }
+
+  private static FrameworkRequest newFrameworkRequest(String frameworkName, int version) {
+    TaskRoleDescriptor taskRole = new TaskRoleDescriptor();
+    taskRole.setTaskNumber(1);
+    Map<String, TaskRoleDescriptor> taskRoles = new HashMap<>();
+    taskRoles.put(TASK_ROLE_NAME, taskRole);
+
+    FrameworkDescriptor frameworkDescriptor = new FrameworkDescriptor();
+    frameworkDescriptor.setVersion(version);
+    frameworkDescriptor.setTaskRoles(taskRoles);
+
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    return frameworkRequest;
+  }
+}
@@ -0,0 +1,318 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.exceptions.NotFoundException;
+import com.microsoft.frameworklauncher.common.exceptions.ThrottledRequestException;
+import com.microsoft.frameworklauncher.common.exts.CommonExts;
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.testutils.FeatureTestUtils;
+import com.microsoft.frameworklauncher.zookeeperstore.MockZookeeperStore;
+import org.apache.zookeeper.KeeperException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+public class RequestManagerTest {
+  private static final String TASK_ROLE_NAME = "TaskRole";
+  private static final long TIMEOUT_MS = 10000;
+
+  @Test
+  public void testConcurrentWritesUnderMaxTotalTaskNumber() throws Exception {
+    MockZookeeperStore zkStore = newZkStore();
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setMaxTotalTaskNumber(10);
+    RequestManager requestManager = newRequestManager(conf, zkStore);
+
+    // Delay the writes, so that the writes of different Frameworks overlap
+    zkStore.setFrameworkRequestWriteHook((frameworkName, frameworkRequest) -> Thread.sleep(20));
+    ExecutorService executor = Executors.newFixedThreadPool(20);
+    try {
+      List<Future<?>> writes = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        String frameworkName = "Framework" + i;
+        writes.add(executor.submit(() -> {
+          requestManager.setFrameworkRequest(frameworkName, newFrameworkRequest(frameworkName, 1));
+          return null;
+        }));
+      }
+
+      int throttledCount = 0;
+      for (Future<?> write : writes) {
+        try {
+          write.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+          Assert.assertTrue(e.getCause() instanceof ThrottledRequestException);
+          throttledCount++;
+        }
+      }
+      Assert.assertEquals(10, throttledCount);
+      Assert.assertEquals(10, requestManager.getFrameworkRequests(null, null).size());
+    } finally {
+      zkStore.setFrameworkRequestWriteHook(null);
+      executor.shutdownNow();
+    }
+
+    // The deleted Framework releases its TaskNumber
+    String deletedFrameworkName = requestManager.getFrameworkRequests(null, null).get(0).getFrameworkName();
+    requestManager.deleteFrameworkRequest(deletedFrameworkName);
+    requestManager.setFrameworkRequest("NewFramework", newFrameworkRequest("NewFramework", 1));
+    try {
+      requestManager.setFrameworkRequest("RejectedFramework", newFrameworkRequest("RejectedFramework", 1));
+      Assert.fail("RejectedFramework should exceed the MaxTotalTaskNumber");
+    } catch (ThrottledRequestException ignored) {
+    }
+  }
+
+  @Test
+  public void testFailedWriteReleasesReservation() throws Exception {
+    MockZookeeperStore zkStore = newZkStore();
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setMaxTotalTaskNumber(2);
+    RequestManager requestManager = newRequestManager(conf, zkStore);
+
+    zkStore.setFrameworkRequestWriteHook((frameworkName, frameworkRequest) -> {
+      if (frameworkName.equals("FailedFramework")) {
+        throw new IOException("Injected ZK write failure");
+      }
+    });
+    try {
+      try {
+        requestManager.setFrameworkRequest("FailedFramework", newFrameworkRequest("FailedFramework", 2));
+        Assert.fail("FailedFramework should fail to write");
+      } catch (IOException ignored) {
+      }
+      assertNotFound(requestManager, "FailedFramework");
+
+      // The TaskNumber of FailedFramework is not leaked
+      requestManager.setFrameworkRequest("Framework", newFrameworkRequest("Framework", 2));
+      Assert.assertEquals(2, requestManager.getFrameworkRequest("Framework").calcTotalTaskNumber());
+    } finally {
+      zkStore.setFrameworkRequestWriteHook(null);
+    }
+  }
+
+  @Test
+  public void testChildWrittenConcurrentlyWithParentStopped() throws Exception {
+    MockZookeeperStore zkStore = newZkStore();
+    RequestManager requestManager = newRequestManager(new LauncherConfiguration(), zkStore);
+    requestManager.setFrameworkRequest("Parent", newFrameworkRequest("Parent", 1));
+
+    FrameworkRequest childFrameworkRequest = newFrameworkRequest("Child", 1);
+    ParentFrameworkDescriptor parentFramework = new ParentFrameworkDescriptor();
+    parentFramework.setParentFrameworkName("Parent");
+    parentFramework.setStopOnParentStopped(true);
+    childFrameworkRequest.getFrameworkDescriptor().setParentFramework(parentFramework);
+
+    UpdateExecutionTypeRequest stopRequest = new UpdateExecutionTypeRequest();
+    stopRequest.setExecutionType(ExecutionType.STOP);
+    runConcurrentlyWithChildWrite(zkStore, requestManager, childFrameworkRequest,
+        () -> requestManager.updateExecutionType("Parent", stopRequest),
+        () -> requestManager.getFrameworkRequest("Parent").
+            getFrameworkDescriptor().getExecutionType() == ExecutionType.STOP);
+
+    Assert.assertEquals(ExecutionType.STOP,
+        requestManager.getFrameworkRequest("Child").getFrameworkDescriptor().getExecutionType());
+    Assert.assertEquals(ExecutionType.STOP,
+        zkStore.getFrameworkRequest("Child").getFrameworkDescriptor().getExecutionType());
+  }
+
+  @Test
+  public void testChildWrittenConcurrentlyWithParentDeleted() throws Exception {
+    MockZookeeperStore zkStore = newZkStore();
+    RequestManager requestManager = newRequestManager(new LauncherConfiguration(), zkStore);
+    requestManager.setFrameworkRequest("Parent", newFrameworkRequest("Parent", 1));
+
+    FrameworkRequest childFrameworkRequest = newFrameworkRequest("Child", 1);
+    ParentFrameworkDescriptor parentFramework = new ParentFrameworkDescriptor();
+    parentFramework.setParentFrameworkName("Parent");
+    parentFramework.setDeleteOnParentDeleted(true);
+    childFrameworkRequest.getFrameworkDescriptor().setParentFramework(parentFramework);
+
+    runConcurrentlyWithChildWrite(zkStore, requestManager, childFrameworkRequest,
+        () -> requestManager.deleteFrameworkRequest("Parent"),
+        () -> requestManager.getFrameworkRequests(null, null).stream().
+            noneMatch(frameworkRequest -> frameworkRequest.getFrameworkName().equals("Parent")));
+
+    assertNotFound(requestManager, "Child");
+    try {
+      zkStore.getFrameworkRequest("Child");
+      Assert.fail("Child should be deleted on ZK");
+    } catch (KeeperException.NoNodeException ignored) {
+    }
+  }
+
+  @Test
+  public void testFrameworkRequestsIndexedByUserAndClientType() throws Exception {
+    MockZookeeperStore zkStore = newZkStore();
+    LauncherConfiguration conf = new LauncherConfiguration();
+    RequestManager requestManager = newRequestManager(conf, zkStore);
+    requestManager.setFrameworkRequest("A", newFrameworkRequest("A", "UserA", LaunchClientType.CLI));
+    requestManager.setFrameworkRequest("B", newFrameworkRequest("B", "UserA", LaunchClientType.LIB));
+    requestManager.setFrameworkRequest("C", newFrameworkRequest("C", "UserB", LaunchClientType.CLI));
+    assertFrameworkNames(requestManager, null, null, "A", "B", "C");
+    assertFrameworkNames(requestManager, null, "UserA", "A", "B");
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, null, "A", "C");
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, "UserA", "A");
+    assertFrameworkNames(requestManager, LaunchClientType.WEB_UI, null);
+    assertFrameworkNames(requestManager, null, "UserC");
+
+    // The user of A is changed
+    requestManager.setFrameworkRequest("A", newFrameworkRequest("A", "UserB", LaunchClientType.CLI));
+    assertFrameworkNames(requestManager, null, "UserA", "B");
+    assertFrameworkNames(requestManager, null, "UserB", "A", "C");
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, "UserA");
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, "UserB", "A", "C");
+
+    // The LaunchClientType of B is changed
+    requestManager.setFrameworkRequest("B", newFrameworkRequest("B", "UserA", LaunchClientType.CLI));
+    assertFrameworkNames(requestManager, LaunchClientType.LIB, null);
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, null, "A", "B", "C");
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, "UserA", "B");
+
+    // C is deleted
+    requestManager.deleteFrameworkRequest("C");
+    assertFrameworkNames(requestManager, null, "UserB", "A");
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, null, "A", "B");
+    assertFrameworkNames(requestManager, LaunchClientType.CLI, "UserB", "A");
+
+    // The index is rebuilt from ZK on recover
+    MockWebServer webServer = new MockWebServer(conf, zkStore);
+    RequestManager recoveredRequestManager = new RequestManager(webServer, conf, zkStore);
+    recoveredRequestManager.start();
+    webServer.checkNoExceptionOccurred();
+    assertFrameworkNames(recoveredRequestManager, null, null, "A", "B");
+    assertFrameworkNames(recoveredRequestManager, null, "UserA", "B");
+    assertFrameworkNames(recoveredRequestManager, null, "UserB", "A");
+    assertFrameworkNames(recoveredRequestManager, LaunchClientType.CLI, null, "A", "B");
+    assertFrameworkNames(recoveredRequestManager, LaunchClientType.LIB, null);
+  }
+
+  // Write the Child, and block it after it has checked its Parent and before it is persisted,
+  // then execute the parentWrite, and unblock the Child after the Parent is changed.
+  private static void runConcurrentlyWithChildWrite(
+      MockZookeeperStore zkStore, RequestManager requestManager, FrameworkRequest childFrameworkRequest,
+      CommonExts.VoidCallable parentWrite, Callable<Boolean> isParentChanged) throws Exception {
+    CountDownLatch childWriting = new CountDownLatch(1);
+    CountDownLatch parentChanged = new CountDownLatch(1);
+    zkStore.setFrameworkRequestWriteHook((frameworkName, frameworkRequest) -> {
+      if (frameworkName.equals("Child")) {
+        childWriting.countDown();
+        Assert.assertTrue(parentChanged.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+      }
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> childWriteFuture = executor.submit(() -> {
+        requestManager.setFrameworkRequest("Child", childFrameworkRequest);
+        return null;
+      });
+      Assert.assertTrue(childWriting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+      Future<?> parentWriteFuture = executor.submit(() -> {
+        parentWrite.call();
+        return null;
+      });
+      long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+      while (!isParentChanged.call()) {
+        Assert.assertTrue(System.currentTimeMillis() < deadline);
+        Thread.sleep(10);
+      }
+      parentChanged.countDown();
+
+      childWriteFuture.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      parentWriteFuture.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    } finally {
+      zkStore.setFrameworkRequestWriteHook(null);
+      executor.shutdownNow();
+    }
+  }
+
+  private static MockZookeeperStore newZkStore() throws Exception {
+    return (MockZookeeperStore) MockZookeeperStore.newInstanceWithClean(FeatureTestUtils.ZK_BASE_DIR);
+  }
+
+  // Return a recovered RequestManager without any FrameworkRequest
+  private static RequestManager newRequestManager(
+      LauncherConfiguration conf, MockZookeeperStore zkStore) throws Exception {
+    MockWebServer webServer = new MockWebServer(conf, zkStore);
+    RequestManager cleaner = new RequestManager(webServer, conf, zkStore);
+    cleaner.start();
+    webServer.checkNoExceptionOccurred();
+    for (FrameworkRequest frameworkRequest : cleaner.getFrameworkRequests(null, null)) {
+      cleaner.deleteFrameworkRequest(frameworkRequest.getFrameworkName());
+    }
+
+    RequestManager requestManager = new RequestManager(webServer, conf, zkStore);
+    requestManager.start();
+    webServer.checkNoExceptionOccurred();
+    return requestManager;
+  }
+
+  private static FrameworkRequest newFrameworkRequest(String frameworkName, int taskNumber) {
+    TaskRoleDescriptor taskRole = new TaskRoleDescriptor();
+    taskRole.setTaskNumber(taskNumber);
+    Map<String, TaskRoleDescriptor> taskRoles = new HashMap<>();
+    taskRoles.put(TASK_ROLE_NAME, taskRole);
+
+    FrameworkDescriptor frameworkDescriptor = new FrameworkDescriptor();
+    frameworkDescriptor.setVersion(0);
+    frameworkDescriptor.setTaskRoles(taskRoles);
+
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    return frameworkRequest;
+  }
+
+  private static FrameworkRequest newFrameworkRequest(
+      String frameworkName, String userName, LaunchClientType clientType) {
+    FrameworkRequest frameworkRequest = newFrameworkRequest(frameworkName, 1);
+    frameworkRequest.getFrameworkDescriptor().setUser(UserDescriptor.newInstance(userName));
+    frameworkRequest.setLaunchClientType(clientType);
+    return frameworkRequest;
+  }
+
+  private static void assertFrameworkNames(
+      RequestManager requestManager, LaunchClientType clientType, String userName,
+      String... expectedFrameworkNames) throws Exception {
+    Set<String> frameworkNames = new HashSet<>();
+    for (FrameworkRequest frameworkRequest : requestManager.getFrameworkRequests(clientType, userName)) {
+      frameworkNames.add(frameworkRequest.getFrameworkName());
+    }
+    Assert.assertEquals(new HashSet<>(Arrays.asList(expectedFrameworkNames)), frameworkNames);
+  }
+
+  private static void assertNotFound(RequestManager requestManager, String frameworkName) throws Exception {
+    try {
+      requestManager.getFrameworkRequest(frameworkName);
+      Assert.fail(frameworkName + " should not exist");
+    } catch (NotFoundException ignored) {
+    }
+  }
+}
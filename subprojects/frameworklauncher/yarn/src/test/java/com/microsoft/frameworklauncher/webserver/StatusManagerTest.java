@@ -0,0 +1,84 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.testutils.FeatureTestUtils;
+import com.microsoft.frameworklauncher.zookeeperstore.MockZookeeperStore;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class StatusManagerTest {
+  private static final String FRAMEWORK_NAME = "Framework";
+
+  @Test
+  public void testSummarizedFrameworkInfoCache() throws Exception {
+    MockZookeeperStore zkStore = (MockZookeeperStore)
+        MockZookeeperStore.newInstanceWithClean(FeatureTestUtils.ZK_BASE_DIR);
+    FrameworkRequest frameworkRequest = newFrameworkRequest();
+    FeatureTestUtils.initZK(zkStore, frameworkRequest, FrameworkStatus.newInstance(frameworkRequest));
+
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setWebServerStatusWatchEnable(false);
+    StatusManager statusManager = new StatusManager(new MockWebServer(conf, zkStore), conf, zkStore);
+    statusManager.pullStatus();
+
+    // Reused for the same FrameworkRequest and AggregatedFrameworkStatus
+    SummarizedFrameworkInfo sFrameworkInfo = statusManager.getSummarizedFrameworkInfo(frameworkRequest);
+    Assert.assertEquals(FrameworkState.FRAMEWORK_WAITING, sFrameworkInfo.getFrameworkState());
+    Assert.assertSame(sFrameworkInfo, statusManager.getSummarizedFrameworkInfo(frameworkRequest));
+
+    // Invalidated once the FrameworkRequest instance is changed, even if its content is the same
+    FrameworkRequest newFrameworkRequest = newFrameworkRequest();
+    SummarizedFrameworkInfo newSFrameworkInfo = statusManager.getSummarizedFrameworkInfo(newFrameworkRequest);
+    Assert.assertNotSame(sFrameworkInfo, newSFrameworkInfo);
+    Assert.assertSame(newSFrameworkInfo, statusManager.getSummarizedFrameworkInfo(newFrameworkRequest));
+
+    // Invalidated once the AggregatedFrameworkStatus instance is pulled again
+    FrameworkStatus frameworkStatus = FrameworkStatus.newInstance(newFrameworkRequest);
+    frameworkStatus.setFrameworkState(FrameworkState.APPLICATION_CREATED);
+    zkStore.setFrameworkStatus(FRAMEWORK_NAME, frameworkStatus);
+    statusManager.pullStatus();
+    SummarizedFrameworkInfo pulledSFrameworkInfo = statusManager.getSummarizedFrameworkInfo(newFrameworkRequest);
+    Assert.assertNotSame(newSFrameworkInfo, pulledSFrameworkInfo);
+    Assert.assertEquals(FrameworkState.APPLICATION_CREATED, pulledSFrameworkInfo.getFrameworkState());
+    Assert.assertSame(pulledSFrameworkInfo, statusManager.getSummarizedFrameworkInfo(newFrameworkRequest));
+  }
+
+  private static FrameworkRequest newFrameworkRequest() {
+    TaskRoleDescriptor taskRole = new TaskRoleDescriptor();
+    taskRole.setTaskNumber(1);
+    ServiceDescriptor taskService = new ServiceDescriptor();
+    taskService.setResource(ResourceDescriptor.newInstance(1024, 1));
+    taskRole.setTaskService(taskService);
+    Map<String, TaskRoleDescriptor> taskRoles = new HashMap<>();
+    taskRoles.put("TaskRole", taskRole);
+
+    FrameworkDescriptor frameworkDescriptor = new FrameworkDescriptor();
+    frameworkDescriptor.setVersion(0);
+    frameworkDescriptor.setTaskRoles(taskRoles);
+
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(FRAMEWORK_NAME);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    return frameworkRequest;
+  }
+}
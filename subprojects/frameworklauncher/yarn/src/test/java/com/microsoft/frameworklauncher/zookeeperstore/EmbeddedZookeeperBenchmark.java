@@ -0,0 +1,65 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import org.apache.curator.test.TestingServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// The shared harness of the benchmarks against an embedded ZooKeeper server, instead of MockZooKeeperClient,
+// so that the ZK round trips are all measured.
+public class EmbeddedZookeeperBenchmark {
+  public static final String LAUNCHER_ROOT_PATH = "/Launcher";
+
+  // Run the benchmarks of the given class and write the machine-readable JSON report to the file
+  // given by args (default <BenchmarkClassName>.json)
+  public static void run(Class<?> benchmarkClass, String[] args) throws Exception {
+    String reportFile = (args.length > 0 ? args[0] : benchmarkClass.getSimpleName() + ".json");
+    Options options = new OptionsBuilder()
+        .include(benchmarkClass.getName())
+        .resultFormat(ResultFormatType.JSON)
+        .result(reportFile)
+        .build();
+    new Runner(options).run();
+  }
+
+  @State(Scope.Benchmark)
+  public static class ZKState {
+    protected TestingServer zkServer;
+    protected ZookeeperStore zkStore;
+    protected ZooKeeperClient zkClient;
+    protected ZookeeperStoreStructure zkStruct;
+
+    @Setup(Level.Trial)
+    public void setupZK() throws Exception {
+      zkServer = new TestingServer(true);
+      zkStore = new ZookeeperStore(zkServer.getConnectString(), LAUNCHER_ROOT_PATH);
+      zkClient = zkStore.zkClient;
+      zkStruct = zkStore.zkStruct;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownZK() throws Exception {
+      zkClient.stop();
+      zkServer.close();
+    }
+  }
+}
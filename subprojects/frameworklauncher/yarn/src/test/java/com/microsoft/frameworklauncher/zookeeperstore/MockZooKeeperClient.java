@@ -21,10 +21,12 @@
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import org.apache.log4j.Level;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -59,6 +61,24 @@ public <T> T getLargeObject(String path, Class<T> classRef) throws Exception {
     return getSmallObject(path, classRef);
   }
 
+  @Override
+  public <T> T getCachedSmallObject(String path, Class<T> classRef) throws Exception {
+    return getSmallObject(path, classRef);
+  }
+
+  // The data of the node is stored beside it, see setSmallObject
+  @Override
+  byte[] getData(String path) throws Exception {
+    File dataFile = new File(path + ".yml");
+    if (dataFile.exists()) {
+      return Files.readAllBytes(dataFile.toPath());
+    }
+    if (new File(path).exists()) {
+      return new byte[0];
+    }
+    throw new KeeperException.NoNodeException(path);
+  }
+
   @Override
   public void deleteRecursively(String path, Boolean childrenOnly) throws Exception {
     File file = new File(path);
@@ -71,9 +91,34 @@ public void deleteRecursively(String path, Boolean childrenOnly) throws Exceptio
 
     if (!childrenOnly) {
       file.delete();
+      // The data of the node is stored beside it, see setSmallObject
+      new File(path + ".yml").delete();
     }
   }
 
+  @Override
+  public void deleteInBatches(List<String> paths) throws Exception {
+    for (String path : paths) {
+      deleteRecursively(path, false);
+    }
+  }
+
+  // The ctime of the node is mocked by the last modified time of its file
+  @Override
+  public Stat getStat(String path) throws Exception {
+    File file = new File(path);
+    if (!file.exists()) {
+      file = new File(path + ".yml");
+      if (!file.exists()) {
+        return null;
+      }
+    }
+
+    Stat stat = new Stat();
+    stat.setCtime(file.lastModified());
+    return stat;
+  }
+
   @Override
   public Boolean exists(String path) throws Exception {
     return new File(path + ".yml").exists();
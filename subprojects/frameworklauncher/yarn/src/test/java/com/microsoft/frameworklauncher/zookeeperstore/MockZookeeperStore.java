@@ -18,6 +18,7 @@
 package com.microsoft.frameworklauncher.zookeeperstore;
 
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
 
 import java.io.File;
 
@@ -26,6 +27,13 @@ public class MockZookeeperStore extends ZookeeperStore {
 
   private static MockZookeeperStore instance;
 
+  // Called before each setFrameworkRequest, so that tests can delay or fail the write
+  public interface FrameworkRequestWriteHook {
+    void beforeWrite(String frameworkName, FrameworkRequest frameworkRequest) throws Exception;
+  }
+
+  private volatile FrameworkRequestWriteHook frameworkRequestWriteHook;
+
   private MockZookeeperStore(String launchRootPath, Boolean clean)
       throws Exception {
     super(
@@ -50,6 +58,20 @@ public static ZookeeperStore newInstanceWithClean(String launchRootPath)
     return instance;
   }
 
+  // Set null to remove the hook
+  public void setFrameworkRequestWriteHook(FrameworkRequestWriteHook frameworkRequestWriteHook) {
+    this.frameworkRequestWriteHook = frameworkRequestWriteHook;
+  }
+
+  @Override
+  public void setFrameworkRequest(String frameworkName, FrameworkRequest frameworkRequest) throws Exception {
+    FrameworkRequestWriteHook hook = frameworkRequestWriteHook;
+    if (hook != null) {
+      hook.beforeWrite(frameworkName, frameworkRequest);
+    }
+    super.setFrameworkRequest(frameworkName, frameworkRequest);
+  }
+
   private void setupZKStructure(String rootPath, Boolean clean)
       throws Exception {
     File file = new File(rootPath);
@@ -0,0 +1,117 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.model.CompressionCodecType;
+import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import org.apache.zookeeper.KeeperException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+public class ZooKeeperClientTest {
+  private static final String SMALL_OBJECT_PATH =
+      EmbeddedZookeeperBenchmark.LAUNCHER_ROOT_PATH + "/ZooKeeperClientTest";
+  private static final String LARGE_OBJECT_PATH =
+      EmbeddedZookeeperBenchmark.LAUNCHER_ROOT_PATH + "/ZooKeeperClientTestLargeObject";
+
+  @Test
+  public void testCachedSmallObject() throws Exception {
+    EmbeddedZookeeperBenchmark.ZKState zk = new EmbeddedZookeeperBenchmark.ZKState();
+    zk.setupZK();
+    try {
+      ZooKeeperClient zkClient = zk.zkClient;
+      zkClient.setSmallObject(SMALL_OBJECT_PATH, newFrameworkStatus(1));
+
+      // Hit, since the node is not changed
+      FrameworkStatus frameworkStatus = zkClient.getCachedSmallObject(SMALL_OBJECT_PATH, FrameworkStatus.class);
+      Assert.assertEquals(1, (int) frameworkStatus.getFrameworkVersion());
+      Assert.assertSame(frameworkStatus, zkClient.getCachedSmallObject(SMALL_OBJECT_PATH, FrameworkStatus.class));
+
+      // Miss, since the node is written, even if its data is the same
+      zkClient.setSmallObject(SMALL_OBJECT_PATH, newFrameworkStatus(1));
+      FrameworkStatus rewrittenFrameworkStatus =
+          zkClient.getCachedSmallObject(SMALL_OBJECT_PATH, FrameworkStatus.class);
+      Assert.assertNotSame(frameworkStatus, rewrittenFrameworkStatus);
+      Assert.assertEquals(1, (int) rewrittenFrameworkStatus.getFrameworkVersion());
+
+      zkClient.setSmallObject(SMALL_OBJECT_PATH, newFrameworkStatus(2));
+      FrameworkStatus updatedFrameworkStatus =
+          zkClient.getCachedSmallObject(SMALL_OBJECT_PATH, FrameworkStatus.class);
+      Assert.assertEquals(2, (int) updatedFrameworkStatus.getFrameworkVersion());
+      Assert.assertSame(updatedFrameworkStatus,
+          zkClient.getCachedSmallObject(SMALL_OBJECT_PATH, FrameworkStatus.class));
+
+      // The deleted node is not served from the cache
+      zkClient.deleteRecursively(SMALL_OBJECT_PATH);
+      try {
+        zkClient.getCachedSmallObject(SMALL_OBJECT_PATH, FrameworkStatus.class);
+        Assert.fail("Deleted node should not be got");
+      } catch (KeeperException.NoNodeException ignored) {
+      }
+
+      zkClient.setSmallObject(SMALL_OBJECT_PATH, newFrameworkStatus(2));
+      FrameworkStatus recreatedFrameworkStatus =
+          zkClient.getCachedSmallObject(SMALL_OBJECT_PATH, FrameworkStatus.class);
+      Assert.assertNotSame(updatedFrameworkStatus, recreatedFrameworkStatus);
+      Assert.assertEquals(2, (int) recreatedFrameworkStatus.getFrameworkVersion());
+    } finally {
+      zk.tearDownZK();
+    }
+  }
+
+  @Test
+  public void testReadyPayloadBytes() throws Exception {
+    EmbeddedZookeeperBenchmark.ZKState zk = new EmbeddedZookeeperBenchmark.ZKState();
+    zk.setupZK();
+    try {
+      ZooKeeperClient zkClient = zk.zkClient;
+      // Not compressed, so that it is large enough to be split into multiple PayloadParts
+      zkClient.setCompression(CompressionCodecType.GZIP, Deflater.DEFAULT_COMPRESSION, Integer.MAX_VALUE);
+      zkClient.setLargeObject(LARGE_OBJECT_PATH, TestUtils.newTaskStatuses("TaskRole", 10000));
+
+      String readyPayloadVersionsRootPath = ZooKeeperClient.getReadyPayloadVersionsPath(LARGE_OBJECT_PATH);
+      List<String> readyVersions = zkClient.getChildren(readyPayloadVersionsRootPath);
+      Assert.assertEquals(1, readyVersions.size());
+      String readyVersion = readyVersions.get(0);
+
+      // The recorded Payload bytes are the total bytes of all PayloadParts
+      String payloadRootPath = ZookeeperStoreStructure.getNodePath(LARGE_OBJECT_PATH, readyVersion);
+      List<String> partIndexes = zkClient.getChildren(payloadRootPath);
+      Assert.assertTrue(partIndexes.size() > 1);
+      long totalPartBytes = 0;
+      for (String partIndex : partIndexes) {
+        totalPartBytes += zkClient.getData(ZookeeperStoreStructure.getNodePath(payloadRootPath, partIndex)).length;
+      }
+      Assert.assertEquals(totalPartBytes, (long) zkClient.getReadyPayloadBytes(
+          ZookeeperStoreStructure.getNodePath(readyPayloadVersionsRootPath, readyVersion)));
+    } finally {
+      zk.tearDownZK();
+    }
+  }
+
+  private static FrameworkStatus newFrameworkStatus(int frameworkVersion) {
+    FrameworkStatus frameworkStatus = new FrameworkStatus();
+    frameworkStatus.setFrameworkName("ZooKeeperClientTest");
+    frameworkStatus.setFrameworkVersion(frameworkVersion);
+    return frameworkStatus;
+  }
+}
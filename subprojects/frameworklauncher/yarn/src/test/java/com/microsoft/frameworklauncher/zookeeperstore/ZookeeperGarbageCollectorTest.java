@@ -0,0 +1,144 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.ZookeeperGarbageCollectorMetrics;
+import com.microsoft.frameworklauncher.testutils.FeatureTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class ZookeeperGarbageCollectorTest {
+  private static final String LARGE_OBJECT_PATH =
+      FeatureTestUtils.ZK_BASE_DIR + File.separator + "ZookeeperGarbageCollectorTest";
+  private static final int INCOMPLETE_VERSION_GRACE_SEC = 60;
+
+  @Test
+  public void testVersionSelection() throws Exception {
+    MockZooKeeperClient zkClient = newZkClient();
+    // The Payload bytes of the first one are not recorded, like it is published by a previous release
+    createReadyVersion(zkClient, "0000000001", null);
+    createReadyVersion(zkClient, "0000000002", 200L);
+    createReadyVersion(zkClient, "0000000003", 300L);
+    // Garbage nodes which are not valid versions
+    zkClient.createPath(getReadyVersionPath("Garbage"));
+    zkClient.createPath(getVersionPath("Garbage"));
+
+    ZookeeperGarbageCollector gc = newGarbageCollector(zkClient);
+    zkClient.addPendingGCPath(LARGE_OBJECT_PATH);
+    gc.gc();
+
+    // Only the latest ReadyPayloadVersion and its Payload are kept
+    Assert.assertEquals(new HashSet<>(Arrays.asList("0000000003")),
+        new HashSet<>(zkClient.getChildren(ZooKeeperClient.getReadyPayloadVersionsPath(LARGE_OBJECT_PATH))));
+    Assert.assertEquals(new HashSet<>(Arrays.asList(ZooKeeperClient.READY_PAYLOAD_VERSIONS_NODE_NAME, "0000000003")),
+        new HashSet<>(zkClient.getChildren(LARGE_OBJECT_PATH)));
+    Assert.assertEquals(Arrays.asList("0"), zkClient.getChildren(getVersionPath("0000000003")));
+
+    ZookeeperGarbageCollectorMetrics metrics = gc.getMetrics();
+    Assert.assertEquals(1, (long) metrics.getScannedPathCount());
+    Assert.assertEquals(0, (long) metrics.getFailedPathCount());
+    // 3 ReadyPayloadVersions, 2 PayloadVersions with their PayloadParts, and 1 garbage PayloadVersion
+    Assert.assertEquals(8, (long) metrics.getReclaimedNodeCount());
+    // Only the Payload bytes of the second one are recorded and reclaimed
+    Assert.assertEquals(200, (long) metrics.getReclaimedPayloadBytes());
+    Assert.assertEquals(0, (long) metrics.getBacklogPathCount());
+
+    // Nothing to GC after the Path is GC
+    zkClient.addPendingGCPath(LARGE_OBJECT_PATH);
+    gc.gc();
+    Assert.assertEquals(8, (long) gc.getMetrics().getReclaimedNodeCount());
+    Assert.assertEquals(200, (long) gc.getMetrics().getReclaimedPayloadBytes());
+  }
+
+  @Test
+  public void testIncompleteVersionGracePeriod() throws Exception {
+    MockZooKeeperClient zkClient = newZkClient();
+    createReadyVersion(zkClient, "0000000001", 100L);
+    // Incomplete PayloadVersions newer than the latest ReadyPayloadVersion
+    long now = System.currentTimeMillis();
+    createVersion(zkClient, "0000000002", now);
+    createVersion(zkClient, "0000000003", now - INCOMPLETE_VERSION_GRACE_SEC * 2 * 1000L);
+
+    ZookeeperGarbageCollector gc = newGarbageCollector(zkClient);
+    zkClient.addPendingGCPath(LARGE_OBJECT_PATH);
+    gc.gc();
+
+    // The one within the grace period may be being written, so it is kept
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(ZooKeeperClient.READY_PAYLOAD_VERSIONS_NODE_NAME, "0000000001", "0000000002")),
+        new HashSet<>(zkClient.getChildren(LARGE_OBJECT_PATH)));
+    Assert.assertEquals(2, (long) gc.getMetrics().getReclaimedNodeCount());
+    // The bytes of the incomplete Payloads are unknown
+    Assert.assertEquals(0, (long) gc.getMetrics().getReclaimedPayloadBytes());
+
+    // It is GC after it is beyond the grace period
+    new File(getVersionPath("0000000002")).setLastModified(now - INCOMPLETE_VERSION_GRACE_SEC * 2 * 1000L);
+    zkClient.addPendingGCPath(LARGE_OBJECT_PATH);
+    gc.gc();
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(ZooKeeperClient.READY_PAYLOAD_VERSIONS_NODE_NAME, "0000000001")),
+        new HashSet<>(zkClient.getChildren(LARGE_OBJECT_PATH)));
+  }
+
+  private static MockZooKeeperClient newZkClient() throws Exception {
+    MockZooKeeperClient zkClient = new MockZooKeeperClient();
+    zkClient.deleteRecursively(LARGE_OBJECT_PATH, false);
+    zkClient.createPath(ZooKeeperClient.getReadyPayloadVersionsPath(LARGE_OBJECT_PATH));
+    return zkClient;
+  }
+
+  private static ZookeeperGarbageCollector newGarbageCollector(ZooKeeperClient zkClient) {
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setZkGCIncompleteVersionGraceSec(INCOMPLETE_VERSION_GRACE_SEC);
+    return new ZookeeperGarbageCollector(conf, zkClient, null);
+  }
+
+  // Create the PayloadVersion and its ReadyPayloadVersion which records the given Payload bytes if not null
+  private static void createReadyVersion(
+      MockZooKeeperClient zkClient, String version, Long payloadBytes) throws Exception {
+    createVersion(zkClient, version, System.currentTimeMillis());
+    zkClient.createPath(getReadyVersionPath(version));
+    if (payloadBytes != null) {
+      Files.write(Paths.get(getReadyVersionPath(version) + ".yml"),
+          payloadBytes.toString().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  // Create the PayloadVersion with one PayloadPart, and the given ctime
+  private static void createVersion(MockZooKeeperClient zkClient, String version, long ctime) {
+    zkClient.createPath(ZookeeperStoreStructure.getNodePath(getVersionPath(version), "0"));
+    new File(getVersionPath(version)).setLastModified(ctime);
+  }
+
+  private static String getVersionPath(String version) {
+    return ZookeeperStoreStructure.getNodePath(LARGE_OBJECT_PATH, version);
+  }
+
+  private static String getReadyVersionPath(String version) {
+    return ZookeeperStoreStructure.getNodePath(
+        ZooKeeperClient.getReadyPayloadVersionsPath(LARGE_OBJECT_PATH), version);
+  }
+}
@@ -0,0 +1,169 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Benchmark ZookeeperStore against an embedded ZooKeeper server, see EmbeddedZookeeperBenchmark,
+// so that the serialization, compression and ZK round trips are all measured.
+// Run it and write the machine-readable JSON report to the given file (default ZookeeperStoreBenchmark.json):
+//  mvn test-compile exec:java -Dexec.classpathScope=test \
+//    -Dexec.mainClass=com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStoreBenchmark \
+//    -Dexec.args=<ReportFile>
+// Compare the reports of different releases to find the regressions.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ZookeeperStoreBenchmark {
+  private static final String FRAMEWORK_NAME = "ZookeeperStoreBenchmark";
+  private static final String TASK_ROLE_NAME = "TaskRole";
+
+  public static void main(String[] args) throws Exception {
+    EmbeddedZookeeperBenchmark.run(ZookeeperStoreBenchmark.class, args);
+  }
+
+  /**
+   * REGION States
+   */
+  public static class ZKStoreState extends EmbeddedZookeeperBenchmark.ZKState {
+    @Setup(Level.Trial)
+    public void setupLauncherStatus() throws Exception {
+      zkStore.setLauncherStatus(new LauncherStatus());
+    }
+  }
+
+  public static class SmallObjectState extends ZKStoreState {
+    protected FrameworkStatus frameworkStatus;
+    protected String path;
+
+    @Setup(Level.Trial)
+    public void setupSmallObject() throws Exception {
+      frameworkStatus = TestUtils.newFrameworkStatus(FRAMEWORK_NAME);
+      path = zkStruct.getFrameworkStatusPath(FRAMEWORK_NAME);
+      zkClient.setSmallObject(path, frameworkStatus);
+    }
+  }
+
+  public static class LargeObjectState extends ZKStoreState {
+    @Param({"1000", "10000", "100000"})
+    public int taskNumber;
+
+    protected TaskStatuses taskStatuses;
+    protected String path;
+
+    @Setup(Level.Trial)
+    public void setupLargeObject() throws Exception {
+      taskStatuses = TestUtils.newTaskStatuses(TASK_ROLE_NAME, taskNumber);
+      zkStore.setFrameworkStatus(FRAMEWORK_NAME, TestUtils.newFrameworkStatus(FRAMEWORK_NAME));
+      zkStore.setTaskRoleStatus(FRAMEWORK_NAME, TASK_ROLE_NAME, newTaskRoleStatus());
+      path = zkStruct.getTaskStatusesPath(FRAMEWORK_NAME, TASK_ROLE_NAME);
+      zkClient.setLargeObject(path, taskStatuses);
+    }
+  }
+
+  public static class LauncherState extends ZKStoreState {
+    @Param({"10", "100", "1000"})
+    public int frameworkNumber;
+
+    @Param({"100"})
+    public int taskNumber;
+
+    @Setup(Level.Trial)
+    public void setupLauncher() throws Exception {
+      zkStore.setReadParallelism(16);
+      TaskStatuses taskStatuses = TestUtils.newTaskStatuses(TASK_ROLE_NAME, taskNumber);
+      for (int i = 0; i < frameworkNumber; i++) {
+        setFramework(zkStore, FRAMEWORK_NAME + i, taskStatuses);
+      }
+    }
+  }
+
+  public static class DeleteState extends ZKStoreState {
+    @Param({"1000", "10000"})
+    public int taskNumber;
+
+    protected TaskStatuses taskStatuses;
+
+    @Setup(Level.Trial)
+    public void setupTaskStatuses() {
+      taskStatuses = TestUtils.newTaskStatuses(TASK_ROLE_NAME, taskNumber);
+    }
+
+    // Each deletion needs a new Framework to delete
+    @Setup(Level.Invocation)
+    public void setupFramework() throws Exception {
+      setFramework(zkStore, FRAMEWORK_NAME, taskStatuses);
+    }
+  }
+
+  /**
+   * REGION Benchmarks
+   */
+  @Benchmark
+  public void setSmallObject(SmallObjectState state) throws Exception {
+    state.zkClient.setSmallObject(state.path, state.frameworkStatus);
+  }
+
+  @Benchmark
+  public FrameworkStatus getSmallObject(SmallObjectState state) throws Exception {
+    return state.zkClient.getSmallObject(state.path, FrameworkStatus.class);
+  }
+
+  @Benchmark
+  public void setLargeObject(LargeObjectState state) throws Exception {
+    state.zkClient.setLargeObject(state.path, state.taskStatuses);
+  }
+
+  @Benchmark
+  public TaskStatuses getLargeObject(LargeObjectState state) throws Exception {
+    return state.zkClient.getLargeObject(state.path, TaskStatuses.class);
+  }
+
+  @Benchmark
+  public AggregatedLauncherStatus getAggregatedLauncherStatus(LauncherState state) throws Exception {
+    return state.zkStore.getAggregatedLauncherStatus();
+  }
+
+  @Benchmark
+  public void deleteRecursively(DeleteState state) throws Exception {
+    state.zkClient.deleteRecursively(state.zkStruct.getFrameworkStatusPath(FRAMEWORK_NAME));
+  }
+
+  /**
+   * REGION Helpers
+   */
+  private static void setFramework(
+      ZookeeperStore zkStore, String frameworkName, TaskStatuses taskStatuses) throws Exception {
+    zkStore.setFrameworkStatus(frameworkName, TestUtils.newFrameworkStatus(frameworkName));
+    zkStore.setTaskRoleStatus(frameworkName, TASK_ROLE_NAME, newTaskRoleStatus());
+    zkStore.setTaskStatuses(frameworkName, TASK_ROLE_NAME, taskStatuses);
+  }
+
+  private static TaskRoleStatus newTaskRoleStatus() {
+    TaskRoleStatus taskRoleStatus = new TaskRoleStatus();
+    taskRoleStatus.setTaskRoleName(TASK_ROLE_NAME);
+    taskRoleStatus.setFrameworkVersion(0);
+    return taskRoleStatus;
+  }
+}
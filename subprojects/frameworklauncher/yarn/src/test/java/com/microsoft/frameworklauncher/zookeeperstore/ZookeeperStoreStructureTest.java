@@ -0,0 +1,55 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.validation.CommonValidation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ZookeeperStoreStructureTest {
+  @Test
+  public void testBucketedLayout() {
+    ZookeeperStoreStructure legacyStruct = new ZookeeperStoreStructure("/Launcher");
+    ZookeeperStoreStructure bucketedStruct = new ZookeeperStoreStructure("/Launcher", true);
+    String bucketName = ZookeeperStoreStructure.getBucketName("Framework1");
+
+    // The bucket name is stable and never conflicts with a FrameworkName
+    Assert.assertEquals(bucketName, ZookeeperStoreStructure.getBucketName("Framework1"));
+    Assert.assertTrue(ZookeeperStoreStructure.isBucketName(bucketName));
+    Assert.assertFalse(CommonValidation.NAMING_CONVENTION_REGEX.matcher(bucketName).matches());
+
+    Assert.assertEquals("/Launcher/Statuses/Framework1/TaskRole1",
+        legacyStruct.getTaskRoleStatusPath("Framework1", "TaskRole1"));
+    Assert.assertEquals("/Launcher/Statuses/" + bucketName + "/Framework1/TaskRole1",
+        bucketedStruct.getTaskRoleStatusPath("Framework1", "TaskRole1"));
+    Assert.assertEquals("/Launcher/Requests/" + bucketName + "/Framework1",
+        bucketedStruct.getFrameworkRequestPath("Framework1"));
+    Assert.assertEquals(legacyStruct.getFrameworkStatusPath("Framework1"),
+        bucketedStruct.getLegacyStructure().getFrameworkStatusPath("Framework1"));
+
+    // The Frameworks are spread into buckets
+    Set<String> bucketNames = new HashSet<>();
+    for (int i = 0; i < 10000; i++) {
+      bucketNames.add(ZookeeperStoreStructure.getBucketName("Framework" + i));
+    }
+    Assert.assertEquals(ZookeeperStoreStructure.BUCKET_COUNT, bucketNames.size());
+  }
+}
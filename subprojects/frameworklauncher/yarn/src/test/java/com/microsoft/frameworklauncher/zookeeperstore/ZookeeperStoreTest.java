@@ -0,0 +1,121 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
+import com.microsoft.frameworklauncher.common.model.TaskState;
+import com.microsoft.frameworklauncher.common.model.TaskStatuses;
+import com.microsoft.frameworklauncher.common.model.TaskStatusesPageIndex;
+import com.microsoft.frameworklauncher.common.utils.CommonUtils;
+import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.testutils.FeatureTestUtils;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+public class ZookeeperStoreTest {
+  private static final String FRAMEWORK_NAME = "ZookeeperStoreTest";
+  private static final String TASK_ROLE_NAME = "TaskStatusesPageTest";
+
+  @Test
+  public void testTaskStatusesPages() throws Exception {
+    ZookeeperStore zkStore = MockZookeeperStore.newInstanceWithClean(FeatureTestUtils.ZK_BASE_DIR);
+    zkStore.deleteFrameworkStatus(FRAMEWORK_NAME);
+    TaskStatuses taskStatuses = TestUtils.newTaskStatuses(TASK_ROLE_NAME, 25);
+
+    // Set all pages
+    TaskStatusesPageIndex pageIndex = zkStore.setTaskStatuses(
+        FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 10, null, null);
+    Assert.assertEquals(Arrays.asList(1L, 1L, 1L), pageIndex.getPageGenerations());
+    assertTaskStatuses(zkStore, taskStatuses);
+
+    // Only set the changed page
+    taskStatuses.getTaskStatusArray().get(12).setTaskState(TaskState.TASK_COMPLETED);
+    pageIndex = zkStore.setTaskStatuses(
+        FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 10, pageIndex, new HashSet<>(Arrays.asList(12)));
+    Assert.assertEquals(Arrays.asList(1L, 2L, 1L), pageIndex.getPageGenerations());
+    assertTaskStatuses(zkStore, taskStatuses);
+
+    // Decrease TaskNumber
+    taskStatuses.getTaskStatusArray().subList(15, 25).clear();
+    pageIndex = zkStore.setTaskStatuses(
+        FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 10, pageIndex, new HashSet<>());
+    Assert.assertEquals(Arrays.asList(1L, 3L), pageIndex.getPageGenerations());
+    assertTaskStatuses(zkStore, taskStatuses);
+
+    // Increase TaskNumber
+    taskStatuses.getTaskStatusArray().addAll(TestUtils.newTaskStatuses(TASK_ROLE_NAME, 30).getTaskStatusArray().subList(15, 30));
+    pageIndex = zkStore.setTaskStatuses(
+        FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 10, pageIndex, new HashSet<>());
+    Assert.assertEquals(Arrays.asList(1L, 4L, 4L), pageIndex.getPageGenerations());
+    assertTaskStatuses(zkStore, taskStatuses);
+
+    // Set all pages again after the PageSize changed
+    pageIndex = zkStore.setTaskStatuses(
+        FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 20, pageIndex, new HashSet<>());
+    Assert.assertEquals(Arrays.asList(5L, 5L), pageIndex.getPageGenerations());
+    assertTaskStatuses(zkStore, taskStatuses);
+  }
+
+  @Test
+  public void testParallelReads() throws Exception {
+    ZookeeperStore zkStore = MockZookeeperStore.newInstanceWithClean(FeatureTestUtils.ZK_BASE_DIR);
+    for (int i = 0; i < 20; i++) {
+      FrameworkStatus frameworkStatus = new FrameworkStatus();
+      frameworkStatus.setFrameworkName(FRAMEWORK_NAME + i);
+      frameworkStatus.setFrameworkVersion(i);
+      zkStore.setFrameworkStatus(FRAMEWORK_NAME + i, frameworkStatus);
+    }
+    String corruptedFrameworkName = FRAMEWORK_NAME + "Corrupted";
+    CommonUtils.writeFile(zkStore.zkStruct.getFrameworkStatusPath(corruptedFrameworkName) + ".yml", "corrupted: [");
+
+    try {
+      Map<String, FrameworkStatus> expected = zkStore.getAllFrameworkStatuses();
+      zkStore.setReadParallelism(8);
+      Map<String, FrameworkStatus> actual = zkStore.getAllFrameworkStatuses();
+
+      Assert.assertEquals(expected.keySet(), actual.keySet());
+      Assert.assertTrue(YamlUtils.deepEquals(expected, actual));
+      for (int i = 0; i < 20; i++) {
+        Assert.assertEquals(i, (int) actual.get(FRAMEWORK_NAME + i).getFrameworkVersion());
+      }
+      Assert.assertTrue(actual.containsKey(corruptedFrameworkName));
+      Assert.assertNull(actual.get(corruptedFrameworkName));
+    } finally {
+      zkStore.setReadParallelism(1);
+      for (int i = 0; i < 20; i++) {
+        deleteMockFrameworkStatus(zkStore, FRAMEWORK_NAME + i);
+      }
+      deleteMockFrameworkStatus(zkStore, corruptedFrameworkName);
+    }
+  }
+
+  private static void deleteMockFrameworkStatus(ZookeeperStore zkStore, String frameworkName) throws Exception {
+    zkStore.deleteFrameworkStatus(frameworkName);
+    zkStore.zkClient.deleteRecursively(zkStore.zkStruct.getFrameworkStatusPath(frameworkName) + ".yml", false);
+  }
+
+  private static void assertTaskStatuses(ZookeeperStore zkStore, TaskStatuses expected) throws Exception {
+    TaskStatuses actual = zkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME);
+    Assert.assertTrue(YamlUtils.deepEquals(expected, actual));
+  }
+}